@@ -0,0 +1,129 @@
+package com.cafe.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cafe.dto.AdminAnalyticsDetailsResponse;
+import com.cafe.repository.AnalyticsCafeHourRepository;
+import com.cafe.repository.AnalyticsItemDayRepository;
+import com.cafe.service.impl.AnalyticsServiceImpl;
+
+/**
+ * The admin analytics details view. A synthetic order set is rolled up the way the database
+ * sums would return it, with the number of cafes and menu items growing with the order count,
+ * and the benchmark measures the ranking and conversion done in AnalyticsServiceImpl.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AnalyticsAggregationBenchmark {
+
+    private static final int CITIES = 40;
+
+    private static final int ITEMS_PER_CAFE = 20;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int orders;
+
+    private AnalyticsServiceImpl service;
+
+    @Setup
+    public void setUp() {
+        int cafes = Math.max(10, orders / 500);
+        int items = cafes * ITEMS_PER_CAFE;
+
+        long[][] byCafe = new long[cafes][4];
+        long[][] byHour = new long[24][4];
+        long[][] byCity = new long[CITIES][4];
+        long[][] byItem = new long[items][4];
+        long[] totals = new long[4];
+
+        SplittableRandom rnd = new SplittableRandom(7);
+        for (int i = 0; i < orders; i++) {
+            int cafe = rnd.nextInt(cafes);
+            int hour = 8 + rnd.nextInt(16);
+            int item = cafe * ITEMS_PER_CAFE + rnd.nextInt(ITEMS_PER_CAFE);
+            long qty = 1 + rnd.nextInt(3);
+            long paise = qty * (4_000L + rnd.nextInt(40_000));
+            boolean paid = rnd.nextInt(10) < 7;
+
+            add(byCafe[cafe], 1, paise, paid);
+            add(byHour[hour], 1, paise, paid);
+            add(byCity[cafe % CITIES], 1, paise, paid);
+            add(byItem[item], qty, paise, paid);
+            add(totals, 1, paise, paid);
+        }
+
+        List<Object[]> cafeRows = new ArrayList<>(cafes);
+        List<Object[]> cityRows = new ArrayList<>(CITIES);
+        List<Object[]> hourRows = new ArrayList<>(24);
+        List<Object[]> itemRows = new ArrayList<>(items);
+        for (int c = 0; c < cafes; c++) {
+            long[] t = byCafe[c];
+            cafeRows.add(new Object[]{(long) c + 1, "Cafe " + (c + 1), "City " + (c % CITIES), t[0], t[1], t[2], t[3]});
+        }
+        for (int c = 0; c < CITIES; c++) {
+            long[] t = byCity[c];
+            cityRows.add(new Object[]{"City " + c, t[0], t[1], t[2], t[3]});
+        }
+        for (int h = 0; h < 24; h++) {
+            long[] t = byHour[h];
+            hourRows.add(new Object[]{h, t[0], t[1], t[2], t[3]});
+        }
+        for (int i = 0; i < items; i++) {
+            long[] t = byItem[i];
+            itemRows.add(new Object[]{(long) i + 1, "Item " + (i + 1), t[0], t[1], t[2], t[3]});
+        }
+        List<Object[]> totalRows = List.<Object[]>of(new Object[]{totals[0], totals[1], totals[2], totals[3]});
+
+        AnalyticsCafeHourRepository hourly = Stubs.repository(AnalyticsCafeHourRepository.class)
+                .on("sumTotals", args -> totalRows)
+                .on("sumByCafe", args -> cafeRows)
+                .on("sumByHour", args -> hourRows)
+                .on("sumByCity", args -> cityRows)
+                .build();
+        AnalyticsItemDayRepository daily = Stubs.repository(AnalyticsItemDayRepository.class)
+                .on("sumByItem", args -> itemRows)
+                .build();
+
+        service = new AnalyticsServiceImpl();
+        Stubs.inject(service, "analyticsCafeHourRepository", hourly);
+        Stubs.inject(service, "analyticsItemDayRepository", daily);
+    }
+
+    private static void add(long[] t, long count, long paise, boolean paid) {
+        t[0] += count;
+        t[1] += paise;
+        if (paid) {
+            t[2] += count;
+            t[3] += paise;
+        }
+    }
+
+    @Benchmark
+    public AdminAnalyticsDetailsResponse allOrders() {
+        return service.getDetails(null, false);
+    }
+
+    @Benchmark
+    public AdminAnalyticsDetailsResponse paidOrders() {
+        return service.getDetails(null, true);
+    }
+}
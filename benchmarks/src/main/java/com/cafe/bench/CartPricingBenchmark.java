@@ -0,0 +1,86 @@
+package com.cafe.bench;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cafe.dto.CafeOrderItemRequest;
+import com.cafe.dto.CartQuote;
+import com.cafe.repository.MenuItemRepository;
+import com.cafe.service.impl.CartPricingServiceImpl;
+
+/**
+ * Pricing a cart against a cafe menu. The repository answers from memory, so this measures the
+ * validation, line building and paise arithmetic done for every checkout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartPricingBenchmark {
+
+    private static final int MENU_SIZE = 200;
+
+    @Param({"3", "20", "100"})
+    public int lines;
+
+    private CartPricingServiceImpl service;
+
+    private List<CafeOrderItemRequest> cart;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        Map<Long, Object[]> menu = new HashMap<>();
+        for (long id = 1; id <= MENU_SIZE; id++) {
+            long pricePaise = 4_000L + rnd.nextInt(40_000);
+            menu.put(id, new Object[]{id, "Item " + id, pricePaise, Boolean.TRUE});
+        }
+
+        MenuItemRepository items = Stubs.repository(MenuItemRepository.class)
+                .on("findPricingRows", args -> {
+                    @SuppressWarnings("unchecked")
+                    Collection<Long> ids = (Collection<Long>) args[1];
+                    List<Object[]> rows = new ArrayList<>(ids.size());
+                    for (Long id : ids) {
+                        Object[] row = menu.get(id);
+                        if (row != null) rows.add(row);
+                    }
+                    return rows;
+                })
+                .build();
+        service = new CartPricingServiceImpl();
+        Stubs.inject(service, "menuItemRepository", items);
+
+        cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            CafeOrderItemRequest line = new CafeOrderItemRequest();
+            line.setMenuItemId(1L + rnd.nextInt(MENU_SIZE));
+            line.setQty(1 + rnd.nextInt(4));
+            cart.add(line);
+        }
+    }
+
+    @Benchmark
+    public CartQuote price() {
+        return service.price(1L, cart);
+    }
+}
@@ -0,0 +1,117 @@
+package com.cafe.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.cafe.entity.Cafe;
+import com.cafe.entity.CafeBooking;
+import com.cafe.entity.CafeOrder;
+import com.cafe.repository.CafeBookingRepository;
+import com.cafe.repository.CafeOrderRepository;
+import com.cafe.repository.CafeRepository;
+import com.cafe.service.impl.AdminServiceImpl;
+
+/**
+ * The streamed XLSX cafe history export, from keyset pages through SXSSF to the zipped output,
+ * written to a discarding stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExcelExportBenchmark {
+
+    private static final long BASE_CREATED_AT = 1_750_000_000_000L;
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private AdminServiceImpl service;
+
+    @Setup
+    public void setUp() {
+        Cafe cafe = new Cafe();
+        cafe.setId(1L);
+        cafe.setCafeName("Bench Cafe");
+
+        // Newest first, one millisecond apart, so a keyset cursor maps straight to an index.
+        List<CafeOrder> orders = new ArrayList<>(rows);
+        List<CafeBooking> bookings = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            CafeOrder o = new CafeOrder();
+            o.setId((long) (rows - i));
+            o.setOrderNumber(rows - i);
+            o.setCafe(cafe);
+            o.setCreatedAt(BASE_CREATED_AT - i);
+            o.setStatus(i % 4 == 0 ? "PLACED" : "SERVED");
+            o.setCustomerUsername("customer" + (i % 997));
+            o.setCustomerName("Customer " + (i % 997));
+            o.setCustomerPhone("98" + String.format("%08d", i % 997));
+            o.setAllocatedTable("T" + (1 + i % 24));
+            o.setTotalAmountPaise(12_500L + (i % 40) * 500L);
+            orders.add(o);
+
+            CafeBooking b = new CafeBooking();
+            b.setId((long) (rows - i));
+            b.setCafe(cafe);
+            b.setCreatedAt(BASE_CREATED_AT - i);
+            b.setStatus(i % 5 == 0 ? "DENIED" : "APPROVED");
+            b.setCustomerUsername("customer" + (i % 997));
+            b.setCustomerName("Customer " + (i % 997));
+            b.setCustomerPhone("98" + String.format("%08d", i % 997));
+            b.setBookingDate("2025-06-13");
+            b.setBookingTime("19:30");
+            b.setGuests(2 + i % 6);
+            b.setAllocatedTable("T" + (1 + i % 24));
+            bookings.add(b);
+        }
+
+        CafeRepository cafes = Stubs.repository(CafeRepository.class)
+                .on("findById", args -> Optional.of(cafe))
+                .build();
+        CafeOrderRepository orderRepo = Stubs.repository(CafeOrderRepository.class)
+                .on("findByCafeIdBefore", args -> page(orders, (Long) args[1], (Pageable) args[3]))
+                .build();
+        CafeBookingRepository bookingRepo = Stubs.repository(CafeBookingRepository.class)
+                .on("findByCafeIdBefore", args -> page(bookings, (Long) args[1], (Pageable) args[3]))
+                .build();
+
+        service = new AdminServiceImpl();
+        Stubs.inject(service, "cafeRepository", cafes);
+        Stubs.inject(service, "cafeOrderRepository", orderRepo);
+        Stubs.inject(service, "cafeBookingRepository", bookingRepo);
+    }
+
+    private static <T> List<T> page(List<T> all, Long cursorCreatedAt, Pageable pageable) {
+        int from = cursorCreatedAt == Long.MAX_VALUE ? 0 : (int) (BASE_CREATED_AT - cursorCreatedAt) + 1;
+        if (from >= all.size()) return List.of();
+        return all.subList(from, Math.min(all.size(), from + pageable.getPageSize()));
+    }
+
+    @Benchmark
+    public void exportHistory() throws IOException {
+        ResponseEntity<StreamingResponseBody> res = service.exportCafeHistoryExcel(1L);
+        res.getBody().writeTo(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,74 @@
+package com.cafe.bench;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repositories so the service code runs without a database.
+ * Only the methods a benchmark registers are answered; anything else fails loudly.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    static <T> Builder<T> repository(Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    static void inject(Object target, String fieldName, Object value) {
+        Class<?> c = target.getClass();
+        while (c != null) {
+            try {
+                Field f = c.getDeclaredField(fieldName);
+                f.setAccessible(true);
+                f.set(target, value);
+                return;
+            } catch (NoSuchFieldException ex) {
+                c = c.getSuperclass();
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        throw new IllegalArgumentException("No field " + fieldName + " on " + target.getClass().getName());
+    }
+
+    static final class Builder<T> {
+
+        private final Class<T> type;
+
+        private final Map<String, Function<Object[], Object>> answers = new HashMap<>();
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        Builder<T> on(String method, Function<Object[], Object> answer) {
+            answers.put(method, answer);
+            return this;
+        }
+
+        T build() {
+            Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+                switch (method.getName()) {
+                    case "toString":
+                        return "stub " + type.getSimpleName();
+                    case "hashCode":
+                        return System.identityHashCode(self);
+                    case "equals":
+                        return self == args[0];
+                    default:
+                        Function<Object[], Object> answer = answers.get(method.getName());
+                        if (answer == null) {
+                            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                        }
+                        return answer.apply(args == null ? new Object[0] : args);
+                }
+            });
+            return type.cast(proxy);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.cafe.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cafe.entity.FunctionCapacity;
+import com.cafe.entity.FunctionType;
+import com.cafe.repository.CafeBookingRepository;
+import com.cafe.service.impl.TableAvailabilityServiceImpl;
+import com.cafe.util.TableLabels;
+
+/**
+ * Table allocation for one slot: label parsing, the occupancy bitmap built from existing
+ * allocations, and picking preferred then free tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableAllocationBenchmark {
+
+    @Param({"8", "64", "512"})
+    public int tables;
+
+    @Param({"0", "50", "90"})
+    public int occupiedPercent;
+
+    private String labelsCsv;
+
+    private FunctionCapacity capacity;
+
+    private TableAvailabilityServiceImpl service;
+
+    private String preferredCsv;
+
+    @Setup
+    public void setUp() {
+        List<String> labels = new ArrayList<>(tables);
+        for (int i = 1; i <= tables; i++) {
+            labels.add("T" + i);
+        }
+        labelsCsv = String.join(", ", labels);
+
+        capacity = new FunctionCapacity();
+        capacity.setFunctionType(FunctionType.DINE_IN);
+        capacity.setTableLabels(labelsCsv);
+        capacity.setSeatsPerTable(4);
+        capacity.setEnabled(true);
+
+        // Existing bookings hold two tables each, spread over the front of the floor.
+        int occupied = tables * occupiedPercent / 100;
+        List<String> allocations = new ArrayList<>();
+        for (int i = 0; i + 1 < occupied; i += 2) {
+            allocations.add(labels.get(i) + ", " + labels.get(i + 1));
+        }
+        preferredCsv = labels.get(0) + ", " + labels.get(tables - 1);
+
+        CafeBookingRepository bookings = Stubs.repository(CafeBookingRepository.class)
+                .on("findAllocatedTablesForSlot", args -> allocations)
+                .on("findAllocatedTablesByText", args -> allocations)
+                .build();
+        service = new TableAvailabilityServiceImpl();
+        Stubs.inject(service, "cafeBookingRepository", bookings);
+    }
+
+    @Benchmark
+    public List<String> parseDistinctCsv() {
+        return TableLabels.parseDistinctCsv(labelsCsv);
+    }
+
+    @Benchmark
+    public String allocateTwoTables() {
+        return service.allocateTables(1L, capacity, "2025-06-13", "7:30 PM", 2, preferredCsv);
+    }
+
+    @Benchmark
+    public List<String> findAvailableTables() {
+        return service.findAvailableTables(1L, capacity, "2025-06-13", "19:30");
+    }
+}
@@ -0,0 +1,329 @@
+package com.cafe.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Scripted load against a running app started with the loadtest profile (seeded data, stub
+ * payment gateway). Worker threads play anonymous browsers, staff tablets and paying customers
+ * in a fixed mix and the run ends with p50/p99 latency and throughput per endpoint.
+ *
+ * <pre>
+ * java -Dload.threads=64 -Dload.duration-seconds=120 \
+ *     -cp target/benchmarks.jar com.cafe.load.LoadScenario
+ * </pre>
+ *
+ * Settings are system properties: load.base-url, load.threads, load.duration-seconds,
+ * load.warmup-seconds, load.cafes and load.customers (must match the seeder), load.stub-secret,
+ * and load.mix as public,staff,customer weights (default 55,30,15).
+ */
+public final class LoadScenario {
+
+    private static final String[] SLOT_TIMES = {"18:00", "18:30", "19:00", "19:30", "20:00", "20:30", "21:00", "21:30"};
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    private final String baseUrl = System.getProperty("load.base-url", "http://localhost:8080");
+    private final int threads = Integer.getInteger("load.threads", 32);
+    private final int durationSeconds = Integer.getInteger("load.duration-seconds", 60);
+    private final int warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+    private final int cafes = Integer.getInteger("load.cafes", 200);
+    private final int customers = Integer.getInteger("load.customers", 2000);
+    private final String stubSecret = System.getProperty("load.stub-secret", "stub_secret");
+    private final int[] mix = parseMix(System.getProperty("load.mix", "55,30,15"));
+
+    private final List<Long> cafeIds = new ArrayList<>();
+    private final Map<Long, long[]> menus = new ConcurrentHashMap<>();
+
+    private volatile long measureFrom;
+
+    public static void main(String[] args) throws Exception {
+        new LoadScenario().run();
+    }
+
+    private void run() throws Exception {
+        discover();
+        System.out.printf("load: %d cafes discovered, %d threads, %ds warmup + %ds measured against %s%n",
+                cafeIds.size(), threads, warmupSeconds, durationSeconds, baseUrl);
+
+        long start = System.nanoTime();
+        measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                while (System.nanoTime() < end) {
+                    try {
+                        step();
+                    } catch (Exception ex) {
+                        record("client errors", 0L, 599);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(durationSeconds + warmupSeconds + 60L, TimeUnit.SECONDS);
+        report(durationSeconds);
+    }
+
+    private void discover() throws Exception {
+        HttpResponse<String> res = send("GET /api/public/cafes", get("/api/public/cafes", null));
+        if (res.statusCode() != 200) {
+            throw new IllegalStateException("Cafe listing failed with status " + res.statusCode());
+        }
+        JSONArray rows = new JSONArray(res.body());
+        for (int i = 0; i < rows.length(); i++) {
+            long id = rows.getJSONObject(i).getLong("id");
+            long[] items = loadMenu(id);
+            if (items.length > 0) {
+                cafeIds.add(id);
+                menus.put(id, items);
+            }
+        }
+        if (cafeIds.isEmpty()) {
+            throw new IllegalStateException("No cafes with available menu items; start the app with the loadtest profile");
+        }
+        recorders.clear();
+    }
+
+    private long[] loadMenu(long cafeId) throws Exception {
+        HttpResponse<String> res = send("GET /api/public/cafes/{id}/menu", get("/api/public/cafes/" + cafeId + "/menu", null));
+        if (res.statusCode() != 200) return new long[0];
+        JSONArray rows = new JSONArray(res.body());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < rows.length(); i++) {
+            JSONObject row = rows.getJSONObject(i);
+            if (row.optBoolean("available", true)) {
+                ids.add(row.getLong("id"));
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void step() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(mix[0] + mix[1] + mix[2]);
+        if (roll < mix[0]) {
+            browse(random);
+        } else if (roll < mix[0] + mix[1]) {
+            staff(random);
+        } else {
+            customer(random);
+        }
+    }
+
+    private void browse(ThreadLocalRandom random) throws Exception {
+        long cafeId = cafeIds.get(random.nextInt(cafeIds.size()));
+        switch (random.nextInt(4)) {
+            case 0 -> send("GET /api/public/cafes", get("/api/public/cafes?page=" + random.nextInt(3) + "&size=20", null));
+            case 1 -> send("GET /api/public/cafes/{id}", get("/api/public/cafes/" + cafeId, null));
+            case 2 -> send("GET /api/public/cafes/{id}/menu", get("/api/public/cafes/" + cafeId + "/menu", null));
+            default -> send("GET /api/public/cafes/{id}/available-tables", get("/api/public/cafes/" + cafeId
+                    + "/available-tables?functionType=DINE_IN&bookingDate=" + slotDate(random)
+                    + "&bookingTime=" + SLOT_TIMES[random.nextInt(SLOT_TIMES.length)]
+                    + "&guests=" + (1 + random.nextInt(6)), null));
+        }
+    }
+
+    private void staff(ThreadLocalRandom random) throws Exception {
+        int cafe = 1 + random.nextInt(cafes);
+        if (random.nextInt(3) == 0) {
+            send("GET /api/staff/bookings", get("/api/staff/bookings?limit=50", "load_waiter_" + cafe));
+            return;
+        }
+        String chef = "load_chef_" + cafe;
+        HttpResponse<String> res = send("GET /api/staff/orders", get("/api/staff/orders?limit=50", chef));
+        if (res.statusCode() != 200) return;
+        JSONArray rows = new JSONArray(res.body());
+        for (int i = 0; i < rows.length(); i++) {
+            JSONObject row = rows.getJSONObject(i);
+            String next = nextStatus(row.optString("status"));
+            if (next != null) {
+                send("POST /api/staff/orders/{id}/status", post("/api/staff/orders/" + row.getLong("id") + "/status",
+                        chef, new JSONObject().put("status", next)));
+                return;
+            }
+        }
+    }
+
+    private void customer(ThreadLocalRandom random) throws Exception {
+        int n = 1 + random.nextInt(customers);
+        String username = "load_customer_" + n;
+        long cafeId = cafeIds.get(random.nextInt(cafeIds.size()));
+        switch (random.nextInt(4)) {
+            case 0 -> send("GET /api/customer/orders", get("/api/customer/orders?limit=20", username));
+            case 1 -> send("GET /api/customer/bookings", get("/api/customer/bookings?limit=20", username));
+            case 2 -> send("POST /api/customer/cafes/{cafeId}/orders",
+                    post("/api/customer/cafes/" + cafeId + "/orders", username, cart(random, n, cafeId)));
+            default -> pay(random, n, username, cafeId);
+        }
+    }
+
+    private void pay(ThreadLocalRandom random, int n, String username, long cafeId) throws Exception {
+        JSONObject order = cart(random, n, cafeId)
+                .put("bookingDate", LocalDate.now().plusDays(random.nextInt(7)).toString())
+                .put("bookingTime", SLOT_TIMES[random.nextInt(SLOT_TIMES.length)])
+                .put("guests", 1 + random.nextInt(6))
+                .put("functionType", "DINE_IN");
+        HttpResponse<String> created = send("POST /api/customer/payment/razorpay/order",
+                post("/api/customer/payment/razorpay/order", username, order));
+        if (created.statusCode() / 100 != 2) return;
+
+        String razorpayOrderId = new JSONObject(created.body()).getString("razorpayOrderId");
+        String paymentId = "pay_load_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+        JSONObject payment = new JSONObject()
+                .put("razorpayOrderId", razorpayOrderId)
+                .put("razorpayPaymentId", paymentId)
+                .put("razorpaySignature", hmacSha256Hex(razorpayOrderId + "|" + paymentId, stubSecret));
+        send("POST /api/customer/payment/razorpay/confirm-cart-order",
+                post("/api/customer/payment/razorpay/confirm-cart-order", username,
+                        new JSONObject().put("order", order).put("payment", payment)));
+    }
+
+    private JSONObject cart(ThreadLocalRandom random, int n, long cafeId) {
+        long[] menu = menus.get(cafeId);
+        JSONArray items = new JSONArray();
+        int lines = 1 + random.nextInt(Math.min(4, menu.length));
+        for (int i = 0; i < lines; i++) {
+            items.put(new JSONObject()
+                    .put("menuItemId", menu[random.nextInt(menu.length)])
+                    .put("qty", 1 + random.nextInt(3)));
+        }
+        return new JSONObject()
+                .put("cafeId", cafeId)
+                .put("customerName", "Customer " + n)
+                .put("customerPhone", String.format("%d%d%08d", 9, 0, n))
+                .put("items", items);
+    }
+
+    private HttpRequest get(String path, String username) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (username != null) b.header("X-USERNAME", username);
+        return b.build();
+    }
+
+    private HttpRequest post(String path, String username, JSONObject body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("X-USERNAME", username)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request) throws Exception {
+        long started = System.nanoTime();
+        HttpResponse<String> res = http.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        record(endpoint, System.nanoTime() - started, res.statusCode());
+        return res;
+    }
+
+    private void record(String endpoint, long nanos, int status) {
+        if (System.nanoTime() < measureFrom) return;
+        recorders.computeIfAbsent(endpoint, k -> new Recorder()).add(nanos, status >= 400);
+    }
+
+    private void report(int seconds) {
+        System.out.printf("%n%-56s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        long total = 0;
+        for (String endpoint : recorders.keySet().stream().sorted().toList()) {
+            Recorder r = recorders.get(endpoint);
+            long[] sorted = r.sorted();
+            total += sorted.length;
+            System.out.printf("%-56s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", endpoint, sorted.length, r.errors,
+                    sorted.length / (double) seconds, millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        }
+        System.out.printf("%-56s %9d %7s %9.1f%n", "total", total, "", total / (double) seconds);
+    }
+
+    private static String nextStatus(String status) {
+        return switch (status) {
+            case "PLACED" -> "PREPARING";
+            case "PREPARING" -> "READY";
+            default -> null;
+        };
+    }
+
+    private static String slotDate(ThreadLocalRandom random) {
+        return LocalDate.now().plusDays(random.nextInt(7)).toString();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0L;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static int[] parseMix(String raw) {
+        int[] mix = Arrays.stream(raw.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        if (mix.length != 3 || mix[0] + mix[1] + mix[2] <= 0) {
+            throw new IllegalArgumentException("load.mix must be three weights: public,staff,customer");
+        }
+        return mix;
+    }
+
+    private static String hmacSha256Hex(String data, String secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to sign stub payment", ex);
+        }
+    }
+
+    private static final class Recorder {
+
+        private long[] samples = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long nanos, boolean error) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+            if (error) errors++;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
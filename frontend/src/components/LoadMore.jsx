@@ -0,0 +1,11 @@
+export default function LoadMore({ cursor, loading, onLoad }) {
+  if (!cursor) return null
+
+  return (
+    <div className="flex justify-center py-3">
+      <button type="button" className="btn-ghost" onClick={onLoad} disabled={loading}>
+        {loading ? 'Loading...' : 'Load older entries'}
+      </button>
+    </div>
+  )
+}
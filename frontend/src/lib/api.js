@@ -16,6 +16,37 @@ function ownerHeaders(username, cafeId) {
   return h
 }
 
+const PAGE_LIMIT = 200
+
+// List endpoints return one keyset page at a time and send the cursor for the next one in
+// X-Next-Cursor. Screens show the first page and fetch more on demand with appendPage.
+async function getPage(path, { params, headers } = {}) {
+  const res = await api.get(path, { params, headers })
+  return {
+    items: Array.isArray(res.data) ? res.data : [],
+    nextCursor: res.headers?.['x-next-cursor'] || null
+  }
+}
+
+// Only for lists a screen cannot work without in full, such as the owner picker.
+async function getAllPages(path, { params, headers } = {}) {
+  const all = []
+  let cursor
+  do {
+    const page = await getPage(path, { params: { ...params, limit: PAGE_LIMIT, cursor }, headers })
+    all.push(...page.items)
+    cursor = page.nextCursor
+  } while (cursor)
+  return all
+}
+
+// Adds a further page to a list, skipping rows a live update has already put there.
+export function appendPage(list, items) {
+  const prev = Array.isArray(list) ? list : []
+  const seen = new Set(prev.map((r) => r?.id))
+  return [...prev, ...(Array.isArray(items) ? items : []).filter((r) => !seen.has(r?.id))]
+}
+
 export async function registerUser(payload, documents) {
   if (documents && documents.length > 0) {
     const fd = new FormData()
@@ -54,6 +85,19 @@ export async function updateStaffMenuAvailability(username, menuItemId, availabl
   return res.data
 }
 
+export async function updateStaffMenuAvailabilityBatch(username, { itemIds, category, available }) {
+  const res = await api.put(
+    '/api/staff/menu/availability',
+    { itemIds: category ? undefined : itemIds, category: category || undefined, available },
+    {
+      headers: {
+        'X-USERNAME': username
+      }
+    }
+  )
+  return res.data
+}
+
 export async function loginUser(payload) {
   try {
     const res = await api.post('/api/auth/login', payload)
@@ -64,19 +108,16 @@ export async function loginUser(payload) {
   }
 }
 
-export async function listUsers() {
-  const res = await api.get('/api/admin/users')
-  return res.data
+export async function listUsers(page) {
+  return getPage('/api/admin/users', { params: page })
 }
 
-export async function listCafes() {
-  const res = await api.get('/api/admin/cafes')
-  return res.data
+export async function listCafes(page) {
+  return getPage('/api/admin/cafes', { params: page })
 }
 
-export async function listOwners() {
-  const res = await api.get('/api/admin/owners')
-  return res.data
+export async function listOwners(page) {
+  return getAllPages('/api/admin/owners', { params: page })
 }
 
 export async function createOwner(payload, documents) {
@@ -238,8 +279,14 @@ export async function listOwnerCafes(username) {
   return res.data
 }
 
-export async function listPublicCafes() {
-  const res = await api.get('/api/public/cafes')
+export async function listPublicCafes({ city, page, size } = {}) {
+  const res = await api.get('/api/public/cafes', {
+    params: {
+      city: city || undefined,
+      page: page ?? undefined,
+      size: size ?? undefined
+    }
+  })
   return res.data
 }
 
@@ -283,13 +330,13 @@ export async function createCustomerBooking(username, cafeId, payload) {
   return res.data
 }
 
-export async function listCustomerBookings(username) {
-  const res = await api.get('/api/customer/bookings', {
+export async function listCustomerBookings(username, page) {
+  return getPage('/api/customer/bookings', {
+    params: page,
     headers: {
       'X-USERNAME': username
     }
   })
-  return res.data
 }
 
 export async function deleteCustomerBooking(username, bookingId) {
@@ -376,13 +423,13 @@ export async function getOwnerMe(username) {
   return res.data
 }
 
-export async function listOwnerBookings(username, cafeId) {
-  const res = await api.get('/api/owner/bookings', {
+export async function listOwnerBookings(username, cafeId, page) {
+  return getPage('/api/owner/bookings', {
+    params: page,
     headers: {
       ...ownerHeaders(username, cafeId)
     }
   })
-  return res.data
 }
 
 export async function approveOwnerBooking(username, cafeId, bookingId) {
@@ -421,13 +468,13 @@ export async function deleteOwnerBooking(username, cafeId, bookingId) {
   return res.data
 }
 
-export async function listOwnerOrders(username, cafeId) {
-  const res = await api.get('/api/owner/orders', {
+export async function listOwnerOrders(username, cafeId, page) {
+  return getPage('/api/owner/orders', {
+    params: page,
     headers: {
       ...ownerHeaders(username, cafeId)
     }
   })
-  return res.data
 }
 
 export async function deleteOwnerOrder(username, cafeId, orderId) {
@@ -439,14 +486,56 @@ export async function deleteOwnerOrder(username, cafeId, orderId) {
   return res.data
 }
 
-export async function listStaffOrders(username, status) {
-  const res = await api.get('/api/staff/orders', {
-    params: status ? { status } : undefined,
+function listen(es, name, handler) {
+  if (!handler) return
+  es.addEventListener(name, (e) => {
+    try {
+      handler(JSON.parse(e.data))
+    } catch {
+      // ignore malformed frames
+    }
+  })
+}
+
+// 'menu' frames arrive whenever the cafe's menu or listing changes; refetch the menu on them.
+function openOrderStream(path, params, onEvent, onMenu) {
+  const url = new URL(path, baseURL)
+  Object.entries(params).forEach(([k, v]) => {
+    if (v != null && v !== '') url.searchParams.set(k, String(v))
+  })
+  const es = new EventSource(url.toString())
+  listen(es, 'order', onEvent)
+  listen(es, 'menu', onMenu)
+  return es
+}
+
+export function openOwnerOrderStream(username, cafeId, onEvent, onMenu) {
+  return openOrderStream('/api/owner/orders/stream', { username, cafeId }, onEvent, onMenu)
+}
+
+export function openStaffOrderStream(username, onEvent, onMenu) {
+  return openOrderStream('/api/staff/orders/stream', { username }, onEvent, onMenu)
+}
+
+export function applyOrderEvent(list, event) {
+  const prev = Array.isArray(list) ? list : []
+  if (!event || event.orderId == null) return prev
+  const rest = prev.filter((o) => o?.id !== event.orderId)
+  if (event.type !== 'UPSERT' || !event.order) return rest
+  const idx = prev.findIndex((o) => o?.id === event.orderId)
+  if (idx < 0) return [event.order, ...rest]
+  const next = [...prev]
+  next[idx] = event.order
+  return next
+}
+
+export async function listStaffOrders(username, status, page) {
+  return getPage('/api/staff/orders', {
+    params: { ...page, status: status || undefined },
     headers: {
       'X-USERNAME': username
     }
   })
-  return res.data
 }
 
 export async function updateStaffOrderStatus(username, orderId, status) {
@@ -462,13 +551,13 @@ export async function updateStaffOrderStatus(username, orderId, status) {
   return res.data
 }
 
-export async function listStaffApprovedBookings(username) {
-  const res = await api.get('/api/staff/bookings', {
+export async function listStaffApprovedBookings(username, page) {
+  return getPage('/api/staff/bookings', {
+    params: page,
     headers: {
       'X-USERNAME': username
     }
   })
-  return res.data
 }
 
 export async function serveStaffOrder(username, orderId, allocatedTable) {
@@ -484,13 +573,13 @@ export async function serveStaffOrder(username, orderId, allocatedTable) {
   return res.data
 }
 
-export async function listCustomerOrders(username) {
-  const res = await api.get('/api/customer/orders', {
+export async function listCustomerOrders(username, page) {
+  return getPage('/api/customer/orders', {
+    params: page,
     headers: {
       'X-USERNAME': username
     }
   })
-  return res.data
 }
 
 export async function deleteCustomerOrder(username, orderId) {
@@ -2,7 +2,9 @@ import { useEffect, useMemo, useState } from 'react'
 import { Link, useLocation } from 'react-router-dom'
 import { clearSession, getSession } from '../../lib/auth.js'
 import ProfilePage from './ProfilePage.jsx'
+import LoadMore from '../../components/LoadMore.jsx'
 import {
+  appendPage,
   approveUser,
   approveCafeAdmin,
   createCafeForOwner,
@@ -70,8 +72,12 @@ export default function AdminDashboard() {
   const [section, setSection] = useState('overview')
 
   const [users, setUsers] = useState([])
+  const [usersCursor, setUsersCursor] = useState(null)
+  const [usersLoadingMore, setUsersLoadingMore] = useState(false)
   const [loading, setLoading] = useState(true)
   const [cafes, setCafes] = useState([])
+  const [cafesCursor, setCafesCursor] = useState(null)
+  const [cafesLoadingMore, setCafesLoadingMore] = useState(false)
   const [cafesLoading, setCafesLoading] = useState(false)
   const [cafesError, setCafesError] = useState('')
   const [owners, setOwners] = useState([])
@@ -341,7 +347,8 @@ export default function AdminDashboard() {
     setError('')
     try {
       const data = await listUsers()
-      setUsers(Array.isArray(data) ? data : [])
+      setUsers(data.items)
+      setUsersCursor(data.nextCursor)
     } catch (e) {
       setError(typeof e?.response?.data === 'string' ? e.response.data : 'Failed to load users')
     } finally {
@@ -350,6 +357,21 @@ export default function AdminDashboard() {
 
   }
 
+  async function loadMoreUsers() {
+    if (!usersCursor) return
+    setError('')
+    setUsersLoadingMore(true)
+    try {
+      const data = await listUsers({ cursor: usersCursor })
+      setUsers((prev) => appendPage(prev, data.items))
+      setUsersCursor(data.nextCursor)
+    } catch (e) {
+      setError(typeof e?.response?.data === 'string' ? e.response.data : 'Failed to load users')
+    } finally {
+      setUsersLoadingMore(false)
+    }
+  }
+
   async function refreshOwners() {
     setOwnersLoading(true)
     setOwnersError('')
@@ -367,7 +389,8 @@ export default function AdminDashboard() {
     setCafesError('')
     try {
       const data = await listCafes()
-      setCafes(Array.isArray(data) ? data : [])
+      setCafes(data.items)
+      setCafesCursor(data.nextCursor)
     } catch (e) {
       setCafesError('Failed to load cafes')
     } finally {
@@ -375,6 +398,21 @@ export default function AdminDashboard() {
     }
   }
 
+  async function loadMoreCafes() {
+    if (!cafesCursor) return
+    setCafesError('')
+    setCafesLoadingMore(true)
+    try {
+      const data = await listCafes({ cursor: cafesCursor })
+      setCafes((prev) => appendPage(prev, data.items))
+      setCafesCursor(data.nextCursor)
+    } catch (e) {
+      setCafesError('Failed to load cafes')
+    } finally {
+      setCafesLoadingMore(false)
+    }
+  }
+
   async function openUserDetail(id) {
     setSelectedUserId(id)
     setSelectedUser(null)
@@ -1486,6 +1524,8 @@ export default function AdminDashboard() {
               </div>
             </div>
           ) : null}
+
+          <LoadMore cursor={cafesCursor} loading={cafesLoadingMore} onLoad={loadMoreCafes} />
         </div>
       </>
     )
@@ -1680,6 +1720,8 @@ export default function AdminDashboard() {
               </button>
             </div>
           </div>
+
+          <LoadMore cursor={usersCursor} loading={usersLoadingMore} onLoad={loadMoreUsers} />
         </div>
       </>
     )
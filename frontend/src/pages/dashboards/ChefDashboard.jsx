@@ -1,13 +1,16 @@
 import { getSession } from '../../lib/auth.js'
 import { useEffect, useMemo, useState } from 'react'
-import { listStaffOrders, updateStaffOrderStatus } from '../../lib/api.js'
+import { appendPage, applyOrderEvent, listStaffOrders, openStaffOrderStream, updateStaffOrderStatus } from '../../lib/api.js'
+import LoadMore from '../../components/LoadMore.jsx'
 
 export default function ChefDashboard() {
   const session = getSession()
   const username = session?.username
 
   const [orders, setOrders] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
   const [loading, setLoading] = useState(false)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [err, setErr] = useState('')
   const [msg, setMsg] = useState('')
 
@@ -23,7 +26,8 @@ export default function ChefDashboard() {
     setLoading(true)
     try {
       const o = await listStaffOrders(username)
-      setOrders(Array.isArray(o) ? o : [])
+      setOrders(o.items)
+      setNextCursor(o.nextCursor)
     } catch (e) {
       const m = e?.response?.data
       setErr(typeof m === 'string' ? m : 'Failed to load orders')
@@ -32,10 +36,32 @@ export default function ChefDashboard() {
     }
   }
 
+  async function loadMore() {
+    if (!username || !nextCursor) return
+    setErr('')
+    setLoadingMore(true)
+    try {
+      const o = await listStaffOrders(username, undefined, { cursor: nextCursor })
+      setOrders((prev) => appendPage(prev, o.items))
+      setNextCursor(o.nextCursor)
+    } catch (e) {
+      const m = e?.response?.data
+      setErr(typeof m === 'string' ? m : 'Failed to load orders')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   useEffect(() => {
     refresh()
   }, [username])
 
+  useEffect(() => {
+    if (!username) return
+    const es = openStaffOrderStream(username, (event) => setOrders((prev) => applyOrderEvent(prev, event)))
+    return () => es.close()
+  }, [username])
+
   const incoming = useMemo(() => {
     const list = Array.isArray(orders) ? orders : []
     return list.filter((o) => {
@@ -286,6 +312,8 @@ export default function ChefDashboard() {
               </div>
             </div>
           ) : null}
+
+          <LoadMore cursor={nextCursor} loading={loadingMore} onLoad={loadMore} />
         </div>
       ) : null}
     </div>
@@ -1,5 +1,10 @@
 import { useEffect, useMemo, useState } from 'react'
-import { listStaffMenu, updateStaffMenuAvailability } from '../../lib/api.js'
+import {
+  listStaffMenu,
+  openStaffOrderStream,
+  updateStaffMenuAvailability,
+  updateStaffMenuAvailabilityBatch
+} from '../../lib/api.js'
 import { getSession } from '../../lib/auth.js'
 
 export default function ChefMenuPage() {
@@ -14,6 +19,18 @@ export default function ChefMenuPage() {
   const [q, setQ] = useState('')
   const [pageSize, setPageSize] = useState(10)
   const [page, setPage] = useState(1)
+  const [selected, setSelected] = useState([])
+  const [bulkCategory, setBulkCategory] = useState('')
+
+  const categories = useMemo(() => {
+    const list = Array.isArray(menu) ? menu : []
+    const seen = new Map()
+    list.forEach((m) => {
+      const c = String(m?.category || '').trim()
+      if (c && !seen.has(c.toLowerCase())) seen.set(c.toLowerCase(), c)
+    })
+    return Array.from(seen.values()).sort((a, b) => a.localeCompare(b))
+  }, [menu])
   const filtered = useMemo(() => {
     const list = Array.isArray(menu) ? menu : []
     const query = String(q || '').trim().toLowerCase()
@@ -40,14 +57,21 @@ export default function ChefMenuPage() {
     return filtered.slice(start, start + size)
   }, [filtered, page, pageSize, totalPages])
 
+  async function loadMenu() {
+    const m = await listStaffMenu(username)
+    const list = Array.isArray(m) ? m : []
+    setMenu(list)
+    const ids = new Set(list.map((x) => x?.id))
+    setSelected((prev) => prev.filter((id) => ids.has(id)))
+  }
+
   async function refresh() {
     if (!username) return
     setErr('')
     setMsg('')
     setLoading(true)
     try {
-      const m = await listStaffMenu(username)
-      setMenu(Array.isArray(m) ? m : [])
+      await loadMenu()
     } catch (e) {
       const mm = e?.response?.data
       setErr(typeof mm === 'string' ? mm : 'Failed to load menu')
@@ -56,10 +80,44 @@ export default function ChefMenuPage() {
     }
   }
 
+  async function applyBatch(payload) {
+    setErr('')
+    setMsg('')
+    setLoading(true)
+    try {
+      const res = await updateStaffMenuAvailabilityBatch(username, payload)
+      const n = Number(res?.updated) || 0
+      setMsg(n === 1 ? 'Updated 1 item' : `Updated ${n} items`)
+      if (!payload.category) setSelected([])
+      await loadMenu()
+    } catch (e) {
+      const mm = e?.response?.data
+      setErr(typeof mm === 'string' ? mm : 'Failed to update availability')
+    } finally {
+      setLoading(false)
+    }
+  }
+
+  function toggleSelected(id) {
+    setSelected((prev) => (prev.includes(id) ? prev.filter((x) => x !== id) : [...prev, id]))
+  }
+
+  const pageIds = paged.map((m) => m.id)
+  const pageSelected = pageIds.length > 0 && pageIds.every((id) => selected.includes(id))
+
   useEffect(() => {
     refresh()
   }, [username])
 
+  // Another chef, the owner or an admin changed this cafe's menu; pick it up without a full reload.
+  useEffect(() => {
+    if (!username) return undefined
+    const es = openStaffOrderStream(username, null, () => {
+      loadMenu().catch(() => {})
+    })
+    return () => es.close()
+  }, [username])
+
   return (
     <div className="rounded-2xl border border-black/10 bg-white/70 p-6">
       <div className="text-xs text-slate-500">Chef / Menu</div>
@@ -104,6 +162,71 @@ export default function ChefMenuPage() {
           </div>
         </div>
 
+        <div className="mt-4 flex flex-wrap items-center gap-3 rounded-xl border border-black/10 bg-white/70 px-4 py-3 text-sm text-slate-700">
+          <label className="flex items-center gap-2">
+            <input
+              type="checkbox"
+              checked={pageSelected}
+              disabled={loading || pageIds.length === 0}
+              onChange={() =>
+                setSelected((prev) =>
+                  pageSelected ? prev.filter((id) => !pageIds.includes(id)) : Array.from(new Set([...prev, ...pageIds]))
+                )
+              }
+            />
+            <span>Select page</span>
+          </label>
+          <span className="text-xs text-slate-500">{selected.length} selected</span>
+          <button
+            type="button"
+            disabled={loading || selected.length === 0}
+            onClick={() => applyBatch({ itemIds: selected, available: true })}
+            className="rounded-lg border border-emerald-500/30 bg-emerald-500/10 px-3 py-2 text-xs font-semibold text-emerald-900 hover:bg-emerald-500/15 disabled:opacity-60"
+          >
+            Mark available
+          </button>
+          <button
+            type="button"
+            disabled={loading || selected.length === 0}
+            onClick={() => applyBatch({ itemIds: selected, available: false })}
+            className="rounded-lg border border-red-500/30 bg-red-500/10 px-3 py-2 text-xs font-semibold text-red-900 hover:bg-red-500/15 disabled:opacity-60"
+          >
+            Mark unavailable
+          </button>
+
+          <div className="ml-auto flex flex-wrap items-center gap-2">
+            <span>Category:</span>
+            <select
+              value={bulkCategory}
+              onChange={(e) => setBulkCategory(e.target.value)}
+              className="rounded-lg border border-black/10 bg-white px-2 py-1"
+            >
+              <option value="">Choose...</option>
+              {categories.map((c) => (
+                <option key={c} value={c}>
+                  {c}
+                </option>
+              ))}
+            </select>
+            <button
+              type="button"
+              disabled={loading || !bulkCategory}
+              onClick={() => applyBatch({ category: bulkCategory, available: true })}
+              className="rounded-lg border border-black/10 bg-white px-3 py-2 text-xs font-semibold disabled:opacity-50"
+            >
+              All on
+            </button>
+            <button
+              type="button"
+              disabled={loading || !bulkCategory}
+              onClick={() => applyBatch({ category: bulkCategory, available: false })}
+              className="rounded-lg border border-black/10 bg-white px-3 py-2 text-xs font-semibold disabled:opacity-50"
+            >
+              All off
+            </button>
+          </div>
+        </div>
+
         {err ? <div className="mt-4 rounded-xl border border-red-200 bg-red-50 px-4 py-3 text-sm text-red-700">{err}</div> : null}
         {msg ? <div className="mt-4 rounded-xl border border-emerald-200 bg-emerald-50 px-4 py-3 text-sm text-emerald-800">{msg}</div> : null}
         {loading ? <div className="mt-4 text-sm text-slate-600">Loading...</div> : null}
@@ -113,10 +236,13 @@ export default function ChefMenuPage() {
             {paged.length > 0 ? (
               paged.map((m) => (
                 <div key={m.id} className="flex flex-wrap items-center justify-between gap-3 rounded-xl border border-black/10 bg-white/70 px-4 py-3">
-                  <div className="min-w-0">
-                    <div className="truncate text-sm font-semibold text-slate-900">{m.name}</div>
-                    <div className="mt-1 text-xs text-slate-600">₹{m.price ?? 0} {m.category ? `• ${m.category}` : ''}</div>
-                  </div>
+                  <label className="flex min-w-0 items-center gap-3">
+                    <input type="checkbox" checked={selected.includes(m.id)} onChange={() => toggleSelected(m.id)} />
+                    <div className="min-w-0">
+                      <div className="truncate text-sm font-semibold text-slate-900">{m.name}</div>
+                      <div className="mt-1 text-xs text-slate-600">₹{m.price ?? 0} {m.category ? `• ${m.category}` : ''}</div>
+                    </div>
+                  </label>
                   <button
                     type="button"
                     disabled={loading}
@@ -1,6 +1,7 @@
 import { useEffect, useMemo, useState } from 'react'
 import { useNavigate } from 'react-router-dom'
-import { deleteCustomerBooking, listCustomerBookings } from '../../lib/api.js'
+import LoadMore from '../../components/LoadMore.jsx'
+import { appendPage, deleteCustomerBooking, listCustomerBookings } from '../../lib/api.js'
 import { getSession } from '../../lib/auth.js'
 
 function TrashIcon({ className }) {
@@ -22,6 +23,8 @@ export default function CustomerBookingsPage() {
   const navigate = useNavigate()
 
   const [bookings, setBookings] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [loading, setLoading] = useState(false)
   const [err, setErr] = useState('')
 
@@ -72,13 +75,15 @@ export default function CustomerBookingsPage() {
     return filtered.slice(start, start + size)
   }, [filtered, page, pageSize, totalPages])
 
-  async function refresh() {
+  // The background poll only refreshes the newest page and keeps any older pages already loaded.
+  async function refresh({ keepOlder = false } = {}) {
     if (!username) return
     setErr('')
     setLoading(true)
     try {
       const b = await listCustomerBookings(username)
-      setBookings(Array.isArray(b) ? b : [])
+      setBookings((prev) => (keepOlder ? appendPage(b.items, prev) : b.items))
+      if (!keepOlder) setNextCursor(b.nextCursor)
     } catch (e) {
       const msg = e?.response?.data
       setErr(typeof msg === 'string' ? msg : 'Failed to load bookings')
@@ -87,6 +92,22 @@ export default function CustomerBookingsPage() {
     }
   }
 
+  async function loadMore() {
+    if (!username || !nextCursor) return
+    setErr('')
+    setLoadingMore(true)
+    try {
+      const b = await listCustomerBookings(username, { cursor: nextCursor })
+      setBookings((prev) => appendPage(prev, b.items))
+      setNextCursor(b.nextCursor)
+    } catch (e) {
+      const msg = e?.response?.data
+      setErr(typeof msg === 'string' ? msg : 'Failed to load bookings')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   useEffect(() => {
     refresh()
   }, [username])
@@ -94,7 +115,7 @@ export default function CustomerBookingsPage() {
   useEffect(() => {
     if (!username) return
     const t = setInterval(() => {
-      refresh()
+      refresh({ keepOlder: true })
     }, 8000)
     return () => clearInterval(t)
   }, [username])
@@ -159,7 +180,7 @@ export default function CustomerBookingsPage() {
               />
             </div>
 
-            <button type="button" className="rounded-xl border border-black/10 bg-white/70 px-4 py-2 text-sm" onClick={refresh} disabled={loading}>
+            <button type="button" className="rounded-xl border border-black/10 bg-white/70 px-4 py-2 text-sm" onClick={() => refresh()} disabled={loading}>
               Refresh
             </button>
           </div>
@@ -282,6 +303,8 @@ export default function CustomerBookingsPage() {
                 </div>
               </div>
             ) : null}
+
+            <LoadMore cursor={nextCursor} loading={loadingMore} onLoad={loadMore} />
           </div>
         ) : null}
       </div>
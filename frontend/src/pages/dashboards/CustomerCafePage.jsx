@@ -544,7 +544,7 @@ export default function CustomerCafePage() {
                         <div key={m.id} className="rounded-2xl border border-black/10 bg-white/70 p-4">
                           <div className="flex items-start gap-3">
                             <div className="h-16 w-16 overflow-hidden rounded-2xl bg-slate-100">
-                              {m.imageUrl ? <img src={m.imageUrl} alt={m.name || 'Item'} className="h-full w-full object-cover" /> : null}
+                              {m.imageUrl ? <img src={m.thumbnailUrl || m.imageUrl} loading="lazy" alt={m.name || 'Item'} className="h-full w-full object-cover" /> : null}
                             </div>
                             <div className="min-w-0 flex-1">
                               <div className="truncate text-sm font-extrabold text-slate-900">{m.name || '-'}</div>
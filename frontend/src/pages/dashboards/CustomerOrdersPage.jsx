@@ -1,6 +1,13 @@
 import { useEffect, useMemo, useState } from 'react'
 import { useNavigate } from 'react-router-dom'
-import { createRazorpayOrderForCustomerOrder, deleteCustomerOrder, listCustomerOrders, verifyRazorpayPaymentForCustomerOrder } from '../../lib/api.js'
+import {
+  appendPage,
+  createRazorpayOrderForCustomerOrder,
+  deleteCustomerOrder,
+  listCustomerOrders,
+  verifyRazorpayPaymentForCustomerOrder
+} from '../../lib/api.js'
+import LoadMore from '../../components/LoadMore.jsx'
 import { getSession } from '../../lib/auth.js'
 import jsPDF from 'jspdf'
 import autoTable from 'jspdf-autotable'
@@ -130,6 +137,8 @@ export default function CustomerOrdersPage() {
   }
 
   const [orders, setOrders] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [loading, setLoading] = useState(false)
   const [err, setErr] = useState('')
   const [payingId, setPayingId] = useState(null)
@@ -209,13 +218,15 @@ export default function CustomerOrdersPage() {
     }
   }
 
-  async function refresh() {
+  // The background poll only refreshes the newest page and keeps any older pages already loaded.
+  async function refresh({ keepOlder = false } = {}) {
     if (!username) return
     setErr('')
     setLoading(true)
     try {
       const o = await listCustomerOrders(username)
-      setOrders(Array.isArray(o) ? o : [])
+      setOrders((prev) => (keepOlder ? appendPage(o.items, prev) : o.items))
+      if (!keepOlder) setNextCursor(o.nextCursor)
     } catch (e) {
       const msg = e?.response?.data
       setErr(typeof msg === 'string' ? msg : 'Failed to load orders')
@@ -224,6 +235,22 @@ export default function CustomerOrdersPage() {
     }
   }
 
+  async function loadMore() {
+    if (!username || !nextCursor) return
+    setErr('')
+    setLoadingMore(true)
+    try {
+      const o = await listCustomerOrders(username, { cursor: nextCursor })
+      setOrders((prev) => appendPage(prev, o.items))
+      setNextCursor(o.nextCursor)
+    } catch (e) {
+      const msg = e?.response?.data
+      setErr(typeof msg === 'string' ? msg : 'Failed to load orders')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   useEffect(() => {
     refresh()
   }, [username])
@@ -231,7 +258,7 @@ export default function CustomerOrdersPage() {
   useEffect(() => {
     if (!username) return
     const t = setInterval(() => {
-      refresh()
+      refresh({ keepOlder: true })
     }, 8000)
     return () => clearInterval(t)
   }, [username])
@@ -331,7 +358,7 @@ export default function CustomerOrdersPage() {
               />
             </div>
 
-            <button type="button" className="rounded-xl border border-black/10 bg-white/70 px-4 py-2 text-sm" onClick={refresh} disabled={loading}>
+            <button type="button" className="rounded-xl border border-black/10 bg-white/70 px-4 py-2 text-sm" onClick={() => refresh()} disabled={loading}>
               Refresh
             </button>
           </div>
@@ -463,6 +490,8 @@ export default function CustomerOrdersPage() {
                 </div>
               </div>
             ) : null}
+
+            <LoadMore cursor={nextCursor} loading={loadingMore} onLoad={loadMore} />
           </div>
         ) : null}
       </div>
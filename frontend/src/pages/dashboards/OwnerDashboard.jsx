@@ -2,7 +2,9 @@ import { useEffect, useMemo, useState } from 'react'
 import { useLocation } from 'react-router-dom'
 import { clearSession, getSession } from '../../lib/auth.js'
 import ProfilePage from './ProfilePage.jsx'
+import LoadMore from '../../components/LoadMore.jsx'
 import {
+  appendPage,
   approveOwnerBooking,
   approveCafeAdmin,
   createOwnerStaff,
@@ -27,6 +29,8 @@ import {
   listOwnerImages,
   listOwnerMenu,
   listOwnerOrders,
+  openOwnerOrderStream,
+  applyOrderEvent,
   listOwnerStaff,
   getOwnerAnalyticsDetails,
   getOwnerAnalyticsSummary,
@@ -642,6 +646,8 @@ export default function OwnerDashboard() {
   const [imgErr, setImgErr] = useState('')
 
   const [bookings, setBookings] = useState([])
+  const [bookingsCursor, setBookingsCursor] = useState(null)
+  const [bookingsLoadingMore, setBookingsLoadingMore] = useState(false)
   const [bookingsLoading, setBookingsLoading] = useState(false)
   const [bookingsErr, setBookingsErr] = useState('')
 
@@ -656,6 +662,8 @@ export default function OwnerDashboard() {
   const [denyRefund, setDenyRefund] = useState(false)
 
   const [orders, setOrders] = useState([])
+  const [ordersCursor, setOrdersCursor] = useState(null)
+  const [ordersLoadingMore, setOrdersLoadingMore] = useState(false)
   const [ordersLoading, setOrdersLoading] = useState(false)
   const [ordersErr, setOrdersErr] = useState('')
 
@@ -1178,17 +1186,37 @@ export default function OwnerDashboard() {
     }
   }
 
+  async function loadMoreBookings() {
+    if (selectedCafeId == null || !bookingsCursor) return
+    setBookingsErr('')
+    setBookingsLoadingMore(true)
+    try {
+      const res = await listOwnerBookings(ownerUsername, selectedCafeId, { cursor: bookingsCursor })
+      setBookings((prev) => appendPage(prev, res.items))
+      setBookingsCursor(res.nextCursor)
+    } catch (e) {
+      const status = e?.response?.status
+      const data = e?.response?.data
+      const msg = typeof data === 'string' ? data : data ? JSON.stringify(data) : ''
+      setBookingsErr(`${status ? `HTTP ${status}: ` : ''}${msg || 'Failed to load bookings'}`)
+    } finally {
+      setBookingsLoadingMore(false)
+    }
+  }
+
   async function refreshBookings() {
     setBookingsErr('')
     setBookingsLoading(true)
     try {
       if (selectedCafeId == null) {
         setBookings([])
+        setBookingsCursor(null)
         setBookingsErr('Select a cafe first')
         return
       }
       const res = await listOwnerBookings(ownerUsername, selectedCafeId)
-      setBookings(Array.isArray(res) ? res : [])
+      setBookings(res.items)
+      setBookingsCursor(res.nextCursor)
     } catch (e) {
       const status = e?.response?.status
       const data = e?.response?.data
@@ -1199,17 +1227,37 @@ export default function OwnerDashboard() {
     }
   }
 
+  async function loadMoreOrders() {
+    if (selectedCafeId == null || !ordersCursor) return
+    setOrdersErr('')
+    setOrdersLoadingMore(true)
+    try {
+      const res = await listOwnerOrders(ownerUsername, selectedCafeId, { cursor: ordersCursor })
+      setOrders((prev) => appendPage(prev, res.items))
+      setOrdersCursor(res.nextCursor)
+    } catch (e) {
+      const status = e?.response?.status
+      const data = e?.response?.data
+      const msg = typeof data === 'string' ? data : data ? JSON.stringify(data) : ''
+      setOrdersErr(`${status ? `HTTP ${status}: ` : ''}${msg || 'Failed to load orders'}`)
+    } finally {
+      setOrdersLoadingMore(false)
+    }
+  }
+
   async function refreshOrders() {
     setOrdersErr('')
     setOrdersLoading(true)
     try {
       if (selectedCafeId == null) {
         setOrders([])
+        setOrdersCursor(null)
         setOrdersErr('Select a cafe first')
         return
       }
       const res = await listOwnerOrders(ownerUsername, selectedCafeId)
-      setOrders(Array.isArray(res) ? res : [])
+      setOrders(res.items)
+      setOrdersCursor(res.nextCursor)
     } catch (e) {
       const status = e?.response?.status
       const data = e?.response?.data
@@ -1667,11 +1715,10 @@ export default function OwnerDashboard() {
   useEffect(() => {
     if (!ownerUsername) return
     if (tab !== 'orders') return
-    const t = setInterval(() => {
-      refreshOrders()
-    }, 8000)
-    return () => clearInterval(t)
-  }, [ownerUsername, tab])
+    if (selectedCafeId == null) return
+    const es = openOwnerOrderStream(ownerUsername, selectedCafeId, (event) => setOrders((prev) => applyOrderEvent(prev, event)))
+    return () => es.close()
+  }, [ownerUsername, tab, selectedCafeId])
 
   useEffect(() => {
     if (!ownerUsername) return
@@ -1908,6 +1955,8 @@ export default function OwnerDashboard() {
                 </div>
               </div>
             ) : null}
+
+            <LoadMore cursor={bookingsCursor} loading={bookingsLoadingMore} onLoad={loadMoreBookings} />
           </div>
         ) : null}
 
@@ -2128,6 +2177,8 @@ export default function OwnerDashboard() {
                 </div>
               </div>
             ) : null}
+
+            <LoadMore cursor={ordersCursor} loading={ordersLoadingMore} onLoad={loadMoreOrders} />
           </div>
         ) : null}
       </div>
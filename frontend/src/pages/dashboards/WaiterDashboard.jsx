@@ -1,14 +1,17 @@
 import { getSession } from '../../lib/auth.js'
 import { useEffect, useMemo, useState } from 'react'
-import { listStaffApprovedBookings, listStaffOrders, serveStaffOrder } from '../../lib/api.js'
+import { appendPage, applyOrderEvent, listStaffApprovedBookings, listStaffOrders, openStaffOrderStream, serveStaffOrder } from '../../lib/api.js'
+import LoadMore from '../../components/LoadMore.jsx'
 
 export default function WaiterDashboard() {
   const session = getSession()
   const username = session?.username
 
   const [orders, setOrders] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
   const [bookings, setBookings] = useState([])
   const [loading, setLoading] = useState(false)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [err, setErr] = useState('')
   const [msg, setMsg] = useState('')
 
@@ -23,9 +26,11 @@ export default function WaiterDashboard() {
     setMsg('')
     setLoading(true)
     try {
+      // Recent approved bookings are the ones with tables to serve; older pages are not needed here.
       const [o, b] = await Promise.all([listStaffOrders(username), listStaffApprovedBookings(username)])
-      setOrders(Array.isArray(o) ? o : [])
-      setBookings(Array.isArray(b) ? b : [])
+      setOrders(o.items)
+      setNextCursor(o.nextCursor)
+      setBookings(b.items)
     } catch (e) {
       const m = e?.response?.data
       setErr(typeof m === 'string' ? m : 'Failed to load waiter queue')
@@ -34,10 +39,32 @@ export default function WaiterDashboard() {
     }
   }
 
+  async function loadMore() {
+    if (!username || !nextCursor) return
+    setErr('')
+    setLoadingMore(true)
+    try {
+      const o = await listStaffOrders(username, undefined, { cursor: nextCursor })
+      setOrders((prev) => appendPage(prev, o.items))
+      setNextCursor(o.nextCursor)
+    } catch (e) {
+      const m = e?.response?.data
+      setErr(typeof m === 'string' ? m : 'Failed to load waiter queue')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   useEffect(() => {
     refresh()
   }, [username])
 
+  useEffect(() => {
+    if (!username) return
+    const es = openStaffOrderStream(username, (event) => setOrders((prev) => applyOrderEvent(prev, event)))
+    return () => es.close()
+  }, [username])
+
   const readyOrders = useMemo(() => {
     const list = Array.isArray(orders) ? orders : []
     return list.filter((o) => String(o?.status || '').toUpperCase() === 'READY')
@@ -252,6 +279,8 @@ export default function WaiterDashboard() {
               </div>
             </div>
           ) : null}
+
+          <LoadMore cursor={nextCursor} loading={loadingMore} onLoad={loadMore} />
         </div>
       ) : null}
     </div>
@@ -0,0 +1,28 @@
+package com.cafe.config;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Versioned schema changes live in db/migration. Hibernate still creates tables and plain columns,
+ * so the migrations run right after it (and before the app takes traffic) to convert data, add
+ * constraints and build the indexes ddl-auto cannot express.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean(initMethod = "migrate")
+    @DependsOn("entityManagerFactory")
+    public Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+    }
+}
@@ -3,10 +3,12 @@ package com.cafe.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.cafe.dto.AdminAnalyticsDetailsResponse;
 import com.cafe.dto.AdminAnalyticsSummary;
@@ -28,9 +31,13 @@ import com.cafe.dto.CafeDocumentRow;
 import com.cafe.dto.CafeImageRow;
 import com.cafe.dto.CafeProfileRequest;
 import com.cafe.dto.CafeProfileResponse;
+import com.cafe.dto.CatalogCacheStats;
+import com.cafe.dto.PaymentGatewayStats;
 import com.cafe.dto.MenuAvailabilityRequest;
+import com.cafe.dto.MenuImportResponse;
 import com.cafe.dto.MenuItemRequest;
 import com.cafe.dto.MenuItemRow;
+import com.cafe.dto.PageQuery;
 import com.cafe.dto.RegisterRequest;
 import com.cafe.service.AdminService;
 
@@ -44,13 +51,13 @@ public class AdminController {
     private AdminService adminService;
 
     @GetMapping("/users")
-    public ResponseEntity<List<AdminUserRow>> listUsers() {
-        return adminService.listUsers();
+    public ResponseEntity<List<AdminUserRow>> listUsers(@ModelAttribute PageQuery page) {
+        return adminService.listUsers(page);
     }
 
     @GetMapping("/cafes")
-    public ResponseEntity<List<AdminCafeRow>> listCafes() {
-        return adminService.listCafes();
+    public ResponseEntity<List<AdminCafeRow>> listCafes(@ModelAttribute PageQuery page) {
+        return adminService.listCafes(page);
     }
 
     @GetMapping("/cafes/{id}")
@@ -72,8 +79,8 @@ public class AdminController {
     }
 
     @GetMapping("/owners")
-    public ResponseEntity<List<AdminOwnerRow>> listOwners() {
-        return adminService.listOwners();
+    public ResponseEntity<List<AdminOwnerRow>> listOwners(@ModelAttribute PageQuery page) {
+        return adminService.listOwners(page);
     }
 
     @PostMapping(value = "/owners", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -141,7 +148,7 @@ public class AdminController {
     }
 
     @GetMapping("/cafes/{id}/export/history.xlsx")
-    public ResponseEntity<byte[]> exportCafeHistoryExcel(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> exportCafeHistoryExcel(@PathVariable Long id) {
         return adminService.exportCafeHistoryExcel(id);
     }
 
@@ -150,6 +157,14 @@ public class AdminController {
         return adminService.exportCafeMenuExcel(id);
     }
 
+    @PostMapping(value = "/cafes/{id}/import/menu", consumes = {"multipart/form-data"})
+    public ResponseEntity<MenuImportResponse> importCafeMenu(
+            @PathVariable Long id,
+            @RequestPart("file") MultipartFile file
+    ) {
+        return adminService.importCafeMenu(id, file);
+    }
+
     @GetMapping("/analytics/summary")
     public ResponseEntity<AdminAnalyticsSummary> getAnalyticsSummary() {
         return adminService.getAnalyticsSummary();
@@ -160,6 +175,21 @@ public class AdminController {
         return adminService.getAnalyticsDetails();
     }
 
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<String> rebuildAnalytics() {
+        return adminService.rebuildAnalytics();
+    }
+
+    @GetMapping("/catalog-cache")
+    public ResponseEntity<CatalogCacheStats> getCatalogCacheStats() {
+        return adminService.getCatalogCacheStats();
+    }
+
+    @GetMapping("/payment-gateway")
+    public ResponseEntity<PaymentGatewayStats> getPaymentGatewayStats() {
+        return adminService.getPaymentGatewayStats();
+    }
+
     @DeleteMapping("/cafes/{id}")
     public ResponseEntity<String> deleteCafe(@PathVariable Long id) {
         return adminService.deleteCafe(id);
@@ -202,7 +232,7 @@ public class AdminController {
     }
 
     @GetMapping("/cafes/documents/{id}")
-    public ResponseEntity<byte[]> downloadCafeDocument(@PathVariable Long id) {
+    public ResponseEntity<Resource> downloadCafeDocument(@PathVariable Long id) {
         return adminService.downloadCafeDocument(id);
     }
 
@@ -232,7 +262,7 @@ public class AdminController {
     }
 
     @GetMapping("/documents/{id}")
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable Long id) {
+    public ResponseEntity<Resource> downloadDocument(@PathVariable Long id) {
         return adminService.downloadDocument(id);
     }
 }
@@ -1,21 +1,15 @@
 package com.cafe.controller;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -23,10 +17,13 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.cafe.dto.AuthPrincipal;
 import com.cafe.dto.CafeBookingRequest;
 import com.cafe.dto.CafeBookingRow;
 import com.cafe.dto.CafeOrderRequest;
 import com.cafe.dto.CafeOrderRow;
+import com.cafe.dto.CartQuote;
+import com.cafe.dto.PageQuery;
 import com.cafe.dto.RazorpayConfirmBookingFoodOrderRequest;
 import com.cafe.dto.RazorpayConfirmCartOrderRequest;
 import com.cafe.dto.RazorpayCreateOrderResponse;
@@ -38,20 +35,25 @@ import com.cafe.entity.CafeOrder;
 import com.cafe.entity.CafeOrderItem;
 import com.cafe.entity.FunctionCapacity;
 import com.cafe.entity.FunctionType;
-import com.cafe.entity.MenuItem;
 import com.cafe.entity.Payment;
+import com.cafe.entity.PersonalDetails;
 import com.cafe.entity.Role;
 import com.cafe.entity.User;
+import com.cafe.exception.PaymentGatewayException;
 import com.cafe.repository.CafeBookingRepository;
 import com.cafe.repository.CafeOrderRepository;
 import com.cafe.repository.CafeRepository;
 import com.cafe.repository.FunctionCapacityRepository;
-import com.cafe.repository.MenuItemRepository;
 import com.cafe.repository.PaymentRepository;
 import com.cafe.repository.UserRepository;
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
+import com.cafe.service.AnalyticsService;
+import com.cafe.service.CartPricingService;
+import com.cafe.service.OrderEventService;
+import com.cafe.service.OrderNumberService;
+import com.cafe.service.PaymentEventService;
+import com.cafe.service.PaymentGateway;
+import com.cafe.service.PrincipalCacheService;
+import com.cafe.util.Money;
 
 import jakarta.validation.Valid;
 
@@ -67,9 +69,6 @@ public class CustomerController {
     @Autowired
     private CafeRepository cafeRepository;
 
-    @Autowired
-    private MenuItemRepository menuItemRepository;
-
     @Autowired
     private CafeBookingRepository cafeBookingRepository;
 
@@ -82,27 +81,26 @@ public class CustomerController {
     @Autowired
     private PaymentRepository paymentRepository;
 
-    @Value("${razorpay.key_id:}")
-    private String razorpayKeyId;
+    @Autowired
+    private OrderEventService orderEventService;
 
-    @Value("${razorpay.key_secret:}")
-    private String razorpayKeySecret;
+    @Autowired
+    private AnalyticsService analyticsService;
 
-    private String hmacSha256Hex(String data, String secret) {
-        try {
-            Mac sha256_HMAC = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            sha256_HMAC.init(secretKey);
-            byte[] hash = sha256_HMAC.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hash) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception ex) {
-            throw new RuntimeException("Failed to compute signature", ex);
-        }
-    }
+    @Autowired
+    private OrderNumberService orderNumberService;
+
+    @Autowired
+    private CartPricingService cartPricingService;
+
+    @Autowired
+    private PrincipalCacheService principalCacheService;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private PaymentEventService paymentEventService;
 
     @PostMapping("/bookings/{id}/payment/razorpay/order")
     public ResponseEntity<?> createRazorpayOrderForBooking(
@@ -110,20 +108,16 @@ public class CustomerController {
             @PathVariable Long id
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             if (id == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
-            if (razorpayKeyId == null || razorpayKeyId.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key id not configured. Set environment variable RAZORPAY_KEY_ID (or razorpay.key_id in application.properties).");
-            }
-            if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key secret not configured. Set environment variable RAZORPAY_KEY_SECRET (or razorpay.key_secret in application.properties).");
+            String gatewayProblem = paymentGateway.configurationProblem();
+            if (gatewayProblem != null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(gatewayProblem);
             }
 
             CafeBooking b = cafeBookingRepository.findById(id).orElse(null);
@@ -137,15 +131,8 @@ public class CustomerController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Booking already paid");
             }
 
-            RazorpayClient client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-            JSONObject req = new JSONObject();
-            req.put("amount", BOOKING_FEE_PAISE);
-            req.put("currency", "INR");
-            req.put("receipt", "booking_" + b.getId());
-            req.put("payment_capture", 1);
-
-            Order rpOrder = client.orders.create(req);
-            String rpOrderId = rpOrder.get("id");
+            String rpOrderId = paymentGateway.createOrder(BOOKING_FEE_PAISE, "INR", "booking_" + b.getId()).getId();
+            paymentEventService.recordOrderCreated(rpOrderId, BOOKING_FEE_PAISE);
 
             b.setRazorpayOrderId(rpOrderId);
             cafeBookingRepository.save(b);
@@ -153,7 +140,7 @@ public class CustomerController {
             RazorpayCreateOrderResponse res = new RazorpayCreateOrderResponse();
             res.setCafeOrderId(null);
             res.setOrderNumber(null);
-            res.setRazorpayKeyId(razorpayKeyId);
+            res.setRazorpayKeyId(paymentGateway.keyId());
             res.setRazorpayOrderId(rpOrderId);
             res.setAmountPaise(BOOKING_FEE_PAISE);
             res.setCurrency("INR");
@@ -161,7 +148,7 @@ public class CustomerController {
             res.setCustomerName(b.getCustomerName());
             res.setCustomerPhone(b.getCustomerPhone());
             return ResponseEntity.ok(res);
-        } catch (RazorpayException ex) {
+        } catch (PaymentGatewayException ex) {
             String msg = ex.getMessage();
             if (msg == null || msg.isBlank()) msg = "Razorpay error";
             return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Razorpay: " + msg);
@@ -179,16 +166,16 @@ public class CustomerController {
             @Valid @RequestBody RazorpayVerifyPaymentRequest request
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             if (id == null || request == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
-            if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key secret not configured. Set environment variable RAZORPAY_KEY_SECRET (or razorpay.key_secret in application.properties).");
+            String gatewayProblem = paymentGateway.configurationProblem();
+            if (gatewayProblem != null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(gatewayProblem);
             }
 
             CafeBooking b = cafeBookingRepository.findById(id).orElse(null);
@@ -207,9 +194,7 @@ public class CustomerController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Razorpay order id mismatch");
             }
 
-            String payload = request.getRazorpayOrderId() + "|" + request.getRazorpayPaymentId();
-            String computed = hmacSha256Hex(payload, razorpayKeySecret);
-            if (!safeEquals(computed, request.getRazorpaySignature())) {
+            if (!paymentGateway.verifyPaymentSignature(request.getRazorpayOrderId(), request.getRazorpayPaymentId(), request.getRazorpaySignature())) {
                 b.setPaymentStatus("FAILED");
                 cafeBookingRepository.save(b);
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid payment signature");
@@ -226,33 +211,25 @@ public class CustomerController {
         }
     }
 
-    private boolean safeEquals(String a, String b) {
-        if (a == null || b == null) return false;
-        if (a.length() != b.length()) return false;
-        int r = 0;
-        for (int i = 0; i < a.length(); i++) {
-            r |= a.charAt(i) ^ b.charAt(i);
-        }
-        return r == 0;
-    }
-
     @GetMapping("/bookings")
     public ResponseEntity<List<CafeBookingRow>> listMyBookings(
-            @RequestHeader(value = "X-USERNAME", required = false) String customerUsername
+            @RequestHeader(value = "X-USERNAME", required = false) String customerUsername,
+            @ModelAttribute PageQuery page
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            List<CafeBooking> list = cafeBookingRepository.findByCustomerUsernameOrderByCreatedAtDesc(customer.getUsername());
+            List<CafeBooking> fetched = findMyBookingsPage(customer.getUsername(), page);
 
-            if ((list == null || list.isEmpty())
-                    && customer.getPersonalDetails() != null
-                    && customer.getPersonalDetails().getPhone() != null
-                    && !customer.getPersonalDetails().getPhone().isBlank()) {
-                String phone = customer.getPersonalDetails().getPhone().trim();
+            // Bookings made before accounts existed are claimed by phone the first time the list is empty.
+            if (fetched.isEmpty()
+                    && (page.getCursor() == null || page.getCursor().isBlank())
+                    && customer.getPhone() != null
+                    && !customer.getPhone().isBlank()) {
+                String phone = customer.getPhone().trim();
                 List<CafeBooking> legacy = cafeBookingRepository.findByCustomerPhoneOrderByCreatedAtDesc(phone);
                 if (legacy != null && !legacy.isEmpty()) {
                     for (CafeBooking b : legacy) {
@@ -261,12 +238,19 @@ public class CustomerController {
                             cafeBookingRepository.save(b);
                         }
                     }
-                    list = cafeBookingRepository.findByCustomerUsernameOrderByCreatedAtDesc(customer.getUsername());
+                    fetched = findMyBookingsPage(customer.getUsername(), page);
                 }
             }
 
-            List<CafeBookingRow> rows = (list == null ? List.<CafeBookingRow>of() : list.stream().map(this::toBookingRow).toList());
-            return ResponseEntity.ok(rows);
+            List<CafeBooking> list = page.trim(fetched);
+            List<CafeBookingRow> rows = list.stream().map(this::toBookingRow).toList();
+
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.hasMore(fetched)) {
+                CafeBooking last = list.get(list.size() - 1);
+                ok.header(PageQuery.NEXT_CURSOR_HEADER, PageQuery.cursorOf(last.getCreatedAt(), last.getId()));
+            }
+            return ok.body(rows);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -278,20 +262,16 @@ public class CustomerController {
             @PathVariable Long id
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             if (id == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
-            if (razorpayKeyId == null || razorpayKeyId.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key id not configured. Set environment variable RAZORPAY_KEY_ID (or razorpay.key_id in application.properties).");
-            }
-            if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key secret not configured. Set environment variable RAZORPAY_KEY_SECRET (or razorpay.key_secret in application.properties).");
+            String gatewayProblem = paymentGateway.configurationProblem();
+            if (gatewayProblem != null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(gatewayProblem);
             }
 
             CafeOrder o = cafeOrderRepository.findById(id).orElse(null);
@@ -305,20 +285,13 @@ public class CustomerController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Order already paid");
             }
 
-            long amountPaise = Math.max(0L, Math.round((o.getTotalAmount() == null ? 0.0 : o.getTotalAmount()) * 100.0));
+            long amountPaise = Money.orZero(o.getTotalAmountPaise());
             if (amountPaise <= 0L) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Order total amount must be greater than 0");
             }
 
-            RazorpayClient client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-            JSONObject req = new JSONObject();
-            req.put("amount", amountPaise);
-            req.put("currency", "INR");
-            req.put("receipt", "cafe_order_" + o.getId());
-            req.put("payment_capture", 1);
-
-            Order rpOrder = client.orders.create(req);
-            String rpOrderId = rpOrder.get("id");
+            String rpOrderId = paymentGateway.createOrder(amountPaise, "INR", "cafe_order_" + o.getId()).getId();
+            paymentEventService.recordOrderCreated(rpOrderId, amountPaise);
 
             o.setRazorpayOrderId(rpOrderId);
             cafeOrderRepository.save(o);
@@ -335,7 +308,7 @@ public class CustomerController {
             RazorpayCreateOrderResponse res = new RazorpayCreateOrderResponse();
             res.setCafeOrderId(o.getId());
             res.setOrderNumber(o.getOrderNumber());
-            res.setRazorpayKeyId(razorpayKeyId);
+            res.setRazorpayKeyId(paymentGateway.keyId());
             res.setRazorpayOrderId(rpOrderId);
             res.setAmountPaise(amountPaise);
             res.setCurrency("INR");
@@ -343,7 +316,7 @@ public class CustomerController {
             res.setCustomerName(o.getCustomerName());
             res.setCustomerPhone(o.getCustomerPhone());
             return ResponseEntity.ok(res);
-        } catch (RazorpayException ex) {
+        } catch (PaymentGatewayException ex) {
             String msg = ex.getMessage();
             if (msg == null || msg.isBlank()) msg = "Razorpay error";
             return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Razorpay: " + msg);
@@ -361,15 +334,16 @@ public class CustomerController {
             @Valid @RequestBody RazorpayVerifyPaymentRequest request
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             if (id == null || request == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
-            if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Razorpay key secret not configured");
+            String gatewayProblem = paymentGateway.configurationProblem();
+            if (gatewayProblem != null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(gatewayProblem);
             }
 
             CafeOrder o = cafeOrderRepository.findById(id).orElse(null);
@@ -388,14 +362,12 @@ public class CustomerController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Razorpay order id mismatch");
             }
 
-            String payload = request.getRazorpayOrderId() + "|" + request.getRazorpayPaymentId();
-            String computed = hmacSha256Hex(payload, razorpayKeySecret);
-            if (!safeEquals(computed, request.getRazorpaySignature())) {
+            if (!paymentGateway.verifyPaymentSignature(request.getRazorpayOrderId(), request.getRazorpayPaymentId(), request.getRazorpaySignature())) {
                 Payment p = new Payment();
                 p.setOrder(o);
                 p.setProvider("RAZORPAY");
                 p.setCurrency("INR");
-                p.setAmountPaise(Math.max(0L, Math.round((o.getTotalAmount() == null ? 0.0 : o.getTotalAmount()) * 100.0)));
+                p.setAmountPaise(Money.orZero(o.getTotalAmountPaise()));
                 p.setRazorpayOrderId(request.getRazorpayOrderId());
                 p.setRazorpayPaymentId(request.getRazorpayPaymentId());
                 p.setRazorpaySignature(request.getRazorpaySignature());
@@ -404,16 +376,21 @@ public class CustomerController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid payment signature");
             }
 
+            boolean wasPaid = "PAID".equalsIgnoreCase(String.valueOf(o.getPaymentStatus()));
             o.setPaymentStatus("PAID");
             o.setRazorpayPaymentId(request.getRazorpayPaymentId());
             o.setPaidAt(System.currentTimeMillis());
             cafeOrderRepository.save(o);
+            if (!wasPaid) {
+                analyticsService.recordOrderPaid(o.getId());
+            }
+            orderEventService.orderChanged(o.getId());
 
             Payment p = new Payment();
             p.setOrder(o);
             p.setProvider("RAZORPAY");
             p.setCurrency("INR");
-            p.setAmountPaise(Math.max(0L, Math.round((o.getTotalAmount() == null ? 0.0 : o.getTotalAmount()) * 100.0)));
+            p.setAmountPaise(Money.orZero(o.getTotalAmountPaise()));
             p.setRazorpayOrderId(request.getRazorpayOrderId());
             p.setRazorpayPaymentId(request.getRazorpayPaymentId());
             p.setRazorpaySignature(request.getRazorpaySignature());
@@ -432,17 +409,13 @@ public class CustomerController {
             @Valid @RequestBody CafeOrderRequest request
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
-            if (razorpayKeyId == null || razorpayKeyId.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key id not configured. Set environment variable RAZORPAY_KEY_ID (or razorpay.key_id in application.properties).");
-            }
-            if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key secret not configured. Set environment variable RAZORPAY_KEY_SECRET (or razorpay.key_secret in application.properties).");
+            String gatewayProblem = paymentGateway.configurationProblem();
+            if (gatewayProblem != null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(gatewayProblem);
             }
 
             Cafe cafe = requireApprovedCafe(request.getCafeId());
@@ -450,50 +423,34 @@ public class CustomerController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Cafe not found or not approved");
             }
 
-            double total = 0.0;
-            if (request.getItems() != null && !request.getItems().isEmpty()) {
-                for (var it : request.getItems()) {
-                    MenuItem mi = menuItemRepository.findById(it.getMenuItemId()).orElse(null);
-                    if (mi == null || !Boolean.TRUE.equals(mi.getAvailable())) {
-                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid or unavailable menu item");
-                    }
-                    Integer qty = it.getQty();
-                    if (qty == null || qty <= 0) {
-                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid quantity");
-                    }
-                    total += mi.getPrice() * qty;
-                }
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Cart is empty");
+            CartQuote quote = cartPricingService.price(cafe.getId(), request.getItems());
+            if (quote.getError() != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(quote.getError());
             }
 
-            long amountPaise = Math.max(0L, Math.round(total * 100.0));
+            long amountPaise = quote.getAmountPaise();
             if (amountPaise <= 0L) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Order total amount must be greater than 0");
             }
 
-            RazorpayClient client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-            JSONObject req = new JSONObject();
-            req.put("amount", amountPaise);
-            req.put("currency", "INR");
-            req.put("receipt", "cart_" + System.currentTimeMillis());
-            req.put("payment_capture", 1);
-
-            Order rpOrder = client.orders.create(req);
-            String rpOrderId = rpOrder.get("id");
+            String rpOrderId = paymentGateway.createOrder(amountPaise, "INR", "cart_" + System.currentTimeMillis()).getId();
+            paymentEventService.recordOrderCreated(rpOrderId, amountPaise);
 
             RazorpayCreateOrderResponse res = new RazorpayCreateOrderResponse();
             res.setCafeOrderId(null);
             res.setOrderNumber(null);
-            res.setRazorpayKeyId(razorpayKeyId);
+            res.setRazorpayKeyId(paymentGateway.keyId());
             res.setRazorpayOrderId(rpOrderId);
             res.setAmountPaise(amountPaise);
             res.setCurrency("INR");
             res.setCafeName(cafe.getCafeName());
-            res.setCustomerName(customer.getPersonalDetails() == null ? null : (customer.getPersonalDetails().getFirstName() + " " + customer.getPersonalDetails().getLastName()).trim());
-            res.setCustomerPhone(customer.getPersonalDetails() == null ? null : customer.getPersonalDetails().getPhone());
+            // The principal cache does not hold names, so only this prefill loads the profile.
+            User profile = userRepository.findByUsername(customer.getUsername()).orElse(null);
+            PersonalDetails pd = profile == null ? null : profile.getPersonalDetails();
+            res.setCustomerName(pd == null ? null : (pd.getFirstName() + " " + pd.getLastName()).trim());
+            res.setCustomerPhone(customer.getPhone());
             return ResponseEntity.ok(res);
-        } catch (RazorpayException ex) {
+        } catch (PaymentGatewayException ex) {
             String msg = ex.getMessage();
             if (msg == null || msg.isBlank()) msg = "Razorpay error";
             return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Razorpay: " + msg);
@@ -511,20 +468,16 @@ public class CustomerController {
             @Valid @RequestBody CafeOrderRequest request
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             if (id == null || request == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
-            if (razorpayKeyId == null || razorpayKeyId.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key id not configured. Set environment variable RAZORPAY_KEY_ID (or razorpay.key_id in application.properties).");
-            }
-            if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key secret not configured. Set environment variable RAZORPAY_KEY_SECRET (or razorpay.key_secret in application.properties).");
+            String gatewayProblem = paymentGateway.configurationProblem();
+            if (gatewayProblem != null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(gatewayProblem);
             }
 
             CafeBooking b = cafeBookingRepository.findById(id).orElse(null);
@@ -559,42 +512,23 @@ public class CustomerController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Cafe mismatch");
             }
 
-            double total = 0.0;
-            if (request.getItems() != null && !request.getItems().isEmpty()) {
-                for (var it : request.getItems()) {
-                    MenuItem mi = menuItemRepository.findById(it.getMenuItemId()).orElse(null);
-                    if (mi == null || !Boolean.TRUE.equals(mi.getAvailable())) {
-                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid or unavailable menu item");
-                    }
-                    Integer qty = it.getQty();
-                    if (qty == null || qty <= 0) {
-                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid quantity");
-                    }
-                    total += mi.getPrice() * qty;
-                }
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Cart is empty");
+            CartQuote quote = cartPricingService.price(cafe.getId(), request.getItems());
+            if (quote.getError() != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(quote.getError());
             }
 
-            long amountPaise = Math.max(0L, Math.round(total * 100.0));
+            long amountPaise = quote.getAmountPaise();
             if (amountPaise <= 0L) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Order total amount must be greater than 0");
             }
 
-            RazorpayClient client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-            JSONObject req = new JSONObject();
-            req.put("amount", amountPaise);
-            req.put("currency", "INR");
-            req.put("receipt", "booking_food_" + b.getId() + "_" + System.currentTimeMillis());
-            req.put("payment_capture", 1);
-
-            Order rpOrder = client.orders.create(req);
-            String rpOrderId = rpOrder.get("id");
+            String rpOrderId = paymentGateway.createOrder(amountPaise, "INR", "booking_food_" + b.getId() + "_" + System.currentTimeMillis()).getId();
+            paymentEventService.recordOrderCreated(rpOrderId, amountPaise);
 
             RazorpayCreateOrderResponse res = new RazorpayCreateOrderResponse();
             res.setCafeOrderId(null);
             res.setOrderNumber(null);
-            res.setRazorpayKeyId(razorpayKeyId);
+            res.setRazorpayKeyId(paymentGateway.keyId());
             res.setRazorpayOrderId(rpOrderId);
             res.setAmountPaise(amountPaise);
             res.setCurrency("INR");
@@ -602,7 +536,7 @@ public class CustomerController {
             res.setCustomerName(b.getCustomerName());
             res.setCustomerPhone(b.getCustomerPhone());
             return ResponseEntity.ok(res);
-        } catch (RazorpayException ex) {
+        } catch (PaymentGatewayException ex) {
             String msg = ex.getMessage();
             if (msg == null || msg.isBlank()) msg = "Razorpay error";
             return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Razorpay: " + msg);
@@ -620,16 +554,16 @@ public class CustomerController {
             @Valid @RequestBody RazorpayConfirmBookingFoodOrderRequest request
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             if (id == null || request == null || request.getOrder() == null || request.getPayment() == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
-            if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key secret not configured. Set environment variable RAZORPAY_KEY_SECRET (or razorpay.key_secret in application.properties).");
+            String gatewayProblem = paymentGateway.configurationProblem();
+            if (gatewayProblem != null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(gatewayProblem);
             }
 
             CafeBooking b = cafeBookingRepository.findById(id).orElse(null);
@@ -671,52 +605,23 @@ public class CustomerController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Cart is empty");
             }
 
-            String payload = pay.getRazorpayOrderId() + "|" + pay.getRazorpayPaymentId();
-            String computed = hmacSha256Hex(payload, razorpayKeySecret);
-            if (!safeEquals(computed, pay.getRazorpaySignature())) {
+            if (!paymentGateway.verifyPaymentSignature(pay.getRazorpayOrderId(), pay.getRazorpayPaymentId(), pay.getRazorpaySignature())) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid payment signature");
             }
 
-            double total = 0.0;
-            List<CafeOrderItem> items = new ArrayList<>();
-            for (var it : or.getItems()) {
-                if (it == null || it.getMenuItemId() == null || it.getQty() == null || it.getQty() <= 0) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-                }
-                MenuItem mi = menuItemRepository.findById(it.getMenuItemId()).orElse(null);
-                if (mi == null || !Boolean.TRUE.equals(mi.getAvailable())) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid or unavailable menu item");
-                }
-                CafeOrderItem oi = new CafeOrderItem();
-                oi.setMenuItemId(mi.getId());
-                oi.setItemName(mi.getName());
-                oi.setPrice(mi.getPrice());
-                oi.setQty(it.getQty());
-                items.add(oi);
-                total += (mi.getPrice() * it.getQty());
-            }
-            long amountPaise = Math.max(0L, Math.round(total * 100.0));
+            CartQuote quote = cartPricingService.price(cafe.getId(), or.getItems());
+            if (quote.getError() != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(quote.getError());
+            }
+            List<CafeOrderItem> items = quote.getItems();
+            long amountPaise = quote.getAmountPaise();
             if (amountPaise <= 0L) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Order total amount must be greater than 0");
             }
 
-            if (razorpayKeyId == null || razorpayKeyId.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key id not configured. Set environment variable RAZORPAY_KEY_ID (or razorpay.key_id in application.properties).");
-            }
-            RazorpayClient client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-            Order rpOrder = client.orders.fetch(pay.getRazorpayOrderId());
-            Object rpAmountObj = rpOrder.get("amount");
-            long rpAmount = Long.parseLong(String.valueOf(rpAmountObj));
-            String rpStatus = rpOrder.get("status");
-            if (rpAmount != amountPaise) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Payment amount mismatch");
-            }
-            if (rpStatus != null && !String.valueOf(rpStatus).isBlank()) {
-                String s = String.valueOf(rpStatus).trim().toLowerCase();
-                if ("failed".equals(s)) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Payment not completed");
-                }
+            String rejection = paymentEventService.rejectionReason(pay.getRazorpayOrderId(), pay.getRazorpayPaymentId(), amountPaise);
+            if (rejection != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(rejection);
             }
 
             String allocated = (b.getAllocatedTable() == null ? null : b.getAllocatedTable().trim());
@@ -729,15 +634,14 @@ public class CustomerController {
             o.setAmenityPreference(b.getAmenityPreference());
             o.setAllocatedTable(allocated);
             o.setStatus("PLACED");
-            o.setTotalAmount(total);
+            o.setTotalAmountPaise(amountPaise);
             o.setPaymentStatus("PAID");
             o.setRazorpayOrderId(pay.getRazorpayOrderId());
             o.setRazorpayPaymentId(pay.getRazorpayPaymentId());
             o.setPaidAt(System.currentTimeMillis());
             o.setBookingId(b.getId());
 
-            Integer maxNo = cafeOrderRepository.findMaxOrderNumberByCafeId(cafe.getId());
-            o.setOrderNumber((maxNo == null ? 0 : maxNo) + 1);
+            o.setOrderNumber(orderNumberService.next(cafe.getId()));
 
             for (CafeOrderItem oi : items) {
                 oi.setOrder(o);
@@ -745,6 +649,8 @@ public class CustomerController {
             o.setItems(items);
 
             cafeOrderRepository.save(o);
+            analyticsService.recordOrderCreated(o.getId());
+            orderEventService.orderChanged(o.getId());
 
             Payment p = new Payment();
             p.setOrder(o);
@@ -754,14 +660,10 @@ public class CustomerController {
             p.setRazorpayOrderId(pay.getRazorpayOrderId());
             p.setRazorpayPaymentId(pay.getRazorpayPaymentId());
             p.setRazorpaySignature(pay.getRazorpaySignature());
-            p.setStatus("PAID");
+            p.setStatus(paymentEventService.settledStatus(pay.getRazorpayOrderId()));
             paymentRepository.save(p);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(toOrderRow(o));
-        } catch (RazorpayException ex) {
-            String msg = ex.getMessage();
-            if (msg == null || msg.isBlank()) msg = "Razorpay error";
-            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Razorpay: " + msg);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to confirm order");
         }
@@ -773,16 +675,16 @@ public class CustomerController {
             @Valid @RequestBody RazorpayConfirmCartOrderRequest request
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             if (request == null || request.getOrder() == null || request.getPayment() == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
-            if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key secret not configured. Set environment variable RAZORPAY_KEY_SECRET (or razorpay.key_secret in application.properties).");
+            String gatewayProblem = paymentGateway.configurationProblem();
+            if (gatewayProblem != null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(gatewayProblem);
             }
 
             CafeOrderRequest or = request.getOrder();
@@ -810,54 +712,25 @@ public class CustomerController {
             }
 
             // Verify Razorpay signature
-            String payload = pay.getRazorpayOrderId() + "|" + pay.getRazorpayPaymentId();
-            String computed = hmacSha256Hex(payload, razorpayKeySecret);
-            if (!safeEquals(computed, pay.getRazorpaySignature())) {
+            if (!paymentGateway.verifyPaymentSignature(pay.getRazorpayOrderId(), pay.getRazorpayPaymentId(), pay.getRazorpaySignature())) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid payment signature");
             }
 
             // Compute amount from items
-            double total = 0.0;
-            List<CafeOrderItem> items = new ArrayList<>();
-            for (var it : or.getItems()) {
-                if (it == null || it.getMenuItemId() == null || it.getQty() == null || it.getQty() <= 0) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-                }
-                MenuItem mi = menuItemRepository.findById(it.getMenuItemId()).orElse(null);
-                if (mi == null || !Boolean.TRUE.equals(mi.getAvailable())) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid or unavailable menu item");
-                }
-                CafeOrderItem oi = new CafeOrderItem();
-                oi.setMenuItemId(mi.getId());
-                oi.setItemName(mi.getName());
-                oi.setPrice(mi.getPrice());
-                oi.setQty(it.getQty());
-                items.add(oi);
-                total += (mi.getPrice() * it.getQty());
-            }
-            long amountPaise = Math.max(0L, Math.round(total * 100.0));
+            CartQuote quote = cartPricingService.price(cafe.getId(), or.getItems());
+            if (quote.getError() != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(quote.getError());
+            }
+            List<CafeOrderItem> items = quote.getItems();
+            long amountPaise = quote.getAmountPaise();
             if (amountPaise <= 0L) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Order total amount must be greater than 0");
             }
 
-            // Validate Razorpay order amount and status via fetch
-            if (razorpayKeyId == null || razorpayKeyId.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key id not configured. Set environment variable RAZORPAY_KEY_ID (or razorpay.key_id in application.properties).");
-            }
-            RazorpayClient client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-            Order rpOrder = client.orders.fetch(pay.getRazorpayOrderId());
-            Object rpAmountObj = rpOrder.get("amount");
-            long rpAmount = Long.parseLong(String.valueOf(rpAmountObj));
-            String rpStatus = rpOrder.get("status");
-            if (rpAmount != amountPaise) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Payment amount mismatch");
-            }
-            if (rpStatus != null && !String.valueOf(rpStatus).isBlank()) {
-                String s = String.valueOf(rpStatus).trim().toLowerCase();
-                if ("failed".equals(s)) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Payment not completed");
-                }
+            // Amount and status come from locally recorded gateway events; the signature proves the payment
+            String rejection = paymentEventService.rejectionReason(pay.getRazorpayOrderId(), pay.getRazorpayPaymentId(), amountPaise);
+            if (rejection != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(rejection);
             }
 
             // Create PAID order
@@ -874,7 +747,7 @@ public class CustomerController {
             o.setAmenityPreference(or.getAmenityPreference());
             o.setAllocatedTable(allocated);
             o.setStatus("PLACED");
-            o.setTotalAmount(total);
+            o.setTotalAmountPaise(amountPaise);
             o.setPaymentStatus("PAID");
             o.setRazorpayOrderId(pay.getRazorpayOrderId());
             o.setRazorpayPaymentId(pay.getRazorpayPaymentId());
@@ -907,8 +780,7 @@ public class CustomerController {
 
             o.setBookingId(b.getId());
 
-            Integer maxNo = cafeOrderRepository.findMaxOrderNumberByCafeId(cafe.getId());
-            o.setOrderNumber((maxNo == null ? 0 : maxNo) + 1);
+            o.setOrderNumber(orderNumberService.next(cafe.getId()));
 
             for (CafeOrderItem oi : items) {
                 oi.setOrder(o);
@@ -916,6 +788,8 @@ public class CustomerController {
             o.setItems(items);
 
             cafeOrderRepository.save(o);
+            analyticsService.recordOrderCreated(o.getId());
+            orderEventService.orderChanged(o.getId());
 
             Payment p = new Payment();
             p.setOrder(o);
@@ -925,14 +799,10 @@ public class CustomerController {
             p.setRazorpayOrderId(pay.getRazorpayOrderId());
             p.setRazorpayPaymentId(pay.getRazorpayPaymentId());
             p.setRazorpaySignature(pay.getRazorpaySignature());
-            p.setStatus("PAID");
+            p.setStatus(paymentEventService.settledStatus(pay.getRazorpayOrderId()));
             paymentRepository.save(p);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(toOrderRow(o));
-        } catch (RazorpayException ex) {
-            String msg = ex.getMessage();
-            if (msg == null || msg.isBlank()) msg = "Razorpay error";
-            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Razorpay: " + msg);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to confirm order");
         }
@@ -944,19 +814,17 @@ public class CustomerController {
             @Valid @RequestBody RazorpayVerifyPaymentRequest request
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
-            if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Razorpay key secret not configured. Set environment variable RAZORPAY_KEY_SECRET (or razorpay.key_secret in application.properties).");
+            String gatewayProblem = paymentGateway.configurationProblem();
+            if (gatewayProblem != null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(gatewayProblem);
             }
 
             // Verify Razorpay signature
-            String payload = request.getRazorpayOrderId() + "|" + request.getRazorpayPaymentId();
-            String computed = hmacSha256Hex(payload, razorpayKeySecret);
-            if (!safeEquals(computed, request.getRazorpaySignature())) {
+            if (!paymentGateway.verifyPaymentSignature(request.getRazorpayOrderId(), request.getRazorpayPaymentId(), request.getRazorpaySignature())) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid payment signature");
             }
 
@@ -978,7 +846,7 @@ public class CustomerController {
             @PathVariable Long id
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -996,10 +864,7 @@ public class CustomerController {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
                 }
             } else {
-                String phone = null;
-                if (customer.getPersonalDetails() != null && customer.getPersonalDetails().getPhone() != null) {
-                    phone = customer.getPersonalDetails().getPhone().trim();
-                }
+                String phone = customer.getPhone() == null ? null : customer.getPhone().trim();
                 if (phone == null || phone.isBlank()) {
                     return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
                 }
@@ -1008,7 +873,10 @@ public class CustomerController {
                 }
             }
 
+            Long orderCafeId = o.getCafe() == null ? null : o.getCafe().getId();
+            analyticsService.recordOrderDeleted(o.getId());
             cafeOrderRepository.delete(o);
+            orderEventService.orderRemoved(orderCafeId, id);
             return ResponseEntity.ok("Deleted");
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1038,7 +906,7 @@ public class CustomerController {
             @PathVariable Long id
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -1055,6 +923,7 @@ public class CustomerController {
             }
 
             cafeBookingRepository.delete(b);
+            orderEventService.bookingChanged(id);
             return ResponseEntity.ok("Deleted");
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1068,7 +937,7 @@ public class CustomerController {
             @Valid @RequestBody CafeBookingRequest request
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -1121,7 +990,7 @@ public class CustomerController {
             @Valid @RequestBody CafeOrderRequest request
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -1136,6 +1005,11 @@ public class CustomerController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
 
+            CartQuote quote = cartPricingService.price(cafe.getId(), request.getItems());
+            if (quote.getError() != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+
             String allocated = (request.getAllocatedTable() == null ? null : request.getAllocatedTable().trim());
             if (allocated == null || allocated.isBlank()) {
                 allocated = "DINE_IN_TABLE_" + System.currentTimeMillis();
@@ -1150,35 +1024,15 @@ public class CustomerController {
             o.setStatus("PLACED");
             o.setAllocatedTable(allocated);
 
-            Integer maxNo = cafeOrderRepository.findMaxOrderNumberByCafeId(cafe.getId());
-            o.setOrderNumber((maxNo == null ? 0 : maxNo) + 1);
-
-            List<CafeOrderItem> items = new ArrayList<>();
-            double total = 0.0;
-
-            for (var ir : request.getItems()) {
-                if (ir == null || ir.getMenuItemId() == null || ir.getQty() == null || ir.getQty() <= 0) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-                }
-                MenuItem mi = menuItemRepository.findById(ir.getMenuItemId()).orElse(null);
-                if (mi == null || mi.getCafe() == null || mi.getCafe().getId() == null || !mi.getCafe().getId().equals(cafe.getId())) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-                }
+            o.setOrderNumber(orderNumberService.next(cafe.getId()));
 
-                CafeOrderItem oi = new CafeOrderItem();
+            for (CafeOrderItem oi : quote.getItems()) {
                 oi.setOrder(o);
-                oi.setMenuItemId(mi.getId());
-                oi.setItemName(mi.getName());
-                oi.setPrice(mi.getPrice());
-                oi.setQty(ir.getQty());
-
-                items.add(oi);
-                total += (mi.getPrice() == null ? 0.0 : mi.getPrice()) * ir.getQty();
             }
 
-            o.setTotalAmount(total);
+            o.setTotalAmountPaise(quote.getAmountPaise());
             o.getItems().clear();
-            o.getItems().addAll(items);
+            o.getItems().addAll(quote.getItems());
 
             CafeBooking b = new CafeBooking();
             b.setCafe(cafe);
@@ -1197,6 +1051,8 @@ public class CustomerController {
             o.setBookingId(b.getId());
             o.setPaymentStatus("UNPAID");
             cafeOrderRepository.save(o);
+            analyticsService.recordOrderCreated(o.getId());
+            orderEventService.orderChanged(o.getId());
 
             return ResponseEntity.status(HttpStatus.CREATED).body(toOrderRow(o));
         } catch (RuntimeException ex) {
@@ -1206,21 +1062,22 @@ public class CustomerController {
 
     @GetMapping("/orders")
     public ResponseEntity<List<CafeOrderRow>> listMyOrders(
-            @RequestHeader(value = "X-USERNAME", required = false) String customerUsername
+            @RequestHeader(value = "X-USERNAME", required = false) String customerUsername,
+            @ModelAttribute PageQuery page
     ) {
         try {
-            User customer = requireCustomer(customerUsername);
+            AuthPrincipal customer = requireCustomer(customerUsername);
             if (customer == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            List<CafeOrder> list = cafeOrderRepository.findByCustomerUsernameOrderByCreatedAtDesc(customer.getUsername());
+            List<Long> fetched = findMyOrderIdsPage(customer.getUsername(), page);
 
-            if ((list == null || list.isEmpty())
-                    && customer.getPersonalDetails() != null
-                    && customer.getPersonalDetails().getPhone() != null
-                    && !customer.getPersonalDetails().getPhone().isBlank()) {
-                String phone = customer.getPersonalDetails().getPhone().trim();
+            if (fetched.isEmpty()
+                    && (page.getCursor() == null || page.getCursor().isBlank())
+                    && customer.getPhone() != null
+                    && !customer.getPhone().isBlank()) {
+                String phone = customer.getPhone().trim();
                 List<CafeOrder> legacy = cafeOrderRepository.findByCustomerPhoneOrderByCreatedAtDesc(phone);
                 if (legacy != null && !legacy.isEmpty()) {
                     for (CafeOrder o : legacy) {
@@ -1229,46 +1086,53 @@ public class CustomerController {
                             cafeOrderRepository.save(o);
                         }
                     }
-                    list = cafeOrderRepository.findByCustomerUsernameOrderByCreatedAtDesc(customer.getUsername());
+                    fetched = findMyOrderIdsPage(customer.getUsername(), page);
                 }
             }
 
-            ensureOrderNumbers(list);
-            List<CafeOrderRow> rows = (list == null ? List.<CafeOrderRow>of() : list.stream().map(this::toOrderRow).toList());
-            return ResponseEntity.ok(rows);
+            List<Long> ids = page.trim(fetched);
+            List<CafeOrder> list = ids.isEmpty() ? List.of() : cafeOrderRepository.findByIdInWithItems(ids);
+            List<CafeOrderRow> rows = list.stream().map(this::toOrderRow).toList();
+
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.hasMore(fetched) && !list.isEmpty()) {
+                CafeOrder last = list.get(list.size() - 1);
+                ok.header(PageQuery.NEXT_CURSOR_HEADER, PageQuery.cursorOf(last.getCreatedAt(), last.getId()));
+            }
+            return ok.body(rows);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    private void ensureOrderNumbers(List<CafeOrder> list) {
-        if (list == null || list.isEmpty()) return;
-        var byCafe = list.stream()
-                .filter(o -> o != null && o.getCafe() != null && o.getCafe().getId() != null)
-                .collect(java.util.stream.Collectors.groupingBy(o -> o.getCafe().getId()));
-        for (var e : byCafe.entrySet()) {
-            int max = 0;
-            for (CafeOrder o : e.getValue()) {
-                if (o != null && o.getOrderNumber() != null && o.getOrderNumber() > max) max = o.getOrderNumber();
-            }
-            List<CafeOrder> missing = e.getValue().stream()
-                    .filter(o -> o != null && o.getOrderNumber() == null)
-                    .sorted(java.util.Comparator.comparingLong(o -> o.getCreatedAt() == null ? 0L : o.getCreatedAt()))
-                    .toList();
-            int next = max + 1;
-            for (CafeOrder o : missing) {
-                o.setOrderNumber(next++);
-                cafeOrderRepository.save(o);
-            }
-        }
+    private List<CafeBooking> findMyBookingsPage(String username, PageQuery page) {
+        return cafeBookingRepository.findPageByCustomerUsername(
+                username,
+                page.statusOrBlank(),
+                page.fromOrMin(),
+                page.toOrMax(),
+                page.cursorCreatedAt(),
+                page.cursorId(),
+                page.pageable()
+        );
+    }
+
+    private List<Long> findMyOrderIdsPage(String username, PageQuery page) {
+        return cafeOrderRepository.findPageIdsByCustomerUsername(
+                username,
+                page.statusOrBlank(),
+                page.fromOrMin(),
+                page.toOrMax(),
+                page.cursorCreatedAt(),
+                page.cursorId(),
+                page.pageable()
+        );
     }
 
-    private User requireCustomer(String username) {
-        if (username == null || username.isBlank()) return null;
-        User u = userRepository.findByUsername(username.trim()).orElse(null);
-        if (u == null) return null;
-        if (u.getRole() == null || u.getRole() != Role.CUSTOMER) return null;
-        return u;
+    private AuthPrincipal requireCustomer(String username) {
+        AuthPrincipal p = principalCacheService.resolve(username);
+        if (p == null || p.getRole() != Role.CUSTOMER) return null;
+        return p;
     }
 
     private Cafe requireApprovedCafe(Long id) {
@@ -1303,7 +1167,8 @@ public class CustomerController {
         }
         r.setCustomerPhone(o.getCustomerPhone());
         r.setStatus(o.getStatus());
-        r.setTotalAmount(o.getTotalAmount());
+        r.setTotalAmount(Money.toRupees(o.getTotalAmountPaise()));
+        r.setTotalAmountPaise(o.getTotalAmountPaise());
         r.setPaymentStatus(o.getPaymentStatus() == null ? "UNPAID" : o.getPaymentStatus());
         r.setRazorpayOrderId(o.getRazorpayOrderId());
         r.setRazorpayPaymentId(o.getRazorpayPaymentId());
@@ -1316,7 +1181,8 @@ public class CustomerController {
                 com.cafe.dto.CafeOrderItemRow ir = new com.cafe.dto.CafeOrderItemRow();
                 ir.setMenuItemId(it.getMenuItemId());
                 ir.setItemName(it.getItemName());
-                ir.setPrice(it.getPrice());
+                ir.setPrice(Money.toRupees(it.getPricePaise()));
+                ir.setPricePaise(it.getPricePaise());
                 ir.setQty(it.getQty());
                 return ir;
             }).toList());
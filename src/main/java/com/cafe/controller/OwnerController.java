@@ -7,6 +7,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.cafe.dto.AdminAnalyticsDetailsResponse;
 import com.cafe.dto.AdminAnalyticsSummary;
@@ -38,6 +40,7 @@ import com.cafe.dto.MenuItemRow;
 import com.cafe.dto.OwnerCafeRow;
 import com.cafe.dto.OwnerStaffCreateRequest;
 import com.cafe.dto.OwnerStaffRow;
+import com.cafe.dto.PageQuery;
 import com.cafe.service.OwnerService;
 
 import jakarta.validation.Valid;
@@ -290,9 +293,10 @@ public class OwnerController {
     @GetMapping("/bookings")
     public ResponseEntity<List<CafeBookingRow>> listBookings(
             @RequestHeader(value = "X-USERNAME", required = false) String ownerUsername,
-            @RequestHeader(value = "X-CAFE-ID", required = false) Long cafeId
+            @RequestHeader(value = "X-CAFE-ID", required = false) Long cafeId,
+            @ModelAttribute PageQuery page
     ) {
-        return ownerService.listBookings(ownerUsername, cafeId);
+        return ownerService.listBookings(ownerUsername, cafeId, page);
     }
 
     @PostMapping("/bookings/{id}/approve")
@@ -336,9 +340,21 @@ public class OwnerController {
     @GetMapping("/orders")
     public ResponseEntity<List<CafeOrderRow>> listOrders(
             @RequestHeader(value = "X-USERNAME", required = false) String ownerUsername,
-            @RequestHeader(value = "X-CAFE-ID", required = false) Long cafeId
+            @RequestHeader(value = "X-CAFE-ID", required = false) Long cafeId,
+            @ModelAttribute PageQuery page
+    ) {
+        return ownerService.listOrders(ownerUsername, cafeId, page);
+    }
+
+    @GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrders(
+            @RequestHeader(value = "X-USERNAME", required = false) String ownerUsername,
+            @RequestHeader(value = "X-CAFE-ID", required = false) Long cafeId,
+            @RequestParam(value = "username", required = false) String usernameParam,
+            @RequestParam(value = "cafeId", required = false) Long cafeIdParam
     ) {
-        return ownerService.listOrders(ownerUsername, cafeId);
+        String username = (ownerUsername == null || ownerUsername.isBlank()) ? usernameParam : ownerUsername;
+        return ownerService.streamOrders(username, cafeId == null ? cafeIdParam : cafeId);
     }
 
     @DeleteMapping("/orders/{id}")
@@ -0,0 +1,28 @@
+package com.cafe.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cafe.service.PaymentEventService;
+
+@RestController
+@RequestMapping("/api/payments")
+public class PaymentWebhookController {
+
+    @Autowired
+    private PaymentEventService paymentEventService;
+
+    @PostMapping("/razorpay/webhook")
+    public ResponseEntity<String> razorpayWebhook(
+            @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId,
+            @RequestBody String payload
+    ) {
+        return paymentEventService.handleWebhook(payload, signature, eventId);
+    }
+}
@@ -8,6 +8,7 @@ import com.cafe.entity.PersonalDetails;
 import com.cafe.entity.User;
 import com.cafe.entity.WorkExperience;
 import com.cafe.repository.UserRepository;
+import com.cafe.service.PrincipalCacheService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -24,6 +25,9 @@ public class ProfileController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PrincipalCacheService principalCacheService;
+
     @GetMapping("/me")
     public ResponseEntity<AdminUserDetail> me(
             @RequestHeader(value = "X-USERNAME", required = false) String username
@@ -117,6 +121,7 @@ public class ProfileController {
             u.setWorkExperienceList(newWork);
 
             userRepository.save(u);
+            principalCacheService.evictUser(u.getUsername());
             return ResponseEntity.ok(toDetail(u));
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1,14 +1,19 @@
 package com.cafe.controller;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -17,7 +22,8 @@ import com.cafe.dto.AvailableTablesResponse;
 import com.cafe.dto.CafeAmenityRow;
 import com.cafe.dto.CafeImageRow;
 import com.cafe.dto.CafeProfileResponse;
-import com.cafe.dto.MenuItemRow;
+import com.cafe.dto.CatalogSearchHitRow;
+import com.cafe.dto.NearbyCafeRow;
 import com.cafe.dto.PublicCafeCardRow;
 import com.cafe.entity.ApprovalStatus;
 import com.cafe.entity.Cafe;
@@ -25,23 +31,29 @@ import com.cafe.entity.CafeAmenity;
 import com.cafe.entity.CafeImage;
 import com.cafe.entity.FunctionCapacity;
 import com.cafe.entity.FunctionType;
-import com.cafe.entity.MenuItem;
 import com.cafe.repository.CafeAmenityRepository;
-import com.cafe.repository.CafeBookingRepository;
 import com.cafe.repository.CafeImageRepository;
 import com.cafe.repository.CafeRepository;
 import com.cafe.repository.FunctionCapacityRepository;
-import com.cafe.repository.MenuItemRepository;
+import com.cafe.service.CafeLocationService;
+import com.cafe.service.CatalogCacheService;
+import com.cafe.service.CatalogSearchService;
+import com.cafe.service.MenuDocumentService;
+import com.cafe.service.TableAvailabilityService;
+import com.cafe.util.TableLabels;
 
 @RestController
 @RequestMapping("/api/public")
 public class PublicCafeController {
 
-    @Autowired
-    private CafeRepository cafeRepository;
+    private static final int MAX_CARD_PAGE_SIZE = 100;
+
+    private static final int MAX_NEARBY = 100;
+
+    private static final double MAX_RADIUS_KM = 100.0;
 
     @Autowired
-    private MenuItemRepository menuItemRepository;
+    private CafeRepository cafeRepository;
 
     @Autowired
     private CafeImageRepository cafeImageRepository;
@@ -53,15 +65,50 @@ public class PublicCafeController {
     private FunctionCapacityRepository functionCapacityRepository;
 
     @Autowired
-    private CafeBookingRepository cafeBookingRepository;
+    private TableAvailabilityService tableAvailabilityService;
+
+    @Autowired
+    private CatalogCacheService catalogCacheService;
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @Autowired
+    private MenuDocumentService menuDocumentService;
+
+    @Autowired
+    private CafeLocationService cafeLocationService;
 
     @GetMapping("/cafes")
-    public ResponseEntity<List<PublicCafeCardRow>> listCafes() {
+    public ResponseEntity<List<PublicCafeCardRow>> listCafes(
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String cityLower = city == null ? "" : city.trim().toLowerCase();
+        Pageable pageable = size == null
+                ? Pageable.unpaged()
+                : PageRequest.of(page == null ? 0 : Math.max(0, page), Math.min(Math.max(1, size), MAX_CARD_PAGE_SIZE));
+        String key = "cafes:" + cityLower + ":" + (pageable.isPaged() ? pageable.getPageNumber() + ":" + pageable.getPageSize() : "all");
+        return catalogCacheService.respond(key, null, ifNoneMatch, () -> loadCafes(cityLower, pageable));
+    }
+
+    private ResponseEntity<List<PublicCafeCardRow>> loadCafes(String cityLower, Pageable pageable) {
         try {
-            List<Cafe> cafes = cafeRepository.findByApprovalStatus(ApprovalStatus.APPROVED);
+            List<Object[]> cafes = cafeRepository.findCardRows(ApprovalStatus.APPROVED, cityLower, pageable);
+            if (cafes.isEmpty()) {
+                return ResponseEntity.ok(List.of());
+            }
+
+            List<Long> cafeIds = cafes.stream().map(row -> (Long) row[0]).toList();
+            Map<Long, List<Long>> imageIdsByCafe = new HashMap<>();
+            for (Object[] row : cafeImageRepository.findIdsByCafeIds(cafeIds)) {
+                imageIdsByCafe.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((Long) row[1]);
+            }
+
             List<PublicCafeCardRow> rows = cafes.stream()
-                    .filter(c -> c != null && Boolean.TRUE.equals(c.getActive()))
-                    .map(this::toCardRow)
+                    .map(row -> toCardRow(row, imageIdsByCafe.getOrDefault((Long) row[0], List.of())))
                     .toList();
             return ResponseEntity.ok(rows);
         } catch (RuntimeException ex) {
@@ -70,11 +117,66 @@ public class PublicCafeController {
 
     }
 
+    // k-nearest by default; with radiusKm, every match inside the radius (closest first, up to limit).
+    @GetMapping("/cafes/nearby")
+    public ResponseEntity<List<NearbyCafeRow>> listNearbyCafes(
+            @RequestParam(value = "lat") Double lat,
+            @RequestParam(value = "lng") Double lng,
+            @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "openNow", required = false) Boolean openNow,
+            @RequestParam(value = "functionType", required = false) String functionType
+    ) {
+        if (lat == null || lng == null || lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        if (radiusKm != null && (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        FunctionType ft = null;
+        if (functionType != null && !functionType.isBlank()) {
+            try {
+                ft = FunctionType.valueOf(functionType.trim().toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+        }
+        int k = limit == null ? 20 : Math.min(Math.max(1, limit), MAX_NEARBY);
+        try {
+            return ResponseEntity.ok(cafeLocationService.nearby(lat, lng, radiusKm, k, Boolean.TRUE.equals(openNow), ft));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<CatalogSearchHitRow>> search(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        if ((q == null || q.isBlank()) && (category == null || category.isBlank())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            return ResponseEntity.ok(catalogSearchService.search(q, city, category, limit == null ? 20 : limit));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/cafes/{id}/amenities")
     public ResponseEntity<List<CafeAmenityRow>> listCafeAmenities(
             @PathVariable Long id,
-            @RequestParam(value = "functionType", required = false) String functionType
+            @RequestParam(value = "functionType", required = false) String functionType,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
+        String key = "amenities:" + (functionType == null ? "" : functionType.trim());
+        return catalogCacheService.respond(key, id, ifNoneMatch, () -> loadCafeAmenities(id, functionType));
+    }
+
+    private ResponseEntity<List<CafeAmenityRow>> loadCafeAmenities(Long id, String functionType) {
         try {
             Cafe cafe = requireApprovedCafe(id);
             if (cafe == null) {
@@ -173,7 +275,7 @@ public class PublicCafeController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
-            List<String> labels = parseDistinctCsv(cap.getTableLabels());
+            List<String> labels = TableLabels.parseDistinctCsv(cap.getTableLabels());
             if (labels.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
@@ -181,20 +283,7 @@ public class PublicCafeController {
             String bd = bookingDate.trim();
             String bt = bookingTime.trim();
 
-            List<String> used = cafeBookingRepository.findByCafeIdOrderByCreatedAtDesc(cafe.getId()).stream()
-                    .filter(b -> b != null
-                            && ft.equals(b.getFunctionType())
-                            && "APPROVED".equalsIgnoreCase(String.valueOf(b.getStatus()))
-                            && b.getBookingDate() != null
-                            && b.getBookingTime() != null
-                            && b.getBookingDate().trim().equalsIgnoreCase(bd)
-                            && b.getBookingTime().trim().equalsIgnoreCase(bt)
-                            && b.getAllocatedTable() != null
-                            && !b.getAllocatedTable().isBlank())
-                    .flatMap(b -> parseDistinctCsv(b.getAllocatedTable()).stream())
-                    .toList();
-
-            List<String> available = labels.stream().filter(t -> !used.contains(t)).toList();
+            List<String> available = tableAvailabilityService.findAvailableTables(cafe.getId(), cap, bd, bt);
 
             AvailableTablesResponse res = new AvailableTablesResponse();
             res.setCafeId(cafe.getId());
@@ -202,7 +291,7 @@ public class PublicCafeController {
             res.setBookingDate(bd);
             res.setBookingTime(bt);
             res.setSeatsPerTable(cap.getSeatsPerTable());
-            res.setTablesNeeded(computeTablesNeeded(guests, cap.getSeatsPerTable()));
+            res.setTablesNeeded(TableLabels.tablesNeeded(guests, cap.getSeatsPerTable()));
             res.setAvailableTables(available);
             return ResponseEntity.ok(res);
         } catch (RuntimeException ex) {
@@ -210,28 +299,15 @@ public class PublicCafeController {
         }
     }
 
-    private List<String> parseDistinctCsv(String raw) {
-        List<String> out = new ArrayList<>();
-        if (raw == null || raw.isBlank()) return out;
-        for (String part : raw.split(",")) {
-            if (part == null) continue;
-            String t = part.trim();
-            if (t.isBlank()) continue;
-            if (!out.contains(t)) out.add(t);
-        }
-        return out;
-    }
-
-    private int computeTablesNeeded(Integer guests, Integer seatsPerTable) {
-        int g = (guests == null ? 0 : guests);
-        if (g <= 0) return 1;
-        int spt = (seatsPerTable == null ? 0 : seatsPerTable);
-        if (spt <= 0) return 1;
-        return (int) Math.ceil((double) g / (double) spt);
+    @GetMapping("/cafes/{id}")
+    public ResponseEntity<CafeProfileResponse> getCafeDetail(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return catalogCacheService.respond("detail", id, ifNoneMatch, () -> loadCafeDetail(id));
     }
 
-    @GetMapping("/cafes/{id}")
-    public ResponseEntity<CafeProfileResponse> getCafeDetail(@PathVariable Long id) {
+    private ResponseEntity<CafeProfileResponse> loadCafeDetail(Long id) {
         try {
             Cafe cafe = requireApprovedCafe(id);
             if (cafe == null) {
@@ -244,22 +320,32 @@ public class PublicCafeController {
     }
 
     @GetMapping("/cafes/{id}/menu")
-    public ResponseEntity<List<MenuItemRow>> listCafeMenu(@PathVariable Long id) {
-        try {
-            Cafe cafe = requireApprovedCafe(id);
-            if (cafe == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-            }
-            List<MenuItem> items = menuItemRepository.findByCafeId(cafe.getId());
-            List<MenuItemRow> rows = items.stream().map(this::toMenuRow).toList();
-            return ResponseEntity.ok(rows);
-        } catch (RuntimeException ex) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<byte[]> listCafeMenu(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return menuDocumentService.respond(id, false, true, ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/cafes/{id}/menu/document")
+    public ResponseEntity<byte[]> getCafeMenuDocument(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return menuDocumentService.respond(id, true, true, ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/cafes/{id}/images")
-    public ResponseEntity<List<CafeImageRow>> listCafeImages(@PathVariable Long id) {
+    public ResponseEntity<List<CafeImageRow>> listCafeImages(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return catalogCacheService.respond("images", id, ifNoneMatch, () -> loadCafeImages(id));
+    }
+
+    private ResponseEntity<List<CafeImageRow>> loadCafeImages(Long id) {
         try {
             Cafe cafe = requireApprovedCafe(id);
             if (cafe == null) {
@@ -282,33 +368,25 @@ public class PublicCafeController {
         return cafe;
     }
 
-    private PublicCafeCardRow toCardRow(Cafe cafe) {
+    private PublicCafeCardRow toCardRow(Object[] row, List<Long> imageIds) {
         PublicCafeCardRow r = new PublicCafeCardRow();
-        r.setId(cafe.getId());
-        r.setCafeName(cafe.getCafeName());
-        r.setCity(cafe.getCity());
-        r.setState(cafe.getState());
-        r.setActive(cafe.getActive());
-        r.setApprovalStatus(cafe.getApprovalStatus() == null ? null : cafe.getApprovalStatus().name());
-
-        List<CafeImage> imgs = cafeImageRepository.findByCafeId(cafe.getId());
-        CafeImage cover = imgs.stream()
-                .filter(i -> i != null && Boolean.TRUE.equals(i.getCover()))
-                .findFirst()
-                .orElseGet(() -> imgs.stream().filter(i -> i != null).min(Comparator.comparing(CafeImage::getId)).orElse(null));
-        if (cover != null) {
-            r.setCoverImageUrl("/api/public/cafe-images/" + cover.getId());
-        }
-
+        r.setId((Long) row[0]);
+        r.setCafeName((String) row[1]);
+        r.setCity((String) row[2]);
+        r.setState((String) row[3]);
+        r.setActive((Boolean) row[4]);
+        r.setApprovalStatus(row[5] == null ? null : ((ApprovalStatus) row[5]).name());
+
+        Long coverId = (Long) row[6];
         List<String> urls = new ArrayList<>();
-        if (cover != null) {
-            urls.add("/api/public/cafe-images/" + cover.getId());
+        if (coverId != null) {
+            r.setCoverImageUrl("/api/public/cafe-images/" + coverId + "?size=card");
+            urls.add("/api/public/cafe-images/" + coverId + "?size=card");
         }
-        imgs.stream()
-                .filter(i -> i != null && (cover == null || !i.getId().equals(cover.getId())))
-                .sorted(Comparator.comparing(CafeImage::getId))
+        imageIds.stream()
+                .filter(imageId -> !imageId.equals(coverId))
                 .limit(4)
-                .forEach(i -> urls.add("/api/public/cafe-images/" + i.getId()));
+                .forEach(imageId -> urls.add("/api/public/cafe-images/" + imageId + "?size=card"));
         r.setImageUrls(urls);
         return r;
     }
@@ -327,6 +405,8 @@ public class PublicCafeController {
         r.setCity(cafe.getCity());
         r.setState(cafe.getState());
         r.setPincode(cafe.getPincode());
+        r.setLatitude(cafe.getLatitude());
+        r.setLongitude(cafe.getLongitude());
         r.setOpeningTime(cafe.getOpeningTime());
         r.setClosingTime(cafe.getClosingTime());
         r.setFssaiNumber(cafe.getFssaiNumber());
@@ -342,20 +422,6 @@ public class PublicCafeController {
         return r;
     }
 
-    private MenuItemRow toMenuRow(MenuItem m) {
-        MenuItemRow r = new MenuItemRow();
-        r.setId(m.getId());
-        r.setName(m.getName());
-        r.setDescription(m.getDescription());
-        r.setPrice(m.getPrice());
-        r.setAvailable(m.getAvailable());
-        r.setCategory(m.getCategory());
-        if (m.getImageFilePath() != null && !m.getImageFilePath().isBlank()) {
-            r.setImageUrl("/api/public/menu-images/" + m.getId());
-        }
-        return r;
-    }
-
     private CafeImageRow toImageRow(CafeImage img) {
         CafeImageRow r = new CafeImageRow();
         r.setId(img.getId());
@@ -4,24 +4,33 @@ import com.cafe.entity.CafeImage;
 import com.cafe.entity.MenuItem;
 import com.cafe.repository.CafeImageRepository;
 import com.cafe.repository.MenuItemRepository;
-import org.springframework.core.io.ByteArrayResource;
+import com.cafe.service.ImageDerivativeService;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/public")
 public class PublicCafeImageController {
 
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
     @Autowired
     private CafeImageRepository cafeImageRepository;
 
@@ -29,54 +38,84 @@ public class PublicCafeImageController {
     private MenuItemRepository menuItemRepository;
 
     @GetMapping("/cafe-images/{id}")
-    public ResponseEntity<?> getCafeImage(@PathVariable Long id) {
+    public ResponseEntity<?> getCafeImage(
+            @PathVariable Long id,
+            @RequestParam(value = "size", required = false) String size
+    ) {
         try {
             CafeImage img = cafeImageRepository.findById(id).orElse(null);
             if (img == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Not found");
             }
 
-            Path path = Path.of(img.getFilePath());
-            if (!Files.exists(path)) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Not found");
+            String variant = null;
+            if ("card".equalsIgnoreCase(size)) {
+                variant = img.getCardFilePath();
+            } else if ("detail".equalsIgnoreCase(size)) {
+                variant = img.getDetailFilePath();
             }
-            byte[] bytes = Files.readAllBytes(path);
-            ByteArrayResource resource = new ByteArrayResource(bytes);
-            MediaType mt;
-            try {
-                mt = img.getContentType() == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(img.getContentType());
-            } catch (Exception ex) {
-                mt = MediaType.APPLICATION_OCTET_STREAM;
+            // A cafe image row never changes its file, so the id alone is a stable URL.
+            // Until the variant is generated the original is served, but without long-term caching.
+            if (isReadable(variant)) {
+                return serveFile(Path.of(variant), ImageDerivativeService.VARIANT_CONTENT_TYPE, IMMUTABLE);
             }
-            return ResponseEntity.ok().contentType(mt).body(resource);
+            return serveFile(Path.of(img.getFilePath()), img.getContentType(), size == null ? IMMUTABLE : REVALIDATE);
         } catch (IOException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to read image");
         }
     }
 
     @GetMapping("/menu-images/{id}")
-    public ResponseEntity<?> getMenuImage(@PathVariable Long id) {
+    public ResponseEntity<?> getMenuImage(
+            @PathVariable Long id,
+            @RequestParam(value = "v", required = false) String version,
+            @RequestParam(value = "size", required = false) String size
+    ) {
         try {
             MenuItem item = menuItemRepository.findById(id).orElse(null);
             if (item == null || item.getImageFilePath() == null || item.getImageFilePath().isBlank()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Not found");
             }
 
-            Path path = Path.of(item.getImageFilePath());
-            if (!Files.exists(path)) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Not found");
+            // Menu images are replaced in place, so only versioned URLs may be cached long-term.
+            boolean versioned = version != null && version.equals(item.imageVersion());
+            if ("thumb".equalsIgnoreCase(size)) {
+                String thumb = item.getImageThumbFilePath();
+                if (isReadable(thumb)) {
+                    return serveFile(Path.of(thumb), ImageDerivativeService.VARIANT_CONTENT_TYPE, versioned ? IMMUTABLE : REVALIDATE);
+                }
+                versioned = false;
             }
-            byte[] bytes = Files.readAllBytes(path);
-            ByteArrayResource resource = new ByteArrayResource(bytes);
-            MediaType mt;
-            try {
-                mt = item.getImageContentType() == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(item.getImageContentType());
-            } catch (Exception ex) {
-                mt = MediaType.APPLICATION_OCTET_STREAM;
-            }
-            return ResponseEntity.ok().contentType(mt).body(resource);
+            return serveFile(Path.of(item.getImageFilePath()), item.getImageContentType(), versioned ? IMMUTABLE : REVALIDATE);
         } catch (IOException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to read image");
         }
     }
+
+    private boolean isReadable(String path) {
+        return path != null && !path.isBlank() && Files.isRegularFile(Path.of(path));
+    }
+
+    private ResponseEntity<?> serveFile(Path path, String contentType, CacheControl cacheControl) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Not found");
+        }
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(attrs.size()) + "-" + Long.toHexString(lastModified) + "\"";
+
+        MediaType mt;
+        try {
+            mt = contentType == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(contentType);
+        } catch (Exception ex) {
+            mt = MediaType.APPLICATION_OCTET_STREAM;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(mt)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .body(new FileSystemResource(path));
+    }
 }
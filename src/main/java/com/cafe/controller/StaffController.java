@@ -1,15 +1,14 @@
 package com.cafe.controller;
 
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -18,25 +17,32 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.cafe.dto.AuthPrincipal;
 import com.cafe.dto.CafeBookingRow;
 import com.cafe.dto.CafeOrderItemRow;
 import com.cafe.dto.CafeOrderRow;
+import com.cafe.dto.MenuAvailabilityBatchRequest;
+import com.cafe.dto.MenuAvailabilityBatchResponse;
 import com.cafe.dto.MenuAvailabilityRequest;
+import com.cafe.dto.MenuChangeEvent;
 import com.cafe.dto.MenuItemRow;
 import com.cafe.dto.OrderStatusUpdateRequest;
+import com.cafe.dto.PageQuery;
 import com.cafe.dto.ServeOrderRequest;
-import com.cafe.entity.Cafe;
 import com.cafe.entity.CafeBooking;
 import com.cafe.entity.CafeOrder;
 import com.cafe.entity.MenuItem;
 import com.cafe.entity.Role;
-import com.cafe.entity.User;
 import com.cafe.repository.CafeBookingRepository;
 import com.cafe.repository.CafeOrderRepository;
-import com.cafe.repository.CafeRepository;
 import com.cafe.repository.MenuItemRepository;
-import com.cafe.repository.UserRepository;
+import com.cafe.service.MenuChangeService;
+import com.cafe.service.MenuDocumentService;
+import com.cafe.service.OrderEventService;
+import com.cafe.service.PrincipalCacheService;
+import com.cafe.util.Money;
 
 import jakarta.validation.Valid;
 
@@ -45,68 +51,102 @@ import jakarta.validation.Valid;
 public class StaffController {
 
     @Autowired
-    private UserRepository userRepository;
+    private CafeOrderRepository cafeOrderRepository;
 
     @Autowired
-    private CafeRepository cafeRepository;
+    private CafeBookingRepository cafeBookingRepository;
 
     @Autowired
-    private CafeOrderRepository cafeOrderRepository;
+    private MenuItemRepository menuItemRepository;
 
     @Autowired
-    private CafeBookingRepository cafeBookingRepository;
+    private OrderEventService orderEventService;
 
     @Autowired
-    private MenuItemRepository menuItemRepository;
+    private MenuDocumentService menuDocumentService;
+
+    @Autowired
+    private MenuChangeService menuChangeService;
+
+    @Autowired
+    private PrincipalCacheService principalCacheService;
 
     @GetMapping("/menu")
-    public ResponseEntity<List<MenuItemRow>> listMenu(
-            @RequestHeader(value = "X-USERNAME", required = false) String staffUsername
+    public ResponseEntity<byte[]> listMenu(
+            @RequestHeader(value = "X-USERNAME", required = false) String staffUsername,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
         try {
             StaffContext ctx = requireStaffContext(staffUsername);
             if (ctx == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
-            List<MenuItem> list = menuItemRepository.findByCafeId(ctx.cafe.getId());
-            List<MenuItemRow> rows = (list == null ? List.<MenuItemRow>of() : list.stream().map(this::toMenuRow).toList());
-            return ResponseEntity.ok(rows);
+            return menuDocumentService.respond(ctx.cafeId, false, false, ifNoneMatch, acceptEncoding);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    private void ensureOrderNumbers(List<CafeOrder> list) {
-        if (list == null || list.isEmpty()) return;
-        int max = 0;
-        for (CafeOrder o : list) {
-            if (o != null && o.getOrderNumber() != null && o.getOrderNumber() > max) max = o.getOrderNumber();
-        }
-        List<CafeOrder> missing = list.stream()
-                .filter(o -> o != null && o.getOrderNumber() == null)
-                .sorted(java.util.Comparator.comparingLong(o -> o.getCreatedAt() == null ? 0L : o.getCreatedAt()))
-                .toList();
-        int next = max + 1;
-        for (CafeOrder o : missing) {
-            o.setOrderNumber(next++);
-            cafeOrderRepository.save(o);
-        }
-    }
-
     private MenuItemRow toMenuRow(MenuItem m) {
         MenuItemRow r = new MenuItemRow();
         r.setId(m.getId());
         r.setName(m.getName());
         r.setDescription(m.getDescription());
-        r.setPrice(m.getPrice());
+        r.setPrice(Money.toRupees(m.getPricePaise()));
+        r.setPricePaise(m.getPricePaise());
         r.setAvailable(m.getAvailable());
         r.setCategory(m.getCategory());
         if (m.getImageFilePath() != null && !m.getImageFilePath().isBlank()) {
-            r.setImageUrl("/api/public/menu-images/" + m.getId());
+            r.setImageUrl("/api/public/menu-images/" + m.getId() + "?v=" + m.imageVersion());
         }
         return r;
     }
 
+    @PutMapping("/menu/availability")
+    public ResponseEntity<MenuAvailabilityBatchResponse> updateMenuAvailabilityBatch(
+            @RequestHeader(value = "X-USERNAME", required = false) String staffUsername,
+            @Valid @RequestBody MenuAvailabilityBatchRequest request
+    ) {
+        try {
+            StaffContext ctx = requireStaffContext(staffUsername);
+            if (ctx == null || ctx.role != Role.CHEF) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            if (request == null || request.getAvailable() == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            List<Long> ids = request.getItemIds() == null ? List.of()
+                    : request.getItemIds().stream().filter(i -> i != null).distinct().toList();
+            String category = request.getCategory() == null ? null : request.getCategory().trim();
+            boolean byCategory = category != null && !category.isEmpty();
+            // Exactly one of itemIds or category picks the items.
+            if (byCategory ? !ids.isEmpty() : ids.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+
+            int updated = byCategory
+                    ? menuItemRepository.updateAvailabilityByCategory(ctx.cafeId, category, request.getAvailable())
+                    : menuItemRepository.updateAvailability(ctx.cafeId, ids, request.getAvailable());
+            if (updated > 0) {
+                MenuChangeEvent event = new MenuChangeEvent();
+                event.setCafeId(ctx.cafeId);
+                event.setItemIds(byCategory ? null : ids);
+                event.setCategory(byCategory ? category : null);
+                event.setAvailable(request.getAvailable());
+                event.setUpdated(updated);
+                menuChangeService.menuChanged(event);
+            }
+
+            MenuAvailabilityBatchResponse resp = new MenuAvailabilityBatchResponse();
+            resp.setAvailable(request.getAvailable());
+            resp.setUpdated(updated);
+            return ResponseEntity.ok(resp);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PutMapping("/menu/{id}/availability")
     public ResponseEntity<MenuItemRow> updateMenuAvailability(
             @RequestHeader(value = "X-USERNAME", required = false) String staffUsername,
@@ -126,12 +166,13 @@ public class StaffController {
             }
 
             MenuItem m = menuItemRepository.findById(id).orElse(null);
-            if (m == null || m.getCafe() == null || !m.getCafe().getId().equals(ctx.cafe.getId())) {
+            if (m == null || m.getCafe() == null || !m.getCafe().getId().equals(ctx.cafeId)) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
             m.setAvailable(request.getAvailable());
             menuItemRepository.save(m);
+            menuChangeService.menuChanged(ctx.cafeId);
             return ResponseEntity.ok(toMenuRow(m));
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -141,47 +182,50 @@ public class StaffController {
     @GetMapping("/orders")
     public ResponseEntity<List<CafeOrderRow>> listOrders(
             @RequestHeader(value = "X-USERNAME", required = false) String staffUsername,
-            @RequestParam(value = "status", required = false) String status
+            @ModelAttribute PageQuery page
     ) {
         try {
             StaffContext ctx = requireStaffContext(staffUsername);
             if (ctx == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
-            Cafe cafe = ctx.cafe;
-
-            List<CafeOrder> list = cafeOrderRepository.findByCafeIdOrderByCreatedAtDesc(cafe.getId());
-            ensureOrderNumbers(list);
-
-            Set<Long> bookingIds = list.stream()
-                    .map(CafeOrder::getBookingId)
-                    .filter(id -> id != null)
-                    .collect(Collectors.toSet());
-            Map<Long, CafeBooking> bookingMap = bookingIds.isEmpty()
-                    ? Map.of()
-                    : cafeBookingRepository.findAllById(bookingIds).stream()
-                    .filter(b -> b != null && b.getId() != null)
-                    .collect(Collectors.toMap(CafeBooking::getId, b -> b));
-
-            List<CafeOrderRow> rows = list.stream()
-                    .filter(o -> {
-                        if (o == null) return false;
-                        Long bid = o.getBookingId();
-                        if (bid == null) return true;
-                        CafeBooking b = bookingMap.get(bid);
-                        if (b == null) return false;
-                        if (b.getCafe() == null || b.getCafe().getId() == null || !b.getCafe().getId().equals(cafe.getId())) return false;
-                        return "APPROVED".equalsIgnoreCase(String.valueOf(b.getStatus()));
-                    })
-                    .filter(o -> {
-                        if (status == null || status.isBlank()) return true;
-                        String s1 = String.valueOf(o.getStatus()).trim().toUpperCase();
-                        String s2 = status.trim().toUpperCase();
-                        return s1.equals(s2);
-                    })
-                    .map(this::toOrderRow)
-                    .toList();
-            return ResponseEntity.ok(rows);
+
+            List<Long> fetched = cafeOrderRepository.findStaffPageIdsByCafeId(
+                    ctx.cafeId,
+                    page.statusOrBlank(),
+                    page.fromOrMin(),
+                    page.toOrMax(),
+                    page.cursorCreatedAt(),
+                    page.cursorId(),
+                    page.pageable()
+            );
+            List<Long> ids = page.trim(fetched);
+            List<CafeOrder> list = ids.isEmpty() ? List.of() : cafeOrderRepository.findByIdInWithItems(ids);
+            List<CafeOrderRow> rows = list.stream().map(this::toOrderRow).toList();
+
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.hasMore(fetched) && !list.isEmpty()) {
+                CafeOrder last = list.get(list.size() - 1);
+                ok.header(PageQuery.NEXT_CURSOR_HEADER, PageQuery.cursorOf(last.getCreatedAt(), last.getId()));
+            }
+            return ok.body(rows);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrders(
+            @RequestHeader(value = "X-USERNAME", required = false) String staffUsername,
+            @RequestParam(value = "username", required = false) String usernameParam
+    ) {
+        try {
+            String username = (staffUsername == null || staffUsername.isBlank()) ? usernameParam : staffUsername;
+            StaffContext ctx = requireStaffContext(username);
+            if (ctx == null) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            return ResponseEntity.ok(orderEventService.subscribeStaff(ctx.cafeId));
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -217,12 +261,12 @@ public class StaffController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
 
-            CafeOrder o = cafeOrderRepository.findByIdAndCafeId(id, ctx.cafe.getId()).orElse(null);
+            CafeOrder o = cafeOrderRepository.findByIdAndCafeId(id, ctx.cafeId).orElse(null);
             if (o == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
-            if (!isOrderBookingApprovedForCafe(o, ctx.cafe.getId())) {
+            if (!isOrderBookingApprovedForCafe(o, ctx.cafeId)) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
 
@@ -253,6 +297,7 @@ public class StaffController {
 
             o.setStatus(next);
             cafeOrderRepository.save(o);
+            orderEventService.orderChanged(o.getId());
             return ResponseEntity.ok(toOrderRow(o));
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -274,7 +319,7 @@ public class StaffController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
 
-            CafeOrder o = cafeOrderRepository.findByIdAndCafeId(id, ctx.cafe.getId()).orElse(null);
+            CafeOrder o = cafeOrderRepository.findByIdAndCafeId(id, ctx.cafeId).orElse(null);
             if (o == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
@@ -292,7 +337,7 @@ public class StaffController {
             if (b == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
-            if (b.getCafe() == null || b.getCafe().getId() == null || !b.getCafe().getId().equals(ctx.cafe.getId())) {
+            if (b.getCafe() == null || b.getCafe().getId() == null || !b.getCafe().getId().equals(ctx.cafeId)) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
             if (!"APPROVED".equalsIgnoreCase(String.valueOf(b.getStatus()))) {
@@ -306,6 +351,7 @@ public class StaffController {
             o.setAllocatedTable(table);
             o.setStatus("SERVED");
             cafeOrderRepository.save(o);
+            orderEventService.orderChanged(o.getId());
             return ResponseEntity.ok(toOrderRow(o));
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -314,7 +360,8 @@ public class StaffController {
 
     @GetMapping("/bookings")
     public ResponseEntity<List<CafeBookingRow>> listApprovedBookings(
-            @RequestHeader(value = "X-USERNAME", required = false) String staffUsername
+            @RequestHeader(value = "X-USERNAME", required = false) String staffUsername,
+            @ModelAttribute PageQuery page
     ) {
         try {
             StaffContext ctx = requireStaffContext(staffUsername);
@@ -322,12 +369,24 @@ public class StaffController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            List<CafeBooking> list = cafeBookingRepository.findByCafeIdOrderByCreatedAtDesc(ctx.cafe.getId());
-            List<CafeBookingRow> rows = list.stream()
-                    .filter(b -> "APPROVED".equalsIgnoreCase(String.valueOf(b.getStatus())))
-                    .map(this::toBookingRow)
-                    .toList();
-            return ResponseEntity.ok(rows);
+            List<CafeBooking> fetched = cafeBookingRepository.findPageByCafeId(
+                    ctx.cafeId,
+                    "APPROVED",
+                    page.fromOrMin(),
+                    page.toOrMax(),
+                    page.cursorCreatedAt(),
+                    page.cursorId(),
+                    page.pageable()
+            );
+            List<CafeBooking> list = page.trim(fetched);
+            List<CafeBookingRow> rows = list.stream().map(this::toBookingRow).toList();
+
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.hasMore(fetched)) {
+                CafeBooking last = list.get(list.size() - 1);
+                ok.header(PageQuery.NEXT_CURSOR_HEADER, PageQuery.cursorOf(last.getCreatedAt(), last.getId()));
+            }
+            return ok.body(rows);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -357,7 +416,8 @@ public class StaffController {
         r.setCustomerName(o.getCustomerName());
         r.setCustomerPhone(o.getCustomerPhone());
         r.setStatus(o.getStatus());
-        r.setTotalAmount(o.getTotalAmount());
+        r.setTotalAmount(Money.toRupees(o.getTotalAmountPaise()));
+        r.setTotalAmountPaise(o.getTotalAmountPaise());
         r.setPaymentStatus(o.getPaymentStatus() == null ? "UNPAID" : o.getPaymentStatus());
         r.setRazorpayOrderId(o.getRazorpayOrderId());
         r.setRazorpayPaymentId(o.getRazorpayPaymentId());
@@ -370,7 +430,8 @@ public class StaffController {
                 CafeOrderItemRow ir = new CafeOrderItemRow();
                 ir.setMenuItemId(it.getMenuItemId());
                 ir.setItemName(it.getItemName());
-                ir.setPrice(it.getPrice());
+                ir.setPrice(Money.toRupees(it.getPricePaise()));
+                ir.setPricePaise(it.getPricePaise());
                 ir.setQty(it.getQty());
                 return ir;
             }).toList());
@@ -400,26 +461,21 @@ public class StaffController {
     }
 
     private StaffContext requireStaffContext(String username) {
-        if (username == null || username.isBlank()) return null;
-        User u = userRepository.findByUsername(username.trim()).orElse(null);
-        if (u == null) return null;
-        if (u.getRole() == null) return null;
-        if (!(u.getRole() == Role.CHEF || u.getRole() == Role.WAITER)) return null;
-
-        Optional<Cafe> cafeOpt = cafeRepository.findByStaff_Username(u.getUsername());
-        Cafe cafe = cafeOpt.orElse(null);
-        if (cafe == null || cafe.getId() == null) return null;
+        AuthPrincipal p = principalCacheService.resolve(username);
+        if (p == null) return null;
+        if (!(p.getRole() == Role.CHEF || p.getRole() == Role.WAITER)) return null;
+        if (p.getStaffCafeId() == null) return null;
 
-        return new StaffContext(u.getRole(), cafe);
+        return new StaffContext(p.getRole(), p.getStaffCafeId());
     }
 
     private static class StaffContext {
         final Role role;
-        final Cafe cafe;
+        final Long cafeId;
 
-        StaffContext(Role role, Cafe cafe) {
+        StaffContext(Role role, Long cafeId) {
             this.role = role;
-            this.cafe = cafe;
+            this.cafeId = cafeId;
         }
     }
 }
@@ -0,0 +1,22 @@
+package com.cafe.dto;
+
+import java.util.List;
+
+import com.cafe.entity.ApprovalStatus;
+import com.cafe.entity.Role;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AuthPrincipal {
+
+    private Long userId;
+    private String username;
+    private Role role;
+    private ApprovalStatus approvalStatus;
+    private String phone;
+    private Long staffCafeId;
+    private List<Long> ownedCafeIds = List.of();
+}
@@ -0,0 +1,15 @@
+package com.cafe.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CafeOrderEvent {
+
+    private String type;
+    private Long cafeId;
+    private Long orderId;
+    private CafeOrderRow order;
+    private Long sentAt;
+}
@@ -10,5 +10,6 @@ public class CafeOrderItemRow {
     private Long menuItemId;
     private String itemName;
     private Double price;
+    private Long pricePaise;
     private Integer qty;
 }
@@ -21,6 +21,7 @@ public class CafeOrderRow {
     private String customerPhone;
     private String status;
     private Double totalAmount;
+    private Long totalAmountPaise;
 
     private String ownerNames;
 
@@ -23,6 +23,8 @@ public class CafeProfileResponse {
     private String city;
     private String state;
     private String pincode;
+    private Double latitude;
+    private Double longitude;
     private String openingTime;
     private String closingTime;
 
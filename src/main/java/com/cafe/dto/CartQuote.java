@@ -0,0 +1,17 @@
+package com.cafe.dto;
+
+import java.util.List;
+
+import com.cafe.entity.CafeOrderItem;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CartQuote {
+
+    private String error;
+    private List<CafeOrderItem> items;
+    private Long amountPaise;
+}
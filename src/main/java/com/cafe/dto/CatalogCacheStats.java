@@ -0,0 +1,18 @@
+package com.cafe.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CatalogCacheStats {
+
+    private Integer size;
+    private Integer maxEntries;
+    private Long ttlMs;
+    private Long hits;
+    private Long misses;
+    private Long notModified;
+    private Long evictions;
+    private Long invalidations;
+}
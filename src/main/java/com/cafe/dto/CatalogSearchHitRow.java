@@ -0,0 +1,20 @@
+package com.cafe.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CatalogSearchHitRow {
+
+    private String type;
+    private Long cafeId;
+    private String cafeName;
+    private String city;
+    private Long menuItemId;
+    private String name;
+    private String category;
+    private Double price;
+    private Long pricePaise;
+    private Integer score;
+}
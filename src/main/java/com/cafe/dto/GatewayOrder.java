@@ -0,0 +1,15 @@
+package com.cafe.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class GatewayOrder {
+
+    private String id;
+    private Long amountPaise;
+    private String currency;
+    private String receipt;
+    private String status;
+}
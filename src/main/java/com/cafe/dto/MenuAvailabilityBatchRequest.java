@@ -0,0 +1,21 @@
+package com.cafe.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MenuAvailabilityBatchRequest {
+
+    @Size(max = 500, message = "At most 500 items can be changed at once")
+    private List<Long> itemIds;
+
+    private String category;
+
+    @NotNull(message = "Availability is required")
+    private Boolean available;
+}
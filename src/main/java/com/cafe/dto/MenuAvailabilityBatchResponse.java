@@ -0,0 +1,12 @@
+package com.cafe.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MenuAvailabilityBatchResponse {
+
+    private Boolean available;
+    private Integer updated;
+}
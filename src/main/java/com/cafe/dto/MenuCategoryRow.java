@@ -0,0 +1,15 @@
+package com.cafe.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MenuCategoryRow {
+
+    private String category;
+    private Integer availableCount;
+    private List<MenuItemRow> items;
+}
@@ -0,0 +1,18 @@
+package com.cafe.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MenuChangeEvent {
+
+    private Long cafeId;
+    private List<Long> itemIds;
+    private String category;
+    private Boolean available;
+    private Integer updated;
+    private Long sentAt;
+}
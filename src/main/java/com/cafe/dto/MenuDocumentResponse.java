@@ -0,0 +1,17 @@
+package com.cafe.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MenuDocumentResponse {
+
+    private Long cafeId;
+    private Long version;
+    private Integer itemCount;
+    private Integer availableCount;
+    private List<MenuCategoryRow> categories;
+}
@@ -0,0 +1,13 @@
+package com.cafe.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MenuImportErrorRow {
+
+    private Integer row;
+    private String column;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.cafe.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MenuImportResponse {
+
+    private Boolean applied;
+    private Integer totalRows;
+    private Integer created;
+    private Integer updated;
+    private Integer failed;
+    private List<MenuImportErrorRow> errors;
+}
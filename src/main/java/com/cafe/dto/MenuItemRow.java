@@ -11,8 +11,10 @@ public class MenuItemRow {
     private String name;
     private String description;
     private Double price;
+    private Long pricePaise;
     private Boolean available;
     private String category;
 
     private String imageUrl;
+    private String thumbnailUrl;
 }
@@ -0,0 +1,20 @@
+package com.cafe.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class NearbyCafeRow {
+
+    private Long id;
+    private String cafeName;
+    private String city;
+    private String state;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;
+    private String openingTime;
+    private String closingTime;
+    private Boolean openNow;
+}
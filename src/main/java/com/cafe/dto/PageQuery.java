@@ -0,0 +1,89 @@
+package com.cafe.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Query parameters shared by the paged list endpoints. {@code cursor} is the
+ * {@code createdAt:id} (or just {@code id}) of the last row of the previous page,
+ * as returned in the {@link #NEXT_CURSOR_HEADER} response header.
+ */
+@Getter
+@Setter
+public class PageQuery {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int DEFAULT_LIMIT = 50;
+
+    public static final int MAX_LIMIT = 200;
+
+    private Integer limit;
+    private String cursor;
+    private String status;
+    private Long from;
+    private Long to;
+
+    public int resolvedLimit() {
+        if (limit == null || limit <= 0) return DEFAULT_LIMIT;
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /** One row past the limit, so {@link #hasMore} can tell whether another page exists. */
+    public Pageable pageable() {
+        return PageRequest.of(0, resolvedLimit() + 1);
+    }
+
+    public boolean hasMore(List<?> fetched) {
+        return fetched != null && fetched.size() > resolvedLimit();
+    }
+
+    public <T> List<T> trim(List<T> fetched) {
+        if (fetched == null) return List.of();
+        return hasMore(fetched) ? fetched.subList(0, resolvedLimit()) : fetched;
+    }
+
+    public String statusOrBlank() {
+        return status == null ? "" : status.trim().toUpperCase();
+    }
+
+    public long fromOrMin() {
+        return from == null ? Long.MIN_VALUE : from;
+    }
+
+    public long toOrMax() {
+        return to == null ? Long.MAX_VALUE : to;
+    }
+
+    public long cursorCreatedAt() {
+        String[] parts = cursorParts();
+        return parts.length == 2 ? parseOr(parts[0], Long.MAX_VALUE) : Long.MAX_VALUE;
+    }
+
+    public long cursorId() {
+        String[] parts = cursorParts();
+        return parts.length == 0 ? Long.MAX_VALUE : parseOr(parts[parts.length - 1], Long.MAX_VALUE);
+    }
+
+    public static String cursorOf(Long createdAt, Long id) {
+        return (createdAt == null ? 0L : createdAt) + ":" + id;
+    }
+
+    private String[] cursorParts() {
+        if (cursor == null || cursor.isBlank()) return new String[0];
+        return cursor.trim().split(":");
+    }
+
+    private static long parseOr(String raw, long fallback) {
+        try {
+            return Long.parseLong(raw.trim());
+        } catch (NumberFormatException ex) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.cafe.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PaymentGatewayCallStats {
+
+    private String operation;
+    private Long count;
+    private Long failures;
+    private Double avgMs;
+    private Double maxMs;
+}
@@ -0,0 +1,14 @@
+package com.cafe.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PaymentGatewayStats {
+
+    private String gateway;
+    private List<PaymentGatewayCallStats> calls;
+}
@@ -0,0 +1,50 @@
+package com.cafe.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "analytics_cafe_hourly",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"cafe_id", "bucket_date", "bucket_hour"})
+)
+public class AnalyticsCafeHour {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cafe_id", nullable = false)
+    private Long cafeId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "bucket_hour", nullable = false)
+    private Integer bucketHour;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "order_revenue_paise", nullable = false, columnDefinition = "bigint default 0")
+    private Long orderRevenuePaise = 0L;
+
+    @Column(name = "paid_order_count", nullable = false)
+    private Long paidOrderCount = 0L;
+
+    @Column(name = "paid_revenue_paise", nullable = false, columnDefinition = "bigint default 0")
+    private Long paidRevenuePaise = 0L;
+}
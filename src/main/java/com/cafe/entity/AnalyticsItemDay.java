@@ -0,0 +1,53 @@
+package com.cafe.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "analytics_item_daily",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"cafe_id", "menu_item_id", "bucket_date"})
+)
+public class AnalyticsItemDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cafe_id", nullable = false)
+    private Long cafeId;
+
+    @Column(name = "menu_item_id", nullable = false)
+    private Long menuItemId;
+
+    @Column(name = "item_name")
+    private String itemName;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "total_qty", nullable = false)
+    private Long totalQty = 0L;
+
+    @Column(name = "total_revenue_paise", nullable = false, columnDefinition = "bigint default 0")
+    private Long totalRevenuePaise = 0L;
+
+    @Column(name = "paid_qty", nullable = false)
+    private Long paidQty = 0L;
+
+    @Column(name = "paid_revenue_paise", nullable = false, columnDefinition = "bigint default 0")
+    private Long paidRevenuePaise = 0L;
+}
@@ -54,6 +54,10 @@ public class Cafe {
 
     private String pincode;
 
+    private Double latitude;
+
+    private Double longitude;
+
     private String openingTime;
 
     private String closingTime;
@@ -1,5 +1,11 @@
 package com.cafe.entity;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -7,8 +13,11 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,9 +27,14 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "cafe_bookings")
+@Table(
+        name = "cafe_bookings",
+        indexes = @Index(name = "idx_cafe_bookings_slot", columnList = "cafe_id, function_type, slot_date, slot_time, status")
+)
 public class CafeBooking {
 
+    private static final DateTimeFormatter TIME_12H = DateTimeFormatter.ofPattern("h:mm a", Locale.ENGLISH);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -44,6 +58,12 @@ public class CafeBooking {
     @Column(nullable = false)
     private String bookingTime;
 
+    @Column(name = "slot_date")
+    private LocalDate slotDate;
+
+    @Column(name = "slot_time")
+    private LocalTime slotTime;
+
     @Column(nullable = false)
     private Integer guests;
 
@@ -72,4 +92,34 @@ public class CafeBooking {
 
     @Column(nullable = false)
     private Long createdAt = System.currentTimeMillis();
+
+    @PrePersist
+    @PreUpdate
+    public void syncSlot() {
+        this.slotDate = parseSlotDate(bookingDate);
+        this.slotTime = parseSlotTime(bookingTime);
+    }
+
+    public static LocalDate parseSlotDate(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        try {
+            return LocalDate.parse(raw.trim());
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    public static LocalTime parseSlotTime(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        String t = raw.trim();
+        try {
+            return LocalTime.parse(t);
+        } catch (DateTimeParseException ex) {
+            try {
+                return LocalTime.parse(t.toUpperCase(Locale.ENGLISH), TIME_12H);
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
 }
@@ -27,6 +27,10 @@ public class CafeDocument {
 
     private Long size;
 
+    @Column(length = 64)
+    private String blobKey;
+
+    // Legacy inline content; new uploads go to the blob store and leave this null.
     @Basic(fetch = FetchType.LAZY)
     @JdbcTypeCode(SqlTypes.BINARY)
     private byte[] data;
@@ -34,4 +34,8 @@ public class CafeImage {
 
     @Column(nullable = false)
     private Boolean cover = false;
+
+    private String cardFilePath;
+
+    private String detailFilePath;
 }
@@ -34,8 +34,8 @@ public class CafeOrder {
     @Column(nullable = false)
     private String status = "PLACED";
 
-    @Column(nullable = false)
-    private Double totalAmount = 0.0;
+    @Column(name = "total_amount_paise", nullable = false, columnDefinition = "bigint default 0")
+    private Long totalAmountPaise = 0L;
 
     @Column(nullable = false)
     private String paymentStatus = "UNPAID";
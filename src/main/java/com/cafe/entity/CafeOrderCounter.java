@@ -0,0 +1,24 @@
+package com.cafe.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "cafe_order_counters")
+public class CafeOrderCounter {
+
+    @Id
+    @Column(name = "cafe_id")
+    private Long cafeId;
+
+    @Column(name = "last_value", nullable = false)
+    private Long lastValue = 0L;
+}
@@ -26,8 +26,8 @@ public class CafeOrderItem {
     @Column(nullable = false)
     private String itemName;
 
-    @Column(nullable = false)
-    private Double price;
+    @Column(name = "price_paise", nullable = false, columnDefinition = "bigint default 0")
+    private Long pricePaise;
 
     @Column(nullable = false)
     private Integer qty;
@@ -31,6 +31,10 @@ public class Document {
 
     private Long size;
 
+    @Column(length = 64)
+    private String blobKey;
+
+    // Legacy inline content; new uploads go to the blob store and leave this null.
     @Lob
     @Basic(fetch = FetchType.LAZY)
     @Column
@@ -0,0 +1,58 @@
+package com.cafe.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "email_outbox",
+        indexes = @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at")
+)
+public class EmailOutbox {
+
+    public static final String PENDING = "PENDING";
+    public static final String SENT = "SENT";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "to_email", nullable = false)
+    private String toEmail;
+
+    @Column(nullable = false)
+    private String subject;
+
+    // Cleared once the mail is sent or has failed for good, since credential mails carry a temporary password.
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false, length = 16)
+    private String status = PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Long nextAttemptAt = System.currentTimeMillis();
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Long createdAt = System.currentTimeMillis();
+
+    private Long sentAt;
+}
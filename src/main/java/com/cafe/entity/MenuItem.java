@@ -25,8 +25,8 @@ public class MenuItem {
 
     private String description;
 
-    @Column(nullable = false)
-    private Double price;
+    @Column(name = "price_paise", nullable = false, columnDefinition = "bigint default 0")
+    private Long pricePaise;
 
     @Column(nullable = false)
     private Boolean available = true;
@@ -40,4 +40,11 @@ public class MenuItem {
     private String imageFilePath;
 
     private Long imageSize;
+
+    private String imageThumbFilePath;
+
+    public String imageVersion() {
+        if (imageFilePath == null || imageFilePath.isBlank()) return null;
+        return Integer.toHexString(imageFilePath.hashCode());
+    }
 }
@@ -0,0 +1,48 @@
+package com.cafe.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "payment_events",
+        indexes = @Index(name = "idx_payment_events_rp_order", columnList = "razorpay_order_id")
+)
+public class PaymentEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, unique = true, length = 128)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(name = "razorpay_order_id", nullable = false)
+    private String razorpayOrderId;
+
+    @Column(name = "razorpay_payment_id")
+    private String razorpayPaymentId;
+
+    @Column(name = "amount_paise")
+    private Long amountPaise;
+
+    @Column(length = 32)
+    private String status;
+
+    @Column(name = "received_at", nullable = false)
+    private Long receivedAt = System.currentTimeMillis();
+}
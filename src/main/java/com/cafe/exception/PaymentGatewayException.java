@@ -0,0 +1,12 @@
+package com.cafe.exception;
+
+public class PaymentGatewayException extends Exception {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
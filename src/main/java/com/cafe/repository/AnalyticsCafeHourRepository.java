@@ -0,0 +1,74 @@
+package com.cafe.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cafe.entity.AnalyticsCafeHour;
+
+public interface AnalyticsCafeHourRepository extends JpaRepository<AnalyticsCafeHour, Long> {
+
+    @Modifying
+    @Query(value = "insert into analytics_cafe_hourly (cafe_id, bucket_date, bucket_hour, order_count, order_revenue_paise, paid_order_count, paid_revenue_paise) "
+            + "values (:cafeId, :bucketDate, :bucketHour, :orderCount, :orderRevenuePaise, :paidOrderCount, :paidRevenuePaise) "
+            + "on conflict (cafe_id, bucket_date, bucket_hour) do update set "
+            + "order_count = analytics_cafe_hourly.order_count + excluded.order_count, "
+            + "order_revenue_paise = analytics_cafe_hourly.order_revenue_paise + excluded.order_revenue_paise, "
+            + "paid_order_count = analytics_cafe_hourly.paid_order_count + excluded.paid_order_count, "
+            + "paid_revenue_paise = analytics_cafe_hourly.paid_revenue_paise + excluded.paid_revenue_paise",
+            nativeQuery = true)
+    int increment(
+            @Param("cafeId") Long cafeId,
+            @Param("bucketDate") LocalDate bucketDate,
+            @Param("bucketHour") Integer bucketHour,
+            @Param("orderCount") Long orderCount,
+            @Param("orderRevenuePaise") Long orderRevenuePaise,
+            @Param("paidOrderCount") Long paidOrderCount,
+            @Param("paidRevenuePaise") Long paidRevenuePaise
+    );
+
+    @Modifying
+    @Query(value = "delete from analytics_cafe_hourly", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "delete from analytics_cafe_hourly where cafe_id = :cafeId", nativeQuery = true)
+    int deleteByCafeId(@Param("cafeId") Long cafeId);
+
+    @Modifying
+    @Query(value = "insert into analytics_cafe_hourly (cafe_id, bucket_date, bucket_hour, order_count, order_revenue_paise, paid_order_count, paid_revenue_paise) "
+            + "select o.cafe_id, "
+            + "cast(to_timestamp(o.created_at / 1000.0) at time zone :zone as date), "
+            + "cast(extract(hour from to_timestamp(o.created_at / 1000.0) at time zone :zone) as integer), "
+            + "count(*), "
+            + "coalesce(sum(o.total_amount_paise), 0), "
+            + "sum(case when upper(o.payment_status) = 'PAID' then 1 else 0 end), "
+            + "coalesce(sum(case when upper(o.payment_status) = 'PAID' then o.total_amount_paise else 0 end), 0) "
+            + "from cafe_orders o join cafes c on c.id = o.cafe_id group by 1, 2, 3",
+            nativeQuery = true)
+    int rebuildFromOrders(@Param("zone") String zone);
+
+    @Query("select coalesce(sum(a.orderCount), 0), coalesce(sum(a.orderRevenuePaise), 0), "
+            + "coalesce(sum(a.paidOrderCount), 0), coalesce(sum(a.paidRevenuePaise), 0) "
+            + "from AnalyticsCafeHour a where (:cafeId is null or a.cafeId = :cafeId)")
+    List<Object[]> sumTotals(@Param("cafeId") Long cafeId);
+
+    @Query("select a.cafeId, c.cafeName, c.city, sum(a.orderCount), sum(a.orderRevenuePaise), sum(a.paidOrderCount), sum(a.paidRevenuePaise) "
+            + "from AnalyticsCafeHour a, Cafe c where c.id = a.cafeId and (:cafeId is null or a.cafeId = :cafeId) "
+            + "group by a.cafeId, c.cafeName, c.city")
+    List<Object[]> sumByCafe(@Param("cafeId") Long cafeId);
+
+    @Query("select a.bucketHour, sum(a.orderCount), sum(a.orderRevenuePaise), sum(a.paidOrderCount), sum(a.paidRevenuePaise) "
+            + "from AnalyticsCafeHour a where (:cafeId is null or a.cafeId = :cafeId) "
+            + "group by a.bucketHour")
+    List<Object[]> sumByHour(@Param("cafeId") Long cafeId);
+
+    @Query("select c.city, sum(a.orderCount), sum(a.orderRevenuePaise), sum(a.paidOrderCount), sum(a.paidRevenuePaise) "
+            + "from AnalyticsCafeHour a, Cafe c where c.id = a.cafeId and (:cafeId is null or a.cafeId = :cafeId) "
+            + "group by c.city")
+    List<Object[]> sumByCity(@Param("cafeId") Long cafeId);
+}
@@ -0,0 +1,61 @@
+package com.cafe.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cafe.entity.AnalyticsItemDay;
+
+public interface AnalyticsItemDayRepository extends JpaRepository<AnalyticsItemDay, Long> {
+
+    @Modifying
+    @Query(value = "insert into analytics_item_daily (cafe_id, menu_item_id, item_name, bucket_date, total_qty, total_revenue_paise, paid_qty, paid_revenue_paise) "
+            + "values (:cafeId, :menuItemId, :itemName, :bucketDate, :totalQty, :totalRevenuePaise, :paidQty, :paidRevenuePaise) "
+            + "on conflict (cafe_id, menu_item_id, bucket_date) do update set "
+            + "item_name = coalesce(excluded.item_name, analytics_item_daily.item_name), "
+            + "total_qty = analytics_item_daily.total_qty + excluded.total_qty, "
+            + "total_revenue_paise = analytics_item_daily.total_revenue_paise + excluded.total_revenue_paise, "
+            + "paid_qty = analytics_item_daily.paid_qty + excluded.paid_qty, "
+            + "paid_revenue_paise = analytics_item_daily.paid_revenue_paise + excluded.paid_revenue_paise",
+            nativeQuery = true)
+    int increment(
+            @Param("cafeId") Long cafeId,
+            @Param("menuItemId") Long menuItemId,
+            @Param("itemName") String itemName,
+            @Param("bucketDate") LocalDate bucketDate,
+            @Param("totalQty") Long totalQty,
+            @Param("totalRevenuePaise") Long totalRevenuePaise,
+            @Param("paidQty") Long paidQty,
+            @Param("paidRevenuePaise") Long paidRevenuePaise
+    );
+
+    @Modifying
+    @Query(value = "delete from analytics_item_daily", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "delete from analytics_item_daily where cafe_id = :cafeId", nativeQuery = true)
+    int deleteByCafeId(@Param("cafeId") Long cafeId);
+
+    @Modifying
+    @Query(value = "insert into analytics_item_daily (cafe_id, menu_item_id, item_name, bucket_date, total_qty, total_revenue_paise, paid_qty, paid_revenue_paise) "
+            + "select o.cafe_id, i.menu_item_id, max(i.item_name), "
+            + "cast(to_timestamp(o.created_at / 1000.0) at time zone :zone as date), "
+            + "coalesce(sum(i.qty), 0), "
+            + "coalesce(sum(i.price_paise * i.qty), 0), "
+            + "coalesce(sum(case when upper(o.payment_status) = 'PAID' then i.qty else 0 end), 0), "
+            + "coalesce(sum(case when upper(o.payment_status) = 'PAID' then i.price_paise * i.qty else 0 end), 0) "
+            + "from cafe_order_items i join cafe_orders o on o.id = i.order_id join cafes c on c.id = o.cafe_id "
+            + "group by o.cafe_id, i.menu_item_id, 4",
+            nativeQuery = true)
+    int rebuildFromOrderItems(@Param("zone") String zone);
+
+    @Query("select a.menuItemId, max(a.itemName), sum(a.totalQty), sum(a.totalRevenuePaise), sum(a.paidQty), sum(a.paidRevenuePaise) "
+            + "from AnalyticsItemDay a where (:cafeId is null or a.cafeId = :cafeId) "
+            + "group by a.menuItemId")
+    List<Object[]> sumByItem(@Param("cafeId") Long cafeId);
+}
@@ -1,8 +1,14 @@
 package com.cafe.repository;
 
 import com.cafe.entity.CafeBooking;
+import com.cafe.entity.FunctionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,7 +18,74 @@ public interface CafeBookingRepository extends JpaRepository<CafeBooking, Long>
 
     Optional<CafeBooking> findByIdAndCafeId(Long id, Long cafeId);
 
+    long countByCafeIdAndPaymentStatus(Long cafeId, String paymentStatus);
+
+    @Query("select b from CafeBooking b where b.cafe.id = :cafeId "
+            + "and (b.createdAt < :createdAt or (b.createdAt = :createdAt and b.id < :id)) "
+            + "order by b.createdAt desc, b.id desc")
+    List<CafeBooking> findByCafeIdBefore(
+            @Param("cafeId") Long cafeId,
+            @Param("createdAt") Long createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("select b from CafeBooking b where b.cafe.id = :cafeId "
+            + "and (:status = '' or b.status = :status) "
+            + "and b.createdAt >= :from and b.createdAt < :to "
+            + "and (b.createdAt < :createdAt or (b.createdAt = :createdAt and b.id < :id)) "
+            + "order by b.createdAt desc, b.id desc")
+    List<CafeBooking> findPageByCafeId(
+            @Param("cafeId") Long cafeId,
+            @Param("status") String status,
+            @Param("from") Long from,
+            @Param("to") Long to,
+            @Param("createdAt") Long createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("select b from CafeBooking b where b.customerUsername = :customerUsername "
+            + "and (:status = '' or b.status = :status) "
+            + "and b.createdAt >= :from and b.createdAt < :to "
+            + "and (b.createdAt < :createdAt or (b.createdAt = :createdAt and b.id < :id)) "
+            + "order by b.createdAt desc, b.id desc")
+    List<CafeBooking> findPageByCustomerUsername(
+            @Param("customerUsername") String customerUsername,
+            @Param("status") String status,
+            @Param("from") Long from,
+            @Param("to") Long to,
+            @Param("createdAt") Long createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
     List<CafeBooking> findByCustomerUsernameOrderByCreatedAtDesc(String customerUsername);
 
     List<CafeBooking> findByCustomerPhoneOrderByCreatedAtDesc(String customerPhone);
+
+    @Query("select b.allocatedTable from CafeBooking b "
+            + "where b.cafe.id = :cafeId and b.functionType = :functionType "
+            + "and b.slotDate = :slotDate and b.slotTime = :slotTime "
+            + "and b.status = 'APPROVED' and b.allocatedTable is not null")
+    List<String> findAllocatedTablesForSlot(
+            @Param("cafeId") Long cafeId,
+            @Param("functionType") FunctionType functionType,
+            @Param("slotDate") LocalDate slotDate,
+            @Param("slotTime") LocalTime slotTime
+    );
+
+    @Query("select b.allocatedTable from CafeBooking b "
+            + "where b.cafe.id = :cafeId and b.functionType = :functionType "
+            + "and b.status = 'APPROVED' and b.allocatedTable is not null "
+            + "and (:bookingDate is null or lower(trim(b.bookingDate)) = lower(:bookingDate)) "
+            + "and (:bookingTime is null or lower(trim(b.bookingTime)) = lower(:bookingTime))")
+    List<String> findAllocatedTablesByText(
+            @Param("cafeId") Long cafeId,
+            @Param("functionType") FunctionType functionType,
+            @Param("bookingDate") String bookingDate,
+            @Param("bookingTime") String bookingTime
+    );
+
+    List<CafeBooking> findTop500BySlotDateIsNullAndIdGreaterThanOrderByIdAsc(Long id);
 }
@@ -11,4 +11,6 @@ public interface CafeDocumentRepository extends JpaRepository<CafeDocument, Long
     List<CafeDocument> findByCafeId(Long cafeId);
 
     Optional<CafeDocument> findByCafeIdAndDocKey(Long cafeId, String docKey);
+
+    List<CafeDocument> findTop50ByBlobKeyIsNullAndDataIsNotNullAndIdGreaterThanOrderByIdAsc(Long id);
 }
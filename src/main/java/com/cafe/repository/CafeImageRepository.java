@@ -2,10 +2,29 @@ package com.cafe.repository;
 
 import com.cafe.entity.CafeImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CafeImageRepository extends JpaRepository<CafeImage, Long> {
 
     List<CafeImage> findByCafeId(Long cafeId);
+
+    @Query("select i.cafe.id, i.id from CafeImage i where i.cafe.id in :cafeIds order by i.cafe.id, i.id")
+    List<Object[]> findIdsByCafeIds(@Param("cafeIds") Collection<Long> cafeIds);
+
+    @Transactional
+    @Modifying
+    @Query("update CafeImage i set i.cardFilePath = :cardFilePath, i.detailFilePath = :detailFilePath "
+            + "where i.id = :id and i.filePath = :sourceFilePath")
+    int updateVariants(
+            @Param("id") Long id,
+            @Param("sourceFilePath") String sourceFilePath,
+            @Param("cardFilePath") String cardFilePath,
+            @Param("detailFilePath") String detailFilePath
+    );
 }
@@ -0,0 +1,26 @@
+package com.cafe.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cafe.entity.CafeOrderCounter;
+
+public interface CafeOrderCounterRepository extends JpaRepository<CafeOrderCounter, Long> {
+
+    // Seeds the counter from orders numbered before the counter existed; the max() scan only runs when the row is missing.
+    @Modifying
+    @Query(value = "insert into cafe_order_counters (cafe_id, last_value) "
+            + "select :cafeId, (select coalesce(max(o.order_number), 0) from cafe_orders o where o.cafe_id = :cafeId) "
+            + "where not exists (select 1 from cafe_order_counters c where c.cafe_id = :cafeId) "
+            + "on conflict (cafe_id) do nothing",
+            nativeQuery = true)
+    int seed(@Param("cafeId") Long cafeId);
+
+    @Query(value = "insert into cafe_order_counters (cafe_id, last_value) values (:cafeId, :count) "
+            + "on conflict (cafe_id) do update set last_value = cafe_order_counters.last_value + excluded.last_value "
+            + "returning last_value",
+            nativeQuery = true)
+    Long allocate(@Param("cafeId") Long cafeId, @Param("count") Long count);
+}
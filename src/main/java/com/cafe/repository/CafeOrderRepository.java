@@ -1,8 +1,10 @@
 package com.cafe.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -27,6 +29,72 @@ public interface CafeOrderRepository extends JpaRepository<CafeOrder, Long> {
 
     Optional<CafeOrder> findByIdAndCafeId(Long id, Long cafeId);
 
-    @Query("select max(o.orderNumber) from CafeOrder o where o.cafe.id = :cafeId")
-    Integer findMaxOrderNumberByCafeId(@Param("cafeId") Long cafeId);
+    @Query("select o from CafeOrder o left join fetch o.items where o.id = :id")
+    Optional<CafeOrder> findByIdWithItems(@Param("id") Long id);
+
+    @Query("select o from CafeOrder o where o.cafe.id = :cafeId "
+            + "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id)) "
+            + "order by o.createdAt desc, o.id desc")
+    List<CafeOrder> findByCafeIdBefore(
+            @Param("cafeId") Long cafeId,
+            @Param("createdAt") Long createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("select o.id from CafeOrder o where o.cafe.id = :cafeId "
+            + "and (:status = '' or o.status = :status) "
+            + "and o.createdAt >= :from and o.createdAt < :to "
+            + "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id)) "
+            + "order by o.createdAt desc, o.id desc")
+    List<Long> findPageIdsByCafeId(
+            @Param("cafeId") Long cafeId,
+            @Param("status") String status,
+            @Param("from") Long from,
+            @Param("to") Long to,
+            @Param("createdAt") Long createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    // Staff only see walk-in orders and orders whose booking has been approved.
+    @Query("select o.id from CafeOrder o where o.cafe.id = :cafeId "
+            + "and (o.bookingId is null or exists (select 1 from CafeBooking b where b.id = o.bookingId "
+            + "and b.cafe.id = :cafeId and b.status = 'APPROVED')) "
+            + "and (:status = '' or o.status = :status) "
+            + "and o.createdAt >= :from and o.createdAt < :to "
+            + "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id)) "
+            + "order by o.createdAt desc, o.id desc")
+    List<Long> findStaffPageIdsByCafeId(
+            @Param("cafeId") Long cafeId,
+            @Param("status") String status,
+            @Param("from") Long from,
+            @Param("to") Long to,
+            @Param("createdAt") Long createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("select o.id from CafeOrder o where o.customerUsername = :customerUsername "
+            + "and (:status = '' or o.status = :status) "
+            + "and o.createdAt >= :from and o.createdAt < :to "
+            + "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id)) "
+            + "order by o.createdAt desc, o.id desc")
+    List<Long> findPageIdsByCustomerUsername(
+            @Param("customerUsername") String customerUsername,
+            @Param("status") String status,
+            @Param("from") Long from,
+            @Param("to") Long to,
+            @Param("createdAt") Long createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("select distinct o from CafeOrder o left join fetch o.items where o.id in :ids "
+            + "order by o.createdAt desc, o.id desc")
+    List<CafeOrder> findByIdInWithItems(@Param("ids") Collection<Long> ids);
+
+    List<CafeOrder> findTop100ByOrderNumberIsNullAndCafeIsNotNullOrderByCreatedAtAscIdAsc();
+
+    long countByOrderNumberIsNullAndCafeIsNull();
 }
@@ -3,7 +3,10 @@ package com.cafe.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cafe.entity.ApprovalStatus;
 import com.cafe.entity.Cafe;
@@ -18,5 +21,45 @@ public interface CafeRepository extends JpaRepository<Cafe, Long> {
 
     Optional<Cafe> findByStaff_Username(String username);
 
+    @Query("select c.id from Cafe c where c.owner.username = :username order by c.id desc")
+    List<Long> findIdsByOwnerUsername(@Param("username") String username);
+
+    @Query("select c.id from Cafe c join c.staff s where s.username = :username order by c.id")
+    List<Long> findIdsByStaffUsername(@Param("username") String username);
+
     List<Cafe> findByApprovalStatus(ApprovalStatus approvalStatus);
+
+    @Query("select c from Cafe c where (:status is null or c.approvalStatus = :status) "
+            + "and c.id < :beforeId order by c.id desc")
+    List<Cafe> findPage(
+            @Param("status") ApprovalStatus status,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    // Card fields plus the cover image id (flagged cover, else the oldest image) in one statement.
+    // cityLower is '' for no filter; an untyped null parameter trips PostgreSQL inside lower().
+    @Query("select c.id, c.cafeName, c.city, c.state, c.active, c.approvalStatus, "
+            + "coalesce((select min(ci.id) from CafeImage ci where ci.cafe = c and ci.cover = true), "
+            + "(select min(ci2.id) from CafeImage ci2 where ci2.cafe = c)) "
+            + "from Cafe c "
+            + "where c.approvalStatus = :status and c.active = true "
+            + "and (:cityLower = '' or lower(c.city) = :cityLower) "
+            + "order by c.id")
+    List<Object[]> findCardRows(
+            @Param("status") ApprovalStatus status,
+            @Param("cityLower") String cityLower,
+            Pageable pageable
+    );
+
+    @Query("select c.id, c.cafeName, c.city, c.description, c.approvalStatus, c.active from Cafe c")
+    List<Object[]> findSearchRows();
+
+    @Query("select c.id, c.cafeName, c.city, c.description, c.approvalStatus, c.active from Cafe c where c.id = :id")
+    List<Object[]> findSearchRowsById(@Param("id") Long id);
+
+    @Query("select c.id, c.cafeName, c.city, c.state, c.latitude, c.longitude, c.openingTime, c.closingTime "
+            + "from Cafe c where c.approvalStatus = :status and c.active = true "
+            + "and c.latitude is not null and c.longitude is not null")
+    List<Object[]> findLocatedRows(@Param("status") ApprovalStatus status);
 }
@@ -2,6 +2,26 @@ package com.cafe.repository;
 
 import com.cafe.entity.Document;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface DocumentRepository extends JpaRepository<Document, Long> {
+
+    List<Document> findTop50ByBlobKeyIsNullAndDataIsNotNullAndIdGreaterThanOrderByIdAsc(Long id);
+
+    // data is a PostgreSQL large object; nulling the column alone leaves its bytes in pg_largeobject.
+    @Query(value = "select lo_unlink(data) from documents where id in :ids and data is not null",
+            nativeQuery = true)
+    List<Integer> unlinkData(@Param("ids") Collection<Long> ids);
+
+    // A bulk update, because flushing the entity would write data back as a new large object.
+    @Transactional
+    @Modifying
+    @Query("update Document d set d.blobKey = :blobKey, d.data = null where d.id = :id")
+    int moveToBlob(@Param("id") Long id, @Param("blobKey") String blobKey);
 }
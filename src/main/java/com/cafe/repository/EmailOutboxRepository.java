@@ -0,0 +1,20 @@
+package com.cafe.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cafe.entity.EmailOutbox;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Row locks keep two app instances from sending the same mail; skip locked lets them split the queue.
+    @Query(value = "select * from email_outbox where status = 'PENDING' and next_attempt_at <= :now "
+            + "order by id limit :limit for update skip locked",
+            nativeQuery = true)
+    List<EmailOutbox> claimDue(@Param("now") Long now, @Param("limit") int limit);
+
+    long countByStatus(String status);
+}
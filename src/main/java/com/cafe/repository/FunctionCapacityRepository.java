@@ -3,6 +3,7 @@ package com.cafe.repository;
 import com.cafe.entity.FunctionCapacity;
 import com.cafe.entity.FunctionType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +13,7 @@ public interface FunctionCapacityRepository extends JpaRepository<FunctionCapaci
     List<FunctionCapacity> findByCafeId(Long cafeId);
 
     Optional<FunctionCapacity> findByCafeIdAndFunctionType(Long cafeId, FunctionType functionType);
+
+    @Query("select f.cafe.id, f.functionType from FunctionCapacity f where f.enabled = true")
+    List<Object[]> findEnabledFunctionTypes();
 }
@@ -2,10 +2,58 @@ package com.cafe.repository;
 
 import com.cafe.entity.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
 
     List<MenuItem> findByCafeId(Long cafeId);
+
+    @Query("select m.id, m.name, m.pricePaise, m.available from MenuItem m where m.cafe.id = :cafeId and m.id in :ids")
+    List<Object[]> findPricingRows(@Param("cafeId") Long cafeId, @Param("ids") Collection<Long> ids);
+
+    @Query("select m.id, m.cafe.id, m.name, m.category, m.description, m.pricePaise, m.available from MenuItem m")
+    List<Object[]> findSearchRows();
+
+    @Query("select m.id, m.cafe.id, m.name, m.category, m.description, m.pricePaise, m.available "
+            + "from MenuItem m where m.cafe.id = :cafeId")
+    List<Object[]> findSearchRowsByCafeId(@Param("cafeId") Long cafeId);
+
+    @Query("select m.id, m.name from MenuItem m where m.cafe.id = :cafeId")
+    List<Object[]> findImportRows(@Param("cafeId") Long cafeId);
+
+    @Transactional
+    @Modifying
+    @Query("update MenuItem m set m.available = :available "
+            + "where m.cafe.id = :cafeId and m.id in :ids and m.available <> :available")
+    int updateAvailability(
+            @Param("cafeId") Long cafeId,
+            @Param("ids") Collection<Long> ids,
+            @Param("available") Boolean available
+    );
+
+    @Transactional
+    @Modifying
+    @Query("update MenuItem m set m.available = :available "
+            + "where m.cafe.id = :cafeId and lower(trim(m.category)) = lower(:category) and m.available <> :available")
+    int updateAvailabilityByCategory(
+            @Param("cafeId") Long cafeId,
+            @Param("category") String category,
+            @Param("available") Boolean available
+    );
+
+    @Transactional
+    @Modifying
+    @Query("update MenuItem m set m.imageThumbFilePath = :thumbFilePath "
+            + "where m.id = :id and m.imageFilePath = :sourceFilePath")
+    int updateImageThumb(
+            @Param("id") Long id,
+            @Param("sourceFilePath") String sourceFilePath,
+            @Param("thumbFilePath") String thumbFilePath
+    );
 }
@@ -0,0 +1,33 @@
+package com.cafe.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cafe.entity.PaymentEvent;
+
+public interface PaymentEventRepository extends JpaRepository<PaymentEvent, Long> {
+
+    // Returns 0 when the event id was already recorded, which makes webhook redeliveries no-ops.
+    @Transactional
+    @Modifying
+    @Query(value = "insert into payment_events (event_id, event_type, razorpay_order_id, razorpay_payment_id, amount_paise, status, received_at) "
+            + "values (:eventId, :eventType, :razorpayOrderId, :razorpayPaymentId, :amountPaise, :status, :receivedAt) "
+            + "on conflict (event_id) do nothing",
+            nativeQuery = true)
+    int insertIfAbsent(
+            @Param("eventId") String eventId,
+            @Param("eventType") String eventType,
+            @Param("razorpayOrderId") String razorpayOrderId,
+            @Param("razorpayPaymentId") String razorpayPaymentId,
+            @Param("amountPaise") Long amountPaise,
+            @Param("status") String status,
+            @Param("receivedAt") Long receivedAt
+    );
+
+    List<PaymentEvent> findByRazorpayOrderIdOrderByIdAsc(String razorpayOrderId);
+}
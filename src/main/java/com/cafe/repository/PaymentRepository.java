@@ -2,6 +2,10 @@ package com.cafe.repository;
 
 import com.cafe.entity.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +15,13 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByOrderIdOrderByCreatedAtDesc(Long orderId);
 
     Optional<Payment> findFirstByOrderIdAndStatusOrderByCreatedAtDesc(Long orderId, String status);
+
+    List<Payment> findByRazorpayOrderId(String razorpayOrderId);
+
+    List<Payment> findTop50ByStatusAndCreatedAtBetweenAndIdGreaterThanOrderByIdAsc(String status, Long createdFrom, Long createdTo, Long afterId);
+
+    @Transactional
+    @Modifying
+    @Query("update Payment p set p.status = 'STALE' where p.status = 'VERIFIED' and p.createdAt < :createdBefore")
+    int markStale(@Param("createdBefore") Long createdBefore);
 }
@@ -0,0 +1,8 @@
+package com.cafe.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.cafe.entity.PincodeCentroid;
+
+public interface PincodeCentroidRepository extends JpaRepository<PincodeCentroid, String> {
+}
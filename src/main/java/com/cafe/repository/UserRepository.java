@@ -1,11 +1,14 @@
 package com.cafe.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.cafe.entity.ApprovalStatus;
 import com.cafe.entity.Role;
 import com.cafe.entity.User;
 
@@ -26,4 +29,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE u.role = :role")
     boolean existsByRole(@Param("role") Role role);
+
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.role = :role) "
+            + "AND (:status IS NULL OR u.approvalStatus = :status) "
+            + "AND u.id < :beforeId ORDER BY u.id DESC")
+    List<User> findPage(
+            @Param("role") Role role,
+            @Param("status") ApprovalStatus status,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
 }
@@ -2,8 +2,10 @@ package com.cafe.service;
 
 import java.util.List;
 
+import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.cafe.dto.AdminAnalyticsDetailsResponse;
 import com.cafe.dto.AdminAnalyticsSummary;
@@ -16,18 +18,22 @@ import com.cafe.dto.CafeDocumentRow;
 import com.cafe.dto.CafeImageRow;
 import com.cafe.dto.CafeProfileRequest;
 import com.cafe.dto.CafeProfileResponse;
+import com.cafe.dto.CatalogCacheStats;
+import com.cafe.dto.PaymentGatewayStats;
 import com.cafe.dto.MenuAvailabilityRequest;
+import com.cafe.dto.MenuImportResponse;
 import com.cafe.dto.MenuItemRequest;
 import com.cafe.dto.MenuItemRow;
+import com.cafe.dto.PageQuery;
 import com.cafe.dto.RegisterRequest;
 
 public interface AdminService {
 
-    ResponseEntity<List<AdminUserRow>> listUsers();
+    ResponseEntity<List<AdminUserRow>> listUsers(PageQuery page);
 
-    ResponseEntity<List<AdminCafeRow>> listCafes();
+    ResponseEntity<List<AdminCafeRow>> listCafes(PageQuery page);
 
-    ResponseEntity<List<AdminOwnerRow>> listOwners();
+    ResponseEntity<List<AdminOwnerRow>> listOwners(PageQuery page);
 
     ResponseEntity<String> createOwner(RegisterRequest request, List<MultipartFile> documents);
 
@@ -63,7 +69,7 @@ public interface AdminService {
 
     ResponseEntity<CafeDocumentRow> uploadCafeDocument(Long cafeId, String docKey, MultipartFile file);
 
-    ResponseEntity<byte[]> downloadCafeDocument(Long id);
+    ResponseEntity<Resource> downloadCafeDocument(Long id);
 
     ResponseEntity<AdminUserDetail> getUserDetail(Long id);
 
@@ -75,13 +81,21 @@ public interface AdminService {
 
     ResponseEntity<String> deleteUser(Long id);
 
-    ResponseEntity<byte[]> downloadDocument(Long id);
+    ResponseEntity<Resource> downloadDocument(Long id);
 
-    ResponseEntity<byte[]> exportCafeHistoryExcel(Long cafeId);
+    ResponseEntity<StreamingResponseBody> exportCafeHistoryExcel(Long cafeId);
 
     ResponseEntity<byte[]> exportCafeMenuExcel(Long cafeId);
 
+    ResponseEntity<MenuImportResponse> importCafeMenu(Long cafeId, MultipartFile file);
+
     ResponseEntity<AdminAnalyticsSummary> getAnalyticsSummary();
 
     ResponseEntity<AdminAnalyticsDetailsResponse> getAnalyticsDetails();
+
+    ResponseEntity<String> rebuildAnalytics();
+
+    ResponseEntity<CatalogCacheStats> getCatalogCacheStats();
+
+    ResponseEntity<PaymentGatewayStats> getPaymentGatewayStats();
 }
@@ -0,0 +1,21 @@
+package com.cafe.service;
+
+import com.cafe.dto.AdminAnalyticsDetailsResponse;
+import com.cafe.dto.AdminAnalyticsSummary;
+
+public interface AnalyticsService {
+
+    void recordOrderCreated(Long orderId);
+
+    void recordOrderPaid(Long orderId);
+
+    void recordOrderDeleted(Long orderId);
+
+    void cafeDeleted(Long cafeId);
+
+    AdminAnalyticsSummary getOrderTotals(Long cafeId, boolean paidOnly);
+
+    AdminAnalyticsDetailsResponse getDetails(Long cafeId, boolean paidOnly);
+
+    int rebuild();
+}
@@ -0,0 +1,17 @@
+package com.cafe.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BlobStore {
+
+    /**
+     * Streams the content into the store and returns its key, the hex SHA-256 of the bytes.
+     * Content that is already stored is not written again.
+     */
+    String put(InputStream content) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.cafe.service;
+
+import java.util.List;
+
+import com.cafe.dto.NearbyCafeRow;
+import com.cafe.entity.Cafe;
+import com.cafe.entity.FunctionType;
+
+public interface CafeLocationService {
+
+    List<NearbyCafeRow> nearby(double latitude, double longitude, Double radiusKm, int limit, boolean openNow, FunctionType functionType);
+
+    void locate(Cafe cafe, String pincode, Double latitude, Double longitude);
+
+    void invalidate();
+}
@@ -0,0 +1,11 @@
+package com.cafe.service;
+
+import java.util.List;
+
+import com.cafe.dto.CafeOrderItemRequest;
+import com.cafe.dto.CartQuote;
+
+public interface CartPricingService {
+
+    CartQuote price(Long cafeId, List<CafeOrderItemRequest> lines);
+}
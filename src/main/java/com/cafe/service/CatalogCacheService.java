@@ -0,0 +1,18 @@
+package com.cafe.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+
+import com.cafe.dto.CatalogCacheStats;
+
+public interface CatalogCacheService {
+
+    <T> ResponseEntity<T> respond(String key, Long cafeId, String ifNoneMatch, Supplier<ResponseEntity<T>> loader);
+
+    void invalidateCafe(Long cafeId);
+
+    void invalidateAll();
+
+    CatalogCacheStats stats();
+}
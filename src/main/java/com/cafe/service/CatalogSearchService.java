@@ -0,0 +1,14 @@
+package com.cafe.service;
+
+import java.util.List;
+
+import com.cafe.dto.CatalogSearchHitRow;
+
+public interface CatalogSearchService {
+
+    List<CatalogSearchHitRow> search(String query, String city, String category, int limit);
+
+    void reindexCafe(Long cafeId);
+
+    void rebuild();
+}
@@ -0,0 +1,17 @@
+package com.cafe.service;
+
+import com.cafe.entity.CafeImage;
+import com.cafe.entity.MenuItem;
+
+public interface ImageDerivativeService {
+
+    String VARIANT_CONTENT_TYPE = "image/jpeg";
+
+    void generateCafeImageVariants(Long cafeImageId);
+
+    void generateMenuImageVariants(Long menuItemId);
+
+    void deleteCafeImageVariants(CafeImage image);
+
+    void deleteMenuImageVariants(MenuItem item);
+}
@@ -0,0 +1,12 @@
+package com.cafe.service;
+
+import com.cafe.dto.MenuChangeEvent;
+
+public interface MenuChangeService {
+
+    /** Drops every cached copy of the cafe's menu and tells its open dashboards to refetch it. */
+    void menuChanged(Long cafeId);
+
+    /** Same as {@link #menuChanged(Long)}, with the details of a bulk change passed on to dashboards. */
+    void menuChanged(MenuChangeEvent event);
+}
@@ -0,0 +1,10 @@
+package com.cafe.service;
+
+import org.springframework.http.ResponseEntity;
+
+public interface MenuDocumentService {
+
+    ResponseEntity<byte[]> respond(Long cafeId, boolean grouped, boolean listedOnly, String ifNoneMatch, String acceptEncoding);
+
+    void evictCafe(Long cafeId);
+}
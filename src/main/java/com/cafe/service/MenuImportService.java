@@ -0,0 +1,10 @@
+package com.cafe.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.cafe.dto.MenuImportResponse;
+
+public interface MenuImportService {
+
+    MenuImportResponse importMenu(Long cafeId, MultipartFile file);
+}
@@ -0,0 +1,20 @@
+package com.cafe.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cafe.dto.MenuChangeEvent;
+
+public interface OrderEventService {
+
+    SseEmitter subscribeStaff(Long cafeId);
+
+    SseEmitter subscribeOwner(Long cafeId);
+
+    void orderChanged(Long orderId);
+
+    void orderRemoved(Long cafeId, Long orderId);
+
+    void bookingChanged(Long bookingId);
+
+    void menuChanged(MenuChangeEvent event);
+}
@@ -0,0 +1,6 @@
+package com.cafe.service;
+
+public interface OrderNumberService {
+
+    int next(Long cafeId);
+}
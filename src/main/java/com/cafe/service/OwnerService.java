@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.cafe.dto.AdminAnalyticsDetailsResponse;
 import com.cafe.dto.AdminAnalyticsSummary;
@@ -25,6 +26,7 @@ import com.cafe.dto.MenuItemRow;
 import com.cafe.dto.OwnerStaffCreateRequest;
 import com.cafe.dto.OwnerCafeRow;
 import com.cafe.dto.OwnerStaffRow;
+import com.cafe.dto.PageQuery;
 
 public interface OwnerService {
 
@@ -78,7 +80,7 @@ public interface OwnerService {
 
     ResponseEntity<String> deleteImage(String ownerUsername, Long cafeId, Long id);
 
-    ResponseEntity<List<CafeBookingRow>> listBookings(String ownerUsername, Long cafeId);
+    ResponseEntity<List<CafeBookingRow>> listBookings(String ownerUsername, Long cafeId, PageQuery page);
 
     ResponseEntity<CafeBookingRow> approveBooking(String ownerUsername, Long cafeId, Long bookingId);
 
@@ -88,10 +90,12 @@ public interface OwnerService {
 
     ResponseEntity<String> deleteBooking(String ownerUsername, Long cafeId, Long bookingId);
 
-    ResponseEntity<List<CafeOrderRow>> listOrders(String ownerUsername, Long cafeId);
+    ResponseEntity<List<CafeOrderRow>> listOrders(String ownerUsername, Long cafeId, PageQuery page);
 
     ResponseEntity<String> deleteOrder(String ownerUsername, Long cafeId, Long orderId);
 
+    ResponseEntity<SseEmitter> streamOrders(String ownerUsername, Long cafeId);
+
     ResponseEntity<List<CafeAmenityRow>> listAmenities(String ownerUsername, Long cafeId);
 
     ResponseEntity<CafeAmenityRow> createAmenity(String ownerUsername, Long cafeId, CafeAmenityRequest request);
@@ -0,0 +1,18 @@
+package com.cafe.service;
+
+import org.springframework.http.ResponseEntity;
+
+public interface PaymentEventService {
+
+    ResponseEntity<String> handleWebhook(String payload, String signature, String eventId);
+
+    void recordOrderCreated(String razorpayOrderId, long amountPaise);
+
+    /** Returns why a signed checkout must be refused based on recorded events, or null to accept it. */
+    String rejectionReason(String razorpayOrderId, String razorpayPaymentId, long amountPaise);
+
+    /** PAID when the gateway already reported the capture, otherwise VERIFIED until reconciled. */
+    String settledStatus(String razorpayOrderId);
+
+    int reconcilePending();
+}
@@ -0,0 +1,23 @@
+package com.cafe.service;
+
+import com.cafe.dto.GatewayOrder;
+import com.cafe.dto.PaymentGatewayStats;
+import com.cafe.exception.PaymentGatewayException;
+
+public interface PaymentGateway {
+
+    String keyId();
+
+    /** Returns a message describing missing configuration, or null when the gateway can take payments. */
+    String configurationProblem();
+
+    GatewayOrder createOrder(long amountPaise, String currency, String receipt) throws PaymentGatewayException;
+
+    GatewayOrder fetchOrder(String orderId) throws PaymentGatewayException;
+
+    boolean verifyPaymentSignature(String orderId, String paymentId, String signature);
+
+    boolean verifyWebhookSignature(String payload, String signature);
+
+    PaymentGatewayStats stats();
+}
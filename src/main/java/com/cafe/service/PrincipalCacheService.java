@@ -0,0 +1,14 @@
+package com.cafe.service;
+
+import com.cafe.dto.AuthPrincipal;
+
+public interface PrincipalCacheService {
+
+    AuthPrincipal resolve(String username);
+
+    void evictUser(String username);
+
+    void evictCafe(Long cafeId);
+
+    void evictAll();
+}
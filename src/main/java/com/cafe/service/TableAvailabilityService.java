@@ -0,0 +1,12 @@
+package com.cafe.service;
+
+import java.util.List;
+
+import com.cafe.entity.FunctionCapacity;
+
+public interface TableAvailabilityService {
+
+    List<String> findAvailableTables(Long cafeId, FunctionCapacity capacity, String bookingDate, String bookingTime);
+
+    String allocateTables(Long cafeId, FunctionCapacity capacity, String bookingDate, String bookingTime, int tablesNeeded, String preferredTablesCsv);
+}
@@ -2,27 +2,27 @@ package com.cafe.service.impl;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -31,16 +31,13 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.cafe.dto.AdminAnalyticsDetailsResponse;
 import com.cafe.dto.AdminAnalyticsSummary;
-import com.cafe.dto.AdminCafeMetricRow;
 import com.cafe.dto.AdminCafeRow;
-import com.cafe.dto.AdminCityMetricRow;
 import com.cafe.dto.AdminDecisionRequest;
 import com.cafe.dto.AdminDocumentRow;
-import com.cafe.dto.AdminHourMetricRow;
-import com.cafe.dto.AdminItemMetricRow;
 import com.cafe.dto.AdminOwnerRow;
 import com.cafe.dto.AdminUserDetail;
 import com.cafe.dto.AdminUserRow;
@@ -48,9 +45,13 @@ import com.cafe.dto.CafeDocumentRow;
 import com.cafe.dto.CafeImageRow;
 import com.cafe.dto.CafeProfileRequest;
 import com.cafe.dto.CafeProfileResponse;
+import com.cafe.dto.CatalogCacheStats;
 import com.cafe.dto.MenuAvailabilityRequest;
+import com.cafe.dto.MenuImportResponse;
 import com.cafe.dto.MenuItemRequest;
 import com.cafe.dto.MenuItemRow;
+import com.cafe.dto.PageQuery;
+import com.cafe.dto.PaymentGatewayStats;
 import com.cafe.dto.RegisterRequest;
 import com.cafe.entity.AcademicInfo;
 import com.cafe.entity.Address;
@@ -60,7 +61,6 @@ import com.cafe.entity.CafeBooking;
 import com.cafe.entity.CafeDocument;
 import com.cafe.entity.CafeImage;
 import com.cafe.entity.CafeOrder;
-import com.cafe.entity.CafeOrderItem;
 import com.cafe.entity.Document;
 import com.cafe.entity.FunctionCapacity;
 import com.cafe.entity.MenuItem;
@@ -78,13 +78,27 @@ import com.cafe.repository.FunctionCapacityRepository;
 import com.cafe.repository.MenuItemRepository;
 import com.cafe.repository.UserRepository;
 import com.cafe.service.AdminService;
+import com.cafe.service.AnalyticsService;
+import com.cafe.service.BlobStore;
+import com.cafe.service.CafeLocationService;
+import com.cafe.service.CatalogCacheService;
 import com.cafe.service.EmailService;
+import com.cafe.service.ImageDerivativeService;
+import com.cafe.service.MenuChangeService;
+import com.cafe.service.MenuImportService;
+import com.cafe.service.PaymentGateway;
+import com.cafe.service.PrincipalCacheService;
+import com.cafe.util.Money;
 
 @Service
 public class AdminServiceImpl implements AdminService {
 
     private static final Logger log = LoggerFactory.getLogger(AdminServiceImpl.class);
 
+    private static final int EXPORT_ROW_WINDOW = 200;
+
+    private static final int EXPORT_PAGE_SIZE = 500;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -118,6 +132,33 @@ public class AdminServiceImpl implements AdminService {
     @Autowired(required = false)
     private EmailService emailService;
 
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private CatalogCacheService catalogCacheService;
+
+    @Autowired
+    private MenuChangeService menuChangeService;
+
+    @Autowired
+    private MenuImportService menuImportService;
+
+    @Autowired
+    private CafeLocationService cafeLocationService;
+
+    @Autowired
+    private PrincipalCacheService principalCacheService;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private BlobStore blobStore;
+
     @Value("${cafe.images.dir:uploads/cafe-images}")
     private String cafeImagesDir;
 
@@ -126,9 +167,16 @@ public class AdminServiceImpl implements AdminService {
 
     @Override
     @Transactional(readOnly = true)
-    public ResponseEntity<List<AdminUserRow>> listUsers() {
+    public ResponseEntity<List<AdminUserRow>> listUsers(PageQuery page) {
         try {
-            List<User> users = userRepository.findAll();
+            ApprovalStatus status;
+            try {
+                status = approvalStatusFilter(page);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            List<User> fetched = userRepository.findPage(null, status, page.cursorId(), page.pageable());
+            List<User> users = page.trim(fetched);
 
             List<AdminUserRow> rows = users.stream().map(u -> {
                 AdminUserRow row = new AdminUserRow();
@@ -155,7 +203,11 @@ public class AdminServiceImpl implements AdminService {
                 return row;
             }).toList();
 
-            return ResponseEntity.ok(rows);
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.hasMore(fetched)) {
+                ok.header(PageQuery.NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+            }
+            return ok.body(rows);
         } catch (RuntimeException ex) {
             log.error("Failed to list users", ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -167,11 +219,12 @@ public class AdminServiceImpl implements AdminService {
         r.setId(mi.getId());
         r.setName(mi.getName());
         r.setDescription(mi.getDescription());
-        r.setPrice(mi.getPrice());
+        r.setPrice(Money.toRupees(mi.getPricePaise()));
+        r.setPricePaise(mi.getPricePaise());
         r.setAvailable(mi.getAvailable());
         r.setCategory(mi.getCategory());
         if (mi.getImageFilePath() != null && !mi.getImageFilePath().isBlank()) {
-            r.setImageUrl("/api/public/menu-images/" + mi.getId());
+            r.setImageUrl("/api/public/menu-images/" + mi.getId() + "?v=" + mi.imageVersion());
         }
         return r;
     }
@@ -194,10 +247,11 @@ public class AdminServiceImpl implements AdminService {
             m.setCafe(cafe);
             m.setName(request.getName().trim());
             m.setDescription(request.getDescription());
-            m.setPrice(request.getPrice());
+            m.setPricePaise(Money.toPaise(request.getPrice()));
             m.setAvailable(request.getAvailable() == null ? true : request.getAvailable());
             m.setCategory(request.getCategory());
             menuItemRepository.save(m);
+            menuChangeService.menuChanged(cafeId);
             return ResponseEntity.status(HttpStatus.CREATED).body(toMenuRow(m));
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -230,7 +284,7 @@ public class AdminServiceImpl implements AdminService {
                 m.setDescription(request.getDescription());
             }
             if (request.getPrice() != null) {
-                m.setPrice(request.getPrice());
+                m.setPricePaise(Money.toPaise(request.getPrice()));
             }
             if (request.getAvailable() != null) {
                 m.setAvailable(request.getAvailable());
@@ -239,6 +293,7 @@ public class AdminServiceImpl implements AdminService {
                 m.setCategory(request.getCategory());
             }
             menuItemRepository.save(m);
+            menuChangeService.menuChanged(cafeId);
             return ResponseEntity.ok(toMenuRow(m));
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -265,6 +320,7 @@ public class AdminServiceImpl implements AdminService {
             }
             m.setAvailable(request.getAvailable());
             menuItemRepository.save(m);
+            menuChangeService.menuChanged(cafeId);
             return ResponseEntity.ok(toMenuRow(m));
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -295,6 +351,7 @@ public class AdminServiceImpl implements AdminService {
                 }
             } catch (Exception ignored) {
             }
+            imageDerivativeService.deleteMenuImageVariants(m);
 
             Files.createDirectories(Path.of(menuImagesDir));
 
@@ -308,7 +365,10 @@ public class AdminServiceImpl implements AdminService {
             m.setImageContentType(file.getContentType() == null ? "application/octet-stream" : file.getContentType());
             m.setImageFilePath(target.toAbsolutePath().toString());
             m.setImageSize(file.getSize());
+            m.setImageThumbFilePath(null);
             menuItemRepository.save(m);
+            menuChangeService.menuChanged(cafeId);
+            imageDerivativeService.generateMenuImageVariants(m.getId());
 
             return ResponseEntity.ok(toMenuRow(m));
         } catch (Exception ex) {
@@ -338,7 +398,9 @@ public class AdminServiceImpl implements AdminService {
                 }
             } catch (Exception ignored) {
             }
+            imageDerivativeService.deleteMenuImageVariants(m);
             menuItemRepository.deleteById(menuItemId);
+            menuChangeService.menuChanged(cafeId);
             return ResponseEntity.ok("Deleted");
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to delete");
@@ -346,7 +408,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public ResponseEntity<byte[]> exportCafeHistoryExcel(Long cafeId) {
+    public ResponseEntity<StreamingResponseBody> exportCafeHistoryExcel(Long cafeId) {
         try {
             if (cafeId == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -356,100 +418,130 @@ public class AdminServiceImpl implements AdminService {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
-            List<CafeOrder> orders = cafeOrderRepository.findByCafeIdOrderByCreatedAtDesc(cafeId);
-            List<CafeBooking> bookings = cafeBookingRepository.findByCafeIdOrderByCreatedAtDesc(cafeId);
-
-            try (Workbook wb = new XSSFWorkbook(); ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-                Sheet sOrders = wb.createSheet("Orders");
-                int r = 0;
-
-                Row h = sOrders.createRow(r++);
-                int c = 0;
-                h.createCell(c++).setCellValue("OrderId");
-                h.createCell(c++).setCellValue("OrderNumber");
-                h.createCell(c++).setCellValue("CreatedAt");
-                h.createCell(c++).setCellValue("Status");
-                h.createCell(c++).setCellValue("CustomerUsername");
-                h.createCell(c++).setCellValue("CustomerName");
-                h.createCell(c++).setCellValue("CustomerPhone");
-                h.createCell(c++).setCellValue("AllocatedTable");
-                h.createCell(c++).setCellValue("AmenityPreference");
-                h.createCell(c++).setCellValue("TotalAmount");
-
-                if (orders != null) {
-                    for (CafeOrder o : orders) {
-                        if (o == null) continue;
-                        Row rr = sOrders.createRow(r++);
-                        int cc = 0;
-                        rr.createCell(cc++).setCellValue(o.getId() == null ? 0 : o.getId());
-                        rr.createCell(cc++).setCellValue(o.getOrderNumber() == null ? 0 : o.getOrderNumber());
-                        rr.createCell(cc++).setCellValue(o.getCreatedAt() == null ? 0 : o.getCreatedAt());
-                        rr.createCell(cc++).setCellValue(o.getStatus() == null ? "" : o.getStatus());
-                        rr.createCell(cc++).setCellValue(o.getCustomerUsername() == null ? "" : o.getCustomerUsername());
-                        rr.createCell(cc++).setCellValue(o.getCustomerName() == null ? "" : o.getCustomerName());
-                        rr.createCell(cc++).setCellValue(o.getCustomerPhone() == null ? "" : o.getCustomerPhone());
-                        rr.createCell(cc++).setCellValue(o.getAllocatedTable() == null ? "" : o.getAllocatedTable());
-                        rr.createCell(cc++).setCellValue(o.getAmenityPreference() == null ? "" : o.getAmenityPreference());
-                        rr.createCell(cc++).setCellValue(o.getTotalAmount() == null ? 0.0 : o.getTotalAmount());
-                    }
-                }
-                for (int i = 0; i < 10; i++) sOrders.autoSizeColumn(i);
-
-                Sheet sBookings = wb.createSheet("Bookings");
-                int br = 0;
-                Row bh = sBookings.createRow(br++);
-                int bc = 0;
-                bh.createCell(bc++).setCellValue("BookingId");
-                bh.createCell(bc++).setCellValue("CreatedAt");
-                bh.createCell(bc++).setCellValue("Status");
-                bh.createCell(bc++).setCellValue("CustomerUsername");
-                bh.createCell(bc++).setCellValue("CustomerName");
-                bh.createCell(bc++).setCellValue("CustomerPhone");
-                bh.createCell(bc++).setCellValue("BookingDate");
-                bh.createCell(bc++).setCellValue("BookingTime");
-                bh.createCell(bc++).setCellValue("Guests");
-                bh.createCell(bc++).setCellValue("AllocatedTable");
-                bh.createCell(bc++).setCellValue("AmenityPreference");
-                bh.createCell(bc++).setCellValue("DenialReason");
-
-                if (bookings != null) {
-                    for (CafeBooking b : bookings) {
-                        if (b == null) continue;
-                        Row rr = sBookings.createRow(br++);
-                        int cc = 0;
-                        rr.createCell(cc++).setCellValue(b.getId() == null ? 0 : b.getId());
-                        rr.createCell(cc++).setCellValue(b.getCreatedAt() == null ? 0 : b.getCreatedAt());
-                        rr.createCell(cc++).setCellValue(b.getStatus() == null ? "" : b.getStatus());
-                        rr.createCell(cc++).setCellValue(b.getCustomerUsername() == null ? "" : b.getCustomerUsername());
-                        rr.createCell(cc++).setCellValue(b.getCustomerName() == null ? "" : b.getCustomerName());
-                        rr.createCell(cc++).setCellValue(b.getCustomerPhone() == null ? "" : b.getCustomerPhone());
-                        rr.createCell(cc++).setCellValue(b.getBookingDate() == null ? "" : b.getBookingDate());
-                        rr.createCell(cc++).setCellValue(b.getBookingTime() == null ? "" : b.getBookingTime());
-                        rr.createCell(cc++).setCellValue(b.getGuests() == null ? 0 : b.getGuests());
-                        rr.createCell(cc++).setCellValue(b.getAllocatedTable() == null ? "" : b.getAllocatedTable());
-                        rr.createCell(cc++).setCellValue(b.getAmenityPreference() == null ? "" : b.getAmenityPreference());
-                        rr.createCell(cc++).setCellValue(b.getDenialReason() == null ? "" : b.getDenialReason());
-                    }
+            StreamingResponseBody body = out -> {
+                SXSSFWorkbook wb = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
+                wb.setCompressTempFiles(true);
+                try {
+                    writeOrdersSheet(wb, cafeId);
+                    writeBookingsSheet(wb, cafeId);
+                    wb.write(out);
+                    out.flush();
+                } catch (IOException | RuntimeException ex) {
+                    log.error("exportCafeHistoryExcel: failed for cafe {}", cafeId, ex);
+                    throw ex;
+                } finally {
+                    wb.close();
+                    wb.dispose();
                 }
-                for (int i = 0; i < 12; i++) sBookings.autoSizeColumn(i);
-
-                wb.write(bos);
-                byte[] bytes = bos.toByteArray();
+            };
 
-                String safeName = (cafe.getCafeName() == null ? "cafe" : cafe.getCafeName()).replaceAll("[^a-zA-Z0-9-_]+", "_");
-                String filename = safeName + "-history.xlsx";
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                        .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                        .body(bytes);
-            } catch (IOException io) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-            }
+            String safeName = (cafe.getCafeName() == null ? "cafe" : cafe.getCafeName()).replaceAll("[^a-zA-Z0-9-_]+", "_");
+            String filename = safeName + "-history.xlsx";
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                    .body(body);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    private void writeOrdersSheet(SXSSFWorkbook wb, Long cafeId) {
+        Sheet sOrders = wb.createSheet("Orders");
+        int[] widths = {10, 12, 16, 12, 20, 24, 16, 18, 20, 12};
+        for (int i = 0; i < widths.length; i++) sOrders.setColumnWidth(i, widths[i] * 256);
+
+        int r = 0;
+        Row h = sOrders.createRow(r++);
+        int c = 0;
+        h.createCell(c++).setCellValue("OrderId");
+        h.createCell(c++).setCellValue("OrderNumber");
+        h.createCell(c++).setCellValue("CreatedAt");
+        h.createCell(c++).setCellValue("Status");
+        h.createCell(c++).setCellValue("CustomerUsername");
+        h.createCell(c++).setCellValue("CustomerName");
+        h.createCell(c++).setCellValue("CustomerPhone");
+        h.createCell(c++).setCellValue("AllocatedTable");
+        h.createCell(c++).setCellValue("AmenityPreference");
+        h.createCell(c++).setCellValue("TotalAmount");
+
+        long cursorCreatedAt = Long.MAX_VALUE;
+        long cursorId = Long.MAX_VALUE;
+        while (true) {
+            List<CafeOrder> page = cafeOrderRepository.findByCafeIdBefore(cafeId, cursorCreatedAt, cursorId, PageRequest.of(0, EXPORT_PAGE_SIZE));
+            if (page == null || page.isEmpty()) break;
+            for (CafeOrder o : page) {
+                if (o == null) continue;
+                Row rr = sOrders.createRow(r++);
+                int cc = 0;
+                rr.createCell(cc++).setCellValue(o.getId() == null ? 0 : o.getId());
+                rr.createCell(cc++).setCellValue(o.getOrderNumber() == null ? 0 : o.getOrderNumber());
+                rr.createCell(cc++).setCellValue(o.getCreatedAt() == null ? 0 : o.getCreatedAt());
+                rr.createCell(cc++).setCellValue(o.getStatus() == null ? "" : o.getStatus());
+                rr.createCell(cc++).setCellValue(o.getCustomerUsername() == null ? "" : o.getCustomerUsername());
+                rr.createCell(cc++).setCellValue(o.getCustomerName() == null ? "" : o.getCustomerName());
+                rr.createCell(cc++).setCellValue(o.getCustomerPhone() == null ? "" : o.getCustomerPhone());
+                rr.createCell(cc++).setCellValue(o.getAllocatedTable() == null ? "" : o.getAllocatedTable());
+                rr.createCell(cc++).setCellValue(o.getAmenityPreference() == null ? "" : o.getAmenityPreference());
+                rr.createCell(cc++).setCellValue(Money.toRupees(Money.orZero(o.getTotalAmountPaise())));
+            }
+            CafeOrder last = page.get(page.size() - 1);
+            cursorCreatedAt = last.getCreatedAt() == null ? 0L : last.getCreatedAt();
+            cursorId = last.getId();
+            if (page.size() < EXPORT_PAGE_SIZE) break;
+        }
+    }
+
+    private void writeBookingsSheet(SXSSFWorkbook wb, Long cafeId) {
+        Sheet sBookings = wb.createSheet("Bookings");
+        int[] widths = {10, 16, 20, 20, 24, 16, 12, 10, 8, 18, 20, 30};
+        for (int i = 0; i < widths.length; i++) sBookings.setColumnWidth(i, widths[i] * 256);
+
+        int br = 0;
+        Row bh = sBookings.createRow(br++);
+        int bc = 0;
+        bh.createCell(bc++).setCellValue("BookingId");
+        bh.createCell(bc++).setCellValue("CreatedAt");
+        bh.createCell(bc++).setCellValue("Status");
+        bh.createCell(bc++).setCellValue("CustomerUsername");
+        bh.createCell(bc++).setCellValue("CustomerName");
+        bh.createCell(bc++).setCellValue("CustomerPhone");
+        bh.createCell(bc++).setCellValue("BookingDate");
+        bh.createCell(bc++).setCellValue("BookingTime");
+        bh.createCell(bc++).setCellValue("Guests");
+        bh.createCell(bc++).setCellValue("AllocatedTable");
+        bh.createCell(bc++).setCellValue("AmenityPreference");
+        bh.createCell(bc++).setCellValue("DenialReason");
+
+        long cursorCreatedAt = Long.MAX_VALUE;
+        long cursorId = Long.MAX_VALUE;
+        while (true) {
+            List<CafeBooking> page = cafeBookingRepository.findByCafeIdBefore(cafeId, cursorCreatedAt, cursorId, PageRequest.of(0, EXPORT_PAGE_SIZE));
+            if (page == null || page.isEmpty()) break;
+            for (CafeBooking b : page) {
+                if (b == null) continue;
+                Row rr = sBookings.createRow(br++);
+                int cc = 0;
+                rr.createCell(cc++).setCellValue(b.getId() == null ? 0 : b.getId());
+                rr.createCell(cc++).setCellValue(b.getCreatedAt() == null ? 0 : b.getCreatedAt());
+                rr.createCell(cc++).setCellValue(b.getStatus() == null ? "" : b.getStatus());
+                rr.createCell(cc++).setCellValue(b.getCustomerUsername() == null ? "" : b.getCustomerUsername());
+                rr.createCell(cc++).setCellValue(b.getCustomerName() == null ? "" : b.getCustomerName());
+                rr.createCell(cc++).setCellValue(b.getCustomerPhone() == null ? "" : b.getCustomerPhone());
+                rr.createCell(cc++).setCellValue(b.getBookingDate() == null ? "" : b.getBookingDate());
+                rr.createCell(cc++).setCellValue(b.getBookingTime() == null ? "" : b.getBookingTime());
+                rr.createCell(cc++).setCellValue(b.getGuests() == null ? 0 : b.getGuests());
+                rr.createCell(cc++).setCellValue(b.getAllocatedTable() == null ? "" : b.getAllocatedTable());
+                rr.createCell(cc++).setCellValue(b.getAmenityPreference() == null ? "" : b.getAmenityPreference());
+                rr.createCell(cc++).setCellValue(b.getDenialReason() == null ? "" : b.getDenialReason());
+            }
+            CafeBooking last = page.get(page.size() - 1);
+            cursorCreatedAt = last.getCreatedAt() == null ? 0L : last.getCreatedAt();
+            cursorId = last.getId();
+            if (page.size() < EXPORT_PAGE_SIZE) break;
+        }
+    }
+
     @Override
     public ResponseEntity<byte[]> exportCafeMenuExcel(Long cafeId) {
         try {
@@ -482,7 +574,7 @@ public class AdminServiceImpl implements AdminService {
                         rr.createCell(cc++).setCellValue(mi.getId() == null ? 0 : mi.getId());
                         rr.createCell(cc++).setCellValue(mi.getName() == null ? "" : mi.getName());
                         rr.createCell(cc++).setCellValue(mi.getCategory() == null ? "" : mi.getCategory());
-                        rr.createCell(cc++).setCellValue(mi.getPrice() == null ? 0.0 : mi.getPrice());
+                        rr.createCell(cc++).setCellValue(Money.toRupees(Money.orZero(mi.getPricePaise())));
                         rr.createCell(cc++).setCellValue(mi.getAvailable() == null ? "" : String.valueOf(mi.getAvailable()));
                     }
                 }
@@ -506,26 +598,34 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public ResponseEntity<AdminAnalyticsSummary> getAnalyticsSummary() {
+    public ResponseEntity<MenuImportResponse> importCafeMenu(Long cafeId, MultipartFile file) {
         try {
-            long totalCafes = cafeRepository.count();
-            long totalOrders = cafeOrderRepository.count();
-            long totalBookings = cafeBookingRepository.count();
-
-            double revenue = 0.0;
-            List<CafeOrder> allOrders = cafeOrderRepository.findAll();
-            if (allOrders != null) {
-                for (CafeOrder o : allOrders) {
-                    if (o == null || o.getTotalAmount() == null) continue;
-                    revenue += o.getTotalAmount();
-                }
+            if (cafeId == null || file == null || file.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            if (!cafeRepository.existsById(cafeId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
-            AdminAnalyticsSummary s = new AdminAnalyticsSummary();
-            s.setTotalCafes(totalCafes);
-            s.setTotalOrders(totalOrders);
-            s.setTotalBookings(totalBookings);
-            s.setTotalOrderRevenue(revenue);
+            MenuImportResponse report = menuImportService.importMenu(cafeId, file);
+            if (!Boolean.TRUE.equals(report.getApplied())) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(report);
+            }
+            if (report.getCreated() + report.getUpdated() > 0) {
+                menuChangeService.menuChanged(cafeId);
+            }
+            return ResponseEntity.ok(report);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Override
+    public ResponseEntity<AdminAnalyticsSummary> getAnalyticsSummary() {
+        try {
+            AdminAnalyticsSummary s = analyticsService.getOrderTotals(null, false);
+            s.setTotalCafes(cafeRepository.count());
+            s.setTotalBookings(cafeBookingRepository.count());
             return ResponseEntity.ok(s);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -535,125 +635,48 @@ public class AdminServiceImpl implements AdminService {
     @Override
     public ResponseEntity<AdminAnalyticsDetailsResponse> getAnalyticsDetails() {
         try {
-            List<CafeOrder> orders = cafeOrderRepository.findAllWithItems();
-
-            Map<Long, AdminCafeMetricRow> byCafe = new HashMap<>();
-            Map<Long, AdminItemMetricRow> byItem = new HashMap<>();
-            Map<Integer, AdminHourMetricRow> byHour = new HashMap<>();
-            Map<String, AdminCityMetricRow> byCity = new HashMap<>();
-
-            long totalOrders = 0;
-            double totalRevenue = 0.0;
-
-            if (orders != null) {
-                for (CafeOrder o : orders) {
-                    if (o == null) continue;
-                    totalOrders++;
-                    double ordTotal = o.getTotalAmount() == null ? 0.0 : o.getTotalAmount();
-                    totalRevenue += ordTotal;
-
-                    Cafe cafe = o.getCafe();
-                    Long cafeId = cafe == null ? null : cafe.getId();
-                    if (cafeId != null) {
-                        AdminCafeMetricRow cm = byCafe.computeIfAbsent(cafeId, k -> {
-                            AdminCafeMetricRow r = new AdminCafeMetricRow();
-                            r.setCafeId(k);
-                            r.setCafeName(cafe.getCafeName());
-                            r.setCity(cafe.getCity());
-                            r.setOrderCount(0L);
-                            r.setOrderRevenue(0.0);
-                            return r;
-                        });
-                        cm.setOrderCount((cm.getOrderCount() == null ? 0L : cm.getOrderCount()) + 1);
-                        cm.setOrderRevenue((cm.getOrderRevenue() == null ? 0.0 : cm.getOrderRevenue()) + ordTotal);
-
-                        String cityKey = cafe.getCity() == null ? "Unknown" : cafe.getCity();
-                        AdminCityMetricRow city = byCity.computeIfAbsent(cityKey, k -> {
-                            AdminCityMetricRow r = new AdminCityMetricRow();
-                            r.setCity(k);
-                            r.setOrderCount(0L);
-                            r.setOrderRevenue(0.0);
-                            return r;
-                        });
-                        city.setOrderCount((city.getOrderCount() == null ? 0L : city.getOrderCount()) + 1);
-                        city.setOrderRevenue((city.getOrderRevenue() == null ? 0.0 : city.getOrderRevenue()) + ordTotal);
-                    }
+            AdminAnalyticsDetailsResponse resp = analyticsService.getDetails(null, false);
+            resp.getSummary().setTotalCafes(cafeRepository.count());
+            resp.getSummary().setTotalBookings(cafeBookingRepository.count());
+            return ResponseEntity.ok(resp);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
 
-                    long createdAt = o.getCreatedAt() == null ? 0L : o.getCreatedAt();
-                    LocalDateTime dt = LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAt), ZoneId.systemDefault());
-                    int hour = dt.getHour();
-                    AdminHourMetricRow hm = byHour.computeIfAbsent(hour, k -> {
-                        AdminHourMetricRow r = new AdminHourMetricRow();
-                        r.setHour(k);
-                        r.setOrderCount(0L);
-                        r.setOrderRevenue(0.0);
-                        return r;
-                    });
-                    hm.setOrderCount((hm.getOrderCount() == null ? 0L : hm.getOrderCount()) + 1);
-                    hm.setOrderRevenue((hm.getOrderRevenue() == null ? 0.0 : hm.getOrderRevenue()) + ordTotal);
-
-                    if (o.getItems() != null) {
-                        for (CafeOrderItem it : o.getItems()) {
-                            if (it == null) continue;
-                            Long itemId = it.getMenuItemId();
-                            if (itemId == null) continue;
-                            long qty = it.getQty() == null ? 0 : it.getQty();
-                            double rev = (it.getPrice() == null ? 0.0 : it.getPrice()) * qty;
-                            AdminItemMetricRow im = byItem.computeIfAbsent(itemId, k -> {
-                                AdminItemMetricRow r = new AdminItemMetricRow();
-                                r.setMenuItemId(k);
-                                r.setItemName(it.getItemName());
-                                r.setTotalQty(0L);
-                                r.setTotalRevenue(0.0);
-                                return r;
-                            });
-                            im.setTotalQty((im.getTotalQty() == null ? 0L : im.getTotalQty()) + qty);
-                            im.setTotalRevenue((im.getTotalRevenue() == null ? 0.0 : im.getTotalRevenue()) + rev);
-                        }
-                    }
-                }
-            }
+    @Override
+    public ResponseEntity<String> rebuildAnalytics() {
+        try {
+            int rows = analyticsService.rebuild();
+            return ResponseEntity.ok("Rebuilt " + rows + " hourly buckets");
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
 
-            long totalCafes = cafeRepository.count();
-            long totalBookings = cafeBookingRepository.count();
-
-            AdminAnalyticsSummary summary = new AdminAnalyticsSummary();
-            summary.setTotalCafes(totalCafes);
-            summary.setTotalOrders(totalOrders);
-            summary.setTotalBookings(totalBookings);
-            summary.setTotalOrderRevenue(totalRevenue);
-
-            List<AdminCafeMetricRow> topCafes = byCafe.values().stream()
-                    .sorted(Comparator.comparing((AdminCafeMetricRow r) -> r.getOrderRevenue() == null ? 0.0 : r.getOrderRevenue()).reversed())
-                    .limit(10)
-                    .toList();
-
-            List<AdminItemMetricRow> topItems = byItem.values().stream()
-                    .sorted(Comparator.comparing((AdminItemMetricRow r) -> r.getTotalQty() == null ? 0L : r.getTotalQty()).reversed())
-                    .limit(10)
-                    .toList();
-
-            List<AdminHourMetricRow> busyHours = byHour.values().stream()
-                    .sorted(Comparator.comparing((AdminHourMetricRow r) -> r.getHour() == null ? 0 : r.getHour()))
-                    .toList();
-
-            List<AdminCityMetricRow> citySales = byCity.values().stream()
-                    .sorted(Comparator.comparing((AdminCityMetricRow r) -> r.getOrderRevenue() == null ? 0.0 : r.getOrderRevenue()).reversed())
-                    .limit(20)
-                    .toList();
-
-            AdminAnalyticsDetailsResponse resp = new AdminAnalyticsDetailsResponse();
-            resp.setSummary(summary);
-            resp.setTopCafes(topCafes);
-            resp.setTopItems(topItems);
-            resp.setBusyHours(busyHours);
-            resp.setCitySales(citySales);
-            return ResponseEntity.ok(resp);
+    @Override
+    public ResponseEntity<CatalogCacheStats> getCatalogCacheStats() {
+        try {
+            return ResponseEntity.ok(catalogCacheService.stats());
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Override
+    public ResponseEntity<PaymentGatewayStats> getPaymentGatewayStats() {
+        try {
+            return ResponseEntity.ok(paymentGateway.stats());
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    private ApprovalStatus approvalStatusFilter(PageQuery page) {
+        String status = page.statusOrBlank();
+        return status.isEmpty() ? null : ApprovalStatus.valueOf(status);
+    }
+
     private CafeDocumentRow toCafeDocumentRow(CafeDocument doc) {
         CafeDocumentRow r = new CafeDocumentRow();
         r.setId(doc.getId());
@@ -706,10 +729,11 @@ public class AdminServiceImpl implements AdminService {
             doc.setDocumentName(file.getOriginalFilename());
             doc.setDocumentType(file.getContentType());
             doc.setSize(file.getSize());
-            try {
-                doc.setData(file.getBytes());
+            try (InputStream in = file.getInputStream()) {
+                doc.setBlobKey(blobStore.put(in));
+                doc.setData(null);
             } catch (IOException e) {
-                throw new RuntimeException("Failed to read uploaded document", e);
+                throw new RuntimeException("Failed to store uploaded document", e);
             }
             cafeDocumentRepository.save(doc);
 
@@ -720,7 +744,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public ResponseEntity<byte[]> downloadCafeDocument(Long id) {
+    public ResponseEntity<Resource> downloadCafeDocument(Long id) {
         try {
             if (id == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -732,13 +756,8 @@ public class AdminServiceImpl implements AdminService {
             }
 
             String filename = doc.getDocumentName() == null ? ("cafe-document-" + id) : doc.getDocumentName();
-            String contentType = doc.getDocumentType() == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : doc.getDocumentType();
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename.replace("\"", "") + "\"")
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(doc.getData());
-        } catch (RuntimeException ex) {
+            return documentResponse(filename, doc.getDocumentType(), doc.getBlobKey(), doc.getData());
+        } catch (IOException | RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -770,6 +789,7 @@ public class AdminServiceImpl implements AdminService {
                         }
                     } catch (Exception ignored) {
                     }
+                    imageDerivativeService.deleteCafeImageVariants(img);
                 }
                 cafeImageRepository.deleteAll(imgs);
             } catch (RuntimeException ignored) {
@@ -791,12 +811,17 @@ public class AdminServiceImpl implements AdminService {
                         }
                     } catch (Exception ignored) {
                     }
+                    imageDerivativeService.deleteMenuImageVariants(mi);
                 }
                 menuItemRepository.deleteAll(items);
             } catch (RuntimeException ignored) {
             }
 
             cafeRepository.deleteById(cafeId);
+            analyticsService.cafeDeleted(cafeId);
+            menuChangeService.menuChanged(cafeId);
+            cafeLocationService.invalidate();
+            principalCacheService.evictCafe(cafeId);
             return ResponseEntity.ok("Deleted");
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to delete cafe");
@@ -804,12 +829,18 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public ResponseEntity<List<AdminOwnerRow>> listOwners() {
+    public ResponseEntity<List<AdminOwnerRow>> listOwners(PageQuery page) {
         try {
-            List<User> users = userRepository.findAll();
+            ApprovalStatus status;
+            try {
+                status = approvalStatusFilter(page);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            List<User> fetched = userRepository.findPage(Role.OWNER, status, page.cursorId(), page.pageable());
+            List<User> users = page.trim(fetched);
             List<AdminOwnerRow> rows = new ArrayList<>();
             for (User u : users) {
-                if (u == null || u.getRole() != Role.OWNER) continue;
                 AdminOwnerRow r = new AdminOwnerRow();
                 r.setId(u.getId());
                 r.setUsername(u.getUsername());
@@ -818,7 +849,12 @@ public class AdminServiceImpl implements AdminService {
                 cafeRepository.findFirstByOwner_UsernameOrderByIdDesc(u.getUsername()).ifPresent(c -> r.setCafeName(c.getCafeName()));
                 rows.add(r);
             }
-            return ResponseEntity.ok(rows);
+
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.hasMore(fetched)) {
+                ok.header(PageQuery.NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+            }
+            return ok.body(rows);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -906,10 +942,10 @@ public class AdminServiceImpl implements AdminService {
                 doc.setDocumentType(file.getContentType());
                 doc.setSize(file.getSize());
                 doc.setUser(owner);
-                try {
-                    doc.setData(file.getBytes());
+                try (InputStream in = file.getInputStream()) {
+                    doc.setBlobKey(blobStore.put(in));
                 } catch (IOException e) {
-                    throw new RuntimeException("Failed to read uploaded document", e);
+                    throw new RuntimeException("Failed to store uploaded document", e);
                 }
                 docList.add(doc);
             }
@@ -960,6 +996,7 @@ public class AdminServiceImpl implements AdminService {
             cafe.setAddressLine(request.getAddressLine());
             cafe.setCity(request.getCity());
             cafe.setState(request.getState());
+            cafeLocationService.locate(cafe, request.getPincode(), request.getLatitude(), request.getLongitude());
             cafe.setPincode(request.getPincode());
             cafe.setOpeningTime(request.getOpeningTime());
             cafe.setClosingTime(request.getClosingTime());
@@ -974,6 +1011,9 @@ public class AdminServiceImpl implements AdminService {
             cafe.setApprovalStatus(ApprovalStatus.APPROVED);
             cafe.setOwner(owner);
             cafeRepository.save(cafe);
+            menuChangeService.menuChanged(cafe.getId());
+            cafeLocationService.invalidate();
+            principalCacheService.evictUser(owner.getUsername());
 
             AdminCafeRow row = new AdminCafeRow();
             row.setId(cafe.getId());
@@ -1006,11 +1046,12 @@ public class AdminServiceImpl implements AdminService {
                 r.setId(mi.getId());
                 r.setName(mi.getName());
                 r.setDescription(mi.getDescription());
-                r.setPrice(mi.getPrice());
+                r.setPrice(Money.toRupees(mi.getPricePaise()));
+                r.setPricePaise(mi.getPricePaise());
                 r.setAvailable(mi.getAvailable());
                 r.setCategory(mi.getCategory());
                 if (mi.getImageFilePath() != null && !mi.getImageFilePath().isBlank()) {
-                    r.setImageUrl("/api/public/menu-images/" + mi.getId());
+                    r.setImageUrl("/api/public/menu-images/" + mi.getId() + "?v=" + mi.imageVersion());
                 }
                 return r;
             }).toList();
@@ -1021,9 +1062,16 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public ResponseEntity<List<AdminCafeRow>> listCafes() {
+    public ResponseEntity<List<AdminCafeRow>> listCafes(PageQuery page) {
         try {
-            List<Cafe> cafes = cafeRepository.findAll();
+            ApprovalStatus status;
+            try {
+                status = approvalStatusFilter(page);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            List<Cafe> fetched = cafeRepository.findPage(status, page.cursorId(), page.pageable());
+            List<Cafe> cafes = page.trim(fetched);
             List<AdminCafeRow> rows = cafes.stream().map(c -> {
                 AdminCafeRow r = new AdminCafeRow();
                 r.setId(c.getId());
@@ -1035,7 +1083,12 @@ public class AdminServiceImpl implements AdminService {
                 r.setState(c.getState());
                 return r;
             }).toList();
-            return ResponseEntity.ok(rows);
+
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.hasMore(fetched)) {
+                ok.header(PageQuery.NEXT_CURSOR_HEADER, String.valueOf(cafes.get(cafes.size() - 1).getId()));
+            }
+            return ok.body(rows);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -1069,6 +1122,8 @@ public class AdminServiceImpl implements AdminService {
             }
             cafe.setApprovalStatus(ApprovalStatus.APPROVED);
             cafeRepository.save(cafe);
+            menuChangeService.menuChanged(cafeId);
+            cafeLocationService.invalidate();
 
             AdminCafeRow r = new AdminCafeRow();
             r.setId(cafe.getId());
@@ -1098,6 +1153,8 @@ public class AdminServiceImpl implements AdminService {
         r.setCity(cafe.getCity());
         r.setState(cafe.getState());
         r.setPincode(cafe.getPincode());
+        r.setLatitude(cafe.getLatitude());
+        r.setLongitude(cafe.getLongitude());
         r.setOpeningTime(cafe.getOpeningTime());
         r.setClosingTime(cafe.getClosingTime());
         r.setFssaiNumber(cafe.getFssaiNumber());
@@ -1149,6 +1206,7 @@ public class AdminServiceImpl implements AdminService {
             cafe.setAddressLine(request.getAddressLine());
             cafe.setCity(request.getCity());
             cafe.setState(request.getState());
+            cafeLocationService.locate(cafe, request.getPincode(), request.getLatitude(), request.getLongitude());
             cafe.setPincode(request.getPincode());
             cafe.setOpeningTime(request.getOpeningTime());
             cafe.setClosingTime(request.getClosingTime());
@@ -1162,6 +1220,8 @@ public class AdminServiceImpl implements AdminService {
             cafe.setActive(request.getActive());
 
             cafeRepository.save(cafe);
+            menuChangeService.menuChanged(cafeId);
+            cafeLocationService.invalidate();
             return ResponseEntity.ok(toCafeResponse(cafe));
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1233,6 +1293,8 @@ public class AdminServiceImpl implements AdminService {
             img.setSize(file.getSize());
             img.setCover(makeCover);
             cafeImageRepository.save(img);
+            catalogCacheService.invalidateCafe(cafeId);
+            imageDerivativeService.generateCafeImageVariants(img.getId());
 
             return ResponseEntity.status(HttpStatus.CREATED).body(toImageRow(img));
         } catch (Exception ex) {
@@ -1261,8 +1323,10 @@ public class AdminServiceImpl implements AdminService {
                 }
             } catch (Exception ignored) {
             }
+            imageDerivativeService.deleteCafeImageVariants(img);
 
             cafeImageRepository.deleteById(imageId);
+            catalogCacheService.invalidateCafe(cafeId);
             return ResponseEntity.ok("Deleted");
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to delete");
@@ -1392,6 +1456,7 @@ public class AdminServiceImpl implements AdminService {
             user.setForcePasswordChange(true);
             user.setApprovalStatus(ApprovalStatus.APPROVED);
             userRepository.save(user);
+            principalCacheService.evictUser(user.getUsername());
 
             String email = user.getPersonalDetails() == null ? null : user.getPersonalDetails().getEmail();
             log.info("Approved user id={} username={} email={}", user.getId(), user.getUsername(), email);
@@ -1417,6 +1482,7 @@ public class AdminServiceImpl implements AdminService {
 
             user.setApprovalStatus(ApprovalStatus.DENIED);
             userRepository.save(user);
+            principalCacheService.evictUser(user.getUsername());
 
             String email = user.getPersonalDetails() == null ? null : user.getPersonalDetails().getEmail();
             log.info("Denied user id={} username={} email={} reason={}", user.getId(), user.getUsername(), email, request == null ? null : request.getReason());
@@ -1461,6 +1527,7 @@ public class AdminServiceImpl implements AdminService {
             }
 
             userRepository.deleteById(id);
+            principalCacheService.evictUser(user.getUsername());
             return ResponseEntity.ok("Deleted");
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to delete");
@@ -1468,7 +1535,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public ResponseEntity<byte[]> downloadDocument(Long id) {
+    public ResponseEntity<Resource> downloadDocument(Long id) {
         try {
             Document doc = documentRepository.findById(id).orElse(null);
             if (doc == null) {
@@ -1476,14 +1543,21 @@ public class AdminServiceImpl implements AdminService {
             }
 
             String filename = doc.getDocumentName() == null ? ("document-" + id) : doc.getDocumentName();
-            String contentType = doc.getDocumentType() == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : doc.getDocumentType();
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename.replace("\"", "") + "\"")
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(doc.getData());
-        } catch (RuntimeException ex) {
+            return documentResponse(filename, doc.getDocumentType(), doc.getBlobKey(), doc.getData());
+        } catch (IOException | RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    private ResponseEntity<Resource> documentResponse(String filename, String documentType, String blobKey, byte[] legacyData) throws IOException {
+        if (blobKey == null && legacyData == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        String contentType = documentType == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : documentType;
+        Resource body = blobKey != null ? new InputStreamResource(blobStore.open(blobKey)) : new ByteArrayResource(legacyData);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename.replace("\"", "") + "\"")
+                .contentType(MediaType.parseMediaType(contentType))
+                .body(body);
+    }
 }
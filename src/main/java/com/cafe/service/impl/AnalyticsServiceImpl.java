@@ -0,0 +1,272 @@
+package com.cafe.service.impl;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cafe.dto.AdminAnalyticsDetailsResponse;
+import com.cafe.dto.AdminAnalyticsSummary;
+import com.cafe.dto.AdminCafeMetricRow;
+import com.cafe.dto.AdminCityMetricRow;
+import com.cafe.dto.AdminHourMetricRow;
+import com.cafe.dto.AdminItemMetricRow;
+import com.cafe.entity.CafeOrder;
+import com.cafe.entity.CafeOrderItem;
+import com.cafe.repository.AnalyticsCafeHourRepository;
+import com.cafe.repository.AnalyticsItemDayRepository;
+import com.cafe.repository.CafeOrderRepository;
+import com.cafe.service.AnalyticsService;
+import com.cafe.util.Money;
+
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    @Autowired
+    private AnalyticsCafeHourRepository analyticsCafeHourRepository;
+
+    @Autowired
+    private AnalyticsItemDayRepository analyticsItemDayRepository;
+
+    @Autowired
+    private CafeOrderRepository cafeOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cafe.analytics.zone:}")
+    private String analyticsZone;
+
+    @Value("${cafe.analytics.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Override
+    public void recordOrderCreated(Long orderId) {
+        apply(orderId, 1, true, true);
+    }
+
+    @Override
+    public void recordOrderPaid(Long orderId) {
+        apply(orderId, 1, false, true);
+    }
+
+    @Override
+    public void recordOrderDeleted(Long orderId) {
+        apply(orderId, -1, true, true);
+    }
+
+    @Override
+    public void cafeDeleted(Long cafeId) {
+        if (cafeId == null) return;
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                analyticsItemDayRepository.deleteByCafeId(cafeId);
+                analyticsCafeHourRepository.deleteByCafeId(cafeId);
+            });
+        } catch (RuntimeException ex) {
+            log.warn("analytics: failed to purge rollups for cafe {}: {}", cafeId, ex.getMessage());
+        }
+    }
+
+    private void apply(Long orderId, int sign, boolean countOrder, boolean countPaid) {
+        if (orderId == null) return;
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                CafeOrder o = cafeOrderRepository.findByIdWithItems(orderId).orElse(null);
+                if (o == null || o.getCafe() == null || o.getCafe().getId() == null) return;
+
+                boolean paid = "PAID".equalsIgnoreCase(String.valueOf(o.getPaymentStatus()));
+                boolean addAll = countOrder;
+                boolean addPaid = countPaid && paid;
+                if (!addAll && !addPaid) return;
+
+                Long cafeId = o.getCafe().getId();
+                LocalDateTime dt = LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(o.getCreatedAt() == null ? 0L : o.getCreatedAt()),
+                        zone()
+                );
+                long total = Money.orZero(o.getTotalAmountPaise());
+
+                analyticsCafeHourRepository.increment(
+                        cafeId,
+                        dt.toLocalDate(),
+                        dt.getHour(),
+                        addAll ? (long) sign : 0L,
+                        addAll ? sign * total : 0L,
+                        addPaid ? (long) sign : 0L,
+                        addPaid ? sign * total : 0L
+                );
+
+                if (o.getItems() == null) return;
+                for (CafeOrderItem it : o.getItems()) {
+                    if (it == null || it.getMenuItemId() == null) continue;
+                    long qty = it.getQty() == null ? 0 : it.getQty();
+                    long rev = Money.orZero(it.getPricePaise()) * qty;
+                    analyticsItemDayRepository.increment(
+                            cafeId,
+                            it.getMenuItemId(),
+                            it.getItemName(),
+                            dt.toLocalDate(),
+                            addAll ? sign * qty : 0L,
+                            addAll ? sign * rev : 0L,
+                            addPaid ? sign * qty : 0L,
+                            addPaid ? sign * rev : 0L
+                    );
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.warn("analytics: failed to update rollups for order {}: {}", orderId, ex.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AdminAnalyticsSummary getOrderTotals(Long cafeId, boolean paidOnly) {
+        List<Object[]> rows = analyticsCafeHourRepository.sumTotals(cafeId);
+        Object[] row = (rows == null || rows.isEmpty()) ? null : rows.get(0);
+
+        AdminAnalyticsSummary s = new AdminAnalyticsSummary();
+        s.setTotalOrders(row == null ? 0L : toLong(row[paidOnly ? 2 : 0]));
+        s.setTotalOrderRevenue(Money.toRupees(row == null ? 0L : toLong(row[paidOnly ? 3 : 1])));
+        return s;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AdminAnalyticsDetailsResponse getDetails(Long cafeId, boolean paidOnly) {
+        int countIdx = paidOnly ? 2 : 0;
+        int revenueIdx = paidOnly ? 3 : 1;
+
+        List<AdminCafeMetricRow> cafes = new ArrayList<>();
+        for (Object[] row : analyticsCafeHourRepository.sumByCafe(cafeId)) {
+            long count = toLong(row[3 + countIdx]);
+            if (count <= 0) continue;
+            AdminCafeMetricRow r = new AdminCafeMetricRow();
+            r.setCafeId(toLong(row[0]));
+            r.setCafeName((String) row[1]);
+            r.setCity((String) row[2]);
+            r.setOrderCount(count);
+            r.setOrderRevenue(Money.toRupees(toLong(row[3 + revenueIdx])));
+            cafes.add(r);
+        }
+
+        List<AdminHourMetricRow> hours = new ArrayList<>();
+        for (Object[] row : analyticsCafeHourRepository.sumByHour(cafeId)) {
+            long count = toLong(row[1 + countIdx]);
+            if (count <= 0) continue;
+            AdminHourMetricRow r = new AdminHourMetricRow();
+            r.setHour(row[0] == null ? 0 : ((Number) row[0]).intValue());
+            r.setOrderCount(count);
+            r.setOrderRevenue(Money.toRupees(toLong(row[1 + revenueIdx])));
+            hours.add(r);
+        }
+
+        Map<String, long[]> cityTotals = new HashMap<>();
+        for (Object[] row : analyticsCafeHourRepository.sumByCity(cafeId)) {
+            long count = toLong(row[1 + countIdx]);
+            if (count <= 0) continue;
+            String cityKey = row[0] == null ? "Unknown" : (String) row[0];
+            long[] t = cityTotals.computeIfAbsent(cityKey, k -> new long[2]);
+            t[0] += count;
+            t[1] += toLong(row[1 + revenueIdx]);
+        }
+        List<AdminCityMetricRow> cities = new ArrayList<>(cityTotals.size());
+        for (Map.Entry<String, long[]> e : cityTotals.entrySet()) {
+            AdminCityMetricRow r = new AdminCityMetricRow();
+            r.setCity(e.getKey());
+            r.setOrderCount(e.getValue()[0]);
+            r.setOrderRevenue(Money.toRupees(e.getValue()[1]));
+            cities.add(r);
+        }
+
+        List<AdminItemMetricRow> items = new ArrayList<>();
+        for (Object[] row : analyticsItemDayRepository.sumByItem(cafeId)) {
+            long qty = toLong(row[2 + countIdx]);
+            if (qty <= 0) continue;
+            AdminItemMetricRow r = new AdminItemMetricRow();
+            r.setMenuItemId(toLong(row[0]));
+            r.setItemName((String) row[1]);
+            r.setTotalQty(qty);
+            r.setTotalRevenue(Money.toRupees(toLong(row[2 + revenueIdx])));
+            items.add(r);
+        }
+
+        AdminAnalyticsSummary summary = getOrderTotals(cafeId, paidOnly);
+
+        AdminAnalyticsDetailsResponse resp = new AdminAnalyticsDetailsResponse();
+        resp.setSummary(summary);
+        resp.setTopCafes(cafes.stream()
+                .sorted(Comparator.comparing((AdminCafeMetricRow r) -> r.getOrderRevenue() == null ? 0.0 : r.getOrderRevenue()).reversed())
+                .limit(10)
+                .toList());
+        resp.setTopItems(items.stream()
+                .sorted(Comparator.comparing((AdminItemMetricRow r) -> r.getTotalQty() == null ? 0L : r.getTotalQty()).reversed())
+                .limit(10)
+                .toList());
+        resp.setBusyHours(hours.stream()
+                .sorted(Comparator.comparing((AdminHourMetricRow r) -> r.getHour() == null ? 0 : r.getHour()))
+                .toList());
+        resp.setCitySales(cities.stream()
+                .sorted(Comparator.comparing((AdminCityMetricRow r) -> r.getOrderRevenue() == null ? 0.0 : r.getOrderRevenue()).reversed())
+                .limit(20)
+                .toList());
+        return resp;
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        return rebuildRollups();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) return;
+        try {
+            if (analyticsCafeHourRepository.count() > 0) return;
+            if (cafeOrderRepository.count() == 0) return;
+            int rows = rebuildRollups();
+            log.info("analytics: backfilled {} hourly cafe buckets from existing orders", rows);
+        } catch (RuntimeException ex) {
+            log.warn("analytics: startup backfill failed: {}", ex.getMessage());
+        }
+    }
+
+    private int rebuildRollups() {
+        String zoneId = zone().getId();
+        analyticsItemDayRepository.deleteAllRows();
+        analyticsCafeHourRepository.deleteAllRows();
+        int rows = analyticsCafeHourRepository.rebuildFromOrders(zoneId);
+        analyticsItemDayRepository.rebuildFromOrderItems(zoneId);
+        return rows;
+    }
+
+    private ZoneId zone() {
+        if (analyticsZone == null || analyticsZone.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        return ZoneId.of(analyticsZone.trim());
+    }
+
+    private static long toLong(Object v) {
+        return v == null ? 0L : ((Number) v).longValue();
+    }
+}
@@ -1,6 +1,7 @@
 package com.cafe.service.impl;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -22,6 +23,7 @@ import com.cafe.entity.Role;
 import com.cafe.entity.User;
 import com.cafe.repository.UserRepository;
 import com.cafe.service.AuthService;
+import com.cafe.service.BlobStore;
 import com.cafe.service.EmailService;
 
 @Service
@@ -39,6 +41,9 @@ public class AuthServiceImpl implements AuthService {
     @Autowired(required = false)
     private EmailService emailService;
 
+    @Autowired
+    private BlobStore blobStore;
+
     private String generateTempPassword() {
         return UUID.randomUUID().toString().replace("-", "").substring(0, 10);
     }
@@ -255,10 +260,10 @@ public class AuthServiceImpl implements AuthService {
             doc.setSize(file.getSize());
             doc.setUser(user);
 
-            try {
-                doc.setData(file.getBytes());
+            try (InputStream in = file.getInputStream()) {
+                doc.setBlobKey(blobStore.put(in));
             } catch (IOException e) {
-                throw new RuntimeException("Failed to read uploaded document", e);
+                throw new RuntimeException("Failed to store uploaded document", e);
             }
 
             docList.add(doc);
@@ -0,0 +1,64 @@
+package com.cafe.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Copies an upload to a temp file while hashing it, so a blob store learns the content key
+ * without holding the bytes in memory.
+ */
+final class BlobSpool {
+
+    final Path file;
+
+    final String sha256;
+
+    final long size;
+
+    private BlobSpool(Path file, String sha256, long size) {
+        this.file = file;
+        this.sha256 = sha256;
+        this.size = size;
+    }
+
+    static BlobSpool spool(InputStream content, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "blob-", ".part");
+        MessageDigest digest = sha256();
+        long size;
+        try (InputStream in = new DigestInputStream(content, digest);
+             OutputStream out = Files.newOutputStream(tmp)) {
+            size = in.transferTo(out);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        return new BlobSpool(tmp, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    static boolean isValidKey(String key) {
+        return key != null && key.matches("[0-9a-f]{64}");
+    }
+
+    void discard() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.cafe.service.impl;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cafe.dto.NearbyCafeRow;
+import com.cafe.entity.ApprovalStatus;
+import com.cafe.entity.Cafe;
+import com.cafe.entity.CafeBooking;
+import com.cafe.entity.FunctionType;
+import com.cafe.entity.PincodeCentroid;
+import com.cafe.repository.CafeRepository;
+import com.cafe.repository.FunctionCapacityRepository;
+import com.cafe.repository.PincodeCentroidRepository;
+import com.cafe.service.CafeLocationService;
+
+/**
+ * Answers nearest-cafe queries from an in-memory grid of approved, active cafes with
+ * coordinates. Cafe writes mark the grid stale and the next query reloads it; at a few thousand
+ * cafes that is one small query.
+ */
+@Service
+public class CafeLocationServiceImpl implements CafeLocationService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    @Autowired
+    private CafeRepository cafeRepository;
+
+    @Autowired
+    private FunctionCapacityRepository functionCapacityRepository;
+
+    @Autowired
+    private PincodeCentroidRepository pincodeCentroidRepository;
+
+    @Value("${cafe.geo.cell-degrees:0.05}")
+    private double cellDegrees;
+
+    @Value("${cafe.geo.zone:}")
+    private String geoZone;
+
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    private volatile Grid grid;
+
+    @Override
+    public List<NearbyCafeRow> nearby(double latitude, double longitude, Double radiusKm, int limit, boolean openNow, FunctionType functionType) {
+        Grid g = current();
+        LocalTime now = openNow ? LocalTime.now(zone()) : null;
+        List<Hit> hits = radiusKm == null
+                ? g.nearest(latitude, longitude, limit, spot -> accepts(spot, now, functionType))
+                : g.within(latitude, longitude, radiusKm, limit, spot -> accepts(spot, now, functionType));
+
+        LocalTime clock = now == null ? LocalTime.now(zone()) : now;
+        List<NearbyCafeRow> rows = new ArrayList<>(hits.size());
+        for (Hit h : hits) {
+            Spot s = h.spot;
+            NearbyCafeRow r = new NearbyCafeRow();
+            r.setId(s.cafeId);
+            r.setCafeName(s.cafeName);
+            r.setCity(s.city);
+            r.setState(s.state);
+            r.setLatitude(s.latitude);
+            r.setLongitude(s.longitude);
+            r.setDistanceKm(Math.round(h.distanceKm * 100.0) / 100.0);
+            r.setOpeningTime(s.openingTime);
+            r.setClosingTime(s.closingTime);
+            r.setOpenNow(isOpen(s, clock));
+            rows.add(r);
+        }
+        return rows;
+    }
+
+    @Override
+    public void locate(Cafe cafe, String pincode, Double latitude, Double longitude) {
+        if (latitude != null && longitude != null) {
+            cafe.setLatitude(latitude);
+            cafe.setLongitude(longitude);
+            return;
+        }
+        String next = pincode == null ? null : pincode.trim();
+        String previous = cafe.getPincode() == null ? null : cafe.getPincode().trim();
+        // Existing coordinates (possibly set by hand) stay until the cafe moves to another pincode.
+        if (Objects.equals(next, previous) && cafe.getLatitude() != null && cafe.getLongitude() != null) {
+            return;
+        }
+        PincodeCentroid c = (next == null || next.isBlank()) ? null : pincodeCentroidRepository.findById(next).orElse(null);
+        cafe.setLatitude(c == null ? null : c.getLatitude());
+        cafe.setLongitude(c == null ? null : c.getLongitude());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${cafe.geo.refresh-ms:300000}")
+    public void invalidate() {
+        stale.set(true);
+    }
+
+    private Grid current() {
+        Grid g = grid;
+        if (g != null && !stale.get()) return g;
+        synchronized (this) {
+            boolean reload = stale.getAndSet(false);
+            if (grid == null || reload) {
+                try {
+                    grid = load();
+                } catch (RuntimeException ex) {
+                    stale.set(true);
+                    if (grid == null) throw ex;
+                }
+            }
+            return grid;
+        }
+    }
+
+    private Grid load() {
+        Map<Long, Set<FunctionType>> types = new HashMap<>();
+        for (Object[] row : functionCapacityRepository.findEnabledFunctionTypes()) {
+            if (row[1] == null) continue;
+            types.computeIfAbsent((Long) row[0], k -> EnumSet.noneOf(FunctionType.class)).add((FunctionType) row[1]);
+        }
+        Grid g = new Grid(cellDegrees > 0 ? cellDegrees : 0.05);
+        for (Object[] row : cafeRepository.findLocatedRows(ApprovalStatus.APPROVED)) {
+            Long id = (Long) row[0];
+            g.add(new Spot(id, (String) row[1], (String) row[2], (String) row[3], (Double) row[4], (Double) row[5],
+                    (String) row[6], (String) row[7], types.getOrDefault(id, Set.of())));
+        }
+        return g;
+    }
+
+    private ZoneId zone() {
+        if (geoZone == null || geoZone.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        return ZoneId.of(geoZone.trim());
+    }
+
+    private static boolean accepts(Spot s, LocalTime now, FunctionType functionType) {
+        if (functionType != null && !s.functionTypes.contains(functionType)) return false;
+        return now == null || Boolean.TRUE.equals(isOpen(s, now));
+    }
+
+    // Null when the hours cannot be read; closing before opening means the cafe is open past midnight.
+    private static Boolean isOpen(Spot s, LocalTime now) {
+        if (s.opens == null || s.closes == null) return null;
+        if (s.opens.equals(s.closes)) return true;
+        if (s.opens.isBefore(s.closes)) {
+            return !now.isBefore(s.opens) && now.isBefore(s.closes);
+        }
+        return !now.isBefore(s.opens) || now.isBefore(s.closes);
+    }
+
+    static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static final class Spot {
+        private final Long cafeId;
+        private final String cafeName;
+        private final String city;
+        private final String state;
+        private final double latitude;
+        private final double longitude;
+        private final String openingTime;
+        private final String closingTime;
+        private final LocalTime opens;
+        private final LocalTime closes;
+        private final Set<FunctionType> functionTypes;
+
+        private Spot(Long cafeId, String cafeName, String city, String state, double latitude, double longitude,
+                     String openingTime, String closingTime, Set<FunctionType> functionTypes) {
+            this.cafeId = cafeId;
+            this.cafeName = cafeName;
+            this.city = city;
+            this.state = state;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.openingTime = openingTime;
+            this.closingTime = closingTime;
+            this.opens = CafeBooking.parseSlotTime(openingTime);
+            this.closes = CafeBooking.parseSlotTime(closingTime);
+            this.functionTypes = functionTypes;
+        }
+    }
+
+    private static final class Hit {
+        private final Spot spot;
+        private final double distanceKm;
+
+        private Hit(Spot spot, double distanceKm) {
+            this.spot = spot;
+            this.distanceKm = distanceKm;
+        }
+    }
+
+    /**
+     * Equal-angle cells keyed by (row, column). Radius queries scan the cells covering the
+     * bounding box; k-nearest walks square rings outwards until no unvisited cell can be closer
+     * than the current k-th hit.
+     */
+    private static final class Grid {
+        private final double cell;
+        private final Map<Long, List<Spot>> cells = new HashMap<>();
+        private int minRow = Integer.MAX_VALUE;
+        private int maxRow = Integer.MIN_VALUE;
+        private int minCol = Integer.MAX_VALUE;
+        private int maxCol = Integer.MIN_VALUE;
+
+        private Grid(double cell) {
+            this.cell = cell;
+        }
+
+        private void add(Spot s) {
+            int row = row(s.latitude);
+            int col = col(s.longitude);
+            cells.computeIfAbsent(key(row, col), k -> new ArrayList<>()).add(s);
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+        }
+
+        private List<Hit> within(double lat, double lng, double radiusKm, int limit, Predicate<Spot> filter) {
+            double dLat = radiusKm / KM_PER_DEGREE;
+            double dLng = radiusKm / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + dLat)))));
+            int r0 = Math.max(minRow, row(lat - dLat));
+            int r1 = Math.min(maxRow, row(lat + dLat));
+            int c0 = Math.max(minCol, col(lng - dLng));
+            int c1 = Math.min(maxCol, col(lng + dLng));
+
+            List<Hit> hits = new ArrayList<>();
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    List<Spot> spots = cells.get(key(r, c));
+                    if (spots == null) continue;
+                    for (Spot s : spots) {
+                        double d = haversineKm(lat, lng, s.latitude, s.longitude);
+                        if (d <= radiusKm && filter.test(s)) hits.add(new Hit(s, d));
+                    }
+                }
+            }
+            hits.sort(Comparator.comparingDouble(h -> h.distanceKm));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        }
+
+        private List<Hit> nearest(double lat, double lng, int k, Predicate<Spot> filter) {
+            if (cells.isEmpty() || k <= 0) return List.of();
+            PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble((Hit h) -> h.distanceKm).reversed());
+            int row = row(lat);
+            int col = col(lng);
+            int maxRing = Math.max(Math.max(Math.abs(row - minRow), Math.abs(row - maxRow)),
+                    Math.max(Math.abs(col - minCol), Math.abs(col - maxCol)));
+
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int r = row - ring; r <= row + ring; r++) {
+                    if (r < minRow || r > maxRow) continue;
+                    boolean edge = r == row - ring || r == row + ring;
+                    int step = edge ? 1 : Math.max(1, 2 * ring);
+                    for (int c = col - ring; c <= col + ring; c += step) {
+                        if (c < minCol || c > maxCol) continue;
+                        List<Spot> spots = cells.get(key(r, c));
+                        if (spots == null) continue;
+                        for (Spot s : spots) {
+                            if (!filter.test(s)) continue;
+                            double d = haversineKm(lat, lng, s.latitude, s.longitude);
+                            if (best.size() < k) {
+                                best.add(new Hit(s, d));
+                            } else if (d < best.peek().distanceKm) {
+                                best.poll();
+                                best.add(new Hit(s, d));
+                            }
+                        }
+                    }
+                }
+                // Cells on the next ring are at least `ring` whole cells away along one axis.
+                if (best.size() == k && best.peek().distanceKm <= minDistanceKm(lat, ring)) break;
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(Comparator.comparingDouble(h -> h.distanceKm));
+            return hits;
+        }
+
+        private double minDistanceKm(double lat, int ring) {
+            double degrees = ring * cell;
+            double farthestLat = Math.min(89.0, Math.abs(lat) + degrees);
+            return degrees * KM_PER_DEGREE * Math.cos(Math.toRadians(farthestLat));
+        }
+
+        private int row(double lat) {
+            return (int) Math.floor(lat / cell);
+        }
+
+        private int col(double lng) {
+            return (int) Math.floor(lng / cell);
+        }
+
+        private static long key(int row, int col) {
+            return ((long) row << 32) | (col & 0xffffffffL);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.cafe.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.cafe.dto.CafeOrderItemRequest;
+import com.cafe.dto.CartQuote;
+import com.cafe.entity.CafeOrderItem;
+import com.cafe.repository.MenuItemRepository;
+import com.cafe.service.CartPricingService;
+
+/**
+ * Prices a cart against one cafe's menu with a single query. Items that belong to another cafe
+ * simply do not come back, so ownership is checked without loading any Cafe rows. Totals are
+ * summed in whole paise, so the amount sent to the gateway is exact.
+ */
+@Service
+public class CartPricingServiceImpl implements CartPricingService {
+
+    private static final String INVALID_ITEM = "Invalid or unavailable menu item";
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Override
+    public CartQuote price(Long cafeId, List<CafeOrderItemRequest> lines) {
+        if (lines == null || lines.isEmpty()) return rejected("Cart is empty");
+        if (cafeId == null) return rejected(INVALID_ITEM);
+
+        Set<Long> ids = new LinkedHashSet<>();
+        for (CafeOrderItemRequest line : lines) {
+            if (line == null || line.getMenuItemId() == null) return rejected(INVALID_ITEM);
+            if (line.getQty() == null || line.getQty() <= 0) return rejected("Invalid quantity");
+            ids.add(line.getMenuItemId());
+        }
+
+        Map<Long, Object[]> menu = new HashMap<>();
+        for (Object[] row : menuItemRepository.findPricingRows(cafeId, ids)) {
+            menu.put((Long) row[0], row);
+        }
+
+        long sum = 0L;
+        List<CafeOrderItem> items = new ArrayList<>(lines.size());
+        for (CafeOrderItemRequest line : lines) {
+            Object[] row = menu.get(line.getMenuItemId());
+            if (row == null || !Boolean.TRUE.equals(row[3]) || row[2] == null) return rejected(INVALID_ITEM);
+
+            Long price = (Long) row[2];
+            CafeOrderItem oi = new CafeOrderItem();
+            oi.setMenuItemId(line.getMenuItemId());
+            oi.setItemName((String) row[1]);
+            oi.setPricePaise(price);
+            oi.setQty(line.getQty());
+            items.add(oi);
+            sum = Math.addExact(sum, Math.multiplyExact(price.longValue(), line.getQty().longValue()));
+        }
+
+        CartQuote q = new CartQuote();
+        q.setItems(items);
+        q.setAmountPaise(sum);
+        return q;
+    }
+
+    private CartQuote rejected(String error) {
+        CartQuote q = new CartQuote();
+        q.setError(error);
+        q.setItems(List.of());
+        q.setAmountPaise(0L);
+        return q;
+    }
+}
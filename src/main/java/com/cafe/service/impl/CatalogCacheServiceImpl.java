@@ -0,0 +1,157 @@
+package com.cafe.service.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.cafe.dto.CatalogCacheStats;
+import com.cafe.service.CatalogCacheService;
+import com.cafe.util.ETags;
+
+@Service
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong notModified = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Map<String, Entry> entries;
+
+    private final int maxEntries;
+
+    @Value("${cafe.catalog.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    public CatalogCacheServiceImpl(@Value("${cafe.catalog.cache.max-entries:2000}") int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > CatalogCacheServiceImpl.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> respond(String key, Long cafeId, String ifNoneMatch, Supplier<ResponseEntity<T>> loader) {
+        String fullKey = cafeId == null ? key : cafeId + ":" + key;
+        long now = System.currentTimeMillis();
+
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(fullKey);
+            if (cached != null && cached.expiresAt <= now) {
+                entries.remove(fullKey);
+                cached = null;
+            }
+        }
+
+        if (cached != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            long gen = generation.get();
+            ResponseEntity<T> loaded = loader.get();
+            if (loaded == null || !loaded.getStatusCode().is2xxSuccessful() || loaded.getBody() == null) {
+                return loaded;
+            }
+            cached = new Entry(cafeId, loaded.getBody(), ETags.of(Long.toHexString(sequence.incrementAndGet())), now + ttlMs);
+            synchronized (entries) {
+                // invalidateCafe or invalidateAll ran during loader.get(); answer with the body but do not keep it.
+                if (generation.get() == gen) {
+                    entries.put(fullKey, cached);
+                }
+            }
+        }
+
+        if (ETags.matches(ifNoneMatch, cached.etag)) {
+            notModified.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached.etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(cached.etag).cacheControl(REVALIDATE).body((T) cached.value);
+    }
+
+    @Override
+    public void invalidateCafe(Long cafeId) {
+        if (cafeId == null) {
+            invalidateAll();
+            return;
+        }
+        invalidations.incrementAndGet();
+        synchronized (entries) {
+            generation.incrementAndGet();
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry e = it.next();
+                // Catalog-wide lists embed every cafe, so they go along with the cafe's own entries.
+                if (e.cafeId == null || e.cafeId.equals(cafeId)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    @Override
+    public CatalogCacheStats stats() {
+        CatalogCacheStats s = new CatalogCacheStats();
+        synchronized (entries) {
+            s.setSize(entries.size());
+        }
+        s.setMaxEntries(maxEntries);
+        s.setTtlMs(ttlMs);
+        s.setHits(hits.get());
+        s.setMisses(misses.get());
+        s.setNotModified(notModified.get());
+        s.setEvictions(evictions.get());
+        s.setInvalidations(invalidations.get());
+        return s;
+    }
+
+    private static final class Entry {
+        private final Long cafeId;
+        private final Object value;
+        private final String etag;
+        private final long expiresAt;
+
+        private Entry(Long cafeId, Object value, String etag, long expiresAt) {
+            this.cafeId = cafeId;
+            this.value = value;
+            this.etag = etag;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
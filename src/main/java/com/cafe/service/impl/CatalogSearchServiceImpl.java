@@ -0,0 +1,407 @@
+package com.cafe.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cafe.dto.CatalogSearchHitRow;
+import com.cafe.entity.ApprovalStatus;
+import com.cafe.repository.CafeRepository;
+import com.cafe.repository.MenuItemRepository;
+import com.cafe.service.CatalogSearchService;
+import com.cafe.util.Money;
+
+/**
+ * In-memory inverted index over cafe and menu item text. Mutations only mark a cafe dirty; the
+ * next search reloads those cafes before it runs, and a periodic full rebuild picks up anything
+ * written by other instances. Cafes changed while a rebuild is loading are marked dirty again once
+ * it is swapped in, since the rows it read may predate the change.
+ */
+@Service
+public class CatalogSearchServiceImpl implements CatalogSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSearchServiceImpl.class);
+
+    private static final int MAX_QUERY_TOKENS = 8;
+
+    private static final int MAX_EXPANSIONS = 64;
+
+    private static final int MAX_LIMIT = 50;
+
+    private static final int WEIGHT_NAME = 3;
+    private static final int WEIGHT_FIELD = 2;
+    private static final int WEIGHT_TEXT = 1;
+
+    private static final int MATCH_EXACT = 4;
+    private static final int MATCH_PREFIX = 2;
+    private static final int MATCH_FUZZY = 1;
+
+    @Autowired
+    private CafeRepository cafeRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong changeSeq = new AtomicLong();
+
+    // Sequence number of each cafe's latest change, kept only until a rebuild has seen it.
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+
+    private volatile Index index;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${cafe.search.rebuild-ms:600000}", fixedDelayString = "${cafe.search.rebuild-ms:600000}")
+    public void refreshIndex() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("search: index rebuild failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long since = changeSeq.get();
+        Index next = new Index();
+        Map<Long, List<Object[]>> itemsByCafe = new HashMap<>();
+        for (Object[] row : menuItemRepository.findSearchRows()) {
+            itemsByCafe.computeIfAbsent((Long) row[1], k -> new ArrayList<>()).add(row);
+        }
+        for (Object[] cafe : cafeRepository.findSearchRows()) {
+            next.putCafe(cafe, itemsByCafe.getOrDefault((Long) cafe[0], List.of()));
+        }
+        lock.writeLock().lock();
+        try {
+            index = next;
+            for (Map.Entry<Long, Long> e : changedAt.entrySet()) {
+                if (e.getValue() > since) dirty.add(e.getKey());
+            }
+            changedAt.values().removeIf(seq -> seq <= since);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("search: indexed {} cafes and {} terms in {} ms", next.cafes.size(), next.postings.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public void reindexCafe(Long cafeId) {
+        if (cafeId != null) {
+            changedAt.put(cafeId, changeSeq.incrementAndGet());
+            dirty.add(cafeId);
+        }
+    }
+
+    @Override
+    public List<CatalogSearchHitRow> search(String query, String city, String category, int limit) {
+        if (index == null) {
+            synchronized (this) {
+                if (index == null) rebuild();
+            }
+        }
+        applyDirty();
+
+        List<String> tokens = new ArrayList<>(tokenize(query));
+        if (tokens.size() > MAX_QUERY_TOKENS) tokens = tokens.subList(0, MAX_QUERY_TOKENS);
+        String cityLower = normalized(city);
+        String categoryLower = normalized(category);
+        int max = Math.min(Math.max(1, limit), MAX_LIMIT);
+
+        lock.readLock().lock();
+        try {
+            Map<Doc, Integer> scores;
+            if (tokens.isEmpty()) {
+                if (categoryLower == null) return List.of();
+                scores = new HashMap<>();
+                for (Doc d : index.byCategory.getOrDefault(categoryLower, Set.of())) {
+                    scores.put(d, 0);
+                }
+            } else {
+                scores = index.match(tokens);
+            }
+
+            List<Map.Entry<Doc, Integer>> hits = new ArrayList<>();
+            for (Map.Entry<Doc, Integer> e : scores.entrySet()) {
+                Doc d = e.getKey();
+                if (!d.visible) continue;
+                if (cityLower != null && !cityLower.equals(d.cityLower)) continue;
+                if (categoryLower != null && (d.itemId == null || !categoryLower.equals(d.categoryLower))) continue;
+                hits.add(e);
+            }
+            hits.sort(Comparator.<Map.Entry<Doc, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                    .thenComparing(e -> e.getKey().itemId != null)
+                    .thenComparing(e -> e.getKey().name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+            List<CatalogSearchHitRow> rows = new ArrayList<>();
+            for (int i = 0; i < hits.size() && i < max; i++) {
+                rows.add(toRow(hits.get(i).getKey(), hits.get(i).getValue()));
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void applyDirty() {
+        if (dirty.isEmpty()) return;
+        for (Long cafeId : new ArrayList<>(dirty)) {
+            if (!dirty.remove(cafeId)) continue;
+            List<Object[]> cafe;
+            List<Object[]> items;
+            try {
+                cafe = cafeRepository.findSearchRowsById(cafeId);
+                items = menuItemRepository.findSearchRowsByCafeId(cafeId);
+            } catch (RuntimeException ex) {
+                dirty.add(cafeId);
+                log.warn("search: failed to reload cafe {}: {}", cafeId, ex.getMessage());
+                continue;
+            }
+            lock.writeLock().lock();
+            try {
+                index.removeCafe(cafeId);
+                if (!cafe.isEmpty()) {
+                    index.putCafe(cafe.get(0), items);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static CatalogSearchHitRow toRow(Doc d, int score) {
+        CatalogSearchHitRow r = new CatalogSearchHitRow();
+        r.setType(d.itemId == null ? "CAFE" : "MENU_ITEM");
+        r.setCafeId(d.cafeId);
+        r.setCafeName(d.cafeName);
+        r.setCity(d.city);
+        r.setMenuItemId(d.itemId);
+        r.setName(d.name);
+        r.setCategory(d.category);
+        r.setPricePaise(d.pricePaise);
+        r.setPrice(Money.toRupees(d.pricePaise));
+        r.setScore(score);
+        return r;
+    }
+
+    private static String normalized(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        return raw.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> out = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) return out;
+        for (String t : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (t.length() >= 2) out.add(t);
+        }
+        return out;
+    }
+
+    // Optimal string alignment distance, giving up once it must exceed max.
+    static int editDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) return max + 1;
+        int[] prev2 = new int[m + 1];
+        int[] prev = new int[m + 1];
+        int[] cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    v = Math.min(v, prev2[j - 2] + 1);
+                }
+                cur[j] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            if (rowMin > max) return max + 1;
+            int[] t = prev2;
+            prev2 = prev;
+            prev = cur;
+            cur = t;
+        }
+        return prev[m];
+    }
+
+    private static final class Doc {
+        private final Long cafeId;
+        private final Long itemId;
+        private final String cafeName;
+        private final String city;
+        private final String cityLower;
+        private final String name;
+        private final String category;
+        private final String categoryLower;
+        private final Long pricePaise;
+        private final boolean visible;
+        private final Map<String, Integer> terms = new HashMap<>();
+
+        private Doc(Long cafeId, Long itemId, String cafeName, String city, String name, String category,
+                    Long pricePaise, boolean visible) {
+            this.cafeId = cafeId;
+            this.itemId = itemId;
+            this.cafeName = cafeName;
+            this.city = city;
+            this.cityLower = normalized(city);
+            this.name = name;
+            this.category = category;
+            this.categoryLower = normalized(category);
+            this.pricePaise = pricePaise;
+            this.visible = visible;
+        }
+
+        private void addText(String text, int weight) {
+            for (String t : tokenize(text)) {
+                terms.merge(t, weight, Math::max);
+            }
+        }
+    }
+
+    private static final class Index {
+        private final TreeMap<String, Set<Doc>> postings = new TreeMap<>();
+        private final Map<String, Set<Doc>> byCategory = new HashMap<>();
+        private final Map<Long, List<Doc>> cafes = new HashMap<>();
+
+        // cafe: id, cafeName, city, description, approvalStatus, active
+        // item: id, cafeId, name, category, description, pricePaise, available
+        private void putCafe(Object[] cafe, Collection<Object[]> items) {
+            Long cafeId = (Long) cafe[0];
+            String cafeName = (String) cafe[1];
+            String city = (String) cafe[2];
+            boolean cafeVisible = cafe[4] == ApprovalStatus.APPROVED && Boolean.TRUE.equals(cafe[5]);
+
+            List<Doc> docs = new ArrayList<>();
+            Doc cafeDoc = new Doc(cafeId, null, cafeName, city, cafeName, null, null, cafeVisible);
+            cafeDoc.addText(cafeName, WEIGHT_NAME);
+            cafeDoc.addText(city, WEIGHT_FIELD);
+            cafeDoc.addText((String) cafe[3], WEIGHT_TEXT);
+            docs.add(cafeDoc);
+
+            for (Object[] item : items) {
+                String category = (String) item[3];
+                Doc d = new Doc(cafeId, (Long) item[0], cafeName, city, (String) item[2], category,
+                        (Long) item[5], cafeVisible && Boolean.TRUE.equals(item[6]));
+                d.addText(d.name, WEIGHT_NAME);
+                d.addText(category, WEIGHT_FIELD);
+                d.addText((String) item[4], WEIGHT_TEXT);
+                d.addText(cafeName, WEIGHT_TEXT);
+                d.addText(city, WEIGHT_TEXT);
+                cafeDoc.addText(category, WEIGHT_TEXT);
+                docs.add(d);
+            }
+
+            for (Doc d : docs) {
+                for (String term : d.terms.keySet()) {
+                    postings.computeIfAbsent(term, k -> new HashSet<>()).add(d);
+                }
+                if (d.categoryLower != null) {
+                    byCategory.computeIfAbsent(d.categoryLower, k -> new HashSet<>()).add(d);
+                }
+            }
+            cafes.put(cafeId, docs);
+        }
+
+        private void removeCafe(Long cafeId) {
+            List<Doc> docs = cafes.remove(cafeId);
+            if (docs == null) return;
+            for (Doc d : docs) {
+                for (String term : d.terms.keySet()) {
+                    unlink(postings, term, d);
+                }
+                if (d.categoryLower != null) {
+                    unlink(byCategory, d.categoryLower, d);
+                }
+            }
+        }
+
+        private static void unlink(Map<String, Set<Doc>> map, String key, Doc d) {
+            Set<Doc> set = map.get(key);
+            if (set == null) return;
+            set.remove(d);
+            if (set.isEmpty()) map.remove(key);
+        }
+
+        // Every token has to match a document; its score is the sum of each token's best match.
+        private Map<Doc, Integer> match(List<String> tokens) {
+            Map<Doc, Integer> total = null;
+            for (String token : tokens) {
+                Map<Doc, Integer> scored = matchToken(token);
+                if (total == null) {
+                    total = scored;
+                } else {
+                    Map<Doc, Integer> both = new HashMap<>();
+                    for (Map.Entry<Doc, Integer> e : total.entrySet()) {
+                        Integer s = scored.get(e.getKey());
+                        if (s != null) both.put(e.getKey(), e.getValue() + s);
+                    }
+                    total = both;
+                }
+                if (total.isEmpty()) break;
+            }
+            return total == null ? Map.of() : total;
+        }
+
+        private Map<Doc, Integer> matchToken(String token) {
+            Map<Doc, Integer> scored = new HashMap<>();
+            Set<Doc> exact = postings.get(token);
+            if (exact != null) {
+                score(scored, token, exact, MATCH_EXACT);
+            }
+
+            int expanded = 0;
+            for (Map.Entry<String, Set<Doc>> e : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                if (++expanded > MAX_EXPANSIONS) break;
+                score(scored, e.getKey(), e.getValue(), MATCH_PREFIX);
+            }
+
+            // Typo tolerance only kicks in when nothing is spelled that way; the first letter is trusted.
+            if (exact == null && token.length() >= 4) {
+                int maxEdits = token.length() >= 8 ? 2 : 1;
+                String first = token.substring(0, 1);
+                NavigableMap<String, Set<Doc>> sameInitial = postings.subMap(first, true, first + Character.MAX_VALUE, false);
+                expanded = 0;
+                for (Map.Entry<String, Set<Doc>> e : sameInitial.entrySet()) {
+                    if (editDistance(token, e.getKey(), maxEdits) > maxEdits) continue;
+                    if (++expanded > MAX_EXPANSIONS) break;
+                    score(scored, e.getKey(), e.getValue(), MATCH_FUZZY);
+                }
+            }
+            return scored;
+        }
+
+        private static void score(Map<Doc, Integer> scored, String term, Set<Doc> docs, int match) {
+            for (Doc d : docs) {
+                scored.merge(d, d.terms.get(term) * match, Math::max);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.cafe.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cafe.entity.CafeDocument;
+import com.cafe.entity.Document;
+import com.cafe.repository.CafeDocumentRepository;
+import com.cafe.repository.DocumentRepository;
+import com.cafe.service.BlobStore;
+
+/**
+ * Moves document bytes still stored inline in the documents and cafe_documents tables into
+ * the blob store, one small batch per transaction. documents.data is a large object, so each
+ * batch unlinks it before clearing the reference; objects orphaned by earlier runs of this
+ * backfill are only reclaimed by vacuumlo.
+ */
+@Component
+public class DocumentBlobBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentBlobBackfill.class);
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private CafeDocumentRepository cafeDocumentRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cafe.blobs.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) return;
+        try {
+            int users = migrateUserDocuments();
+            int cafes = migrateCafeDocuments();
+            if (users + cafes > 0) {
+                log.info("blobs: moved {} user and {} cafe documents out of the database", users, cafes);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("blobs: document backfill stopped: {}", ex.getMessage());
+        }
+    }
+
+    private int migrateUserDocuments() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int moved = 0;
+        long lastId = 0L;
+        while (true) {
+            long after = lastId;
+            List<Long> ids = tx.execute(status -> {
+                List<Document> batch = documentRepository.findTop50ByBlobKeyIsNullAndDataIsNotNullAndIdGreaterThanOrderByIdAsc(after);
+                Map<Long, String> keys = new LinkedHashMap<>();
+                for (Document d : batch) {
+                    keys.put(d.getId(), store(d.getData()));
+                }
+                if (!keys.isEmpty()) {
+                    documentRepository.unlinkData(keys.keySet());
+                    keys.forEach(documentRepository::moveToBlob);
+                }
+                return List.copyOf(keys.keySet());
+            });
+            if (ids == null || ids.isEmpty()) return moved;
+            moved += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private int migrateCafeDocuments() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int moved = 0;
+        long lastId = 0L;
+        while (true) {
+            long after = lastId;
+            List<Long> ids = tx.execute(status -> {
+                List<CafeDocument> batch = cafeDocumentRepository.findTop50ByBlobKeyIsNullAndDataIsNotNullAndIdGreaterThanOrderByIdAsc(after);
+                for (CafeDocument d : batch) {
+                    d.setBlobKey(store(d.getData()));
+                    d.setData(null);
+                }
+                return batch.stream().map(CafeDocument::getId).toList();
+            });
+            if (ids == null || ids.isEmpty()) return moved;
+            moved += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private String store(byte[] data) {
+        try {
+            return blobStore.put(new ByteArrayInputStream(data));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
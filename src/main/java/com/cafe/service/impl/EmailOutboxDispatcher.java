@@ -0,0 +1,160 @@
+package com.cafe.service.impl;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cafe.entity.EmailOutbox;
+import com.cafe.repository.EmailOutboxRepository;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Drains the email outbox. Each run claims a batch of due rows and hands them to the mail sender
+ * in one call, so the whole batch shares a single SMTP connection. Failed rows are retried with
+ * exponential backoff until {@code cafe.mail.outbox.max-attempts} is reached.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.mail.username:}")
+    private String fromEmail;
+
+    @Value("${cafe.mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${cafe.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${cafe.mail.outbox.backoff-ms:30000}")
+    private long backoffMs;
+
+    @Value("${cafe.mail.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Scheduled(fixedDelayString = "${cafe.mail.outbox.poll-ms:2000}")
+    public void dispatch() {
+        if (mailSender == null) return;
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            while (true) {
+                Integer sent = tx.execute(status -> sendBatch());
+                if (sent == null || sent < Math.max(1, batchSize)) return;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("email outbox: dispatch stopped: {}", ex.getMessage());
+        }
+    }
+
+    private int sendBatch() {
+        long now = System.currentTimeMillis();
+        List<EmailOutbox> batch = emailOutboxRepository.claimDue(now, Math.max(1, batchSize));
+        if (batch.isEmpty()) return 0;
+
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox mail : batch) {
+            try {
+                messages.put(toMessage(mail), mail);
+            } catch (MessagingException | RuntimeException ex) {
+                // A message that cannot even be built will not get better on retry.
+                giveUp(mail, ex);
+            }
+        }
+
+        Map<Object, Exception> failed = Map.of();
+        Exception batchError = null;
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException ex) {
+                failed = ex.getFailedMessages();
+                if (failed.isEmpty()) batchError = ex;
+            } catch (MailException ex) {
+                batchError = ex;
+            }
+        }
+
+        for (Map.Entry<MimeMessage, EmailOutbox> e : messages.entrySet()) {
+            EmailOutbox mail = e.getValue();
+            Exception error = batchError != null ? batchError : failed.get(e.getKey());
+            if (error == null) {
+                mail.setStatus(EmailOutbox.SENT);
+                mail.setSentAt(now);
+                mail.setBody(null);
+                mail.setLastError(null);
+            } else {
+                retryLater(mail, error, now);
+            }
+        }
+        emailOutboxRepository.saveAll(batch);
+        return batch.size();
+    }
+
+    private MimeMessage toMessage(EmailOutbox mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        if (fromEmail != null && !fromEmail.isBlank()) {
+            helper.setFrom(fromEmail);
+        }
+        helper.setTo(mail.getToEmail());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getBody() == null ? "" : mail.getBody());
+        return message;
+    }
+
+    private void retryLater(EmailOutbox mail, Exception error, long now) {
+        int attempts = mail.getAttempts() == null ? 1 : mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setLastError(truncate(error.getMessage()));
+        if (attempts >= maxAttempts) {
+            markFailed(mail);
+            log.warn("email outbox: giving up on mail {} to {} after {} attempts", mail.getId(), mail.getToEmail(), attempts);
+            return;
+        }
+        long delay = Math.min(maxBackoffMs, backoffMs << Math.min(20, attempts - 1));
+        mail.setNextAttemptAt(now + delay);
+    }
+
+    private void giveUp(EmailOutbox mail, Exception error) {
+        mail.setAttempts(mail.getAttempts() == null ? 1 : mail.getAttempts() + 1);
+        mail.setLastError(truncate(error.getMessage()));
+        markFailed(mail);
+        log.warn("email outbox: mail {} to {} is not deliverable: {}", mail.getId(), mail.getToEmail(), error.getMessage());
+    }
+
+    // A failed row is never sent again, so its body (which may hold a temporary password) goes too.
+    private void markFailed(EmailOutbox mail) {
+        mail.setStatus(EmailOutbox.FAILED);
+        mail.setBody(null);
+    }
+
+    private String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -0,0 +1,61 @@
+package com.cafe.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.cafe.dto.PaymentGatewayCallStats;
+import com.cafe.dto.PaymentGatewayStats;
+
+/**
+ * Per-operation call counts and latencies for a payment gateway.
+ */
+final class GatewayCallStats {
+
+    private final String gateway;
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    GatewayCallStats(String gateway) {
+        this.gateway = gateway;
+    }
+
+    void record(String operation, long startNanos, boolean ok) {
+        long elapsed = System.nanoTime() - startNanos;
+        Operation op = operations.computeIfAbsent(operation, k -> new Operation());
+        op.count.increment();
+        if (!ok) op.failures.increment();
+        op.totalNanos.add(elapsed);
+        op.maxNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    PaymentGatewayStats snapshot() {
+        List<PaymentGatewayCallStats> calls = new ArrayList<>();
+        operations.forEach((name, op) -> {
+            long count = op.count.sum();
+            PaymentGatewayCallStats s = new PaymentGatewayCallStats();
+            s.setOperation(name);
+            s.setCount(count);
+            s.setFailures(op.failures.sum());
+            s.setAvgMs(count == 0 ? 0.0 : op.totalNanos.sum() / 1_000_000.0 / count);
+            s.setMaxMs(op.maxNanos.get() / 1_000_000.0);
+            calls.add(s);
+        });
+        calls.sort((a, b) -> a.getOperation().compareTo(b.getOperation()));
+
+        PaymentGatewayStats stats = new PaymentGatewayStats();
+        stats.setGateway(gateway);
+        stats.setCalls(calls);
+        return stats;
+    }
+
+    private static final class Operation {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,49 @@
+package com.cafe.service.impl;
+
+import java.util.Map;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Loose, org.json-style reads over gateway payloads bound to plain maps: missing or mistyped
+ * fields come back as null instead of failing the whole response.
+ */
+final class GatewayJson {
+
+    private GatewayJson() {
+    }
+
+    /** Returns the top-level object, or null when the JSON is valid but not an object. */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> readObject(ObjectMapper mapper, String json) {
+        Object value = mapper.readValue(json, Object.class);
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> object(Map<String, Object> source, String key) {
+        Object value = source == null ? null : source.get(key);
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    static String string(Map<String, Object> source, String key) {
+        Object value = source == null ? null : source.get(key);
+        if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return String.valueOf(value);
+        }
+        return null;
+    }
+
+    static Long number(Map<String, Object> source, String key) {
+        Object value = source == null ? null : source.get(key);
+        if (value instanceof Number n) return n.longValue();
+        if (value instanceof String s) {
+            try {
+                return Long.parseLong(s.trim());
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,180 @@
+package com.cafe.service.impl;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.cafe.entity.CafeImage;
+import com.cafe.entity.MenuItem;
+import com.cafe.repository.CafeImageRepository;
+import com.cafe.repository.MenuItemRepository;
+import com.cafe.service.ImageDerivativeService;
+
+@Service
+public class ImageDerivativeServiceImpl implements ImageDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeServiceImpl.class);
+
+    @Autowired
+    private CafeImageRepository cafeImageRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Value("${cafe.images.card-width:320}")
+    private int cardWidth;
+
+    @Value("${cafe.images.detail-width:960}")
+    private int detailWidth;
+
+    @Value("${cafe.menu.images.thumb-width:240}")
+    private int menuThumbWidth;
+
+    @Value("${cafe.images.variant-quality:0.8}")
+    private float variantQuality;
+
+    @Override
+    @Async
+    public void generateCafeImageVariants(Long cafeImageId) {
+        if (cafeImageId == null) return;
+        try {
+            CafeImage img = cafeImageRepository.findById(cafeImageId).orElse(null);
+            if (img == null || img.getFilePath() == null || img.getFilePath().isBlank()) return;
+
+            String source = img.getFilePath();
+            BufferedImage original = read(source);
+            if (original == null) return;
+
+            String card = writeVariant(original, source, "card", cardWidth);
+            String detail = writeVariant(original, source, "detail", detailWidth);
+            int updated = cafeImageRepository.updateVariants(cafeImageId, source, card, detail);
+            if (updated == 0) {
+                deleteQuietly(card);
+                deleteQuietly(detail);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("generateCafeImageVariants: failed for image {}: {}", cafeImageId, ex.getMessage());
+        }
+    }
+
+    @Override
+    @Async
+    public void generateMenuImageVariants(Long menuItemId) {
+        if (menuItemId == null) return;
+        try {
+            MenuItem item = menuItemRepository.findById(menuItemId).orElse(null);
+            if (item == null || item.getImageFilePath() == null || item.getImageFilePath().isBlank()) return;
+
+            String source = item.getImageFilePath();
+            BufferedImage original = read(source);
+            if (original == null) return;
+
+            String thumb = writeVariant(original, source, "thumb", menuThumbWidth);
+            int updated = menuItemRepository.updateImageThumb(menuItemId, source, thumb);
+            if (updated == 0) {
+                deleteQuietly(thumb);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("generateMenuImageVariants: failed for menu item {}: {}", menuItemId, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteCafeImageVariants(CafeImage image) {
+        if (image == null) return;
+        deleteQuietly(image.getCardFilePath());
+        deleteQuietly(image.getDetailFilePath());
+    }
+
+    @Override
+    public void deleteMenuImageVariants(MenuItem item) {
+        if (item == null) return;
+        deleteQuietly(item.getImageThumbFilePath());
+    }
+
+    private BufferedImage read(String source) throws IOException {
+        Path path = Path.of(source);
+        if (!Files.isRegularFile(path)) return null;
+        BufferedImage img = ImageIO.read(path.toFile());
+        if (img == null) {
+            log.info("image variants: no decoder for {}, serving original only", path.getFileName());
+        }
+        return img;
+    }
+
+    private String writeVariant(BufferedImage original, String source, String suffix, int maxWidth) throws IOException {
+        BufferedImage scaled = scaleToWidth(original, maxWidth);
+        Path target = Path.of(source + "." + suffix + ".jpg");
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) throw new IOException("No JPEG writer available");
+        ImageWriter writer = writers.next();
+        try (OutputStream os = Files.newOutputStream(target);
+             ImageOutputStream ios = ImageIO.createImageOutputStream(os)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(variantQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(scaled, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return target.toAbsolutePath().toString();
+    }
+
+    private BufferedImage scaleToWidth(BufferedImage src, int maxWidth) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        int targetW = Math.min(w, Math.max(1, maxWidth));
+        int targetH = Math.max(1, (int) Math.round((double) h * targetW / w));
+
+        BufferedImage current = src;
+        int cw = w;
+        int ch = h;
+        do {
+            cw = Math.max(targetW, cw / 2);
+            ch = Math.max(targetH, ch / 2);
+            BufferedImage next = new BufferedImage(cw, ch, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, cw, ch);
+                g.drawImage(current, 0, 0, cw, ch, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (cw > targetW || ch > targetH);
+        return current;
+    }
+
+    private void deleteQuietly(String path) {
+        if (path == null || path.isBlank()) return;
+        try {
+            Files.deleteIfExists(Path.of(path));
+        } catch (Exception ignored) {
+        }
+    }
+}
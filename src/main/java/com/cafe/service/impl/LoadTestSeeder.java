@@ -0,0 +1,324 @@
+package com.cafe.service.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cafe.entity.ApprovalStatus;
+import com.cafe.entity.Cafe;
+import com.cafe.entity.CafeBooking;
+import com.cafe.entity.CafeOrder;
+import com.cafe.entity.CafeOrderItem;
+import com.cafe.entity.FunctionCapacity;
+import com.cafe.entity.FunctionType;
+import com.cafe.entity.MenuItem;
+import com.cafe.entity.PersonalDetails;
+import com.cafe.entity.Role;
+import com.cafe.entity.User;
+import com.cafe.repository.CafeBookingRepository;
+import com.cafe.repository.CafeOrderCounterRepository;
+import com.cafe.repository.CafeOrderRepository;
+import com.cafe.repository.CafeRepository;
+import com.cafe.repository.FunctionCapacityRepository;
+import com.cafe.repository.MenuItemRepository;
+import com.cafe.repository.UserRepository;
+import com.cafe.service.AnalyticsService;
+import com.cafe.service.CatalogSearchService;
+
+/**
+ * Fills an empty database with synthetic cafes, staff, menus, capacities, bookings and orders for
+ * load testing. Only active with cafe.loadtest.seed.enabled=true (see the loadtest profile).
+ * Users are named load_owner_N, load_chef_N, load_waiter_N (N = cafe index from 1) and
+ * load_customer_N, which is what the load scenario in the benchmarks module logs in as.
+ */
+@Component
+@ConditionalOnProperty(name = "cafe.loadtest.seed.enabled", havingValue = "true")
+public class LoadTestSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestSeeder.class);
+
+    private static final String[][] CITIES = {
+            {"Mumbai", "Maharashtra", "400001"},
+            {"Pune", "Maharashtra", "411001"},
+            {"Bengaluru", "Karnataka", "560001"},
+            {"New Delhi", "Delhi", "110001"},
+            {"Hyderabad", "Telangana", "500001"},
+            {"Chennai", "Tamil Nadu", "600001"},
+            {"Kolkata", "West Bengal", "700001"},
+            {"Ahmedabad", "Gujarat", "380001"}
+    };
+
+    // Centroids of the CITIES pincodes; seeded cafes are scattered up to ~10 km around them.
+    private static final double[][] CITY_CENTRES = {
+            {18.9388, 72.8354},
+            {18.5204, 73.8567},
+            {12.9716, 77.5946},
+            {28.6304, 77.2177},
+            {17.3850, 78.4867},
+            {13.0878, 80.2785},
+            {22.5726, 88.3639},
+            {23.0225, 72.5714}
+    };
+
+    private static final String[] CATEGORIES = {"Coffee", "Tea", "Snacks", "Mains", "Desserts"};
+
+    private static final String[] SLOT_TIMES = {"18:00", "18:30", "19:00", "19:30", "20:00", "20:30", "21:00", "21:30"};
+
+    private static final String[] BOOKING_STATUSES = {"PENDING", "APPROVED", "APPROVED", "APPROVED", "DENIED"};
+
+    private static final String[] ORDER_STATUSES = {"PLACED", "PREPARING", "READY", "SERVED", "SERVED", "SERVED"};
+
+    private static final int TABLES_PER_CAFE = 20;
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CafeRepository cafeRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private FunctionCapacityRepository functionCapacityRepository;
+
+    @Autowired
+    private CafeBookingRepository cafeBookingRepository;
+
+    @Autowired
+    private CafeOrderRepository cafeOrderRepository;
+
+    @Autowired
+    private CafeOrderCounterRepository cafeOrderCounterRepository;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cafe.loadtest.seed.cafes:200}")
+    private int cafes;
+
+    @Value("${cafe.loadtest.seed.menu-items-per-cafe:30}")
+    private int menuItemsPerCafe;
+
+    @Value("${cafe.loadtest.seed.customers:2000}")
+    private int customers;
+
+    @Value("${cafe.loadtest.seed.bookings-per-cafe:150}")
+    private int bookingsPerCafe;
+
+    @Value("${cafe.loadtest.seed.orders-per-cafe:200}")
+    private int ordersPerCafe;
+
+    @Value("${cafe.loadtest.seed.days:14}")
+    private int days;
+
+    @Value("${cafe.loadtest.seed.password:loadtest}")
+    private String password;
+
+    @Value("${cafe.loadtest.seed.random-seed:42}")
+    private long randomSeed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if (userRepository.findByUsername(ownerName(1)).isPresent()) {
+            log.info("loadtest: seed data already present, skipping");
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            String hash = passwordEncoder.encode(password);
+            Random random = new Random(randomSeed);
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+            for (int from = 1; from <= customers; from += 500) {
+                int start = from;
+                int end = Math.min(customers, from + 499);
+                tx.executeWithoutResult(status -> {
+                    List<User> batch = new ArrayList<>();
+                    for (int i = start; i <= end; i++) {
+                        batch.add(user("load_customer_" + i, Role.CUSTOMER, hash, "Customer", i, 0));
+                    }
+                    userRepository.saveAll(batch);
+                });
+            }
+
+            for (int c = 1; c <= cafes; c++) {
+                int index = c;
+                tx.executeWithoutResult(status -> seedCafe(index, hash, random));
+            }
+
+            int rollups = analyticsService.rebuild();
+            catalogSearchService.rebuild();
+            log.info("loadtest: seeded {} cafes, {} customers, {} bookings and {} orders in {} ms ({} analytics rows)",
+                    cafes, customers, (long) cafes * bookingsPerCafe, (long) cafes * ordersPerCafe,
+                    System.currentTimeMillis() - started, rollups);
+        } catch (RuntimeException ex) {
+            log.warn("loadtest: seeding stopped: {}", ex.getMessage());
+        }
+    }
+
+    private void seedCafe(int index, String hash, Random random) {
+        String[] city = CITIES[index % CITIES.length];
+        double[] centre = CITY_CENTRES[index % CITY_CENTRES.length];
+
+        User owner = userRepository.save(user(ownerName(index), Role.OWNER, hash, "Owner", index, 1));
+        User chef = userRepository.save(user("load_chef_" + index, Role.CHEF, hash, "Chef", index, 2));
+        User waiter = userRepository.save(user("load_waiter_" + index, Role.WAITER, hash, "Waiter", index, 3));
+
+        Cafe cafe = new Cafe();
+        cafe.setCafeName("Load Cafe " + index);
+        cafe.setOwnerNames("Owner " + index);
+        cafe.setDescription("Synthetic cafe for load testing");
+        cafe.setPhone(phone(index, 4));
+        cafe.setEmail("load.cafe." + index + "@example.test");
+        cafe.setAddressLine(index + " Test Street");
+        cafe.setCity(city[0]);
+        cafe.setState(city[1]);
+        cafe.setPincode(city[2]);
+        cafe.setLatitude(centre[0] + (random.nextDouble() - 0.5) * 0.18);
+        cafe.setLongitude(centre[1] + (random.nextDouble() - 0.5) * 0.18);
+        cafe.setOpeningTime("08:00");
+        cafe.setClosingTime("23:00");
+        cafe.setActive(true);
+        cafe.setApprovalStatus(ApprovalStatus.APPROVED);
+        cafe.setOwner(owner);
+        cafe.getStaff().add(chef);
+        cafe.getStaff().add(waiter);
+        cafe = cafeRepository.save(cafe);
+
+        List<MenuItem> menu = new ArrayList<>();
+        for (int m = 1; m <= menuItemsPerCafe; m++) {
+            MenuItem item = new MenuItem();
+            item.setCafe(cafe);
+            item.setName("Item " + m);
+            item.setDescription("Synthetic menu item " + m);
+            item.setCategory(CATEGORIES[m % CATEGORIES.length]);
+            item.setPricePaise(5_000L + 500L * random.nextInt(60));
+            item.setAvailable(m % 10 != 0);
+            menu.add(item);
+        }
+        menu = menuItemRepository.saveAll(menu);
+
+        List<String> labels = new ArrayList<>();
+        for (int t = 1; t <= TABLES_PER_CAFE; t++) {
+            labels.add("T" + t);
+        }
+        FunctionCapacity cap = new FunctionCapacity();
+        cap.setCafe(cafe);
+        cap.setFunctionType(FunctionType.DINE_IN);
+        cap.setTablesAvailable(TABLES_PER_CAFE);
+        cap.setTableLabels(String.join(",", labels));
+        cap.setSeatsPerTable(4);
+        cap.setSeatsAvailable(TABLES_PER_CAFE * 4);
+        cap.setPrice(0.0);
+        cap.setEnabled(true);
+        functionCapacityRepository.save(cap);
+
+        LocalDate today = LocalDate.now();
+        long now = System.currentTimeMillis();
+        List<CafeBooking> bookings = new ArrayList<>();
+        for (int b = 0; b < bookingsPerCafe; b++) {
+            int customer = 1 + random.nextInt(Math.max(1, customers));
+            CafeBooking booking = new CafeBooking();
+            booking.setCafe(cafe);
+            booking.setCustomerUsername("load_customer_" + customer);
+            booking.setCustomerName("Customer " + customer);
+            booking.setCustomerPhone(phone(customer, 0));
+            booking.setBookingDate(today.plusDays(random.nextInt(Math.max(1, days)) - days / 2).toString());
+            booking.setBookingTime(SLOT_TIMES[random.nextInt(SLOT_TIMES.length)]);
+            booking.setGuests(1 + random.nextInt(8));
+            booking.setFunctionType(FunctionType.DINE_IN);
+            booking.setAllocatedTable(labels.get(random.nextInt(labels.size())));
+            booking.setStatus(BOOKING_STATUSES[random.nextInt(BOOKING_STATUSES.length)]);
+            booking.setPaymentStatus("APPROVED".equals(booking.getStatus()) ? "PAID" : "UNPAID");
+            booking.setCreatedAt(now - (long) (random.nextDouble() * days * DAY_MS));
+            bookings.add(booking);
+        }
+        cafeBookingRepository.saveAll(bookings);
+
+        List<CafeOrder> orders = new ArrayList<>();
+        for (int o = 1; o <= ordersPerCafe; o++) {
+            int customer = 1 + random.nextInt(Math.max(1, customers));
+            CafeOrder order = new CafeOrder();
+            order.setCafe(cafe);
+            order.setCustomerUsername("load_customer_" + customer);
+            order.setCustomerName("Customer " + customer);
+            order.setCustomerPhone(phone(customer, 0));
+            order.setAllocatedTable(labels.get(random.nextInt(labels.size())));
+            order.setStatus(ORDER_STATUSES[random.nextInt(ORDER_STATUSES.length)]);
+            order.setOrderNumber(o);
+            order.setCreatedAt(now - (long) (random.nextDouble() * days * DAY_MS));
+            long total = 0L;
+            int lines = 1 + random.nextInt(4);
+            for (int l = 0; l < lines; l++) {
+                MenuItem item = menu.get(random.nextInt(menu.size()));
+                CafeOrderItem oi = new CafeOrderItem();
+                oi.setOrder(order);
+                oi.setMenuItemId(item.getId());
+                oi.setItemName(item.getName());
+                oi.setPricePaise(item.getPricePaise());
+                oi.setQty(1 + random.nextInt(3));
+                order.getItems().add(oi);
+                total += oi.getPricePaise() * oi.getQty();
+            }
+            order.setTotalAmountPaise(total);
+            if (random.nextInt(10) < 8) {
+                order.setPaymentStatus("PAID");
+                order.setPaidAt(order.getCreatedAt());
+            }
+            orders.add(order);
+        }
+        cafeOrderRepository.saveAll(orders);
+        cafeOrderCounterRepository.seed(cafe.getId());
+    }
+
+    private static String ownerName(int index) {
+        return "load_owner_" + index;
+    }
+
+    private static User user(String username, Role role, String hash, String firstName, int index, int kind) {
+        PersonalDetails pd = new PersonalDetails();
+        pd.setFirstName(firstName);
+        pd.setLastName(String.valueOf(index));
+        pd.setEmail(username + "@example.test");
+        pd.setPhone(phone(index, kind));
+
+        User u = new User();
+        u.setUsername(username);
+        u.setPassword(hash);
+        u.setForcePasswordChange(false);
+        u.setApprovalStatus(ApprovalStatus.APPROVED);
+        u.setRole(role);
+        u.setPersonalDetails(pd);
+        return u;
+    }
+
+    // Unique 10-digit phone per (kind, index): kind 0 customers, 1-3 cafe users, 4 the cafe itself.
+    private static String phone(int index, int kind) {
+        return String.format("%d%d%08d", 9, kind, index);
+    }
+}
@@ -0,0 +1,64 @@
+package com.cafe.service.impl;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.cafe.service.BlobStore;
+
+@Service
+@ConditionalOnProperty(name = "cafe.blobs.store", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStore implements BlobStore {
+
+    @Value("${cafe.blobs.dir:uploads/blobs}")
+    private String blobsDir;
+
+    @Override
+    public String put(InputStream content) throws IOException {
+        Path root = Path.of(blobsDir);
+        BlobSpool spool = BlobSpool.spool(content, root.resolve("tmp"));
+        try {
+            Path target = resolve(spool.sha256);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(spool.file, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException ignored) {
+                    // Another upload of the same content won the race; its copy is identical.
+                }
+            }
+            return spool.sha256;
+        } finally {
+            spool.discard();
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new FileNotFoundException("Blob not found: " + key);
+        }
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return BlobSpool.isValidKey(key) && Files.isRegularFile(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        if (!BlobSpool.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid blob key");
+        }
+        return Path.of(blobsDir).resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+}
@@ -0,0 +1,49 @@
+package com.cafe.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.cafe.dto.MenuChangeEvent;
+import com.cafe.service.CatalogCacheService;
+import com.cafe.service.CatalogSearchService;
+import com.cafe.service.MenuChangeService;
+import com.cafe.service.MenuDocumentService;
+import com.cafe.service.OrderEventService;
+
+/**
+ * The one place a menu or cafe listing change fans out from: the catalog cache, the search index
+ * and the menu documents are refreshed, then owner and staff streams get a "menu" event.
+ */
+@Service
+public class MenuChangeServiceImpl implements MenuChangeService {
+
+    @Autowired
+    private CatalogCacheService catalogCacheService;
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @Autowired
+    private MenuDocumentService menuDocumentService;
+
+    @Autowired
+    private OrderEventService orderEventService;
+
+    @Override
+    public void menuChanged(Long cafeId) {
+        if (cafeId == null) return;
+        MenuChangeEvent event = new MenuChangeEvent();
+        event.setCafeId(cafeId);
+        menuChanged(event);
+    }
+
+    @Override
+    public void menuChanged(MenuChangeEvent event) {
+        if (event == null || event.getCafeId() == null) return;
+        Long cafeId = event.getCafeId();
+        catalogCacheService.invalidateCafe(cafeId);
+        catalogSearchService.reindexCafe(cafeId);
+        menuDocumentService.evictCafe(cafeId);
+        orderEventService.menuChanged(event);
+    }
+}
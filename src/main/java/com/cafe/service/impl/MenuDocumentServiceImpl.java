@@ -0,0 +1,212 @@
+package com.cafe.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.cafe.dto.MenuCategoryRow;
+import com.cafe.dto.MenuDocumentResponse;
+import com.cafe.dto.MenuItemRow;
+import com.cafe.entity.ApprovalStatus;
+import com.cafe.entity.MenuItem;
+import com.cafe.repository.CafeRepository;
+import com.cafe.repository.MenuItemRepository;
+import com.cafe.service.MenuDocumentService;
+import com.cafe.util.ETags;
+import com.cafe.util.Money;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps each cafe's menu as gzipped JSON, both the flat item list and the category-grouped
+ * document. A cafe's bytes are built on the first read after a change to its menu and served
+ * as-is until the next one.
+ */
+@Service
+public class MenuDocumentServiceImpl implements MenuDocumentService {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
+    private final Map<Long, Snapshot> documents = new ConcurrentHashMap<>();
+
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CafeRepository cafeRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public ResponseEntity<byte[]> respond(Long cafeId, boolean grouped, boolean listedOnly, String ifNoneMatch, String acceptEncoding) {
+        if (cafeId == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            Snapshot s = documents.get(cafeId);
+            if (s == null) {
+                s = build(cafeId);
+            }
+            if (s == null || (listedOnly && !s.listed)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+
+            String etag = ETags.of(cafeId + "-" + s.version + (grouped ? "-g" : ""));
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+            }
+
+            byte[] gz = grouped ? s.documentGz : s.listGz;
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(REVALIDATE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(acceptEncoding)) {
+                return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gz);
+            }
+            return ok.body(gunzip(gz));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Override
+    public void evictCafe(Long cafeId) {
+        if (cafeId == null) return;
+        versions.computeIfAbsent(cafeId, k -> new AtomicLong()).incrementAndGet();
+        documents.remove(cafeId);
+    }
+
+    private Snapshot build(Long cafeId) {
+        long version = versions.computeIfAbsent(cafeId, k -> new AtomicLong()).get();
+
+        List<Object[]> cafe = cafeRepository.findSearchRowsById(cafeId);
+        if (cafe.isEmpty()) return null;
+        Object[] c = cafe.get(0);
+        boolean listed = c[4] == ApprovalStatus.APPROVED && Boolean.TRUE.equals(c[5]);
+
+        List<MenuItem> items = new ArrayList<>(menuItemRepository.findByCafeId(cafeId));
+        items.sort(Comparator.comparing(MenuItem::getId));
+        List<MenuItemRow> rows = items.stream().map(MenuDocumentServiceImpl::toMenuRow).toList();
+
+        Snapshot s = new Snapshot(version, listed, gzip(objectMapper.writeValueAsBytes(rows)),
+                gzip(objectMapper.writeValueAsBytes(toDocument(cafeId, version, rows))));
+        // evictCafe moved the version on while the rows were read, so these bytes go out once and are not kept.
+        if (versions.get(cafeId).get() == version) {
+            documents.put(cafeId, s);
+        }
+        return s;
+    }
+
+    private static MenuDocumentResponse toDocument(Long cafeId, long version, List<MenuItemRow> rows) {
+        List<MenuItemRow> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing((MenuItemRow r) -> categoryKey(r.getCategory()), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(MenuItemRow::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        Map<String, MenuCategoryRow> byCategory = new LinkedHashMap<>();
+        int available = 0;
+        for (MenuItemRow r : sorted) {
+            MenuCategoryRow cat = byCategory.computeIfAbsent(categoryKey(r.getCategory()), k -> {
+                MenuCategoryRow nc = new MenuCategoryRow();
+                nc.setCategory(r.getCategory() == null || r.getCategory().isBlank() ? null : r.getCategory().trim());
+                nc.setAvailableCount(0);
+                nc.setItems(new ArrayList<>());
+                return nc;
+            });
+            cat.getItems().add(r);
+            if (Boolean.TRUE.equals(r.getAvailable())) {
+                cat.setAvailableCount(cat.getAvailableCount() + 1);
+                available++;
+            }
+        }
+
+        MenuDocumentResponse d = new MenuDocumentResponse();
+        d.setCafeId(cafeId);
+        d.setVersion(version);
+        d.setItemCount(rows.size());
+        d.setAvailableCount(available);
+        d.setCategories(new ArrayList<>(byCategory.values()));
+        return d;
+    }
+
+    private static String categoryKey(String category) {
+        if (category == null || category.isBlank()) return null;
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static MenuItemRow toMenuRow(MenuItem m) {
+        MenuItemRow r = new MenuItemRow();
+        r.setId(m.getId());
+        r.setName(m.getName());
+        r.setDescription(m.getDescription());
+        r.setPrice(Money.toRupees(m.getPricePaise()));
+        r.setPricePaise(m.getPricePaise());
+        r.setAvailable(m.getAvailable());
+        r.setCategory(m.getCategory());
+        if (m.getImageFilePath() != null && !m.getImageFilePath().isBlank()) {
+            r.setImageUrl("/api/public/menu-images/" + m.getId() + "?v=" + m.imageVersion());
+            r.setThumbnailUrl(r.getImageUrl() + "&size=thumb");
+        }
+        return r;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(raw);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] gz) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gz))) {
+            return in.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final boolean listed;
+        private final byte[] listGz;
+        private final byte[] documentGz;
+
+        private Snapshot(long version, boolean listed, byte[] listGz, byte[] documentGz) {
+            this.version = version;
+            this.listed = listed;
+            this.listGz = listGz;
+            this.documentGz = documentGz;
+        }
+    }
+}
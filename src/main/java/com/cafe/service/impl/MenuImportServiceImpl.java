@@ -0,0 +1,440 @@
+package com.cafe.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import com.cafe.dto.MenuImportErrorRow;
+import com.cafe.dto.MenuImportResponse;
+import com.cafe.repository.MenuItemRepository;
+import com.cafe.service.MenuImportService;
+import com.cafe.util.Money;
+
+/**
+ * Reads a menu sheet row by row and upserts it with batched JDBC statements in one transaction.
+ * XLSX is read through POI's SAX event API, so neither format is ever held as a whole workbook.
+ * Any invalid row rolls the whole import back; the report lists what has to be fixed.
+ */
+@Service
+public class MenuImportServiceImpl implements MenuImportService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ROWS = 5000;
+    private static final int MAX_COLUMNS = 32;
+    private static final int MAX_CELL_CHARS = 1024;
+    private static final int MAX_TEXT = 255;
+    private static final int MAX_REPORTED_ERRORS = 200;
+
+    private static final String INSERT_SQL = "insert into menu_items (cafe_id, name, description, price_paise, available, category) "
+            + "values (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "update menu_items set name = ?, "
+            + "description = coalesce(?, description), price_paise = ?, available = coalesce(?, available), "
+            + "category = coalesce(?, category) where id = ? and cafe_id = ?";
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public MenuImportResponse importMenu(Long cafeId, MultipartFile file) {
+        String filename = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+        boolean xlsx = filename.endsWith(".xlsx");
+        if (!xlsx && !filename.endsWith(".csv")) {
+            Importer rejected = new Importer(cafeId);
+            rejected.error(0, null, "Upload an .xlsx or .csv file");
+            return rejected.report(false);
+        }
+
+        return new TransactionTemplate(transactionManager).execute(tx -> {
+            Importer importer = new Importer(cafeId);
+            try {
+                if (xlsx) {
+                    readXlsx(file, importer::row);
+                } else {
+                    try (InputStream in = file.getInputStream()) {
+                        readCsv(in, importer::row);
+                    }
+                }
+            } catch (IOException | IllegalArgumentException ex) {
+                importer.error(0, null, xlsx ? "Could not read the XLSX file" : "Could not read the CSV file");
+            }
+            importer.finish();
+            boolean applied = importer.problems == 0;
+            if (!applied) {
+                tx.setRollbackOnly();
+            }
+            return importer.report(applied);
+        });
+    }
+
+    private static void readXlsx(MultipartFile file, BiConsumer<Integer, List<String>> sink) throws IOException {
+        // OPCPackage reads a zip from a file lazily, but buffers a whole stream first.
+        Path tmp = Files.createTempFile("menu-import-", ".xlsx");
+        try {
+            file.transferTo(tmp);
+            try (OPCPackage pkg = OPCPackage.open(tmp.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) return;
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, new RowCollector(sink), new DataFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            } catch (IOException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IllegalArgumentException("Unreadable workbook", ex);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void readCsv(InputStream in, BiConsumer<Integer, List<String>> sink) throws IOException {
+        BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean first = true;
+        int rowNumber = 1;
+        int ch;
+        while ((ch = r.read()) != -1) {
+            char c = (char) ch;
+            if (first) {
+                first = false;
+                if (c == '\uFEFF') continue;
+            }
+            if (quoted) {
+                if (c != '"') {
+                    if (cell.length() < MAX_CELL_CHARS) cell.append(c);
+                    continue;
+                }
+                r.mark(1);
+                if (r.read() == '"') {
+                    cell.append('"');
+                } else {
+                    quoted = false;
+                    r.reset();
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                if (cells.size() < MAX_COLUMNS) cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    r.mark(1);
+                    if (r.read() != '\n') r.reset();
+                }
+                if (cells.size() < MAX_COLUMNS) cells.add(cell.toString());
+                cell.setLength(0);
+                sink.accept(rowNumber++, cells);
+                cells = new ArrayList<>();
+            } else if (cell.length() < MAX_CELL_CHARS) {
+                cell.append(c);
+            }
+        }
+        if (cell.length() > 0 || !cells.isEmpty()) {
+            cells.add(cell.toString());
+            sink.accept(rowNumber, cells);
+        }
+    }
+
+    private static final class RowCollector implements SheetContentsHandler {
+        private final BiConsumer<Integer, List<String>> sink;
+        private List<String> cells = new ArrayList<>();
+
+        private RowCollector(BiConsumer<Integer, List<String>> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            sink.accept(rowNum + 1, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null) return;
+            int col = new CellReference(cellReference).getCol();
+            if (col < 0 || col >= MAX_COLUMNS) return;
+            while (cells.size() <= col) cells.add("");
+            cells.set(col, formattedValue == null ? "" : formattedValue);
+        }
+    }
+
+    private final class Importer {
+        private final Long cafeId;
+        private final Set<Long> existingIds = new HashSet<>();
+        private final Map<String, Long> existingByName = new HashMap<>();
+        private final Set<Long> seenIds = new HashSet<>();
+        private final Set<String> seenNames = new HashSet<>();
+        private final List<Object[]> inserts = new ArrayList<>();
+        private final List<Object[]> updates = new ArrayList<>();
+        private final List<MenuImportErrorRow> errors = new ArrayList<>();
+
+        private Map<String, Integer> header;
+        private boolean loaded;
+        private int totalRows;
+        private int created;
+        private int updated;
+        private int failedRows;
+        private int problems;
+
+        private Importer(Long cafeId) {
+            this.cafeId = cafeId;
+        }
+
+        private void row(Integer rowNumber, List<String> cells) {
+            if (isBlank(cells)) return;
+            if (header == null && problems > 0) return;
+            if (header == null) {
+                readHeader(rowNumber, cells);
+                return;
+            }
+            totalRows++;
+            if (totalRows > MAX_ROWS) {
+                if (totalRows == MAX_ROWS + 1) error(rowNumber, null, "Too many rows; the limit is " + MAX_ROWS);
+                return;
+            }
+            if (!loaded) {
+                loaded = true;
+                for (Object[] r : menuItemRepository.findImportRows(cafeId)) {
+                    Long id = (Long) r[0];
+                    existingIds.add(id);
+                    if (r[1] != null) existingByName.put(nameKey((String) r[1]), id);
+                }
+            }
+            int problemsBefore = problems;
+
+            Long id = null;
+            String rawId = cell(cells, "id");
+            if (!rawId.isEmpty() && !rawId.equals("0")) {
+                try {
+                    id = Long.parseLong(rawId);
+                } catch (NumberFormatException ex) {
+                    error(rowNumber, "MenuItemId", "Not a valid id");
+                }
+                if (id != null && !existingIds.contains(id)) {
+                    error(rowNumber, "MenuItemId", "Menu item " + id + " does not belong to this cafe");
+                }
+            }
+
+            String name = cell(cells, "name");
+            if (name.isEmpty()) {
+                error(rowNumber, "Name", "Name is required");
+            } else if (name.length() > MAX_TEXT) {
+                error(rowNumber, "Name", "Name is longer than " + MAX_TEXT + " characters");
+            }
+            if (id == null && !name.isEmpty()) {
+                id = existingByName.get(nameKey(name));
+            }
+
+            String category = cell(cells, "category");
+            if (category.isEmpty() && id == null) {
+                error(rowNumber, "Category", "Category is required");
+            } else if (category.length() > MAX_TEXT) {
+                error(rowNumber, "Category", "Category is longer than " + MAX_TEXT + " characters");
+            }
+
+            String description = cell(cells, "description");
+            if (description.length() > MAX_TEXT) {
+                error(rowNumber, "Description", "Description is longer than " + MAX_TEXT + " characters");
+            }
+
+            Long pricePaise = parsePrice(rowNumber, cell(cells, "price"));
+            Boolean available = parseAvailable(rowNumber, cell(cells, "available"));
+
+            if (id != null && !seenIds.add(id)) {
+                error(rowNumber, "MenuItemId", "Menu item " + id + " appears more than once");
+            }
+            if (!name.isEmpty() && !seenNames.add(nameKey(name))) {
+                error(rowNumber, "Name", "\"" + name + "\" appears more than once");
+            }
+            if (problems > problemsBefore) {
+                failedRows++;
+                return;
+            }
+
+            if (id == null) {
+                inserts.add(new Object[] { cafeId, name, nullIfEmpty(description), pricePaise, available == null ? Boolean.TRUE : available, category });
+                created++;
+            } else {
+                updates.add(new Object[] { name, nullIfEmpty(description), pricePaise, available, nullIfEmpty(category), id, cafeId });
+                updated++;
+            }
+            if (inserts.size() + updates.size() >= BATCH_SIZE) flush();
+        }
+
+        private void readHeader(Integer rowNumber, List<String> cells) {
+            header = new HashMap<>();
+            for (int i = 0; i < cells.size(); i++) {
+                String key = columnKey(cells.get(i));
+                if (key != null) header.putIfAbsent(key, i);
+            }
+            if (!header.containsKey("name") || !header.containsKey("price")) {
+                error(rowNumber, null, "Header row must include Name and Price columns");
+                header = null;
+            }
+        }
+
+        private Long parsePrice(Integer rowNumber, String raw) {
+            if (raw.isEmpty()) {
+                error(rowNumber, "Price", "Price is required");
+                return null;
+            }
+            try {
+                double rupees = Double.parseDouble(raw.replace(",", "").replace("\u20B9", "").trim());
+                if (!Double.isFinite(rupees) || rupees <= 0) {
+                    error(rowNumber, "Price", "Price must be positive");
+                    return null;
+                }
+                long paise = Money.toPaise(rupees);
+                if (paise < 1) {
+                    error(rowNumber, "Price", "Price must be at least 0.01");
+                    return null;
+                }
+                return paise;
+            } catch (NumberFormatException ex) {
+                error(rowNumber, "Price", "Not a valid price");
+                return null;
+            } catch (ArithmeticException ex) {
+                // Too many paise to fit in a long.
+                error(rowNumber, "Price", "Price is too large");
+                return null;
+            }
+        }
+
+        private Boolean parseAvailable(Integer rowNumber, String raw) {
+            return switch (raw.toLowerCase(Locale.ROOT)) {
+                case "" -> null;
+                case "true", "yes", "y", "1" -> Boolean.TRUE;
+                case "false", "no", "n", "0" -> Boolean.FALSE;
+                default -> {
+                    error(rowNumber, "Available", "Use true or false");
+                    yield null;
+                }
+            };
+        }
+
+        private String cell(List<String> cells, String key) {
+            Integer i = header.get(key);
+            if (i == null || i >= cells.size() || cells.get(i) == null) return "";
+            return cells.get(i).trim();
+        }
+
+        private void error(Integer rowNumber, String column, String message) {
+            problems++;
+            if (errors.size() >= MAX_REPORTED_ERRORS) return;
+            MenuImportErrorRow e = new MenuImportErrorRow();
+            e.setRow(rowNumber);
+            e.setColumn(column);
+            e.setMessage(message);
+            errors.add(e);
+        }
+
+        private void flush() {
+            // Once a row has failed the transaction is rolled back, so there is nothing left worth writing.
+            if (problems == 0) {
+                if (!inserts.isEmpty()) jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+                if (!updates.isEmpty()) jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            }
+            inserts.clear();
+            updates.clear();
+        }
+
+        private void finish() {
+            if (header == null && problems == 0) {
+                error(0, null, "The file has no header row");
+            }
+            flush();
+        }
+
+        private MenuImportResponse report(boolean applied) {
+            MenuImportResponse r = new MenuImportResponse();
+            r.setApplied(applied);
+            r.setTotalRows(totalRows);
+            r.setCreated(applied ? created : 0);
+            r.setUpdated(applied ? updated : 0);
+            r.setFailed(failedRows);
+            r.setErrors(errors);
+            return r;
+        }
+    }
+
+    private static String columnKey(String raw) {
+        if (raw == null) return null;
+        String k = raw.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+        return switch (k) {
+            case "menuitemid", "itemid", "id" -> "id";
+            case "name", "item", "itemname" -> "name";
+            case "category" -> "category";
+            case "description" -> "description";
+            case "price", "pricers", "priceinr" -> "price";
+            case "available", "availability" -> "available";
+            default -> null;
+        };
+    }
+
+    private static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String nullIfEmpty(String s) {
+        return s == null || s.isEmpty() ? null : s;
+    }
+
+    private static boolean isBlank(List<String> cells) {
+        for (String c : cells) {
+            if (c != null && !c.isBlank()) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,248 @@
+package com.cafe.service.impl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cafe.dto.CafeOrderEvent;
+import com.cafe.dto.CafeOrderItemRow;
+import com.cafe.dto.CafeOrderRow;
+import com.cafe.dto.MenuChangeEvent;
+import com.cafe.entity.CafeBooking;
+import com.cafe.entity.CafeOrder;
+import com.cafe.entity.User;
+import com.cafe.repository.CafeBookingRepository;
+import com.cafe.repository.CafeOrderRepository;
+import com.cafe.repository.UserRepository;
+import com.cafe.service.OrderEventService;
+import com.cafe.util.Money;
+
+@Service
+public class OrderEventServiceImpl implements OrderEventService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventServiceImpl.class);
+
+    private static final String EVENT_ORDER = "order";
+
+    private static final String EVENT_MENU = "menu";
+
+    private static final String EVENT_PING = "ping";
+
+    private final Map<Long, List<SseEmitter>> staffEmitters = new ConcurrentHashMap<>();
+
+    private final Map<Long, List<SseEmitter>> ownerEmitters = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CafeOrderRepository cafeOrderRepository;
+
+    @Autowired
+    private CafeBookingRepository cafeBookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${cafe.orders.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Override
+    public SseEmitter subscribeStaff(Long cafeId) {
+        return register(staffEmitters, cafeId);
+    }
+
+    @Override
+    public SseEmitter subscribeOwner(Long cafeId) {
+        return register(ownerEmitters, cafeId);
+    }
+
+    @Override
+    public void orderChanged(Long orderId) {
+        if (orderId == null) return;
+        try {
+            CafeOrder o = cafeOrderRepository.findByIdWithItems(orderId).orElse(null);
+            if (o == null || o.getCafe() == null || o.getCafe().getId() == null) return;
+            Long cafeId = o.getCafe().getId();
+
+            List<SseEmitter> owners = ownerEmitters.get(cafeId);
+            if (owners != null && !owners.isEmpty()) {
+                broadcast(ownerEmitters, cafeId, toEvent("UPSERT", cafeId, o.getId(), toOrderRow(o, true)));
+            }
+
+            List<SseEmitter> staff = staffEmitters.get(cafeId);
+            if (staff != null && !staff.isEmpty()) {
+                if (isVisibleToStaff(o, cafeId)) {
+                    broadcast(staffEmitters, cafeId, toEvent("UPSERT", cafeId, o.getId(), toOrderRow(o, false)));
+                } else {
+                    broadcast(staffEmitters, cafeId, toEvent("REMOVED", cafeId, o.getId(), null));
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("orderChanged: failed to publish order {}: {}", orderId, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void orderRemoved(Long cafeId, Long orderId) {
+        if (cafeId == null || orderId == null) return;
+        CafeOrderEvent event = toEvent("REMOVED", cafeId, orderId, null);
+        broadcast(ownerEmitters, cafeId, event);
+        broadcast(staffEmitters, cafeId, event);
+    }
+
+    @Override
+    public void menuChanged(MenuChangeEvent event) {
+        if (event == null || event.getCafeId() == null) return;
+        event.setSentAt(System.currentTimeMillis());
+        send(ownerEmitters, event.getCafeId(), EVENT_MENU, event);
+        send(staffEmitters, event.getCafeId(), EVENT_MENU, event);
+    }
+
+    @Override
+    public void bookingChanged(Long bookingId) {
+        if (bookingId == null) return;
+        try {
+            List<CafeOrder> linked = cafeOrderRepository.findByBookingId(bookingId);
+            if (linked == null) return;
+            for (CafeOrder o : linked) {
+                if (o == null) continue;
+                orderChanged(o.getId());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("bookingChanged: failed to publish orders for booking {}: {}", bookingId, ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cafe.orders.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Long cafeId : staffEmitters.keySet()) {
+            ping(staffEmitters, cafeId);
+        }
+        for (Long cafeId : ownerEmitters.keySet()) {
+            ping(ownerEmitters, cafeId);
+        }
+    }
+
+    private SseEmitter register(Map<Long, List<SseEmitter>> emitters, Long cafeId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        List<SseEmitter> list = emitters.computeIfAbsent(cafeId, k -> new CopyOnWriteArrayList<>());
+        list.add(emitter);
+        emitter.onCompletion(() -> remove(emitters, cafeId, emitter));
+        emitter.onTimeout(() -> remove(emitters, cafeId, emitter));
+        emitter.onError(ex -> remove(emitters, cafeId, emitter));
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_PING).data(System.currentTimeMillis()));
+        } catch (IOException ex) {
+            remove(emitters, cafeId, emitter);
+        }
+        return emitter;
+    }
+
+    private void remove(Map<Long, List<SseEmitter>> emitters, Long cafeId, SseEmitter emitter) {
+        List<SseEmitter> list = emitters.get(cafeId);
+        if (list == null) return;
+        list.remove(emitter);
+        if (list.isEmpty()) {
+            emitters.remove(cafeId, list);
+        }
+    }
+
+    private void broadcast(Map<Long, List<SseEmitter>> emitters, Long cafeId, CafeOrderEvent event) {
+        send(emitters, cafeId, EVENT_ORDER, event);
+    }
+
+    private void send(Map<Long, List<SseEmitter>> emitters, Long cafeId, String name, Object data) {
+        List<SseEmitter> list = emitters.get(cafeId);
+        if (list == null || list.isEmpty()) return;
+        for (SseEmitter emitter : list) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ex) {
+                remove(emitters, cafeId, emitter);
+            }
+        }
+    }
+
+    private void ping(Map<Long, List<SseEmitter>> emitters, Long cafeId) {
+        List<SseEmitter> list = emitters.get(cafeId);
+        if (list == null || list.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        for (SseEmitter emitter : list) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_PING).data(now));
+            } catch (IOException | IllegalStateException ex) {
+                remove(emitters, cafeId, emitter);
+            }
+        }
+    }
+
+    private boolean isVisibleToStaff(CafeOrder o, Long cafeId) {
+        Long bid = o.getBookingId();
+        if (bid == null) return true;
+        CafeBooking b = cafeBookingRepository.findById(bid).orElse(null);
+        if (b == null) return false;
+        if (b.getCafe() == null || b.getCafe().getId() == null || !b.getCafe().getId().equals(cafeId)) return false;
+        return "APPROVED".equalsIgnoreCase(String.valueOf(b.getStatus()));
+    }
+
+    private CafeOrderEvent toEvent(String type, Long cafeId, Long orderId, CafeOrderRow row) {
+        CafeOrderEvent e = new CafeOrderEvent();
+        e.setType(type);
+        e.setCafeId(cafeId);
+        e.setOrderId(orderId);
+        e.setOrder(row);
+        e.setSentAt(System.currentTimeMillis());
+        return e;
+    }
+
+    private CafeOrderRow toOrderRow(CafeOrder o, boolean includeCustomerEmail) {
+        CafeOrderRow r = new CafeOrderRow();
+        r.setId(o.getId());
+        r.setOrderNumber(o.getOrderNumber());
+        r.setCafeId(o.getCafe() == null ? null : o.getCafe().getId());
+        r.setCafeName(o.getCafe() == null ? null : o.getCafe().getCafeName());
+        r.setCustomerName(o.getCustomerName());
+        r.setCustomerPhone(o.getCustomerPhone());
+        if (includeCustomerEmail) {
+            r.setOwnerNames(o.getCafe() == null ? null : o.getCafe().getOwnerNames());
+            r.setCustomerUsername(o.getCustomerUsername());
+            if (o.getCustomerUsername() != null && !o.getCustomerUsername().isBlank()) {
+                User u = userRepository.findByUsername(o.getCustomerUsername()).orElse(null);
+                if (u != null && u.getPersonalDetails() != null) {
+                    r.setCustomerEmail(u.getPersonalDetails().getEmail());
+                }
+            }
+        }
+        r.setStatus(o.getStatus());
+        r.setTotalAmount(Money.toRupees(o.getTotalAmountPaise()));
+        r.setTotalAmountPaise(o.getTotalAmountPaise());
+        r.setPaymentStatus(o.getPaymentStatus() == null ? "UNPAID" : o.getPaymentStatus());
+        r.setRazorpayOrderId(o.getRazorpayOrderId());
+        r.setRazorpayPaymentId(o.getRazorpayPaymentId());
+        r.setPaidAt(o.getPaidAt());
+        r.setAmenityPreference(o.getAmenityPreference());
+        r.setAllocatedTable(o.getAllocatedTable());
+        r.setCreatedAt(o.getCreatedAt());
+        if (o.getItems() != null) {
+            r.setItems(o.getItems().stream().filter(it -> it != null).map(it -> {
+                CafeOrderItemRow ir = new CafeOrderItemRow();
+                ir.setMenuItemId(it.getMenuItemId());
+                ir.setItemName(it.getItemName());
+                ir.setPrice(Money.toRupees(it.getPricePaise()));
+                ir.setPricePaise(it.getPricePaise());
+                ir.setQty(it.getQty());
+                return ir;
+            }).toList());
+        }
+        return r;
+    }
+}
@@ -0,0 +1,117 @@
+package com.cafe.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cafe.entity.CafeOrder;
+import com.cafe.repository.CafeOrderCounterRepository;
+import com.cafe.repository.CafeOrderRepository;
+import com.cafe.service.OrderNumberService;
+
+/**
+ * Hands out per-cafe order numbers from a counter row that is bumped with a single upsert.
+ * With a block size above one, each instance reserves a range at a time and serves it from
+ * memory; numbers stay unique but may leave gaps when an instance restarts.
+ */
+@Service
+public class OrderNumberServiceImpl implements OrderNumberService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderNumberServiceImpl.class);
+
+    @Autowired
+    private CafeOrderCounterRepository cafeOrderCounterRepository;
+
+    @Autowired
+    private CafeOrderRepository cafeOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cafe.orders.number-block-size:1}")
+    private int blockSize;
+
+    @Value("${cafe.orders.number-backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    private final Map<Long, Block> blocks = new ConcurrentHashMap<>();
+
+    @Override
+    public int next(Long cafeId) {
+        if (cafeId == null) throw new IllegalArgumentException("cafeId is required");
+        Block block = blocks.computeIfAbsent(cafeId, id -> new Block());
+        synchronized (block) {
+            if (block.next > block.last) {
+                long size = Math.max(1, blockSize);
+                long last = reserve(cafeId, size, !block.seeded);
+                block.seeded = true;
+                block.next = last - size + 1;
+                block.last = last;
+            }
+            return Math.toIntExact(block.next++);
+        }
+    }
+
+    // Runs in its own short transaction so the counter row lock is never held for the caller's whole checkout.
+    private long reserve(Long cafeId, long size, boolean seed) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long last = tx.execute(status -> {
+            if (seed) {
+                cafeOrderCounterRepository.seed(cafeId);
+            }
+            return cafeOrderCounterRepository.allocate(cafeId, size);
+        });
+        if (last == null) throw new IllegalStateException("Order number allocation failed");
+        return last;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void numberLegacyOrders() {
+        if (!backfillOnStartup) return;
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            int numbered = 0;
+            while (true) {
+                Integer count = tx.execute(status -> {
+                    List<CafeOrder> batch = cafeOrderRepository.findTop100ByOrderNumberIsNullAndCafeIsNotNullOrderByCreatedAtAscIdAsc();
+                    int n = 0;
+                    for (CafeOrder o : batch) {
+                        if (o.getCafe() == null || o.getCafe().getId() == null) continue;
+                        o.setOrderNumber(next(o.getCafe().getId()));
+                        n++;
+                    }
+                    return n;
+                });
+                if (count == null || count == 0) break;
+                numbered += count;
+            }
+            if (numbered > 0) {
+                log.info("orders: assigned numbers to {} legacy orders", numbered);
+            }
+            long orphaned = cafeOrderRepository.countByOrderNumberIsNullAndCafeIsNull();
+            if (orphaned > 0) {
+                log.warn("orders: {} legacy orders have no cafe and were left unnumbered", orphaned);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("orders: legacy order numbering stopped: {}", ex.getMessage());
+        }
+    }
+
+    private static final class Block {
+        private long next = 1;
+        private long last = 0;
+        private boolean seeded;
+    }
+}
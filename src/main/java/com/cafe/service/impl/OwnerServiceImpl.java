@@ -4,14 +4,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -25,14 +18,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.cafe.dto.AdminAnalyticsDetailsResponse;
 import com.cafe.dto.AdminAnalyticsSummary;
-import com.cafe.dto.AdminCafeMetricRow;
-import com.cafe.dto.AdminCityMetricRow;
-import com.cafe.dto.AdminHourMetricRow;
-import com.cafe.dto.AdminItemMetricRow;
 import com.cafe.dto.AdminUserDetail;
+import com.cafe.dto.AuthPrincipal;
 import com.cafe.dto.BookingDecisionRequest;
 import com.cafe.dto.CafeAmenityRequest;
 import com.cafe.dto.CafeAmenityRow;
@@ -51,6 +42,7 @@ import com.cafe.dto.MenuItemRow;
 import com.cafe.dto.OwnerStaffCreateRequest;
 import com.cafe.dto.OwnerCafeRow;
 import com.cafe.dto.OwnerStaffRow;
+import com.cafe.dto.PageQuery;
 import com.cafe.entity.Address;
 import com.cafe.entity.ApprovalStatus;
 import com.cafe.entity.Cafe;
@@ -76,8 +68,16 @@ import com.cafe.repository.CafeRepository;
 import com.cafe.repository.FunctionCapacityRepository;
 import com.cafe.repository.MenuItemRepository;
 import com.cafe.repository.UserRepository;
+import com.cafe.service.AnalyticsService;
+import com.cafe.service.CafeLocationService;
 import com.cafe.service.EmailService;
+import com.cafe.service.MenuChangeService;
+import com.cafe.service.OrderEventService;
 import com.cafe.service.OwnerService;
+import com.cafe.service.PrincipalCacheService;
+import com.cafe.service.TableAvailabilityService;
+import com.cafe.util.Money;
+import com.cafe.util.TableLabels;
 
 @Service
 public class OwnerServiceImpl implements OwnerService {
@@ -117,36 +117,59 @@ public class OwnerServiceImpl implements OwnerService {
     @Autowired(required = false)
     private EmailService emailService;
 
+    @Autowired
+    private OrderEventService orderEventService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TableAvailabilityService tableAvailabilityService;
+
+    @Autowired
+    private MenuChangeService menuChangeService;
+
+    @Autowired
+    private CafeLocationService cafeLocationService;
+
+    @Autowired
+    private PrincipalCacheService principalCacheService;
+
     @Value("${cafe.images.dir:uploads/cafe-images}")
     private String cafeImagesDir;
 
     @Value("${cafe.menu.images.dir:uploads/menu-images}")
     private String menuImagesDir;
 
-    private User requireOwner(String ownerUsername) {
+    private AuthPrincipal requireOwner(String ownerUsername) {
         if (ownerUsername == null || ownerUsername.isBlank()) {
             log.warn("requireOwner: ownerUsername is null or blank");
             return null;
         }
-        String trimmed = ownerUsername.trim();
-        User u = userRepository.findByUsername(trimmed).orElse(null);
-        if (u == null) {
-            log.warn("requireOwner: User not found for username: {}", trimmed);
+        AuthPrincipal p = principalCacheService.resolve(ownerUsername);
+        if (p == null) {
+            log.warn("requireOwner: User not found for username: {}", ownerUsername.trim());
             return null;
         }
-        if (u.getRole() == null || u.getRole() != Role.OWNER) {
-            log.warn("requireOwner: User {} exists but role is {}", trimmed, u.getRole());
+        if (p.getRole() != Role.OWNER) {
+            log.warn("requireOwner: User {} exists but role is {}", p.getUsername(), p.getRole());
             return null;
         }
-        return u;
+        return p;
     }
 
-    private Cafe requireCafe(User owner, Long cafeId) {
-        if (owner == null) return null;
+    private Long requireCafeId(AuthPrincipal owner, Long cafeId) {
+        List<Long> owned = owner.getOwnedCafeIds();
         if (cafeId != null) {
-            return cafeRepository.findByIdAndOwner_Username(cafeId, owner.getUsername()).orElse(null);
+            return owned.contains(cafeId) ? cafeId : null;
         }
-        return cafeRepository.findFirstByOwner_UsernameOrderByIdDesc(owner.getUsername()).orElse(null);
+        return owned.isEmpty() ? null : owned.get(0);
+    }
+
+    private Cafe requireCafe(AuthPrincipal owner, Long cafeId) {
+        if (owner == null) return null;
+        Long id = requireCafeId(owner, cafeId);
+        return id == null ? null : cafeRepository.findById(id).orElse(null);
     }
 
     private CafeProfileResponse toCafeProfileResponse(Cafe cafe) {
@@ -164,6 +187,8 @@ public class OwnerServiceImpl implements OwnerService {
         r.setCity(cafe.getCity());
         r.setState(cafe.getState());
         r.setPincode(cafe.getPincode());
+        r.setLatitude(cafe.getLatitude());
+        r.setLongitude(cafe.getLongitude());
         r.setOpeningTime(cafe.getOpeningTime());
         r.setClosingTime(cafe.getClosingTime());
         r.setFssaiNumber(cafe.getFssaiNumber());
@@ -200,10 +225,11 @@ public class OwnerServiceImpl implements OwnerService {
         r.setId(m.getId());
         r.setName(m.getName());
         r.setDescription(m.getDescription());
-        r.setPrice(m.getPrice());
+        r.setPrice(Money.toRupees(m.getPricePaise()));
+        r.setPricePaise(m.getPricePaise());
         r.setAvailable(m.getAvailable());
         r.setCategory(m.getCategory());
-        r.setImageUrl(m.getId() == null ? null : ("/api/public/menu-images/" + m.getId()));
+        r.setImageUrl(m.getId() == null ? null : ("/api/public/menu-images/" + m.getId() + (m.imageVersion() == null ? "" : "?v=" + m.imageVersion())));
         return r;
     }
 
@@ -255,7 +281,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<AdminAnalyticsSummary> getAnalyticsSummary(String ownerUsername, Long cafeId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -264,35 +290,9 @@ public class OwnerServiceImpl implements OwnerService {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
 
-            long totalCafes = 1;
-
-            long totalOrders = 0;
-            double revenue = 0.0;
-            List<CafeOrder> orders = cafeOrderRepository.findByCafeIdOrderByCreatedAtDesc(cafe.getId());
-            if (orders != null) {
-                for (CafeOrder o : orders) {
-                    if (o == null) continue;
-                    if (!"PAID".equalsIgnoreCase(String.valueOf(o.getPaymentStatus() == null ? "UNPAID" : o.getPaymentStatus()))) continue;
-                    totalOrders++;
-                    revenue += (o.getTotalAmount() == null ? 0.0 : o.getTotalAmount());
-                }
-            }
-
-            long totalBookings = 0;
-            List<CafeBooking> bookings = cafeBookingRepository.findByCafeIdOrderByCreatedAtDesc(cafe.getId());
-            if (bookings != null) {
-                for (CafeBooking b : bookings) {
-                    if (b == null) continue;
-                    if (!"PAID".equalsIgnoreCase(String.valueOf(b.getPaymentStatus() == null ? "UNPAID" : b.getPaymentStatus()))) continue;
-                    totalBookings++;
-                }
-            }
-
-            AdminAnalyticsSummary s = new AdminAnalyticsSummary();
-            s.setTotalCafes(totalCafes);
-            s.setTotalOrders(totalOrders);
-            s.setTotalBookings(totalBookings);
-            s.setTotalOrderRevenue(revenue);
+            AdminAnalyticsSummary s = analyticsService.getOrderTotals(cafe.getId(), true);
+            s.setTotalCafes(1L);
+            s.setTotalBookings(cafeBookingRepository.countByCafeIdAndPaymentStatus(cafe.getId(), "PAID"));
             return ResponseEntity.ok(s);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -302,7 +302,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<CafeProfileResponse> getCafe(String ownerUsername, Long cafeId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -319,7 +319,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<AdminAnalyticsDetailsResponse> getAnalyticsDetails(String ownerUsername, Long cafeId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -328,126 +328,9 @@ public class OwnerServiceImpl implements OwnerService {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
 
-            List<CafeOrder> orders = cafeOrderRepository.findByCafeIdWithItems(cafe.getId());
-
-            Map<Long, AdminCafeMetricRow> byCafe = new HashMap<>();
-            Map<Long, AdminItemMetricRow> byItem = new HashMap<>();
-            Map<Integer, AdminHourMetricRow> byHour = new HashMap<>();
-            Map<String, AdminCityMetricRow> byCity = new HashMap<>();
-
-            long totalOrders = 0;
-            double totalRevenue = 0.0;
-
-            if (orders != null) {
-                for (CafeOrder o : orders) {
-                    if (o == null) continue;
-                    if (!"PAID".equalsIgnoreCase(String.valueOf(o.getPaymentStatus() == null ? "UNPAID" : o.getPaymentStatus()))) continue;
-
-                    totalOrders++;
-                    double ordTotal = o.getTotalAmount() == null ? 0.0 : o.getTotalAmount();
-                    totalRevenue += ordTotal;
-
-                    Long cafeIdKey = cafe.getId();
-                    AdminCafeMetricRow cm = byCafe.computeIfAbsent(cafeIdKey, k -> {
-                        AdminCafeMetricRow r = new AdminCafeMetricRow();
-                        r.setCafeId(k);
-                        r.setCafeName(cafe.getCafeName());
-                        r.setCity(cafe.getCity());
-                        r.setOrderCount(0L);
-                        r.setOrderRevenue(0.0);
-                        return r;
-                    });
-                    cm.setOrderCount((cm.getOrderCount() == null ? 0L : cm.getOrderCount()) + 1);
-                    cm.setOrderRevenue((cm.getOrderRevenue() == null ? 0.0 : cm.getOrderRevenue()) + ordTotal);
-
-                    String cityKey = cafe.getCity() == null ? "Unknown" : cafe.getCity();
-                    AdminCityMetricRow city = byCity.computeIfAbsent(cityKey, k -> {
-                        AdminCityMetricRow r = new AdminCityMetricRow();
-                        r.setCity(k);
-                        r.setOrderCount(0L);
-                        r.setOrderRevenue(0.0);
-                        return r;
-                    });
-                    city.setOrderCount((city.getOrderCount() == null ? 0L : city.getOrderCount()) + 1);
-                    city.setOrderRevenue((city.getOrderRevenue() == null ? 0.0 : city.getOrderRevenue()) + ordTotal);
-
-                    long createdAt = o.getCreatedAt() == null ? 0L : o.getCreatedAt();
-                    LocalDateTime dt = LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAt), ZoneId.systemDefault());
-                    int hour = dt.getHour();
-                    AdminHourMetricRow hm = byHour.computeIfAbsent(hour, k -> {
-                        AdminHourMetricRow r = new AdminHourMetricRow();
-                        r.setHour(k);
-                        r.setOrderCount(0L);
-                        r.setOrderRevenue(0.0);
-                        return r;
-                    });
-                    hm.setOrderCount((hm.getOrderCount() == null ? 0L : hm.getOrderCount()) + 1);
-                    hm.setOrderRevenue((hm.getOrderRevenue() == null ? 0.0 : hm.getOrderRevenue()) + ordTotal);
-
-                    if (o.getItems() != null) {
-                        for (CafeOrderItem it : o.getItems()) {
-                            if (it == null) continue;
-                            Long itemId = it.getMenuItemId();
-                            if (itemId == null) continue;
-                            long qty = it.getQty() == null ? 0 : it.getQty();
-                            double rev = (it.getPrice() == null ? 0.0 : it.getPrice()) * qty;
-                            AdminItemMetricRow im = byItem.computeIfAbsent(itemId, k -> {
-                                AdminItemMetricRow r = new AdminItemMetricRow();
-                                r.setMenuItemId(k);
-                                r.setItemName(it.getItemName());
-                                r.setTotalQty(0L);
-                                r.setTotalRevenue(0.0);
-                                return r;
-                            });
-                            im.setTotalQty((im.getTotalQty() == null ? 0L : im.getTotalQty()) + qty);
-                            im.setTotalRevenue((im.getTotalRevenue() == null ? 0.0 : im.getTotalRevenue()) + rev);
-                        }
-                    }
-                }
-            }
-
-            long totalCafes = 1;
-            long totalBookings = 0;
-            List<CafeBooking> bookings = cafeBookingRepository.findByCafeIdOrderByCreatedAtDesc(cafe.getId());
-            if (bookings != null) {
-                for (CafeBooking b : bookings) {
-                    if (b == null) continue;
-                    if (!"PAID".equalsIgnoreCase(String.valueOf(b.getPaymentStatus() == null ? "UNPAID" : b.getPaymentStatus()))) continue;
-                    totalBookings++;
-                }
-            }
-
-            AdminAnalyticsSummary summary = new AdminAnalyticsSummary();
-            summary.setTotalCafes(totalCafes);
-            summary.setTotalOrders(totalOrders);
-            summary.setTotalBookings(totalBookings);
-            summary.setTotalOrderRevenue(totalRevenue);
-
-            List<AdminCafeMetricRow> topCafes = byCafe.values().stream()
-                    .sorted(Comparator.comparing((AdminCafeMetricRow r) -> r.getOrderRevenue() == null ? 0.0 : r.getOrderRevenue()).reversed())
-                    .limit(10)
-                    .toList();
-
-            List<AdminItemMetricRow> topItems = byItem.values().stream()
-                    .sorted(Comparator.comparing((AdminItemMetricRow r) -> r.getTotalQty() == null ? 0L : r.getTotalQty()).reversed())
-                    .limit(10)
-                    .toList();
-
-            List<AdminHourMetricRow> busyHours = byHour.values().stream()
-                    .sorted(Comparator.comparing((AdminHourMetricRow r) -> r.getHour() == null ? 0 : r.getHour()))
-                    .toList();
-
-            List<AdminCityMetricRow> citySales = byCity.values().stream()
-                    .sorted(Comparator.comparing((AdminCityMetricRow r) -> r.getOrderRevenue() == null ? 0.0 : r.getOrderRevenue()).reversed())
-                    .limit(20)
-                    .toList();
-
-            AdminAnalyticsDetailsResponse resp = new AdminAnalyticsDetailsResponse();
-            resp.setSummary(summary);
-            resp.setTopCafes(topCafes);
-            resp.setTopItems(topItems);
-            resp.setBusyHours(busyHours);
-            resp.setCitySales(citySales);
+            AdminAnalyticsDetailsResponse resp = analyticsService.getDetails(cafe.getId(), true);
+            resp.getSummary().setTotalCafes(1L);
+            resp.getSummary().setTotalBookings(cafeBookingRepository.countByCafeIdAndPaymentStatus(cafe.getId(), "PAID"));
             return ResponseEntity.ok(resp);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -457,7 +340,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<List<OwnerCafeRow>> listCafes(String ownerUsername) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -485,7 +368,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<List<CafeDocumentRow>> listCafeDocuments(String ownerUsername, Long cafeId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -504,7 +387,8 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<AdminUserDetail> getMe(String ownerUsername) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal principal = requireOwner(ownerUsername);
+            User owner = principal == null ? null : userRepository.findByUsername(principal.getUsername()).orElse(null);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -547,78 +431,26 @@ public class OwnerServiceImpl implements OwnerService {
         }
     }
 
-    private List<String> parseDistinctCsv(String raw) {
-        List<String> out = new ArrayList<>();
-        if (raw == null || raw.isBlank()) return out;
-        for (String part : raw.split(",")) {
-            if (part == null) continue;
-            String t = part.trim();
-            if (t.isBlank()) continue;
-            if (!out.contains(t)) out.add(t);
-        }
-        return out;
-    }
-
-    private int computeTablesNeeded(Integer guests, Integer seatsPerTable) {
-        int g = (guests == null ? 0 : guests);
-        if (g <= 0) return 1;
-        int spt = (seatsPerTable == null ? 0 : seatsPerTable);
-        if (spt <= 0) return 1;
-        return (int) Math.ceil((double) g / (double) spt);
-    }
-
     private String allocateTables(Long cafeId, FunctionType functionType, String bookingDate, String bookingTime, Integer guests, String preferredTablesCsv) {
         if (functionType == null) return null;
         FunctionCapacity cap = functionCapacityRepository.findByCafeIdAndFunctionType(cafeId, functionType).orElse(null);
         if (cap == null) return null;
         if (!Boolean.TRUE.equals(cap.getEnabled())) return null;
 
-        List<String> labels = parseDistinctCsv(cap.getTableLabels());
+        List<String> labels = TableLabels.parseDistinctCsv(cap.getTableLabels());
         if (labels.isEmpty()) return null;
 
-        int tablesNeeded = computeTablesNeeded(guests, cap.getSeatsPerTable());
+        int tablesNeeded = TableLabels.tablesNeeded(guests, cap.getSeatsPerTable());
         if (tablesNeeded <= 0) tablesNeeded = 1;
         if (tablesNeeded > labels.size()) return null;
 
-        String bd = (bookingDate == null ? null : bookingDate.trim());
-        String bt = (bookingTime == null ? null : bookingTime.trim());
-
-        List<String> used = cafeBookingRepository.findByCafeIdOrderByCreatedAtDesc(cafeId).stream()
-                .filter(b -> b != null
-                        && functionType.equals(b.getFunctionType())
-                        && "APPROVED".equalsIgnoreCase(String.valueOf(b.getStatus()))
-                        && b.getAllocatedTable() != null
-                        && !b.getAllocatedTable().isBlank()
-                        && (bd == null || bd.isBlank() || (b.getBookingDate() != null && b.getBookingDate().trim().equalsIgnoreCase(bd)))
-                        && (bt == null || bt.isBlank() || (b.getBookingTime() != null && b.getBookingTime().trim().equalsIgnoreCase(bt))))
-                .flatMap(b -> parseDistinctCsv(b.getAllocatedTable()).stream())
-                .toList();
-
-        List<String> pref = parseDistinctCsv(preferredTablesCsv);
-        List<String> chosen = new ArrayList<>();
-
-        for (String p : pref) {
-            if (chosen.size() >= tablesNeeded) break;
-            if (p == null || p.isBlank()) continue;
-            if (!labels.contains(p)) continue;
-            if (used.contains(p)) continue;
-            if (!chosen.contains(p)) chosen.add(p);
-        }
-
-        for (String t : labels) {
-            if (chosen.size() >= tablesNeeded) break;
-            if (used.contains(t)) continue;
-            if (!chosen.contains(t)) chosen.add(t);
-        }
-
-        if (chosen.size() != tablesNeeded) return null;
-        return String.join(", ", chosen);
+        return tableAvailabilityService.allocateTables(cafeId, cap, bookingDate, bookingTime, tablesNeeded, preferredTablesCsv);
     }
 
     @Override
     public ResponseEntity<String> deleteBooking(String ownerUsername, Long cafeId, Long bookingId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -636,6 +468,7 @@ public class OwnerServiceImpl implements OwnerService {
             }
 
             cafeBookingRepository.delete(b);
+            orderEventService.bookingChanged(bookingId);
             return ResponseEntity.ok("Deleted");
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -645,7 +478,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<CafeBookingRow> approveBooking(String ownerUsername, Long cafeId, Long bookingId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -700,6 +533,7 @@ public class OwnerServiceImpl implements OwnerService {
                     if (o == null) continue;
                     o.setAllocatedTable(allocated);
                     cafeOrderRepository.save(o);
+                    orderEventService.orderChanged(o.getId());
                 }
             }
 
@@ -712,7 +546,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<CafeBookingRow> denyBookingWithRefund(String ownerUsername, Long cafeId, Long bookingId, BookingDecisionRequest request) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -743,6 +577,7 @@ public class OwnerServiceImpl implements OwnerService {
             b.setStatus("DENIED_WITH_REFUND");
             b.setDenialReason(request.getReason().trim());
             cafeBookingRepository.save(b);
+            orderEventService.bookingChanged(b.getId());
 
             return ResponseEntity.ok(toBookingRow(b));
         } catch (RuntimeException ex) {
@@ -753,7 +588,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<CafeBookingRow> denyBooking(String ownerUsername, Long cafeId, Long bookingId, BookingDecisionRequest request) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -776,6 +611,7 @@ public class OwnerServiceImpl implements OwnerService {
             b.setStatus("DENIED");
             b.setDenialReason(request.getReason().trim());
             cafeBookingRepository.save(b);
+            orderEventService.bookingChanged(b.getId());
 
             return ResponseEntity.ok(toBookingRow(b));
         } catch (RuntimeException ex) {
@@ -784,63 +620,89 @@ public class OwnerServiceImpl implements OwnerService {
     }
 
     @Override
-    public ResponseEntity<List<CafeBookingRow>> listBookings(String ownerUsername, Long cafeId) {
+    public ResponseEntity<List<CafeBookingRow>> listBookings(String ownerUsername, Long cafeId, PageQuery page) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
-            Cafe cafe = requireCafe(owner, cafeId);
-            if (cafe == null) {
+            Long ownedCafeId = requireCafeId(owner, cafeId);
+            if (ownedCafeId == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
 
-            List<CafeBooking> list = cafeBookingRepository.findByCafeIdOrderByCreatedAtDesc(cafe.getId());
-            List<CafeBookingRow> rows = (list == null
-                    ? List.<CafeBookingRow>of()
-                    : list.stream().filter(b -> b != null).map(this::toBookingRow).toList());
-            return ResponseEntity.ok(rows);
+            List<CafeBooking> fetched = cafeBookingRepository.findPageByCafeId(
+                    ownedCafeId,
+                    page.statusOrBlank(),
+                    page.fromOrMin(),
+                    page.toOrMax(),
+                    page.cursorCreatedAt(),
+                    page.cursorId(),
+                    page.pageable()
+            );
+            List<CafeBooking> list = page.trim(fetched);
+            List<CafeBookingRow> rows = list.stream().map(this::toBookingRow).toList();
+
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.hasMore(fetched)) {
+                CafeBooking last = list.get(list.size() - 1);
+                ok.header(PageQuery.NEXT_CURSOR_HEADER, PageQuery.cursorOf(last.getCreatedAt(), last.getId()));
+            }
+            return ok.body(rows);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     @Override
-    public ResponseEntity<List<CafeOrderRow>> listOrders(String ownerUsername, Long cafeId) {
+    public ResponseEntity<List<CafeOrderRow>> listOrders(String ownerUsername, Long cafeId, PageQuery page) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
-            Cafe cafe = requireCafe(owner, cafeId);
-            if (cafe == null) {
+            Long ownedCafeId = requireCafeId(owner, cafeId);
+            if (ownedCafeId == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
-            List<CafeOrder> list = cafeOrderRepository.findByCafeIdOrderByCreatedAtDesc(cafe.getId());
-            ensureOrderNumbers(list);
-            List<CafeOrderRow> rows = (list == null
-                    ? List.<CafeOrderRow>of()
-                    : list.stream().filter(o -> o != null).map(this::toOrderRow).toList());
-            return ResponseEntity.ok(rows);
+            List<Long> fetched = cafeOrderRepository.findPageIdsByCafeId(
+                    ownedCafeId,
+                    page.statusOrBlank(),
+                    page.fromOrMin(),
+                    page.toOrMax(),
+                    page.cursorCreatedAt(),
+                    page.cursorId(),
+                    page.pageable()
+            );
+            List<Long> ids = page.trim(fetched);
+            List<CafeOrder> list = ids.isEmpty() ? List.of() : cafeOrderRepository.findByIdInWithItems(ids);
+            List<CafeOrderRow> rows = list.stream().map(this::toOrderRow).toList();
+
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.hasMore(fetched) && !list.isEmpty()) {
+                CafeOrder last = list.get(list.size() - 1);
+                ok.header(PageQuery.NEXT_CURSOR_HEADER, PageQuery.cursorOf(last.getCreatedAt(), last.getId()));
+            }
+            return ok.body(rows);
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    private void ensureOrderNumbers(List<CafeOrder> list) {
-        if (list == null || list.isEmpty()) return;
-        int max = 0;
-        for (CafeOrder o : list) {
-            if (o != null && o.getOrderNumber() != null && o.getOrderNumber() > max) max = o.getOrderNumber();
-        }
-        List<CafeOrder> missing = list.stream()
-                .filter(o -> o != null && o.getOrderNumber() == null)
-                .sorted(java.util.Comparator.comparingLong(o -> o.getCreatedAt() == null ? 0L : o.getCreatedAt()))
-                .toList();
-        int next = max + 1;
-        for (CafeOrder o : missing) {
-            o.setOrderNumber(next++);
-            cafeOrderRepository.save(o);
+    @Override
+    public ResponseEntity<SseEmitter> streamOrders(String ownerUsername, Long cafeId) {
+        try {
+            AuthPrincipal owner = requireOwner(ownerUsername);
+            if (owner == null) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            Long ownedCafeId = requireCafeId(owner, cafeId);
+            if (ownedCafeId == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            return ResponseEntity.ok(orderEventService.subscribeOwner(ownedCafeId));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
@@ -868,7 +730,8 @@ public class OwnerServiceImpl implements OwnerService {
         }
         r.setCustomerPhone(o.getCustomerPhone());
         r.setStatus(o.getStatus());
-        r.setTotalAmount(o.getTotalAmount());
+        r.setTotalAmount(Money.toRupees(o.getTotalAmountPaise()));
+        r.setTotalAmountPaise(o.getTotalAmountPaise());
         r.setPaymentStatus(o.getPaymentStatus() == null ? "UNPAID" : o.getPaymentStatus());
         r.setRazorpayOrderId(o.getRazorpayOrderId());
         r.setRazorpayPaymentId(o.getRazorpayPaymentId());
@@ -881,7 +744,8 @@ public class OwnerServiceImpl implements OwnerService {
                 CafeOrderItemRow ir = new CafeOrderItemRow();
                 ir.setMenuItemId(it.getMenuItemId());
                 ir.setItemName(it.getItemName());
-                ir.setPrice(it.getPrice());
+                ir.setPrice(Money.toRupees(it.getPricePaise()));
+                ir.setPricePaise(it.getPricePaise());
                 ir.setQty(it.getQty());
                 return ir;
             }).toList());
@@ -918,7 +782,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<String> deleteOrder(String ownerUsername, Long cafeId, Long orderId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -934,7 +798,9 @@ public class OwnerServiceImpl implements OwnerService {
             if (o == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Order not found");
             }
+            analyticsService.recordOrderDeleted(orderId);
             cafeOrderRepository.deleteById(orderId);
+            orderEventService.orderRemoved(cafe.getId(), orderId);
             return ResponseEntity.ok("Deleted");
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -944,7 +810,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<CafeProfileResponse> upsertCafe(String ownerUsername, Long cafeId, CafeProfileRequest request) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 log.error("upsertCafe: Forbidden - owner not found or not an owner: {}", ownerUsername);
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -963,7 +829,7 @@ public class OwnerServiceImpl implements OwnerService {
             }
             if (cafe == null) {
                 cafe = new Cafe();
-                cafe.setOwner(owner);
+                cafe.setOwner(userRepository.getReferenceById(owner.getUserId()));
                 cafe.setApprovalStatus(ApprovalStatus.PENDING);
                 log.info("upsertCafe: Creating new cafe for owner {}", owner.getUsername());
             }
@@ -978,6 +844,7 @@ public class OwnerServiceImpl implements OwnerService {
             cafe.setAddressLine(request.getAddressLine());
             cafe.setCity(request.getCity());
             cafe.setState(request.getState());
+            cafeLocationService.locate(cafe, request.getPincode(), request.getLatitude(), request.getLongitude());
             cafe.setPincode(request.getPincode());
             cafe.setOpeningTime(request.getOpeningTime());
             cafe.setClosingTime(request.getClosingTime());
@@ -991,6 +858,9 @@ public class OwnerServiceImpl implements OwnerService {
             cafe.setActive(request.getActive() == null ? true : request.getActive());
 
             cafeRepository.save(cafe);
+            menuChangeService.menuChanged(cafe.getId());
+            cafeLocationService.invalidate();
+            principalCacheService.evictUser(owner.getUsername());
             log.info("upsertCafe: Successfully saved cafe: {} (ID: {})", cafe.getCafeName(), cafe.getId());
             return ResponseEntity.ok(toCafeProfileResponse(cafe));
         } catch (Exception ex) {
@@ -1007,7 +877,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<String> deleteCafe(String ownerUsername, Long cafeId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
@@ -1016,6 +886,10 @@ public class OwnerServiceImpl implements OwnerService {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
             cafeRepository.deleteById(cafe.getId());
+            analyticsService.cafeDeleted(cafe.getId());
+            menuChangeService.menuChanged(cafe.getId());
+            cafeLocationService.invalidate();
+            principalCacheService.evictCafe(cafe.getId());
             return ResponseEntity.ok("Deleted");
         } catch (RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1025,7 +899,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<List<OwnerStaffRow>> listStaff(String ownerUsername, Long cafeId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             Cafe cafe = requireCafe(owner, cafeId);
             if (cafe == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -1055,7 +929,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<List<MenuItemRow>> listMenu(String ownerUsername, Long cafeId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             Cafe cafe = requireCafe(owner, cafeId);
             if (cafe == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -1095,7 +969,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<List<FunctionCapacityRow>> listCapacities(String ownerUsername, Long cafeId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             Cafe cafe = requireCafe(owner, cafeId);
             if (cafe == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -1120,7 +994,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<List<CafeImageRow>> listImages(String ownerUsername, Long cafeId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             Cafe cafe = requireCafe(owner, cafeId);
             if (cafe == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -1145,7 +1019,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     public ResponseEntity<List<CafeAmenityRow>> listAmenities(String ownerUsername, Long cafeId) {
         try {
-            User owner = requireOwner(ownerUsername);
+            AuthPrincipal owner = requireOwner(ownerUsername);
             if (owner == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             Cafe cafe = requireCafe(owner, cafeId);
             if (cafe == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -0,0 +1,256 @@
+package com.cafe.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cafe.dto.GatewayOrder;
+import com.cafe.entity.CafeOrder;
+import com.cafe.entity.Payment;
+import com.cafe.entity.PaymentEvent;
+import com.cafe.exception.PaymentGatewayException;
+import com.cafe.repository.CafeOrderRepository;
+import com.cafe.repository.PaymentEventRepository;
+import com.cafe.repository.PaymentRepository;
+import com.cafe.service.OrderEventService;
+import com.cafe.service.PaymentEventService;
+import com.cafe.service.PaymentGateway;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps a local log of what the gateway told us about each Razorpay order: the amount we asked
+ * for when the order was created, and every webhook delivery after that. Checkout confirmation
+ * reads this log instead of calling the gateway; payments confirmed before their webhook arrives
+ * stay VERIFIED until a webhook or the background reconciler settles them. The reconciler gives up
+ * on a payment once it is older than the max age and marks it STALE; a late webhook can still
+ * settle it.
+ */
+@Service
+public class PaymentEventServiceImpl implements PaymentEventService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentEventServiceImpl.class);
+
+    @Autowired
+    private PaymentEventRepository paymentEventRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private CafeOrderRepository cafeOrderRepository;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private OrderEventService orderEventService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${cafe.payments.reconcile.grace-ms:120000}")
+    private long reconcileGraceMs;
+
+    @Value("${cafe.payments.reconcile.max-age-ms:86400000}")
+    private long reconcileMaxAgeMs;
+
+    @Override
+    public ResponseEntity<String> handleWebhook(String payload, String signature, String eventId) {
+        try {
+            if (!paymentGateway.verifyWebhookSignature(payload, signature)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid signature");
+            }
+
+            Map<String, Object> body = payload == null ? null : GatewayJson.readObject(objectMapper, payload);
+            if (body == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid payload");
+            }
+            String event = GatewayJson.string(body, "event");
+            String eventType = event == null ? "" : event;
+            Map<String, Object> payment = entity(body, "payment");
+            Map<String, Object> order = entity(body, "order");
+
+            String razorpayOrderId = GatewayJson.string(payment, "order_id");
+            if ((razorpayOrderId == null || razorpayOrderId.isBlank()) && order != null) {
+                razorpayOrderId = GatewayJson.string(order, "id");
+            }
+            if (razorpayOrderId == null || razorpayOrderId.isBlank()) {
+                return ResponseEntity.ok("Ignored");
+            }
+
+            String paymentId = GatewayJson.string(payment, "id");
+            Map<String, Object> source = payment != null ? payment : order;
+            Long amount = GatewayJson.number(source, "amount");
+            String status = GatewayJson.string(source, "status");
+            String id = eventId == null || eventId.isBlank() ? "sha256:" + sha256Hex(payload) : eventId.trim();
+
+            String rpOrderId = razorpayOrderId;
+            Boolean recorded = new TransactionTemplate(transactionManager).execute(tx -> {
+                int inserted = paymentEventRepository.insertIfAbsent(
+                        id, eventType, rpOrderId, paymentId, amount,
+                        status == null ? null : status.toLowerCase(), System.currentTimeMillis());
+                if (inserted == 0) return false;
+                apply(rpOrderId, paymentId, amount, status);
+                return true;
+            });
+            return ResponseEntity.ok(Boolean.TRUE.equals(recorded) ? "Recorded" : "Duplicate");
+        } catch (JacksonException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid payload");
+        } catch (RuntimeException ex) {
+            log.warn("payment webhook: failed to record event: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to record event");
+        }
+    }
+
+    @Override
+    public void recordOrderCreated(String razorpayOrderId, long amountPaise) {
+        if (razorpayOrderId == null || razorpayOrderId.isBlank()) return;
+        paymentEventRepository.insertIfAbsent(
+                "created:" + razorpayOrderId, "order.created", razorpayOrderId, null, amountPaise,
+                "created", System.currentTimeMillis());
+    }
+
+    @Override
+    public String rejectionReason(String razorpayOrderId, String razorpayPaymentId, long amountPaise) {
+        Long expected = null;
+        for (PaymentEvent e : paymentEventRepository.findByRazorpayOrderIdOrderByIdAsc(razorpayOrderId)) {
+            if (expected == null && e.getAmountPaise() != null) {
+                expected = e.getAmountPaise();
+            }
+            if ("failed".equals(e.getStatus()) && razorpayPaymentId != null && razorpayPaymentId.equals(e.getRazorpayPaymentId())) {
+                return "Payment not completed";
+            }
+        }
+        if (expected != null && expected != amountPaise) {
+            return "Payment amount mismatch";
+        }
+        return null;
+    }
+
+    @Override
+    public String settledStatus(String razorpayOrderId) {
+        for (PaymentEvent e : paymentEventRepository.findByRazorpayOrderIdOrderByIdAsc(razorpayOrderId)) {
+            if (isCaptured(e.getStatus())) return "PAID";
+        }
+        return "VERIFIED";
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${cafe.payments.reconcile.poll-ms:60000}")
+    public int reconcilePending() {
+        int settled = 0;
+        long now = System.currentTimeMillis();
+        long cutoff = now - reconcileGraceMs;
+        long staleBefore = now - reconcileMaxAgeMs;
+        try {
+            int stale = paymentRepository.markStale(staleBefore);
+            if (stale > 0) {
+                log.warn("payment reconcile: gave up on {} payment(s) still unsettled after {} ms", stale, reconcileMaxAgeMs);
+            }
+
+            long lastId = 0L;
+            while (true) {
+                List<Payment> batch = paymentRepository.findTop50ByStatusAndCreatedAtBetweenAndIdGreaterThanOrderByIdAsc(
+                        "VERIFIED", staleBefore, cutoff, lastId);
+                if (batch.isEmpty()) break;
+                for (Payment p : batch) {
+                    if (reconcile(p)) settled++;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("payment reconcile: sweep stopped: {}", ex.getMessage());
+        }
+        return settled;
+    }
+
+    private boolean reconcile(Payment p) {
+        String rpOrderId = p.getRazorpayOrderId();
+        if (rpOrderId == null || rpOrderId.isBlank()) return false;
+
+        if ("PAID".equals(settledStatus(rpOrderId))) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(tx -> apply(rpOrderId, null, null, "captured"));
+            return true;
+        }
+
+        GatewayOrder remote;
+        try {
+            remote = paymentGateway.fetchOrder(rpOrderId);
+        } catch (PaymentGatewayException ex) {
+            log.info("payment reconcile: {} not fetched yet: {}", rpOrderId, ex.getMessage());
+            return false;
+        }
+        if (!isCaptured(remote.getStatus())) return false;
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            paymentEventRepository.insertIfAbsent(
+                    "reconcile:" + rpOrderId, "order.reconciled", rpOrderId, null, remote.getAmountPaise(),
+                    remote.getStatus().toLowerCase(), System.currentTimeMillis());
+            apply(rpOrderId, null, remote.getAmountPaise(), remote.getStatus());
+        });
+        return true;
+    }
+
+    private void apply(String razorpayOrderId, String paymentId, Long amountPaise, String status) {
+        String s = status == null ? "" : status.toLowerCase();
+        for (Payment p : paymentRepository.findByRazorpayOrderId(razorpayOrderId)) {
+            if (p.getRazorpayPaymentId() == null && paymentId != null) {
+                p.setRazorpayPaymentId(paymentId);
+            }
+            if (isCaptured(s) && !"PAID".equals(p.getStatus()) && !"MISMATCH".equals(p.getStatus())) {
+                if (amountPaise != null && p.getAmountPaise() != null && !amountPaise.equals(p.getAmountPaise())) {
+                    flagMismatch(p, amountPaise);
+                } else {
+                    p.setStatus("PAID");
+                }
+            } else if ("failed".equals(s) && paymentId != null && paymentId.equals(p.getRazorpayPaymentId())
+                    && !"PAID".equals(p.getStatus())) {
+                p.setStatus("FAILED");
+            }
+            paymentRepository.save(p);
+        }
+    }
+
+    private void flagMismatch(Payment p, Long capturedPaise) {
+        p.setStatus("MISMATCH");
+        CafeOrder order = p.getOrder();
+        log.warn("payment reconcile: order {} captured {} paise but charged {}",
+                order == null ? null : order.getId(), capturedPaise, p.getAmountPaise());
+        if (order != null) {
+            order.setPaymentStatus("REVIEW");
+            cafeOrderRepository.save(order);
+            orderEventService.orderChanged(order.getId());
+        }
+    }
+
+    private boolean isCaptured(String status) {
+        if (status == null) return false;
+        String s = status.toLowerCase();
+        return "captured".equals(s) || "paid".equals(s);
+    }
+
+    private Map<String, Object> entity(Map<String, Object> body, String name) {
+        return GatewayJson.object(GatewayJson.object(GatewayJson.object(body, "payload"), name), "entity");
+    }
+
+    private String sha256Hex(String value) {
+        return HexFormat.of().formatHex(BlobSpool.sha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
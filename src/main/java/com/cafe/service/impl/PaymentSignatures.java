@@ -0,0 +1,46 @@
+package com.cafe.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Razorpay-style HMAC-SHA256 signatures: checkout signatures over {@code orderId|paymentId}
+ * and webhook signatures over the raw request body.
+ */
+final class PaymentSignatures {
+
+    private PaymentSignatures() {
+    }
+
+    static String sign(String orderId, String paymentId, String secret) {
+        return hmacSha256Hex(orderId + "|" + paymentId, secret);
+    }
+
+    static boolean verify(String orderId, String paymentId, String signature, String secret) {
+        if (orderId == null || paymentId == null || signature == null) return false;
+        if (secret == null || secret.isBlank()) return false;
+        byte[] expected = sign(orderId, paymentId, secret).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static boolean verifyPayload(String payload, String signature, String secret) {
+        if (payload == null || signature == null) return false;
+        if (secret == null || secret.isBlank()) return false;
+        byte[] expected = hmacSha256Hex(payload, secret).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(expected, signature.trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String hmacSha256Hex(String data, String secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to compute signature", ex);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.cafe.service.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.cafe.dto.AuthPrincipal;
+import com.cafe.entity.Role;
+import com.cafe.entity.User;
+import com.cafe.repository.CafeRepository;
+import com.cafe.repository.UserRepository;
+import com.cafe.service.PrincipalCacheService;
+
+/**
+ * Remembers who an X-USERNAME belongs to (role, approval status and the cafe a staff member or
+ * owner acts for) so polling clients do not hit users and cafe_staff on every request. Entries
+ * are evicted explicitly when those facts change; the TTL only bounds edits made outside the app.
+ */
+@Service
+public class PrincipalCacheServiceImpl implements PrincipalCacheService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CafeRepository cafeRepository;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, Entry> entries;
+
+    private final int maxEntries;
+
+    @Value("${cafe.auth.principal-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    public PrincipalCacheServiceImpl(@Value("${cafe.auth.principal-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > PrincipalCacheServiceImpl.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public AuthPrincipal resolve(String username) {
+        if (username == null || username.isBlank()) return null;
+        String key = username.trim();
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached != null) {
+                if (cached.expiresAt > now) return cached.principal;
+                entries.remove(key);
+            }
+        }
+
+        long gen = generation.get();
+        AuthPrincipal loaded = load(key);
+        if (loaded == null) return null;
+        synchronized (entries) {
+            // An evictUser or evictCafe during load() means role or cafe facts changed; use the row uncached.
+            if (generation.get() == gen) {
+                entries.put(key, new Entry(loaded, now + ttlMs));
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public void evictUser(String username) {
+        if (username == null || username.isBlank()) return;
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(username.trim());
+        }
+    }
+
+    @Override
+    public void evictCafe(Long cafeId) {
+        if (cafeId == null) return;
+        synchronized (entries) {
+            generation.incrementAndGet();
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                AuthPrincipal p = it.next().principal;
+                if (cafeId.equals(p.getStaffCafeId()) || p.getOwnedCafeIds().contains(cafeId)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private AuthPrincipal load(String username) {
+        User u = userRepository.findByUsername(username).orElse(null);
+        if (u == null) return null;
+
+        AuthPrincipal p = new AuthPrincipal();
+        p.setUserId(u.getId());
+        p.setUsername(u.getUsername());
+        p.setRole(u.getRole());
+        p.setApprovalStatus(u.getApprovalStatus());
+        p.setPhone(u.getPersonalDetails() == null ? null : u.getPersonalDetails().getPhone());
+        if (u.getRole() == Role.CHEF || u.getRole() == Role.WAITER) {
+            List<Long> ids = cafeRepository.findIdsByStaffUsername(u.getUsername());
+            p.setStaffCafeId(ids.isEmpty() ? null : ids.get(0));
+        } else if (u.getRole() == Role.OWNER) {
+            p.setOwnedCafeIds(List.copyOf(cafeRepository.findIdsByOwnerUsername(u.getUsername())));
+        }
+        return p;
+    }
+
+    private static final class Entry {
+        private final AuthPrincipal principal;
+        private final long expiresAt;
+
+        private Entry(AuthPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.cafe.service.impl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.cafe.dto.GatewayOrder;
+import com.cafe.dto.PaymentGatewayStats;
+import com.cafe.exception.PaymentGatewayException;
+import com.cafe.service.PaymentGateway;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Talks to the Razorpay Orders API over one shared HTTP client, so keep-alive connections are
+ * reused across checkouts and every call has bounded connect and response timeouts.
+ */
+@Service
+@ConditionalOnProperty(name = "cafe.payments.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+    private final GatewayCallStats stats = new GatewayCallStats("razorpay");
+
+    private final HttpClient httpClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${razorpay.key_id:}")
+    private String razorpayKeyId;
+
+    @Value("${razorpay.key_secret:}")
+    private String razorpayKeySecret;
+
+    @Value("${razorpay.webhook_secret:}")
+    private String webhookSecret;
+
+    @Value("${cafe.payments.razorpay.base-url:https://api.razorpay.com}")
+    private String baseUrl;
+
+    @Value("${cafe.payments.razorpay.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    public RazorpayPaymentGateway(@Value("${cafe.payments.razorpay.connect-timeout-ms:3000}") long connectTimeoutMs) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    @Override
+    public String keyId() {
+        return razorpayKeyId;
+    }
+
+    @Override
+    public String configurationProblem() {
+        if (razorpayKeyId == null || razorpayKeyId.isBlank()) {
+            return "Razorpay key id not configured. Set environment variable RAZORPAY_KEY_ID (or razorpay.key_id in application.properties).";
+        }
+        if (razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
+            return "Razorpay key secret not configured. Set environment variable RAZORPAY_KEY_SECRET (or razorpay.key_secret in application.properties).";
+        }
+        return null;
+    }
+
+    @Override
+    public GatewayOrder createOrder(long amountPaise, String currency, String receipt) throws PaymentGatewayException {
+        Map<String, Object> req = new LinkedHashMap<>();
+        req.put("amount", amountPaise);
+        req.put("currency", currency);
+        req.put("receipt", receipt);
+        req.put("payment_capture", 1);
+
+        HttpRequest request = authorized("/v1/orders")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(req)))
+                .build();
+        return toOrder(call("create_order", request));
+    }
+
+    @Override
+    public GatewayOrder fetchOrder(String orderId) throws PaymentGatewayException {
+        if (orderId == null || orderId.isBlank()) {
+            throw new PaymentGatewayException("Order id is required");
+        }
+        HttpRequest request = authorized("/v1/orders/" + URLEncoder.encode(orderId, StandardCharsets.UTF_8))
+                .GET()
+                .build();
+        return toOrder(call("fetch_order", request));
+    }
+
+    @Override
+    public boolean verifyPaymentSignature(String orderId, String paymentId, String signature) {
+        return PaymentSignatures.verify(orderId, paymentId, signature, razorpayKeySecret);
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        return PaymentSignatures.verifyPayload(payload, signature, webhookSecret);
+    }
+
+    @Override
+    public PaymentGatewayStats stats() {
+        return stats.snapshot();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        String credentials = Base64.getEncoder()
+                .encodeToString((razorpayKeyId + ":" + razorpayKeySecret).getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Accept", "application/json")
+                .header("Authorization", "Basic " + credentials);
+    }
+
+    private Map<String, Object> call(String operation, HttpRequest request) throws PaymentGatewayException {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            HttpResponse<String> res = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            Map<String, Object> body = parse(res.body());
+            if (res.statusCode() / 100 != 2) {
+                throw new PaymentGatewayException(errorMessage(body, res.statusCode()));
+            }
+            ok = true;
+            return body;
+        } catch (IOException ex) {
+            throw new PaymentGatewayException(ex.getMessage() == null ? "Razorpay request failed" : ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while calling Razorpay", ex);
+        } finally {
+            stats.record(operation, start, ok);
+        }
+    }
+
+    private Map<String, Object> parse(String body) {
+        if (body == null || body.isBlank()) return Map.of();
+        try {
+            Map<String, Object> parsed = GatewayJson.readObject(objectMapper, body);
+            return parsed == null ? Map.of() : parsed;
+        } catch (JacksonException ex) {
+            return Map.of();
+        }
+    }
+
+    private String errorMessage(Map<String, Object> body, int status) {
+        String description = GatewayJson.string(GatewayJson.object(body, "error"), "description");
+        return description == null || description.isBlank() ? "HTTP " + status : description;
+    }
+
+    private GatewayOrder toOrder(Map<String, Object> body) throws PaymentGatewayException {
+        String id = GatewayJson.string(body, "id");
+        if (id == null || id.isBlank()) {
+            throw new PaymentGatewayException("Razorpay response did not include an order id");
+        }
+        GatewayOrder o = new GatewayOrder();
+        o.setId(id);
+        o.setAmountPaise(GatewayJson.number(body, "amount"));
+        o.setCurrency(GatewayJson.string(body, "currency"));
+        o.setReceipt(GatewayJson.string(body, "receipt"));
+        o.setStatus(GatewayJson.string(body, "status"));
+        return o;
+    }
+}
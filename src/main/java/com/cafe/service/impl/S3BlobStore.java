@@ -0,0 +1,190 @@
+package com.cafe.service.impl;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.cafe.service.BlobStore;
+
+/**
+ * Blob store backed by any S3-compatible endpoint (AWS, MinIO, LocalStack) using
+ * path-style URLs and SigV4 request signing, so no SDK dependency is needed.
+ */
+@Service
+@ConditionalOnProperty(name = "cafe.blobs.store", havingValue = "s3")
+public class S3BlobStore implements BlobStore {
+
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private static final String SIGNED_HEADERS = "host;x-amz-content-sha256;x-amz-date";
+
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Value("${cafe.blobs.s3.endpoint:http://localhost:9000}")
+    private String endpoint;
+
+    @Value("${cafe.blobs.s3.bucket:cafe-documents}")
+    private String bucket;
+
+    @Value("${cafe.blobs.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${cafe.blobs.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${cafe.blobs.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${cafe.blobs.s3.prefix:documents/}")
+    private String prefix;
+
+    @Value("${cafe.blobs.s3.request-timeout-ms:60000}")
+    private long requestTimeoutMs;
+
+    @Override
+    public String put(InputStream content) throws IOException {
+        BlobSpool spool = BlobSpool.spool(content, Path.of(System.getProperty("java.io.tmpdir"), "cafe-blobs"));
+        try {
+            if (exists(spool.sha256)) {
+                return spool.sha256;
+            }
+            // The content key is the payload hash, which is exactly what SigV4 wants to sign.
+            HttpRequest request = signed("PUT", spool.sha256, spool.sha256)
+                    .PUT(HttpRequest.BodyPublishers.ofFile(spool.file))
+                    .build();
+            HttpResponse<Void> res = send(request, HttpResponse.BodyHandlers.discarding());
+            if (res.statusCode() / 100 != 2) {
+                throw new IOException("S3 PUT failed with status " + res.statusCode());
+            }
+            return spool.sha256;
+        } finally {
+            spool.discard();
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        HttpRequest request = signed("GET", key, EMPTY_SHA256).GET().build();
+        HttpResponse<InputStream> res = send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (res.statusCode() == 404) {
+            res.body().close();
+            throw new FileNotFoundException("Blob not found: " + key);
+        }
+        if (res.statusCode() / 100 != 2) {
+            res.body().close();
+            throw new IOException("S3 GET failed with status " + res.statusCode());
+        }
+        return res.body();
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        HttpRequest request = signed("HEAD", key, EMPTY_SHA256)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<Void> res = send(request, HttpResponse.BodyHandlers.discarding());
+        if (res.statusCode() == 404) return false;
+        if (res.statusCode() / 100 != 2) {
+            throw new IOException("S3 HEAD failed with status " + res.statusCode());
+        }
+        return true;
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling blob store", ex);
+        }
+    }
+
+    private HttpRequest.Builder signed(String method, String key, String payloadSha256) {
+        if (!BlobSpool.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid blob key");
+        }
+        String base = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        String path = "/" + bucket + "/" + prefix + key;
+        URI uri = URI.create(base + path);
+
+        String amzDate = AMZ_DATE.format(ZonedDateTime.now(ZoneOffset.UTC));
+        String date = amzDate.substring(0, 8);
+        String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String canonicalRequest = canonicalRequest(method, uri.getRawPath(), "", host, payloadSha256, amzDate);
+        String signature = hex(hmac(signingKey(secretKey, date, region, "s3"), stringToSign(amzDate, scope, canonicalRequest)));
+
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("x-amz-content-sha256", payloadSha256)
+                .header("x-amz-date", amzDate)
+                .header("Authorization", "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                        + ", SignedHeaders=" + SIGNED_HEADERS + ", Signature=" + signature);
+    }
+
+    // Signs host, x-amz-content-sha256 and x-amz-date only; the query must already be in canonical form.
+    static String canonicalRequest(String method, String rawPath, String canonicalQuery, String host,
+                                   String payloadSha256, String amzDate) {
+        return method + "\n"
+                + rawPath + "\n"
+                + canonicalQuery + "\n"
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + payloadSha256 + "\n"
+                + "x-amz-date:" + amzDate + "\n"
+                + "\n"
+                + SIGNED_HEADERS + "\n"
+                + payloadSha256;
+    }
+
+    static String stringToSign(String amzDate, String scope, String canonicalRequest) {
+        return "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n" + hex(sha256(canonicalRequest));
+    }
+
+    static byte[] signingKey(String secretKey, String date, String region, String service) {
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        key = hmac(key, region);
+        key = hmac(key, service);
+        return hmac(key, "aws4_request");
+    }
+
+    private static byte[] sha256(String value) {
+        return BlobSpool.sha256().digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static byte[] hmac(byte[] key, String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to sign blob store request", ex);
+        }
+    }
+
+    static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
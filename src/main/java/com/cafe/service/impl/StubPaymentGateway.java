@@ -0,0 +1,123 @@
+package com.cafe.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.cafe.dto.GatewayOrder;
+import com.cafe.dto.PaymentGatewayStats;
+import com.cafe.exception.PaymentGatewayException;
+import com.cafe.service.PaymentGateway;
+
+/**
+ * In-memory gateway for tests and offline load runs. Orders are reported as paid, and payment
+ * and webhook signatures are HMACs under {@code cafe.payments.stub.secret}, so a load driver can
+ * sign its own confirmations and webhook deliveries.
+ */
+@Service
+@ConditionalOnProperty(name = "cafe.payments.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+
+    private static final int MAX_ORDERS = 100_000;
+
+    private final GatewayCallStats stats = new GatewayCallStats("stub");
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<String, GatewayOrder> orders = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GatewayOrder> eldest) {
+            return size() > MAX_ORDERS;
+        }
+    };
+
+    @Value("${cafe.payments.stub.key-id:rzp_test_stub}")
+    private String stubKeyId;
+
+    @Value("${cafe.payments.stub.secret:stub_secret}")
+    private String stubSecret;
+
+    @Value("${cafe.payments.stub.latency-ms:0}")
+    private long latencyMs;
+
+    @Override
+    public String keyId() {
+        return stubKeyId;
+    }
+
+    @Override
+    public String configurationProblem() {
+        return null;
+    }
+
+    @Override
+    public GatewayOrder createOrder(long amountPaise, String currency, String receipt) throws PaymentGatewayException {
+        long start = System.nanoTime();
+        simulateLatency();
+        GatewayOrder o = new GatewayOrder();
+        o.setId("order_stub_" + Long.toString(sequence.incrementAndGet(), 36));
+        o.setAmountPaise(amountPaise);
+        o.setCurrency(currency);
+        o.setReceipt(receipt);
+        o.setStatus("created");
+        synchronized (orders) {
+            orders.put(o.getId(), o);
+        }
+        stats.record("create_order", start, true);
+        return copy(o, "created");
+    }
+
+    @Override
+    public GatewayOrder fetchOrder(String orderId) throws PaymentGatewayException {
+        long start = System.nanoTime();
+        simulateLatency();
+        GatewayOrder o;
+        synchronized (orders) {
+            o = orders.get(orderId);
+        }
+        stats.record("fetch_order", start, o != null);
+        if (o == null) {
+            throw new PaymentGatewayException("The id provided does not exist");
+        }
+        return copy(o, "paid");
+    }
+
+    @Override
+    public boolean verifyPaymentSignature(String orderId, String paymentId, String signature) {
+        return PaymentSignatures.verify(orderId, paymentId, signature, stubSecret);
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        return PaymentSignatures.verifyPayload(payload, signature, stubSecret);
+    }
+
+    @Override
+    public PaymentGatewayStats stats() {
+        return stats.snapshot();
+    }
+
+    private void simulateLatency() throws PaymentGatewayException {
+        if (latencyMs <= 0) return;
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted", ex);
+        }
+    }
+
+    private GatewayOrder copy(GatewayOrder o, String status) {
+        GatewayOrder c = new GatewayOrder();
+        c.setId(o.getId());
+        c.setAmountPaise(o.getAmountPaise());
+        c.setCurrency(o.getCurrency());
+        c.setReceipt(o.getReceipt());
+        c.setStatus(status);
+        return c;
+    }
+}
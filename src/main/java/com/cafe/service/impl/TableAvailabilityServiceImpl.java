@@ -0,0 +1,129 @@
+package com.cafe.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.cafe.entity.CafeBooking;
+import com.cafe.entity.FunctionCapacity;
+import com.cafe.repository.CafeBookingRepository;
+import com.cafe.service.TableAvailabilityService;
+import com.cafe.util.TableLabels;
+
+@Service
+public class TableAvailabilityServiceImpl implements TableAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(TableAvailabilityServiceImpl.class);
+
+    @Autowired
+    private CafeBookingRepository cafeBookingRepository;
+
+    @Override
+    public List<String> findAvailableTables(Long cafeId, FunctionCapacity capacity, String bookingDate, String bookingTime) {
+        List<String> labels = TableLabels.parseDistinctCsv(capacity == null ? null : capacity.getTableLabels());
+        if (labels.isEmpty()) return List.of();
+
+        Map<String, Integer> index = indexOf(labels);
+        BitSet occupied = occupiedTables(cafeId, capacity, index, bookingDate, bookingTime);
+
+        List<String> available = new ArrayList<>(labels.size() - occupied.cardinality());
+        for (int i = occupied.nextClearBit(0); i < labels.size(); i = occupied.nextClearBit(i + 1)) {
+            available.add(labels.get(i));
+        }
+        return available;
+    }
+
+    @Override
+    public String allocateTables(Long cafeId, FunctionCapacity capacity, String bookingDate, String bookingTime, int tablesNeeded, String preferredTablesCsv) {
+        List<String> labels = TableLabels.parseDistinctCsv(capacity == null ? null : capacity.getTableLabels());
+        if (labels.isEmpty()) return null;
+        if (tablesNeeded <= 0) tablesNeeded = 1;
+        if (tablesNeeded > labels.size()) return null;
+
+        Map<String, Integer> index = indexOf(labels);
+        BitSet taken = occupiedTables(cafeId, capacity, index, bookingDate, bookingTime);
+
+        List<String> chosen = new ArrayList<>(tablesNeeded);
+        for (String p : TableLabels.parseDistinctCsv(preferredTablesCsv)) {
+            if (chosen.size() >= tablesNeeded) break;
+            Integer i = index.get(p);
+            if (i == null || taken.get(i)) continue;
+            taken.set(i);
+            chosen.add(p);
+        }
+        for (int i = taken.nextClearBit(0); i < labels.size() && chosen.size() < tablesNeeded; i = taken.nextClearBit(i + 1)) {
+            taken.set(i);
+            chosen.add(labels.get(i));
+        }
+
+        if (chosen.size() != tablesNeeded) return null;
+        return String.join(", ", chosen);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSlotColumns() {
+        try {
+            long lastId = 0L;
+            int updated = 0;
+            while (true) {
+                List<CafeBooking> batch = cafeBookingRepository.findTop500BySlotDateIsNullAndIdGreaterThanOrderByIdAsc(lastId);
+                if (batch == null || batch.isEmpty()) break;
+                List<CafeBooking> changed = new ArrayList<>();
+                for (CafeBooking b : batch) {
+                    lastId = b.getId();
+                    b.syncSlot();
+                    if (b.getSlotDate() != null) changed.add(b);
+                }
+                cafeBookingRepository.saveAll(changed);
+                updated += changed.size();
+            }
+            if (updated > 0) {
+                log.info("availability: backfilled slot columns for {} bookings", updated);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("availability: slot backfill failed: {}", ex.getMessage());
+        }
+    }
+
+    private BitSet occupiedTables(Long cafeId, FunctionCapacity capacity, Map<String, Integer> index, String bookingDate, String bookingTime) {
+        BitSet occupied = new BitSet(index.size());
+        if (capacity == null || capacity.getFunctionType() == null) return occupied;
+
+        String bd = (bookingDate == null || bookingDate.isBlank()) ? null : bookingDate.trim();
+        String bt = (bookingTime == null || bookingTime.isBlank()) ? null : bookingTime.trim();
+        LocalDate slotDate = CafeBooking.parseSlotDate(bd);
+        LocalTime slotTime = CafeBooking.parseSlotTime(bt);
+
+        List<String> allocations = (slotDate != null && slotTime != null)
+                ? cafeBookingRepository.findAllocatedTablesForSlot(cafeId, capacity.getFunctionType(), slotDate, slotTime)
+                : cafeBookingRepository.findAllocatedTablesByText(cafeId, capacity.getFunctionType(), bd, bt);
+        if (allocations == null) return occupied;
+
+        for (String csv : allocations) {
+            for (String t : TableLabels.parseDistinctCsv(csv)) {
+                Integer i = index.get(t);
+                if (i != null) occupied.set(i);
+            }
+        }
+        return occupied;
+    }
+
+    private Map<String, Integer> indexOf(List<String> labels) {
+        Map<String, Integer> index = new HashMap<>(labels.size() * 2);
+        for (int i = 0; i < labels.size(); i++) {
+            index.put(labels.get(i), i);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cafe.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ETags for responses cached in memory, shared by the catalog cache and the menu documents.
+ * Tags carry an id picked at startup because the versions behind them start over on restart.
+ */
+public final class ETags {
+
+    private static final String BOOT_ID = Long.toHexString(ThreadLocalRandom.current().nextLong() & 0xffffffffL);
+
+    private ETags() {
+    }
+
+    public static String of(String version) {
+        return "\"" + BOOT_ID + "-" + version + "\"";
+    }
+
+    /**
+     * True when an If-None-Match header names the tag, either directly, as a weak tag or via "*".
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String part : ifNoneMatch.split(",")) {
+            String t = part.trim();
+            if (t.equals("*")) return true;
+            if (t.startsWith("W/")) t = t.substring(2);
+            if (t.equals(etag)) return true;
+        }
+        return false;
+    }
+}
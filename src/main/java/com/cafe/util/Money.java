@@ -0,0 +1,31 @@
+package com.cafe.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices are stored and summed as whole paise. Rupee doubles only exist at the API edge, where
+ * requests are converted once on the way in and rows are converted once on the way out.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    public static Long toPaise(Double rupees) {
+        if (rupees == null) return null;
+        return BigDecimal.valueOf(rupees).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static Double toRupees(Long paise) {
+        return paise == null ? null : toRupees(paise.longValue());
+    }
+
+    public static double toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2).doubleValue();
+    }
+
+    public static long orZero(Long paise) {
+        return paise == null ? 0L : paise;
+    }
+}
@@ -0,0 +1,35 @@
+package com.cafe.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parsing for the comma separated table labels stored on capacities and bookings, shared by
+ * availability, allocation and the public slot endpoint.
+ */
+public final class TableLabels {
+
+    private TableLabels() {
+    }
+
+    public static List<String> parseDistinctCsv(String raw) {
+        if (raw == null || raw.isBlank()) return List.of();
+        Set<String> out = new LinkedHashSet<>();
+        for (String part : raw.split(",")) {
+            String t = part.trim();
+            if (t.isBlank()) continue;
+            out.add(t);
+        }
+        return new ArrayList<>(out);
+    }
+
+    public static int tablesNeeded(Integer guests, Integer seatsPerTable) {
+        int g = (guests == null ? 0 : guests);
+        if (g <= 0) return 1;
+        int spt = (seatsPerTable == null ? 0 : seatsPerTable);
+        if (spt <= 0) return 1;
+        return (g + spt - 1) / spt;
+    }
+}
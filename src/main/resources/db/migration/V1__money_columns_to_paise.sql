@@ -0,0 +1,26 @@
+-- Rupee double columns become whole paise. Hibernate has already added the *_paise columns
+-- (default 0); copy through numeric so 19.99 lands on 1999, then drop the old NOT NULL column.
+do $$
+declare
+    c record;
+begin
+    for c in
+        select * from (values
+            ('menu_items', 'price', 'price_paise'),
+            ('cafe_order_items', 'price', 'price_paise'),
+            ('cafe_orders', 'total_amount', 'total_amount_paise'),
+            ('analytics_cafe_hourly', 'order_revenue', 'order_revenue_paise'),
+            ('analytics_cafe_hourly', 'paid_revenue', 'paid_revenue_paise'),
+            ('analytics_item_daily', 'total_revenue', 'total_revenue_paise'),
+            ('analytics_item_daily', 'paid_revenue', 'paid_revenue_paise')
+        ) as t(table_name, legacy, paise)
+    loop
+        if exists (select 1 from information_schema.columns
+                   where table_schema = current_schema() and table_name = c.table_name and column_name = c.legacy) then
+            execute format('alter table %I add column if not exists %I bigint not null default 0', c.table_name, c.paise);
+            execute format('update %I set %I = cast(round(cast(%I as numeric) * 100) as bigint) where %I is not null',
+                    c.table_name, c.paise, c.legacy, c.legacy);
+            execute format('alter table %I drop column %I', c.table_name, c.legacy);
+        end if;
+    end loop;
+end $$;
@@ -0,0 +1,28 @@
+-- Status columns are written in upper case by the app; normalise older rows so queries can
+-- compare them directly (and use indexes) instead of wrapping the column in upper().
+update cafe_bookings set status = upper(trim(status)) where status <> upper(trim(status));
+update cafe_bookings set payment_status = upper(trim(payment_status)) where payment_status <> upper(trim(payment_status));
+update cafe_orders set status = upper(trim(status)) where status <> upper(trim(status));
+update cafe_orders set payment_status = upper(trim(payment_status)) where payment_status <> upper(trim(payment_status));
+update payments set status = upper(trim(status)) where status <> upper(trim(status));
+
+-- Enumerated values. NOT VALID enforces them for new writes without failing on historical rows.
+alter table cafe_bookings drop constraint if exists ck_cafe_bookings_status;
+alter table cafe_bookings add constraint ck_cafe_bookings_status
+    check (status in ('PENDING', 'APPROVED', 'DENIED', 'DENIED_WITH_REFUND')) not valid;
+
+alter table cafe_bookings drop constraint if exists ck_cafe_bookings_payment_status;
+alter table cafe_bookings add constraint ck_cafe_bookings_payment_status
+    check (payment_status in ('UNPAID', 'PAID', 'FAILED')) not valid;
+
+alter table cafe_orders drop constraint if exists ck_cafe_orders_status;
+alter table cafe_orders add constraint ck_cafe_orders_status
+    check (status in ('PLACED', 'PREPARING', 'READY', 'SERVED')) not valid;
+
+alter table cafe_orders drop constraint if exists ck_cafe_orders_payment_status;
+alter table cafe_orders add constraint ck_cafe_orders_payment_status
+    check (payment_status in ('UNPAID', 'PAID', 'FAILED', 'REVIEW')) not valid;
+
+alter table payments drop constraint if exists ck_payments_status;
+alter table payments add constraint ck_payments_status
+    check (status in ('CREATED', 'VERIFIED', 'PAID', 'FAILED', 'MISMATCH')) not valid;
@@ -0,0 +1,39 @@
+-- One index per hot lookup in CafeBookingRepository, CafeOrderRepository and PaymentRepository.
+-- Keyset pages walk (created_at desc, id desc), so those indexes carry both columns in that order.
+
+create index if not exists idx_cafe_bookings_cafe_created
+    on cafe_bookings (cafe_id, created_at desc, id desc);
+create index if not exists idx_cafe_bookings_customer_created
+    on cafe_bookings (customer_username, created_at desc, id desc);
+create index if not exists idx_cafe_bookings_phone_created
+    on cafe_bookings (customer_phone, created_at desc);
+create index if not exists idx_cafe_bookings_cafe_payment_status
+    on cafe_bookings (cafe_id, payment_status);
+create index if not exists idx_cafe_bookings_slot_pending
+    on cafe_bookings (id) where slot_date is null;
+
+create index if not exists idx_cafe_orders_cafe_created
+    on cafe_orders (cafe_id, created_at desc, id desc);
+create index if not exists idx_cafe_orders_customer_created
+    on cafe_orders (customer_username, created_at desc, id desc);
+create index if not exists idx_cafe_orders_phone_created
+    on cafe_orders (customer_phone, created_at desc);
+create index if not exists idx_cafe_orders_booking
+    on cafe_orders (booking_id);
+create index if not exists idx_cafe_orders_unnumbered
+    on cafe_orders (created_at, id) where order_number is null;
+
+create index if not exists idx_cafe_order_items_order
+    on cafe_order_items (order_id);
+
+create index if not exists idx_payments_order_created
+    on payments (order_id, created_at desc);
+create index if not exists idx_payments_razorpay_order
+    on payments (razorpay_order_id);
+create index if not exists idx_payments_status_id
+    on payments (status, id);
+
+analyze cafe_bookings;
+analyze cafe_orders;
+analyze cafe_order_items;
+analyze payments;
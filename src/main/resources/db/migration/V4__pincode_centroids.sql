@@ -0,0 +1,62 @@
+-- Cafe coordinates plus an offline pincode -> centroid table used to backfill them.
+-- The rows below cover the main city GPO pincodes; load the full India Post directory into the
+-- same table (pincode, latitude, longitude) for finer placement, then rerun the update at the end.
+alter table cafes add column if not exists latitude double precision;
+alter table cafes add column if not exists longitude double precision;
+
+create table if not exists pincode_centroids (
+    pincode varchar(6) primary key,
+    latitude double precision not null,
+    longitude double precision not null
+);
+
+insert into pincode_centroids (pincode, latitude, longitude) values
+    ('110001', 28.6304, 77.2177),
+    ('122001', 28.4595, 77.0266),
+    ('141001', 30.9010, 75.8573),
+    ('143001', 31.6340, 74.8723),
+    ('160017', 30.7333, 76.7794),
+    ('180001', 32.7266, 74.8570),
+    ('190001', 34.0837, 74.7973),
+    ('201301', 28.5355, 77.3910),
+    ('208001', 26.4499, 80.3319),
+    ('221001', 25.3176, 82.9739),
+    ('226001', 26.8467, 80.9462),
+    ('248001', 30.3165, 78.0322),
+    ('282001', 27.1767, 78.0081),
+    ('302001', 26.9124, 75.7873),
+    ('380001', 23.0225, 72.5714),
+    ('390001', 22.3072, 73.1812),
+    ('395001', 21.1702, 72.8311),
+    ('400001', 18.9388, 72.8354),
+    ('400601', 19.2183, 72.9781),
+    ('400703', 19.0771, 72.9986),
+    ('403001', 15.4909, 73.8278),
+    ('411001', 18.5204, 73.8567),
+    ('422001', 19.9975, 73.7898),
+    ('440001', 21.1458, 79.0882),
+    ('452001', 22.7196, 75.8577),
+    ('462001', 23.2599, 77.4126),
+    ('492001', 21.2514, 81.6296),
+    ('500001', 17.3850, 78.4867),
+    ('520001', 16.5062, 80.6480),
+    ('530001', 17.6868, 83.2185),
+    ('560001', 12.9716, 77.5946),
+    ('570001', 12.2958, 76.6394),
+    ('575001', 12.9141, 74.8560),
+    ('600001', 13.0878, 80.2785),
+    ('625001', 9.9252, 78.1198),
+    ('641001', 11.0168, 76.9558),
+    ('682001', 9.9312, 76.2673),
+    ('695001', 8.5241, 76.9366),
+    ('700001', 22.5726, 88.3639),
+    ('751001', 20.2961, 85.8245),
+    ('781001', 26.1445, 91.7362),
+    ('800001', 25.5941, 85.1376),
+    ('834001', 23.3441, 85.3096)
+on conflict (pincode) do nothing;
+
+update cafes c
+set latitude = p.latitude, longitude = p.longitude
+from pincode_centroids p
+where c.latitude is null and c.longitude is null and p.pincode = trim(c.pincode);
@@ -0,0 +1,3 @@
+-- Mail bodies can carry temporary passwords. The dispatcher now clears them when a row fails,
+-- as it already did on send; scrub rows that failed before that change.
+update email_outbox set body = null where status = 'FAILED' and body is not null;
@@ -0,0 +1,5 @@
+-- The reconcile sweep marks VERIFIED payments it has given up on as STALE (PaymentRepository.markStale).
+-- NOT VALID from V2 still checks every new write, so the value has to be allowed explicitly.
+alter table payments drop constraint if exists ck_payments_status;
+alter table payments add constraint ck_payments_status
+    check (status in ('CREATED', 'VERIFIED', 'PAID', 'FAILED', 'MISMATCH', 'STALE')) not valid;
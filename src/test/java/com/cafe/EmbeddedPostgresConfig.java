@@ -0,0 +1,28 @@
+package com.cafe;
+
+import java.io.IOException;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * A throwaway PostgreSQL for tests that need the real dialect, large objects or the check
+ * constraints from the Flyway migrations.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedPostgresConfig {
+
+    @Bean(destroyMethod = "close")
+    EmbeddedPostgres embeddedPostgres() throws IOException {
+        return EmbeddedPostgres.start();
+    }
+
+    @Bean
+    DataSource dataSource(EmbeddedPostgres postgres) {
+        return postgres.getPostgresDatabase();
+    }
+}
@@ -0,0 +1,89 @@
+package com.cafe.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class PageQueryTest {
+
+    @Test
+    void cursorRoundTripsCreatedAtAndId() {
+        PageQuery page = new PageQuery();
+        page.setCursor(PageQuery.cursorOf(1700000000123L, 42L));
+
+        assertThat(page.getCursor()).isEqualTo("1700000000123:42");
+        assertThat(page.cursorCreatedAt()).isEqualTo(1700000000123L);
+        assertThat(page.cursorId()).isEqualTo(42L);
+    }
+
+    @Test
+    void cursorOfTreatsMissingCreatedAtAsZero() {
+        assertThat(PageQuery.cursorOf(null, 7L)).isEqualTo("0:7");
+    }
+
+    @Test
+    void bareIdCursorLeavesCreatedAtUnbounded() {
+        PageQuery page = new PageQuery();
+        page.setCursor(" 99 ");
+
+        assertThat(page.cursorId()).isEqualTo(99L);
+        assertThat(page.cursorCreatedAt()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void missingOrMalformedCursorStartsFromTheTop() {
+        PageQuery page = new PageQuery();
+        assertThat(page.cursorId()).isEqualTo(Long.MAX_VALUE);
+        assertThat(page.cursorCreatedAt()).isEqualTo(Long.MAX_VALUE);
+
+        page.setCursor("abc:def");
+        assertThat(page.cursorId()).isEqualTo(Long.MAX_VALUE);
+        assertThat(page.cursorCreatedAt()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void limitDefaultsAndIsCapped() {
+        PageQuery page = new PageQuery();
+        assertThat(page.resolvedLimit()).isEqualTo(PageQuery.DEFAULT_LIMIT);
+
+        page.setLimit(0);
+        assertThat(page.resolvedLimit()).isEqualTo(PageQuery.DEFAULT_LIMIT);
+
+        page.setLimit(10_000);
+        assertThat(page.resolvedLimit()).isEqualTo(PageQuery.MAX_LIMIT);
+
+        page.setLimit(5);
+        assertThat(page.pageable().getPageSize()).isEqualTo(6);
+    }
+
+    @Test
+    void trimDropsTheLookAheadRow() {
+        PageQuery page = new PageQuery();
+        page.setLimit(3);
+
+        List<Integer> full = IntStream.range(0, 4).boxed().toList();
+        assertThat(page.hasMore(full)).isTrue();
+        assertThat(page.trim(full)).containsExactly(0, 1, 2);
+
+        List<Integer> last = List.of(0, 1);
+        assertThat(page.hasMore(last)).isFalse();
+        assertThat(page.trim(last)).containsExactly(0, 1);
+
+        assertThat(page.hasMore(null)).isFalse();
+        assertThat(page.trim(null)).isEmpty();
+    }
+
+    @Test
+    void statusAndRangeDefaults() {
+        PageQuery page = new PageQuery();
+        assertThat(page.statusOrBlank()).isEmpty();
+        assertThat(page.fromOrMin()).isEqualTo(Long.MIN_VALUE);
+        assertThat(page.toOrMax()).isEqualTo(Long.MAX_VALUE);
+
+        page.setStatus(" placed ");
+        assertThat(page.statusOrBlank()).isEqualTo("PLACED");
+    }
+}
@@ -0,0 +1,74 @@
+package com.cafe.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.cafe.EmbeddedPostgresConfig;
+import com.cafe.config.FlywayConfig;
+import com.cafe.entity.Cafe;
+import com.cafe.entity.CafeOrder;
+import com.cafe.entity.Payment;
+import com.cafe.entity.User;
+
+/**
+ * Runs against a real PostgreSQL with the Flyway migrations applied, so the status check
+ * constraints are the ones production has.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FlywayConfig.class, EmbeddedPostgresConfig.class})
+class PaymentRepositoryTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void markStaleMovesOldVerifiedPaymentsPastTheStatusConstraint() {
+        CafeOrder order = order();
+        Payment old = payment(order, "VERIFIED", 1_000L);
+        Payment recent = payment(order, "VERIFIED", 5_000L);
+        Payment paid = payment(order, "PAID", 1_000L);
+
+        assertThat(paymentRepository.markStale(2_000L)).isEqualTo(1);
+
+        em.clear();
+        assertThat(em.find(Payment.class, old.getId()).getStatus()).isEqualTo("STALE");
+        assertThat(em.find(Payment.class, recent.getId()).getStatus()).isEqualTo("VERIFIED");
+        assertThat(em.find(Payment.class, paid.getId()).getStatus()).isEqualTo("PAID");
+    }
+
+    private CafeOrder order() {
+        User owner = new User();
+        owner.setUsername("owner");
+        em.persist(owner);
+
+        Cafe cafe = new Cafe();
+        cafe.setCafeName("Cafe");
+        cafe.setOwner(owner);
+        em.persist(cafe);
+
+        CafeOrder order = new CafeOrder();
+        order.setCafe(cafe);
+        order.setCustomerName("Customer");
+        order.setCustomerPhone("9999999999");
+        return em.persist(order);
+    }
+
+    private Payment payment(CafeOrder order, String status, long createdAt) {
+        Payment p = new Payment();
+        p.setOrder(order);
+        p.setAmountPaise(25000L);
+        p.setStatus(status);
+        p.setCreatedAt(createdAt);
+        return em.persistAndFlush(p);
+    }
+}
@@ -0,0 +1,136 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cafe.dto.NearbyCafeRow;
+import com.cafe.entity.ApprovalStatus;
+import com.cafe.entity.FunctionType;
+import com.cafe.repository.CafeRepository;
+import com.cafe.repository.FunctionCapacityRepository;
+import com.cafe.repository.PincodeCentroidRepository;
+
+class CafeLocationServiceImplTest {
+
+    // Kilometres per degree of latitude on the mean-radius sphere.
+    private static final double KM_PER_LAT_DEGREE = 111.1951;
+
+    private CafeRepository cafeRepository;
+    private FunctionCapacityRepository functionCapacityRepository;
+    private CafeLocationServiceImpl service;
+
+    private final List<Object[]> cafes = new ArrayList<>();
+    private final List<Object[]> functionTypes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cafeRepository = mock(CafeRepository.class);
+        functionCapacityRepository = mock(FunctionCapacityRepository.class);
+        when(cafeRepository.findLocatedRows(ApprovalStatus.APPROVED)).thenReturn(cafes);
+        when(functionCapacityRepository.findEnabledFunctionTypes()).thenReturn(functionTypes);
+
+        service = new CafeLocationServiceImpl();
+        ReflectionTestUtils.setField(service, "cafeRepository", cafeRepository);
+        ReflectionTestUtils.setField(service, "functionCapacityRepository", functionCapacityRepository);
+        ReflectionTestUtils.setField(service, "pincodeCentroidRepository", mock(PincodeCentroidRepository.class));
+        ReflectionTestUtils.setField(service, "cellDegrees", 0.05);
+        ReflectionTestUtils.setField(service, "geoZone", "Asia/Kolkata");
+    }
+
+    @Test
+    void haversineMatchesOneDegreeOnTheMeanSphere() {
+        assertThat(CafeLocationServiceImpl.haversineKm(0, 0, 1, 0)).isCloseTo(KM_PER_LAT_DEGREE, within(0.001));
+        assertThat(CafeLocationServiceImpl.haversineKm(0, 0, 0, 1)).isCloseTo(KM_PER_LAT_DEGREE, within(0.001));
+        assertThat(CafeLocationServiceImpl.haversineKm(60, 10, 60, 11)).isCloseTo(KM_PER_LAT_DEGREE / 2, within(0.01));
+    }
+
+    @Test
+    void nearestLooksPastTheEdgeOfTheQueryCell() {
+        // 12.0499 sits at the top of its 0.05-degree cell; the closest cafe is just over the boundary.
+        cafe(1L, 12.0010, 77.5000);
+        cafe(2L, 12.0501, 77.5000);
+
+        List<NearbyCafeRow> rows = service.nearby(12.0499, 77.5000, null, 1, false, null);
+
+        assertThat(rows).extracting(NearbyCafeRow::getId).containsExactly(2L);
+        assertThat(rows.get(0).getDistanceKm()).isEqualTo(0.02);
+    }
+
+    @Test
+    void radiusIsAHardCutoff() {
+        cafe(1L, 19.0 + 1.9 / KM_PER_LAT_DEGREE, 72.8);
+        cafe(2L, 19.0 - 2.1 / KM_PER_LAT_DEGREE, 72.8);
+        cafe(3L, 19.0, 72.8 + 1.5 / (KM_PER_LAT_DEGREE * Math.cos(Math.toRadians(19.0))));
+
+        List<NearbyCafeRow> rows = service.nearby(19.0, 72.8, 2.0, 10, false, null);
+
+        assertThat(rows).extracting(NearbyCafeRow::getId).containsExactly(3L, 1L);
+        assertThat(rows).extracting(NearbyCafeRow::getDistanceKm).containsExactly(1.5, 1.9);
+    }
+
+    @Test
+    void gridAnswersMatchABruteForceScan() {
+        Random random = new Random(42);
+        for (long id = 1; id <= 400; id++) {
+            cafe(id, 18.9 + random.nextDouble() * 0.4, 72.7 + random.nextDouble() * 0.4);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 18.85 + random.nextDouble() * 0.5;
+            double lng = 72.65 + random.nextDouble() * 0.5;
+
+            assertThat(ids(service.nearby(lat, lng, null, 5, false, null))).isEqualTo(bruteForce(lat, lng, Double.MAX_VALUE, 5));
+            assertThat(ids(service.nearby(lat, lng, 3.0, 50, false, null))).isEqualTo(bruteForce(lat, lng, 3.0, 50));
+        }
+    }
+
+    @Test
+    void functionTypeFilterSkipsCafesWithoutIt() {
+        cafe(1L, 12.97, 77.59);
+        cafe(2L, 12.98, 77.59);
+        functionTypes.add(new Object[] { 2L, FunctionType.BIRTHDAY });
+
+        assertThat(ids(service.nearby(12.97, 77.59, null, 5, false, FunctionType.BIRTHDAY))).containsExactly(2L);
+        assertThat(ids(service.nearby(12.97, 77.59, 5.0, 5, false, FunctionType.CORPORATE))).isEmpty();
+    }
+
+    @Test
+    void writesAreSeenAfterInvalidate() {
+        cafe(1L, 12.97, 77.59);
+        assertThat(ids(service.nearby(12.97, 77.59, null, 5, false, null))).containsExactly(1L);
+
+        cafe(2L, 12.9701, 77.59);
+        assertThat(ids(service.nearby(12.97, 77.59, null, 5, false, null))).containsExactly(1L);
+
+        service.invalidate();
+        assertThat(ids(service.nearby(12.97, 77.59, null, 5, false, null))).containsExactly(1L, 2L);
+    }
+
+    private void cafe(Long id, double latitude, double longitude) {
+        cafes.add(new Object[] { id, "Cafe " + id, "City", "State", latitude, longitude, "08:00", "22:00" });
+    }
+
+    private static List<Long> ids(List<NearbyCafeRow> rows) {
+        return rows.stream().map(NearbyCafeRow::getId).toList();
+    }
+
+    private List<Long> bruteForce(double lat, double lng, double radiusKm, int limit) {
+        return cafes.stream()
+                .filter(c -> CafeLocationServiceImpl.haversineKm(lat, lng, (Double) c[4], (Double) c[5]) <= radiusKm)
+                .sorted(Comparator.comparingDouble(c -> CafeLocationServiceImpl.haversineKm(lat, lng, (Double) c[4], (Double) c[5])))
+                .limit(limit)
+                .map(c -> (Long) c[0])
+                .toList();
+    }
+}
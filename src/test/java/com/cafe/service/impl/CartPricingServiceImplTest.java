@@ -0,0 +1,96 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cafe.dto.CafeOrderItemRequest;
+import com.cafe.dto.CartQuote;
+import com.cafe.entity.CafeOrderItem;
+import com.cafe.repository.MenuItemRepository;
+
+class CartPricingServiceImplTest {
+
+    private MenuItemRepository menuItemRepository;
+    private CartPricingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        menuItemRepository = mock(MenuItemRepository.class);
+        // Cafe 1 serves items 10 (Rs 120.50), 11 (Rs 45) and an unavailable 12; item 20 belongs to another cafe.
+        when(menuItemRepository.findPricingRows(eq(1L), any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(1);
+            List<Object[]> rows = new ArrayList<>();
+            if (ids.contains(10L)) rows.add(new Object[] { 10L, "Paneer Roll", 12050L, true });
+            if (ids.contains(11L)) rows.add(new Object[] { 11L, "Masala Chai", 4500L, true });
+            if (ids.contains(12L)) rows.add(new Object[] { 12L, "Cold Brew", 18000L, false });
+            return rows;
+        });
+
+        service = new CartPricingServiceImpl();
+        ReflectionTestUtils.setField(service, "menuItemRepository", menuItemRepository);
+    }
+
+    @Test
+    void sumsWholePaiseFromOneQuery() {
+        CartQuote quote = service.price(1L, List.of(line(10L, 3), line(11L, 2), line(10L, 1)));
+
+        assertThat(quote.getError()).isNull();
+        assertThat(quote.getAmountPaise()).isEqualTo(3 * 12050L + 2 * 4500L + 12050L);
+        assertThat(quote.getItems()).extracting(CafeOrderItem::getItemName)
+                .containsExactly("Paneer Roll", "Masala Chai", "Paneer Roll");
+        assertThat(quote.getItems()).extracting(CafeOrderItem::getPricePaise).containsExactly(12050L, 4500L, 12050L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(menuItemRepository, times(1)).findPricingRows(eq(1L), ids.capture());
+        assertThat(ids.getValue()).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void itemsFromAnotherCafeAreRejected() {
+        CartQuote quote = service.price(1L, List.of(line(10L, 1), line(20L, 1)));
+
+        assertThat(quote.getError()).isEqualTo("Invalid or unavailable menu item");
+        assertThat(quote.getAmountPaise()).isZero();
+        assertThat(quote.getItems()).isEmpty();
+    }
+
+    @Test
+    void unavailableItemsAreRejected() {
+        assertThat(service.price(1L, List.of(line(12L, 1))).getError()).isEqualTo("Invalid or unavailable menu item");
+    }
+
+    @Test
+    void badLinesAreRejectedBeforeQuerying() {
+        assertThat(service.price(1L, List.of()).getError()).isEqualTo("Cart is empty");
+        assertThat(service.price(1L, null).getError()).isEqualTo("Cart is empty");
+        assertThat(service.price(1L, List.of(line(10L, 0))).getError()).isEqualTo("Invalid quantity");
+        assertThat(service.price(1L, List.of(line(null, 1))).getError()).isEqualTo("Invalid or unavailable menu item");
+        assertThat(service.price(null, List.of(line(10L, 1))).getError()).isEqualTo("Invalid or unavailable menu item");
+
+        verify(menuItemRepository, never()).findPricingRows(anyLong(), any());
+    }
+
+    private static CafeOrderItemRequest line(Long menuItemId, Integer qty) {
+        CafeOrderItemRequest r = new CafeOrderItemRequest();
+        r.setMenuItemId(menuItemId);
+        r.setQty(qty);
+        return r;
+    }
+}
@@ -0,0 +1,123 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cafe.dto.CatalogSearchHitRow;
+import com.cafe.entity.ApprovalStatus;
+import com.cafe.repository.CafeRepository;
+import com.cafe.repository.MenuItemRepository;
+
+class CatalogSearchServiceImplTest {
+
+    private static final Object[] BREW = { 1L, "Brew Coffee", "Pune", null, ApprovalStatus.APPROVED, true };
+    private static final Object[] CORNER = { 2L, "Coffee Corner", "Pune", null, ApprovalStatus.PENDING, true };
+
+    private static final List<Object[]> BREW_ITEMS = List.of(
+            item(10L, 1L, "Cold Coffee", "Beverages", null, true),
+            item(11L, 1L, "Coffeehouse Muffin", "Bakery", null, true),
+            item(12L, 1L, "Masala Chai", "Beverages", "Pairs well with coffee", true),
+            item(13L, 1L, "Iced Coffee", "Beverages", null, false));
+
+    private CafeRepository cafeRepository;
+    private MenuItemRepository menuItemRepository;
+    private CatalogSearchServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        cafeRepository = mock(CafeRepository.class);
+        menuItemRepository = mock(MenuItemRepository.class);
+        when(cafeRepository.findSearchRows()).thenReturn(List.of(BREW, CORNER));
+        when(menuItemRepository.findSearchRows()).thenReturn(BREW_ITEMS);
+
+        service = new CatalogSearchServiceImpl();
+        ReflectionTestUtils.setField(service, "cafeRepository", cafeRepository);
+        ReflectionTestUtils.setField(service, "menuItemRepository", menuItemRepository);
+    }
+
+    @Test
+    void editDistanceCountsAdjacentSwapsAsOneEdit() {
+        assertThat(CatalogSearchServiceImpl.editDistance("coffee", "coffee", 2)).isZero();
+        assertThat(CatalogSearchServiceImpl.editDistance("cofee", "coffee", 2)).isEqualTo(1);
+        assertThat(CatalogSearchServiceImpl.editDistance("chai", "hcai", 2)).isEqualTo(1);
+        assertThat(CatalogSearchServiceImpl.editDistance("kitten", "sitting", 5)).isEqualTo(3);
+    }
+
+    @Test
+    void editDistanceStopsOnceItPassesTheLimit() {
+        assertThat(CatalogSearchServiceImpl.editDistance("kitten", "sitting", 1)).isEqualTo(2);
+        assertThat(CatalogSearchServiceImpl.editDistance("tea", "teacake", 2)).isEqualTo(3);
+        assertThat(CatalogSearchServiceImpl.editDistance("abcd", "wxyz", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void tokenizeLowercasesSplitsAndDropsSingleCharacters() {
+        assertThat(CatalogSearchServiceImpl.tokenize("Caf\u00e9-Latte, a 2x SHOT")).containsExactly("caf\u00e9", "latte", "2x", "shot");
+        assertThat(CatalogSearchServiceImpl.tokenize("  ")).isEmpty();
+    }
+
+    @Test
+    void namesOutrankPrefixesWhichOutrankDescriptions() {
+        List<CatalogSearchHitRow> hits = service.search("coffee", null, null, 10);
+
+        assertThat(hits).extracting(CatalogSearchHitRow::getName)
+                .containsExactly("Brew Coffee", "Cold Coffee", "Coffeehouse Muffin", "Masala Chai");
+        assertThat(hits).extracting(CatalogSearchHitRow::getScore).containsExactly(12, 12, 6, 4);
+        assertThat(hits.get(0).getType()).isEqualTo("CAFE");
+        assertThat(hits.get(1).getType()).isEqualTo("MENU_ITEM");
+    }
+
+    @Test
+    void typosMatchWithinTheEditBudgetButKeepTheFirstLetter() {
+        assertThat(service.search("cofee", null, null, 10)).extracting(CatalogSearchHitRow::getName)
+                .containsExactly("Brew Coffee", "Cold Coffee", "Coffeehouse Muffin", "Masala Chai");
+        assertThat(service.search("koffee", null, null, 10)).isEmpty();
+        assertThat(service.search("cfe", null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void everyQueryTokenMustMatch() {
+        assertThat(service.search("cold coffee", null, null, 10)).extracting(CatalogSearchHitRow::getName)
+                .containsExactly("Cold Coffee");
+    }
+
+    @Test
+    void filtersByCategoryAndCityAndHonoursTheLimit() {
+        assertThat(service.search(null, null, "beverages", 10)).extracting(CatalogSearchHitRow::getName)
+                .containsExactlyInAnyOrder("Cold Coffee", "Masala Chai");
+        assertThat(service.search("coffee", "Mumbai", null, 10)).isEmpty();
+        assertThat(service.search("coffee", null, null, 2)).hasSize(2);
+    }
+
+    @Test
+    void changeDuringARebuildIsReappliedAfterTheSwap() {
+        service.rebuild();
+
+        Object[] latte = item(10L, 1L, "Hazelnut Latte", "Beverages", null, true);
+        when(menuItemRepository.findSearchRowsByCafeId(1L)).thenReturn(List.<Object[]>of(latte));
+        when(cafeRepository.findSearchRowsById(1L)).thenReturn(List.<Object[]>of(BREW));
+        when(menuItemRepository.findSearchRows()).thenAnswer(inv -> {
+            // The item is renamed after the rebuild read its rows, and a search applies the change to the old index.
+            service.reindexCafe(1L);
+            service.search("latte", null, null, 10);
+            return BREW_ITEMS;
+        });
+
+        service.rebuild();
+
+        assertThat(service.search("latte", null, null, 10)).extracting(CatalogSearchHitRow::getName)
+                .containsExactly("Hazelnut Latte");
+        assertThat(service.search("cold", null, null, 10)).isEmpty();
+    }
+
+    private static Object[] item(Long id, Long cafeId, String name, String category, String description, boolean available) {
+        return new Object[] { id, cafeId, name, category, description, 15000L, available };
+    }
+}
@@ -0,0 +1,62 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.cafe.EmbeddedPostgresConfig;
+import com.cafe.entity.Document;
+import com.cafe.service.BlobStore;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EmbeddedPostgresConfig.class, DocumentBlobBackfill.class})
+class DocumentBlobBackfillTest {
+
+    private static final String KEY = "a".repeat(64);
+
+    @Autowired
+    private DocumentBlobBackfill backfill;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockitoBean
+    private BlobStore blobStore;
+
+    @Test
+    void movesInlineBytesAndUnlinksTheLargeObject() throws Exception {
+        when(blobStore.put(any())).thenReturn(KEY);
+        Document d = new Document();
+        d.setDocumentName("aadhar.pdf");
+        d.setData("%PDF-1.4".getBytes(StandardCharsets.US_ASCII));
+        Long id = em.persistAndFlush(d).getId();
+        em.clear();
+        assertThat(largeObjects()).isEqualTo(1L);
+
+        backfill.backfillOnStartup();
+        em.flush();
+        em.clear();
+
+        Document moved = em.find(Document.class, id);
+        assertThat(moved.getBlobKey()).isEqualTo(KEY);
+        assertThat(moved.getData()).isNull();
+        assertThat(largeObjects()).isZero();
+    }
+
+    private long largeObjects() {
+        return ((Number) em.getEntityManager()
+                .createNativeQuery("select count(*) from pg_largeobject_metadata")
+                .getSingleResult()).longValue();
+    }
+}
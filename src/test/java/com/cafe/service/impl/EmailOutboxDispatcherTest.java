@@ -0,0 +1,110 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cafe.entity.EmailOutbox;
+import com.cafe.repository.EmailOutboxRepository;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+class EmailOutboxDispatcherTest {
+
+    private EmailOutboxRepository repository;
+    private JavaMailSender mailSender;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+        mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(inv -> new MimeMessage((Session) null));
+
+        dispatcher = new EmailOutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "emailOutboxRepository", repository);
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "");
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 20);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 60000L);
+    }
+
+    @Test
+    void sentMailDropsItsBody() {
+        EmailOutbox mail = mail("owner@example.com", 0);
+        when(repository.claimDue(anyLong(), anyInt())).thenReturn(List.of(mail));
+
+        dispatcher.dispatch();
+
+        assertThat(mail.getStatus()).isEqualTo(EmailOutbox.SENT);
+        assertThat(mail.getBody()).isNull();
+        assertThat(mail.getSentAt()).isNotNull();
+    }
+
+    @Test
+    void transientFailureKeepsBodyForTheRetry() {
+        EmailOutbox mail = mail("owner@example.com", 0);
+        when(repository.claimDue(anyLong(), anyInt())).thenReturn(List.of(mail));
+        doThrow(new MailSendException("smtp down")).when(mailSender).send(any(MimeMessage[].class));
+
+        long before = System.currentTimeMillis();
+        dispatcher.dispatch();
+
+        assertThat(mail.getStatus()).isEqualTo(EmailOutbox.PENDING);
+        assertThat(mail.getAttempts()).isEqualTo(1);
+        assertThat(mail.getBody()).isNotNull();
+        assertThat(mail.getNextAttemptAt()).isGreaterThanOrEqualTo(before + 1000L);
+    }
+
+    @Test
+    void lastAttemptFailsTheRowAndClearsTheBody() {
+        EmailOutbox mail = mail("owner@example.com", 2);
+        when(repository.claimDue(anyLong(), anyInt())).thenReturn(List.of(mail));
+        doThrow(new MailSendException("smtp down")).when(mailSender).send(any(MimeMessage[].class));
+
+        dispatcher.dispatch();
+
+        assertThat(mail.getStatus()).isEqualTo(EmailOutbox.FAILED);
+        assertThat(mail.getAttempts()).isEqualTo(3);
+        assertThat(mail.getBody()).isNull();
+        assertThat(mail.getLastError()).contains("smtp down");
+    }
+
+    @Test
+    void undeliverableMailFailsAtOnceAndClearsTheBody() {
+        EmailOutbox mail = mail(null, 0);
+        when(repository.claimDue(anyLong(), anyInt())).thenReturn(List.of(mail));
+
+        dispatcher.dispatch();
+
+        assertThat(mail.getStatus()).isEqualTo(EmailOutbox.FAILED);
+        assertThat(mail.getBody()).isNull();
+    }
+
+    private static EmailOutbox mail(String to, int attempts) {
+        EmailOutbox mail = new EmailOutbox();
+        mail.setId(1L);
+        mail.setToEmail(to);
+        mail.setSubject("Your account");
+        mail.setBody("Temporary password: hunter2");
+        mail.setAttempts(attempts);
+        return mail;
+    }
+}
@@ -0,0 +1,63 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cafe.dto.MenuChangeEvent;
+import com.cafe.service.CatalogCacheService;
+import com.cafe.service.CatalogSearchService;
+import com.cafe.service.MenuDocumentService;
+import com.cafe.service.OrderEventService;
+
+class MenuChangeServiceImplTest {
+
+    private CatalogCacheService catalogCacheService;
+    private CatalogSearchService catalogSearchService;
+    private MenuDocumentService menuDocumentService;
+    private OrderEventService orderEventService;
+    private MenuChangeServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        catalogCacheService = mock(CatalogCacheService.class);
+        catalogSearchService = mock(CatalogSearchService.class);
+        menuDocumentService = mock(MenuDocumentService.class);
+        orderEventService = mock(OrderEventService.class);
+
+        service = new MenuChangeServiceImpl();
+        ReflectionTestUtils.setField(service, "catalogCacheService", catalogCacheService);
+        ReflectionTestUtils.setField(service, "catalogSearchService", catalogSearchService);
+        ReflectionTestUtils.setField(service, "menuDocumentService", menuDocumentService);
+        ReflectionTestUtils.setField(service, "orderEventService", orderEventService);
+    }
+
+    @Test
+    void refreshesEveryCopyBeforeTellingDashboards() {
+        service.menuChanged(7L);
+
+        InOrder order = inOrder(catalogCacheService, catalogSearchService, menuDocumentService, orderEventService);
+        order.verify(catalogCacheService).invalidateCafe(7L);
+        order.verify(catalogSearchService).reindexCafe(7L);
+        order.verify(menuDocumentService).evictCafe(7L);
+        ArgumentCaptor<MenuChangeEvent> event = ArgumentCaptor.forClass(MenuChangeEvent.class);
+        order.verify(orderEventService).menuChanged(event.capture());
+        assertThat(event.getValue().getCafeId()).isEqualTo(7L);
+        assertThat(event.getValue().getItemIds()).isNull();
+    }
+
+    @Test
+    void ignoresChangesWithoutACafe() {
+        service.menuChanged((Long) null);
+        service.menuChanged(new MenuChangeEvent());
+
+        verifyNoInteractions(catalogCacheService, catalogSearchService, menuDocumentService, orderEventService);
+    }
+}
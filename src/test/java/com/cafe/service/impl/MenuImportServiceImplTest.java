@@ -0,0 +1,161 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.cafe.dto.MenuImportErrorRow;
+import com.cafe.dto.MenuImportResponse;
+import com.cafe.repository.MenuItemRepository;
+
+class MenuImportServiceImplTest {
+
+    private MenuItemRepository menuItemRepository;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleTransactionStatus status;
+    private final List<Object[]> inserted = new ArrayList<>();
+    private final List<Object[]> updated = new ArrayList<>();
+    private MenuImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        menuItemRepository = mock(MenuItemRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(menuItemRepository.findImportRows(1L)).thenReturn(List.<Object[]>of(new Object[] { 5L, "Filter Coffee" }));
+        // The importer reuses its batch lists, so keep copies of what each batch wrote.
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> {
+            String sql = inv.getArgument(0);
+            List<Object[]> rows = inv.getArgument(1);
+            (sql.startsWith("insert") ? inserted : updated).addAll(rows);
+            return new int[rows.size()];
+        });
+
+        service = new MenuImportServiceImpl();
+        ReflectionTestUtils.setField(service, "menuItemRepository", menuItemRepository);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+    }
+
+    @Test
+    void csvQuotingKeepsCommasQuotesAndNewlinesInsideCells() {
+        MenuImportResponse res = importCsv("\uFEFFName,Category,Price,Description\r\n"
+                + "\"Masala, Chai\",Drinks,\"1,250.50\",\"Served \"\"hot\"\"\nwith ginger\"\r\n");
+
+        assertThat(res.getApplied()).isTrue();
+        assertThat(res.getCreated()).isEqualTo(1);
+        Object[] row = single(inserts());
+        assertThat(row[1]).isEqualTo("Masala, Chai");
+        assertThat(row[2]).isEqualTo("Served \"hot\"\nwith ginger");
+        assertThat(row[3]).isEqualTo(125050L);
+        assertThat(row[4]).isEqualTo(Boolean.TRUE);
+        assertThat(row[5]).isEqualTo("Drinks");
+    }
+
+    @Test
+    void headerAliasesMapToTheSameColumns() {
+        MenuImportResponse res = importCsv("Item Name,Price (Rs),Availability,Item ID\n"
+                + "Filter Coffee Large,45,no,5\n");
+
+        assertThat(res.getApplied()).isTrue();
+        assertThat(res.getUpdated()).isEqualTo(1);
+        Object[] row = single(updates());
+        assertThat(row[0]).isEqualTo("Filter Coffee Large");
+        assertThat(row[2]).isEqualTo(4500L);
+        assertThat(row[3]).isEqualTo(Boolean.FALSE);
+        assertThat(row[5]).isEqualTo(5L);
+    }
+
+    @Test
+    void rowsWithoutAnIdMatchExistingItemsByName() {
+        importCsv("name,price\n filter coffee ,30\n");
+
+        assertThat(single(updates())[5]).isEqualTo(5L);
+        assertThat(inserted).isEmpty();
+    }
+
+    @Test
+    void anyInvalidRowRollsTheWholeImportBack() {
+        MenuImportResponse res = importCsv("Name,Category,Price\n"
+                + "Tea,Drinks,20\n"
+                + "Samosa,,15\n"
+                + "Tea,Drinks,abc\n");
+
+        assertThat(res.getApplied()).isFalse();
+        assertThat(status.isRollbackOnly()).isTrue();
+        assertThat(res.getTotalRows()).isEqualTo(3);
+        assertThat(res.getCreated()).isZero();
+        assertThat(res.getFailed()).isEqualTo(2);
+        assertThat(res.getErrors()).extracting(MenuImportErrorRow::getRow).containsExactly(3, 4, 4);
+        assertThat(res.getErrors()).extracting(MenuImportErrorRow::getMessage)
+                .containsExactly("Category is required", "Not a valid price", "\"Tea\" appears more than once");
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void pricesOutsideThePaiseRangeAreRowErrors() {
+        MenuImportResponse res = importCsv("Name,Category,Price\n"
+                + "Gold Leaf Cake,Desserts,1e20\n"
+                + "Mint,Extras,0.004\n"
+                + "Water,Drinks,0\n");
+
+        assertThat(res.getApplied()).isFalse();
+        assertThat(res.getErrors()).extracting(MenuImportErrorRow::getMessage)
+                .containsExactly("Price is too large", "Price must be at least 0.01", "Price must be positive");
+    }
+
+    @Test
+    void missingRequiredHeaderIsReported() {
+        MenuImportResponse res = importCsv("Item,Cost\nTea,20\n");
+
+        assertThat(res.getApplied()).isFalse();
+        assertThat(res.getErrors()).extracting(MenuImportErrorRow::getMessage)
+                .containsExactly("Header row must include Name and Price columns");
+    }
+
+    @Test
+    void otherFileTypesAreRejected() {
+        MenuImportResponse res = service.importMenu(1L,
+                new MockMultipartFile("file", "menu.txt", "text/plain", "Name,Price".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(res.getApplied()).isFalse();
+        assertThat(res.getErrors()).extracting(MenuImportErrorRow::getMessage).containsExactly("Upload an .xlsx or .csv file");
+    }
+
+    private MenuImportResponse importCsv(String content) {
+        return service.importMenu(1L,
+                new MockMultipartFile("file", "menu.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<Object[]> inserts() {
+        return inserted;
+    }
+
+    private List<Object[]> updates() {
+        return updated;
+    }
+
+    private static Object[] single(List<Object[]> rows) {
+        assertThat(rows).hasSize(1);
+        return rows.get(0);
+    }
+}
@@ -0,0 +1,120 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cafe.entity.Cafe;
+import com.cafe.entity.CafeOrder;
+import com.cafe.repository.CafeOrderCounterRepository;
+import com.cafe.repository.CafeOrderRepository;
+
+class OrderNumberServiceImplTest {
+
+    private CafeOrderCounterRepository counters;
+    private CafeOrderRepository orders;
+    private OrderNumberServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        counters = mock(CafeOrderCounterRepository.class);
+        orders = mock(CafeOrderRepository.class);
+        service = new OrderNumberServiceImpl();
+        ReflectionTestUtils.setField(service, "cafeOrderCounterRepository", counters);
+        ReflectionTestUtils.setField(service, "cafeOrderRepository", orders);
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "blockSize", 1);
+        ReflectionTestUtils.setField(service, "backfillOnStartup", true);
+    }
+
+    @Test
+    void seedsOnceThenAllocatesOneNumberPerCall() {
+        when(counters.allocate(7L, 1L)).thenReturn(5L, 6L);
+
+        assertThat(service.next(7L)).isEqualTo(5);
+        assertThat(service.next(7L)).isEqualTo(6);
+
+        verify(counters, times(1)).seed(7L);
+        verify(counters, times(2)).allocate(7L, 1L);
+    }
+
+    @Test
+    void servesAReservedBlockFromMemory() {
+        ReflectionTestUtils.setField(service, "blockSize", 10);
+        when(counters.allocate(3L, 10L)).thenReturn(10L, 20L);
+
+        for (int expected = 1; expected <= 10; expected++) {
+            assertThat(service.next(3L)).isEqualTo(expected);
+        }
+        assertThat(service.next(3L)).isEqualTo(11);
+
+        verify(counters, times(2)).allocate(3L, 10L);
+    }
+
+    @Test
+    void keepsSeparateCountersPerCafe() {
+        when(counters.allocate(1L, 1L)).thenReturn(1L);
+        when(counters.allocate(2L, 1L)).thenReturn(40L);
+
+        assertThat(service.next(1L)).isEqualTo(1);
+        assertThat(service.next(2L)).isEqualTo(40);
+    }
+
+    @Test
+    void rejectsMissingCafe() {
+        assertThatThrownBy(() -> service.next(null)).isInstanceOf(IllegalArgumentException.class);
+        verify(counters, never()).allocate(any(), anyLong());
+    }
+
+    @Test
+    void failedAllocationIsAnError() {
+        when(counters.allocate(eq(9L), anyLong())).thenReturn(null);
+        assertThatThrownBy(() -> service.next(9L)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void backfillSkipsOrdersWithoutACafe() {
+        CafeOrder orphan = new CafeOrder();
+        CafeOrder legacy = order(4L);
+        when(orders.findTop100ByOrderNumberIsNullAndCafeIsNotNullOrderByCreatedAtAscIdAsc())
+                .thenReturn(List.of(orphan, legacy), List.of());
+        when(orders.countByOrderNumberIsNullAndCafeIsNull()).thenReturn(1L);
+        when(counters.allocate(4L, 1L)).thenReturn(12L);
+
+        service.numberLegacyOrders();
+
+        assertThat(orphan.getOrderNumber()).isNull();
+        assertThat(legacy.getOrderNumber()).isEqualTo(12);
+    }
+
+    @Test
+    void backfillCanBeDisabled() {
+        ReflectionTestUtils.setField(service, "backfillOnStartup", false);
+
+        service.numberLegacyOrders();
+
+        verify(orders, never()).findTop100ByOrderNumberIsNullAndCafeIsNotNullOrderByCreatedAtAscIdAsc();
+    }
+
+    private static CafeOrder order(Long cafeId) {
+        Cafe cafe = new Cafe();
+        cafe.setId(cafeId);
+        CafeOrder o = new CafeOrder();
+        o.setCafe(cafe);
+        return o;
+    }
+}
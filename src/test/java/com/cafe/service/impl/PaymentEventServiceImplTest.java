@@ -0,0 +1,149 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cafe.dto.GatewayOrder;
+import com.cafe.entity.Payment;
+import com.cafe.repository.CafeOrderRepository;
+import com.cafe.repository.PaymentEventRepository;
+import com.cafe.repository.PaymentRepository;
+import com.cafe.service.OrderEventService;
+import com.cafe.service.PaymentGateway;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class PaymentEventServiceImplTest {
+
+    private static final String CAPTURED = "{\"event\":\"payment.captured\",\"payload\":{\"payment\":{\"entity\":"
+            + "{\"id\":\"pay_1\",\"order_id\":\"order_1\",\"amount\":25000,\"status\":\"captured\"}}}}";
+
+    private PaymentEventRepository eventRepository;
+    private PaymentRepository paymentRepository;
+    private PaymentGateway gateway;
+    private PaymentEventServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(PaymentEventRepository.class);
+        paymentRepository = mock(PaymentRepository.class);
+        gateway = mock(PaymentGateway.class);
+
+        service = new PaymentEventServiceImpl();
+        ReflectionTestUtils.setField(service, "paymentEventRepository", eventRepository);
+        ReflectionTestUtils.setField(service, "paymentRepository", paymentRepository);
+        ReflectionTestUtils.setField(service, "cafeOrderRepository", mock(CafeOrderRepository.class));
+        ReflectionTestUtils.setField(service, "paymentGateway", gateway);
+        ReflectionTestUtils.setField(service, "orderEventService", mock(OrderEventService.class));
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "objectMapper", JsonMapper.builder().build());
+        ReflectionTestUtils.setField(service, "reconcileGraceMs", 120000L);
+        ReflectionTestUtils.setField(service, "reconcileMaxAgeMs", 86400000L);
+
+        when(gateway.verifyWebhookSignature(anyString(), eq("good"))).thenReturn(true);
+    }
+
+    @Test
+    void firstDeliveryIsRecordedAndSettlesThePayment() {
+        Payment payment = payment(1L, 25000L, "VERIFIED");
+        when(eventRepository.insertIfAbsent(eq("evt_1"), any(), any(), any(), any(), any(), anyLong())).thenReturn(1);
+        when(paymentRepository.findByRazorpayOrderId("order_1")).thenReturn(List.of(payment));
+
+        ResponseEntity<String> res = service.handleWebhook(CAPTURED, "good", "evt_1");
+
+        assertThat(res.getBody()).isEqualTo("Recorded");
+        assertThat(payment.getStatus()).isEqualTo("PAID");
+        assertThat(payment.getRazorpayPaymentId()).isEqualTo("pay_1");
+    }
+
+    @Test
+    void redeliveryIsADuplicateAndAppliesNothing() {
+        when(eventRepository.insertIfAbsent(eq("evt_1"), any(), any(), any(), any(), any(), anyLong())).thenReturn(0);
+
+        ResponseEntity<String> res = service.handleWebhook(CAPTURED, "good", "evt_1");
+
+        assertThat(res.getBody()).isEqualTo("Duplicate");
+        verify(paymentRepository, never()).findByRazorpayOrderId(anyString());
+    }
+
+    @Test
+    void deliveriesWithoutAnEventIdDedupeOnTheBodyHash() {
+        when(eventRepository.insertIfAbsent(anyString(), any(), any(), any(), any(), any(), anyLong())).thenReturn(0);
+
+        service.handleWebhook(CAPTURED, "good", null);
+
+        String expectedId = "sha256:" + HexFormat.of().formatHex(
+                BlobSpool.sha256().digest(CAPTURED.getBytes(StandardCharsets.UTF_8)));
+        verify(eventRepository).insertIfAbsent(eq(expectedId), any(), any(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void badSignatureAndMalformedBodiesAreRejected() {
+        assertThat(service.handleWebhook(CAPTURED, "bad", "evt_1").getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(service.handleWebhook("{not json", "good", "evt_1").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(service.handleWebhook("[1,2]", "good", "evt_1").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(eventRepository, never()).insertIfAbsent(any(), any(), any(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void reconcileGivesUpOnOldPaymentsAndOnlyPollsTheWindow() throws Exception {
+        Payment recent = payment(7L, 5000L, "VERIFIED");
+        recent.setRazorpayOrderId("order_7");
+        when(paymentRepository.markStale(anyLong())).thenReturn(3);
+        when(paymentRepository.findTop50ByStatusAndCreatedAtBetweenAndIdGreaterThanOrderByIdAsc(eq("VERIFIED"), anyLong(), anyLong(), eq(0L)))
+                .thenReturn(List.of(recent));
+        when(paymentRepository.findByRazorpayOrderId("order_7")).thenReturn(List.of(recent));
+        GatewayOrder remote = new GatewayOrder();
+        remote.setId("order_7");
+        remote.setAmountPaise(5000L);
+        remote.setStatus("paid");
+        when(gateway.fetchOrder("order_7")).thenReturn(remote);
+
+        long before = System.currentTimeMillis();
+        int settled = service.reconcilePending();
+
+        assertThat(settled).isEqualTo(1);
+        assertThat(recent.getStatus()).isEqualTo("PAID");
+        verify(paymentRepository).markStale(longThat(t -> t <= before - 86400000L + 1000L && t >= before - 86400000L));
+        verify(paymentRepository).findTop50ByStatusAndCreatedAtBetweenAndIdGreaterThanOrderByIdAsc(eq("VERIFIED"), anyLong(), anyLong(), eq(7L));
+    }
+
+    @Test
+    void lateCaptureStillSettlesAStalePayment() {
+        Payment stale = payment(1L, 25000L, "STALE");
+        when(eventRepository.insertIfAbsent(eq("evt_2"), any(), any(), any(), any(), any(), anyLong())).thenReturn(1);
+        when(paymentRepository.findByRazorpayOrderId("order_1")).thenReturn(List.of(stale));
+
+        service.handleWebhook(CAPTURED, "good", "evt_2");
+
+        assertThat(stale.getStatus()).isEqualTo("PAID");
+    }
+
+    private static Payment payment(Long id, Long amountPaise, String status) {
+        Payment p = new Payment();
+        p.setId(id);
+        p.setAmountPaise(amountPaise);
+        p.setRazorpayOrderId("order_1");
+        p.setStatus(status);
+        return p;
+    }
+}
@@ -0,0 +1,53 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PaymentSignaturesTest {
+
+    @Test
+    void hmacMatchesRfc4231TestCase2() {
+        assertThat(PaymentSignatures.hmacSha256Hex("what do ya want for nothing?", "Jefe"))
+                .isEqualTo("5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843");
+    }
+
+    @Test
+    void checkoutSignatureCoversOrderAndPaymentId() {
+        String signature = PaymentSignatures.sign("order_1", "pay_1", "secret");
+
+        assertThat(signature).isEqualTo("52115a0d3400de9e86aade1f1b6eba9e8974604f4e267a9e9a16633a4c8dd2cb");
+        assertThat(PaymentSignatures.verify("order_1", "pay_1", signature, "secret")).isTrue();
+    }
+
+    @Test
+    void checkoutSignatureRejectsTamperingAndMissingInput() {
+        String signature = PaymentSignatures.sign("order_1", "pay_1", "secret");
+
+        assertThat(PaymentSignatures.verify("order_1", "pay_2", signature, "secret")).isFalse();
+        assertThat(PaymentSignatures.verify("order_1", "pay_1", signature, "other")).isFalse();
+        assertThat(PaymentSignatures.verify("order_1", "pay_1", signature.toUpperCase(), "secret")).isFalse();
+        assertThat(PaymentSignatures.verify(null, "pay_1", signature, "secret")).isFalse();
+        assertThat(PaymentSignatures.verify("order_1", "pay_1", null, "secret")).isFalse();
+    }
+
+    @Test
+    void unconfiguredSecretNeverVerifies() {
+        String signature = PaymentSignatures.hmacSha256Hex("order_1|pay_1", " ");
+
+        assertThat(PaymentSignatures.verify("order_1", "pay_1", signature, " ")).isFalse();
+        assertThat(PaymentSignatures.verify("order_1", "pay_1", signature, null)).isFalse();
+        assertThat(PaymentSignatures.verifyPayload("{}", signature, "")).isFalse();
+    }
+
+    @Test
+    void webhookSignatureCoversTheRawBody() {
+        String payload = "{\"event\":\"payment.captured\"}";
+        String signature = PaymentSignatures.hmacSha256Hex(payload, "whsec");
+
+        assertThat(PaymentSignatures.verifyPayload(payload, signature, "whsec")).isTrue();
+        assertThat(PaymentSignatures.verifyPayload(payload, " " + signature + "\n", "whsec")).isTrue();
+        assertThat(PaymentSignatures.verifyPayload(payload + " ", signature, "whsec")).isFalse();
+        assertThat(PaymentSignatures.verifyPayload(null, signature, "whsec")).isFalse();
+    }
+}
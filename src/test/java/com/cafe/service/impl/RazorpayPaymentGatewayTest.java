@@ -0,0 +1,155 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cafe.dto.GatewayOrder;
+import com.cafe.exception.PaymentGatewayException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+class RazorpayPaymentGatewayTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private HttpServer server;
+    private RazorpayPaymentGateway gateway;
+
+    private volatile String lastMethod;
+    private volatile String lastAuthorization;
+    private volatile String lastBody;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+
+        gateway = new RazorpayPaymentGateway(2000);
+        ReflectionTestUtils.setField(gateway, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(gateway, "razorpayKeyId", "rzp_test_key");
+        ReflectionTestUtils.setField(gateway, "razorpayKeySecret", "key_secret");
+        ReflectionTestUtils.setField(gateway, "webhookSecret", "whsec");
+        ReflectionTestUtils.setField(gateway, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ReflectionTestUtils.setField(gateway, "requestTimeoutMs", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void createOrderPostsJsonWithBasicAuthAndReadsTheOrder() throws Exception {
+        respond("/v1/orders", 200, "{\"id\":\"order_1\",\"amount\":12345,\"currency\":\"INR\",\"receipt\":\"r-1\",\"status\":\"created\"}");
+
+        GatewayOrder order = gateway.createOrder(12345L, "INR", "r-1");
+
+        assertThat(order.getId()).isEqualTo("order_1");
+        assertThat(order.getAmountPaise()).isEqualTo(12345L);
+        assertThat(order.getCurrency()).isEqualTo("INR");
+        assertThat(order.getReceipt()).isEqualTo("r-1");
+        assertThat(order.getStatus()).isEqualTo("created");
+
+        assertThat(lastMethod).isEqualTo("POST");
+        String credentials = Base64.getEncoder().encodeToString("rzp_test_key:key_secret".getBytes(StandardCharsets.UTF_8));
+        assertThat(lastAuthorization).isEqualTo("Basic " + credentials);
+        Map<?, ?> sent = objectMapper.readValue(lastBody, Map.class);
+        assertThat(((Number) sent.get("amount")).longValue()).isEqualTo(12345L);
+        assertThat(sent.get("currency")).isEqualTo("INR");
+        assertThat(sent.get("receipt")).isEqualTo("r-1");
+        assertThat(((Number) sent.get("payment_capture")).intValue()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchOrderReadsStatus() throws Exception {
+        respond("/v1/orders/order_9", 200, "{\"id\":\"order_9\",\"amount\":500,\"status\":\"paid\"}");
+
+        GatewayOrder order = gateway.fetchOrder("order_9");
+
+        assertThat(lastMethod).isEqualTo("GET");
+        assertThat(order.getStatus()).isEqualTo("paid");
+        assertThat(order.getAmountPaise()).isEqualTo(500L);
+    }
+
+    @Test
+    void errorResponseCarriesTheGatewayDescription() {
+        respond("/v1/orders/order_missing", 400, "{\"error\":{\"code\":\"BAD_REQUEST_ERROR\",\"description\":\"The id provided does not exist\"}}");
+
+        assertThatThrownBy(() -> gateway.fetchOrder("order_missing"))
+                .isInstanceOf(PaymentGatewayException.class)
+                .hasMessage("The id provided does not exist");
+    }
+
+    @Test
+    void unreadableErrorFallsBackToTheStatusCode() {
+        respond("/v1/orders", 502, "<html>Bad gateway</html>");
+
+        assertThatThrownBy(() -> gateway.createOrder(100L, "INR", "r-2"))
+                .isInstanceOf(PaymentGatewayException.class)
+                .hasMessage("HTTP 502");
+    }
+
+    @Test
+    void successWithoutAnOrderIdIsAnError() {
+        respond("/v1/orders", 200, "{}");
+
+        assertThatThrownBy(() -> gateway.createOrder(100L, "INR", "r-3"))
+                .isInstanceOf(PaymentGatewayException.class)
+                .hasMessageContaining("order id");
+    }
+
+    @Test
+    void fetchOrderNeedsAnId() {
+        assertThatThrownBy(() -> gateway.fetchOrder(" ")).isInstanceOf(PaymentGatewayException.class);
+    }
+
+    @Test
+    void signaturesUseTheConfiguredSecrets() {
+        String payload = "{\"event\":\"payment.captured\"}";
+
+        assertThat(gateway.verifyWebhookSignature(payload, PaymentSignatures.hmacSha256Hex(payload, "whsec"))).isTrue();
+        assertThat(gateway.verifyWebhookSignature(payload, PaymentSignatures.hmacSha256Hex(payload, "key_secret"))).isFalse();
+        assertThat(gateway.verifyPaymentSignature("order_1", "pay_1", PaymentSignatures.sign("order_1", "pay_1", "key_secret"))).isTrue();
+    }
+
+    @Test
+    void reportsMissingCredentials() {
+        assertThat(gateway.configurationProblem()).isNull();
+
+        ReflectionTestUtils.setField(gateway, "razorpayKeySecret", "");
+        assertThat(gateway.configurationProblem()).contains("key secret");
+    }
+
+    private void respond(String path, int status, String body) {
+        server.createContext(path, exchange -> {
+            lastMethod = exchange.getRequestMethod();
+            lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+            lastBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            write(exchange, status, body);
+        });
+    }
+
+    private static void write(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.cafe.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Vectors from the AWS Signature Version 4 documentation: the signing key derivation example and
+ * the S3 header-authentication examples for bucket examplebucket on 2013-05-24.
+ */
+class S3BlobStoreTest {
+
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final String S3_SECRET = "wJalrXUtnFEMI/K7MDENG/bPxRfiCYEXAMPLEKEY";
+    private static final String AMZ_DATE = "20130524T000000Z";
+    private static final String SCOPE = "20130524/us-east-1/s3/aws4_request";
+    private static final String HOST = "examplebucket.s3.amazonaws.com";
+
+    @Test
+    void derivesTheDocumentedSigningKey() {
+        byte[] key = S3BlobStore.signingKey("wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY", "20120215", "us-east-1", "iam");
+
+        assertThat(S3BlobStore.hex(key)).isEqualTo("f4780e2d9f65fa895f9c67b32ce1baf0b0d8a43505a000a1a9e090d414db404d");
+    }
+
+    @Test
+    void signsTheGetObjectExample() {
+        String canonicalRequest = "GET\n"
+                + "/test.txt\n"
+                + "\n"
+                + "host:" + HOST + "\n"
+                + "range:bytes=0-9\n"
+                + "x-amz-content-sha256:" + EMPTY_SHA256 + "\n"
+                + "x-amz-date:" + AMZ_DATE + "\n"
+                + "\n"
+                + "host;range;x-amz-content-sha256;x-amz-date\n"
+                + EMPTY_SHA256;
+
+        String stringToSign = S3BlobStore.stringToSign(AMZ_DATE, SCOPE, canonicalRequest);
+
+        assertThat(stringToSign).isEqualTo("AWS4-HMAC-SHA256\n" + AMZ_DATE + "\n" + SCOPE + "\n"
+                + "7344ae5b7ee6c3e7e6b0fe0640412a37625d1fbfff95c48bbb2dc43964946972");
+        assertThat(sign(stringToSign)).isEqualTo("f0e8bdb87c964420e857bd35b5d6ed310bd44f0170aba48dd91039c6036bdb41");
+    }
+
+    @Test
+    void signsTheGetBucketLifecycleExample() {
+        String canonicalRequest = S3BlobStore.canonicalRequest("GET", "/", "lifecycle=", HOST, EMPTY_SHA256, AMZ_DATE);
+
+        assertThat(canonicalRequest).isEqualTo("GET\n/\nlifecycle=\n"
+                + "host:" + HOST + "\n"
+                + "x-amz-content-sha256:" + EMPTY_SHA256 + "\n"
+                + "x-amz-date:" + AMZ_DATE + "\n"
+                + "\n"
+                + "host;x-amz-content-sha256;x-amz-date\n"
+                + EMPTY_SHA256);
+        assertThat(sign(S3BlobStore.stringToSign(AMZ_DATE, SCOPE, canonicalRequest)))
+                .isEqualTo("fea454ca298b7da1c68078a5d1bdbfbbe0d65c699e0f91ac7a200a0136783543");
+    }
+
+    @Test
+    void signsTheListObjectsExample() {
+        String canonicalRequest = S3BlobStore.canonicalRequest("GET", "/", "max-keys=2&prefix=J", HOST, EMPTY_SHA256, AMZ_DATE);
+
+        assertThat(sign(S3BlobStore.stringToSign(AMZ_DATE, SCOPE, canonicalRequest)))
+                .isEqualTo("34b48302e7b5fa45bde8084f4b7868a86f0a534bc59db6670ed5711ef69dc6f7");
+    }
+
+    private static String sign(String stringToSign) {
+        return S3BlobStore.hex(S3BlobStore.hmac(S3BlobStore.signingKey(S3_SECRET, "20130524", "us-east-1", "s3"), stringToSign));
+    }
+}
@@ -0,0 +1,36 @@
+package com.cafe.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ETagsTest {
+
+    @Test
+    void tagsAreQuotedAndShareTheBootPrefix() {
+        String a = ETags.of("1");
+        String b = ETags.of("7-3-g");
+
+        assertThat(a).startsWith("\"").endsWith("-1\"");
+        assertThat(b).endsWith("-7-3-g\"");
+        assertThat(a.substring(0, a.indexOf('-'))).isEqualTo(b.substring(0, b.indexOf('-')));
+    }
+
+    @Test
+    void matchesAnyTagInTheListIncludingWeakAndWildcard() {
+        String etag = ETags.of("5");
+
+        assertThat(ETags.matches(etag, etag)).isTrue();
+        assertThat(ETags.matches("\"other\", W/" + etag, etag)).isTrue();
+        assertThat(ETags.matches(" * ", etag)).isTrue();
+    }
+
+    @Test
+    void missingOrDifferentTagsDoNotMatch() {
+        String etag = ETags.of("5");
+
+        assertThat(ETags.matches(null, etag)).isFalse();
+        assertThat(ETags.matches("  ", etag)).isFalse();
+        assertThat(ETags.matches(ETags.of("6"), etag)).isFalse();
+    }
+}